@@ -0,0 +1,25 @@
+/*
+ Measures the cost of arithmetic, comparisons and boolean logic
+ on numbers, with no function calls in the loop.
+*/
+
+function main(args){
+  let start = System.currentTimeMillis();
+  let total = 0;
+  let ratio = 0.5;
+  let odd = 0;
+  for(let i = 0; i < 200000; i = i + 1){
+    total = total + i * 3 - i / 2;
+    ratio = ratio * 1.0001 + 0.25;
+    if(i % 2 == 1 && total > 0){
+      odd = odd + 1;
+    }
+  }
+  let end = System.currentTimeMillis();
+  let elapsed = end - start;
+  println(total);
+  println(ratio);
+  println(odd);
+  print("elapsed ms: ");
+  println(elapsed);
+}
@@ -0,0 +1,74 @@
+import wordy.standard.Exception;
+import wordy.standard.Array;
+import java.lang.StringBuilder;
+
+/*
+ Exercises the per-invocation state of functions - recursion through if/else
+ chains and try/catch, Java method calls and Java field accesses.
+
+ Meant to be executed on multiple threads at once (Like: wordy --threads 4 Concurrent.w),
+ where every thread must print the same checksum.
+*/
+
+class Odd : Exception{
+
+  Odd(n){
+    super("odd "+n);
+  }
+
+}
+
+function collatz(n, steps){
+  if(n == 1){
+    return steps;
+  }
+  else if(n % 2 == 0){
+    return collatz(n / 2, steps + 1);
+  }
+  else{
+    return collatz(3 * n + 1, steps + 1);
+  }
+}
+
+function check(n){
+  if(n % 2 == 1){
+    throw Odd(n);
+  }
+  return n;
+}
+
+function countEvens(n){
+  if(n == 0){
+    return 0;
+  }
+  let rest = countEvens(n - 1);
+  try{
+    check(n);
+    rest = rest + 1;
+  }
+  catch(Odd e){
+    rest = rest + 0;
+  }
+  return rest;
+}
+
+function main(args){
+  let start = System.currentTimeMillis();
+  let arr = Array(8);
+  let builder = StringBuilder();
+  let checksum = 0;
+  for(let i = 1; i < 3000; i = i + 1){
+    checksum = checksum + collatz(i, 0);
+    arr.set(i % arr.length, checksum);
+    if(i % 100 == 0){
+      checksum = checksum + countEvens(40);
+      builder.append("x");
+    }
+  }
+  checksum = checksum + builder.length();
+  let end = System.currentTimeMillis();
+  let elapsed = end - start;
+  println(checksum);
+  print("elapsed ms: ");
+  println(elapsed);
+}
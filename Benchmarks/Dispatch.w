@@ -0,0 +1,72 @@
+/*
+ Measures the cost of method dispatch - on Wordy classes (monomorphic and 
+ polymorphic call sites) and on Java objects.
+*/
+
+class Counter{
+  let count;
+  
+  Counter(){
+    count = 0;
+  }
+  
+  function increment(){
+    count = count + 1;
+  }
+  
+  function get(){
+    return count;
+  }
+}
+
+class Square{
+  let side;
+  
+  Square(s){
+    side = s;
+  }
+  
+  function area(){
+    return side * side;
+  }
+}
+
+class Rectangle{
+  let width;
+  let height;
+  
+  Rectangle(w, h){
+    width = w;
+    height = h;
+  }
+  
+  function area(){
+    return width * height;
+  }
+}
+
+function main(args){
+  let counter = Counter();
+  let square = Square(3);
+  let rectangle = Rectangle(2, 5);
+  let text = "dispatch";
+  
+  let start = System.currentTimeMillis();
+  let total = 0;
+  for(let i = 0; i < 20000; i = i + 1){
+    counter.increment();
+    
+    let shape = square;
+    if(i % 2 == 0){
+      shape = rectangle;
+    }
+    total = total + shape.area();
+    total = total + text.length();
+  }
+  let end = System.currentTimeMillis();
+  let elapsed = end - start;
+  println(counter.get());
+  println(total);
+  print("elapsed ms: ");
+  println(elapsed);
+}
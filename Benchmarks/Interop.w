@@ -0,0 +1,34 @@
+import java.util.HashMap;
+import java.lang.StringBuilder;
+import wordy.standard.Array;
+
+/*
+ Measures the cost of calling Java methods and constructors
+ from java.lang, java.util and wordy.standard in a tight loop.
+*/
+
+function main(args){
+  let map = HashMap();
+  let builder = StringBuilder();
+  let arr = Array(16);
+  
+  let start = System.currentTimeMillis();
+  let total = 0;
+  for(let i = 0; i < 20000; i = i + 1){
+    map.put(i % 32, i);
+    arr.set(i % 16, i);
+    total = total + Math.max(i % 7, 3);
+    total = total + map.size();
+    builder.append("x");
+    if(builder.length() > 64){
+      builder.setLength(0);
+    }
+  }
+  let end = System.currentTimeMillis();
+  let elapsed = end - start;
+  println(total);
+  println(map.get(31));
+  println(arr.get(15));
+  print("elapsed ms: ");
+  println(elapsed);
+}
@@ -0,0 +1,1029 @@
+/*
+ Same as ScopeSmall.w, but with 200 extra file variables and functions in scope.
+*/
+let varaa = 0;
+let varab = 1;
+let varac = 2;
+let varad = 3;
+let varae = 4;
+let varaf = 5;
+let varag = 6;
+let varah = 7;
+let varai = 8;
+let varaj = 9;
+let varak = 10;
+let varal = 11;
+let varam = 12;
+let varan = 13;
+let varao = 14;
+let varap = 15;
+let varaq = 16;
+let varar = 17;
+let varas = 18;
+let varat = 19;
+let varau = 20;
+let varav = 21;
+let varaw = 22;
+let varax = 23;
+let varay = 24;
+let varaz = 25;
+let varba = 26;
+let varbb = 27;
+let varbc = 28;
+let varbd = 29;
+let varbe = 30;
+let varbf = 31;
+let varbg = 32;
+let varbh = 33;
+let varbi = 34;
+let varbj = 35;
+let varbk = 36;
+let varbl = 37;
+let varbm = 38;
+let varbn = 39;
+let varbo = 40;
+let varbp = 41;
+let varbq = 42;
+let varbr = 43;
+let varbs = 44;
+let varbt = 45;
+let varbu = 46;
+let varbv = 47;
+let varbw = 48;
+let varbx = 49;
+let varby = 50;
+let varbz = 51;
+let varca = 52;
+let varcb = 53;
+let varcc = 54;
+let varcd = 55;
+let varce = 56;
+let varcf = 57;
+let varcg = 58;
+let varch = 59;
+let varci = 60;
+let varcj = 61;
+let varck = 62;
+let varcl = 63;
+let varcm = 64;
+let varcn = 65;
+let varco = 66;
+let varcp = 67;
+let varcq = 68;
+let varcr = 69;
+let varcs = 70;
+let varct = 71;
+let varcu = 72;
+let varcv = 73;
+let varcw = 74;
+let varcx = 75;
+let varcy = 76;
+let varcz = 77;
+let varda = 78;
+let vardb = 79;
+let vardc = 80;
+let vardd = 81;
+let varde = 82;
+let vardf = 83;
+let vardg = 84;
+let vardh = 85;
+let vardi = 86;
+let vardj = 87;
+let vardk = 88;
+let vardl = 89;
+let vardm = 90;
+let vardn = 91;
+let vardo = 92;
+let vardp = 93;
+let vardq = 94;
+let vardr = 95;
+let vards = 96;
+let vardt = 97;
+let vardu = 98;
+let vardv = 99;
+let vardw = 100;
+let vardx = 101;
+let vardy = 102;
+let vardz = 103;
+let varea = 104;
+let vareb = 105;
+let varec = 106;
+let vared = 107;
+let varee = 108;
+let varef = 109;
+let vareg = 110;
+let vareh = 111;
+let varei = 112;
+let varej = 113;
+let varek = 114;
+let varel = 115;
+let varem = 116;
+let varen = 117;
+let vareo = 118;
+let varep = 119;
+let vareq = 120;
+let varer = 121;
+let vares = 122;
+let varet = 123;
+let vareu = 124;
+let varev = 125;
+let varew = 126;
+let varex = 127;
+let varey = 128;
+let varez = 129;
+let varfa = 130;
+let varfb = 131;
+let varfc = 132;
+let varfd = 133;
+let varfe = 134;
+let varff = 135;
+let varfg = 136;
+let varfh = 137;
+let varfi = 138;
+let varfj = 139;
+let varfk = 140;
+let varfl = 141;
+let varfm = 142;
+let varfn = 143;
+let varfo = 144;
+let varfp = 145;
+let varfq = 146;
+let varfr = 147;
+let varfs = 148;
+let varft = 149;
+let varfu = 150;
+let varfv = 151;
+let varfw = 152;
+let varfx = 153;
+let varfy = 154;
+let varfz = 155;
+let varga = 156;
+let vargb = 157;
+let vargc = 158;
+let vargd = 159;
+let varge = 160;
+let vargf = 161;
+let vargg = 162;
+let vargh = 163;
+let vargi = 164;
+let vargj = 165;
+let vargk = 166;
+let vargl = 167;
+let vargm = 168;
+let vargn = 169;
+let vargo = 170;
+let vargp = 171;
+let vargq = 172;
+let vargr = 173;
+let vargs = 174;
+let vargt = 175;
+let vargu = 176;
+let vargv = 177;
+let vargw = 178;
+let vargx = 179;
+let vargy = 180;
+let vargz = 181;
+let varha = 182;
+let varhb = 183;
+let varhc = 184;
+let varhd = 185;
+let varhe = 186;
+let varhf = 187;
+let varhg = 188;
+let varhh = 189;
+let varhi = 190;
+let varhj = 191;
+let varhk = 192;
+let varhl = 193;
+let varhm = 194;
+let varhn = 195;
+let varho = 196;
+let varhp = 197;
+let varhq = 198;
+let varhr = 199;
+
+function funcaa(x){
+  return x + 0;
+}
+
+function funcab(x){
+  return x + 1;
+}
+
+function funcac(x){
+  return x + 2;
+}
+
+function funcad(x){
+  return x + 3;
+}
+
+function funcae(x){
+  return x + 4;
+}
+
+function funcaf(x){
+  return x + 5;
+}
+
+function funcag(x){
+  return x + 6;
+}
+
+function funcah(x){
+  return x + 7;
+}
+
+function funcai(x){
+  return x + 8;
+}
+
+function funcaj(x){
+  return x + 9;
+}
+
+function funcak(x){
+  return x + 10;
+}
+
+function funcal(x){
+  return x + 11;
+}
+
+function funcam(x){
+  return x + 12;
+}
+
+function funcan(x){
+  return x + 13;
+}
+
+function funcao(x){
+  return x + 14;
+}
+
+function funcap(x){
+  return x + 15;
+}
+
+function funcaq(x){
+  return x + 16;
+}
+
+function funcar(x){
+  return x + 17;
+}
+
+function funcas(x){
+  return x + 18;
+}
+
+function funcat(x){
+  return x + 19;
+}
+
+function funcau(x){
+  return x + 20;
+}
+
+function funcav(x){
+  return x + 21;
+}
+
+function funcaw(x){
+  return x + 22;
+}
+
+function funcax(x){
+  return x + 23;
+}
+
+function funcay(x){
+  return x + 24;
+}
+
+function funcaz(x){
+  return x + 25;
+}
+
+function funcba(x){
+  return x + 26;
+}
+
+function funcbb(x){
+  return x + 27;
+}
+
+function funcbc(x){
+  return x + 28;
+}
+
+function funcbd(x){
+  return x + 29;
+}
+
+function funcbe(x){
+  return x + 30;
+}
+
+function funcbf(x){
+  return x + 31;
+}
+
+function funcbg(x){
+  return x + 32;
+}
+
+function funcbh(x){
+  return x + 33;
+}
+
+function funcbi(x){
+  return x + 34;
+}
+
+function funcbj(x){
+  return x + 35;
+}
+
+function funcbk(x){
+  return x + 36;
+}
+
+function funcbl(x){
+  return x + 37;
+}
+
+function funcbm(x){
+  return x + 38;
+}
+
+function funcbn(x){
+  return x + 39;
+}
+
+function funcbo(x){
+  return x + 40;
+}
+
+function funcbp(x){
+  return x + 41;
+}
+
+function funcbq(x){
+  return x + 42;
+}
+
+function funcbr(x){
+  return x + 43;
+}
+
+function funcbs(x){
+  return x + 44;
+}
+
+function funcbt(x){
+  return x + 45;
+}
+
+function funcbu(x){
+  return x + 46;
+}
+
+function funcbv(x){
+  return x + 47;
+}
+
+function funcbw(x){
+  return x + 48;
+}
+
+function funcbx(x){
+  return x + 49;
+}
+
+function funcby(x){
+  return x + 50;
+}
+
+function funcbz(x){
+  return x + 51;
+}
+
+function funcca(x){
+  return x + 52;
+}
+
+function funccb(x){
+  return x + 53;
+}
+
+function funccc(x){
+  return x + 54;
+}
+
+function funccd(x){
+  return x + 55;
+}
+
+function funcce(x){
+  return x + 56;
+}
+
+function funccf(x){
+  return x + 57;
+}
+
+function funccg(x){
+  return x + 58;
+}
+
+function funcch(x){
+  return x + 59;
+}
+
+function funcci(x){
+  return x + 60;
+}
+
+function funccj(x){
+  return x + 61;
+}
+
+function funcck(x){
+  return x + 62;
+}
+
+function funccl(x){
+  return x + 63;
+}
+
+function funccm(x){
+  return x + 64;
+}
+
+function funccn(x){
+  return x + 65;
+}
+
+function funcco(x){
+  return x + 66;
+}
+
+function funccp(x){
+  return x + 67;
+}
+
+function funccq(x){
+  return x + 68;
+}
+
+function funccr(x){
+  return x + 69;
+}
+
+function funccs(x){
+  return x + 70;
+}
+
+function funcct(x){
+  return x + 71;
+}
+
+function funccu(x){
+  return x + 72;
+}
+
+function funccv(x){
+  return x + 73;
+}
+
+function funccw(x){
+  return x + 74;
+}
+
+function funccx(x){
+  return x + 75;
+}
+
+function funccy(x){
+  return x + 76;
+}
+
+function funccz(x){
+  return x + 77;
+}
+
+function funcda(x){
+  return x + 78;
+}
+
+function funcdb(x){
+  return x + 79;
+}
+
+function funcdc(x){
+  return x + 80;
+}
+
+function funcdd(x){
+  return x + 81;
+}
+
+function funcde(x){
+  return x + 82;
+}
+
+function funcdf(x){
+  return x + 83;
+}
+
+function funcdg(x){
+  return x + 84;
+}
+
+function funcdh(x){
+  return x + 85;
+}
+
+function funcdi(x){
+  return x + 86;
+}
+
+function funcdj(x){
+  return x + 87;
+}
+
+function funcdk(x){
+  return x + 88;
+}
+
+function funcdl(x){
+  return x + 89;
+}
+
+function funcdm(x){
+  return x + 90;
+}
+
+function funcdn(x){
+  return x + 91;
+}
+
+function funcdo(x){
+  return x + 92;
+}
+
+function funcdp(x){
+  return x + 93;
+}
+
+function funcdq(x){
+  return x + 94;
+}
+
+function funcdr(x){
+  return x + 95;
+}
+
+function funcds(x){
+  return x + 96;
+}
+
+function funcdt(x){
+  return x + 97;
+}
+
+function funcdu(x){
+  return x + 98;
+}
+
+function funcdv(x){
+  return x + 99;
+}
+
+function funcdw(x){
+  return x + 100;
+}
+
+function funcdx(x){
+  return x + 101;
+}
+
+function funcdy(x){
+  return x + 102;
+}
+
+function funcdz(x){
+  return x + 103;
+}
+
+function funcea(x){
+  return x + 104;
+}
+
+function funceb(x){
+  return x + 105;
+}
+
+function funcec(x){
+  return x + 106;
+}
+
+function funced(x){
+  return x + 107;
+}
+
+function funcee(x){
+  return x + 108;
+}
+
+function funcef(x){
+  return x + 109;
+}
+
+function funceg(x){
+  return x + 110;
+}
+
+function funceh(x){
+  return x + 111;
+}
+
+function funcei(x){
+  return x + 112;
+}
+
+function funcej(x){
+  return x + 113;
+}
+
+function funcek(x){
+  return x + 114;
+}
+
+function funcel(x){
+  return x + 115;
+}
+
+function funcem(x){
+  return x + 116;
+}
+
+function funcen(x){
+  return x + 117;
+}
+
+function funceo(x){
+  return x + 118;
+}
+
+function funcep(x){
+  return x + 119;
+}
+
+function funceq(x){
+  return x + 120;
+}
+
+function funcer(x){
+  return x + 121;
+}
+
+function funces(x){
+  return x + 122;
+}
+
+function funcet(x){
+  return x + 123;
+}
+
+function funceu(x){
+  return x + 124;
+}
+
+function funcev(x){
+  return x + 125;
+}
+
+function funcew(x){
+  return x + 126;
+}
+
+function funcex(x){
+  return x + 127;
+}
+
+function funcey(x){
+  return x + 128;
+}
+
+function funcez(x){
+  return x + 129;
+}
+
+function funcfa(x){
+  return x + 130;
+}
+
+function funcfb(x){
+  return x + 131;
+}
+
+function funcfc(x){
+  return x + 132;
+}
+
+function funcfd(x){
+  return x + 133;
+}
+
+function funcfe(x){
+  return x + 134;
+}
+
+function funcff(x){
+  return x + 135;
+}
+
+function funcfg(x){
+  return x + 136;
+}
+
+function funcfh(x){
+  return x + 137;
+}
+
+function funcfi(x){
+  return x + 138;
+}
+
+function funcfj(x){
+  return x + 139;
+}
+
+function funcfk(x){
+  return x + 140;
+}
+
+function funcfl(x){
+  return x + 141;
+}
+
+function funcfm(x){
+  return x + 142;
+}
+
+function funcfn(x){
+  return x + 143;
+}
+
+function funcfo(x){
+  return x + 144;
+}
+
+function funcfp(x){
+  return x + 145;
+}
+
+function funcfq(x){
+  return x + 146;
+}
+
+function funcfr(x){
+  return x + 147;
+}
+
+function funcfs(x){
+  return x + 148;
+}
+
+function funcft(x){
+  return x + 149;
+}
+
+function funcfu(x){
+  return x + 150;
+}
+
+function funcfv(x){
+  return x + 151;
+}
+
+function funcfw(x){
+  return x + 152;
+}
+
+function funcfx(x){
+  return x + 153;
+}
+
+function funcfy(x){
+  return x + 154;
+}
+
+function funcfz(x){
+  return x + 155;
+}
+
+function funcga(x){
+  return x + 156;
+}
+
+function funcgb(x){
+  return x + 157;
+}
+
+function funcgc(x){
+  return x + 158;
+}
+
+function funcgd(x){
+  return x + 159;
+}
+
+function funcge(x){
+  return x + 160;
+}
+
+function funcgf(x){
+  return x + 161;
+}
+
+function funcgg(x){
+  return x + 162;
+}
+
+function funcgh(x){
+  return x + 163;
+}
+
+function funcgi(x){
+  return x + 164;
+}
+
+function funcgj(x){
+  return x + 165;
+}
+
+function funcgk(x){
+  return x + 166;
+}
+
+function funcgl(x){
+  return x + 167;
+}
+
+function funcgm(x){
+  return x + 168;
+}
+
+function funcgn(x){
+  return x + 169;
+}
+
+function funcgo(x){
+  return x + 170;
+}
+
+function funcgp(x){
+  return x + 171;
+}
+
+function funcgq(x){
+  return x + 172;
+}
+
+function funcgr(x){
+  return x + 173;
+}
+
+function funcgs(x){
+  return x + 174;
+}
+
+function funcgt(x){
+  return x + 175;
+}
+
+function funcgu(x){
+  return x + 176;
+}
+
+function funcgv(x){
+  return x + 177;
+}
+
+function funcgw(x){
+  return x + 178;
+}
+
+function funcgx(x){
+  return x + 179;
+}
+
+function funcgy(x){
+  return x + 180;
+}
+
+function funcgz(x){
+  return x + 181;
+}
+
+function funcha(x){
+  return x + 182;
+}
+
+function funchb(x){
+  return x + 183;
+}
+
+function funchc(x){
+  return x + 184;
+}
+
+function funchd(x){
+  return x + 185;
+}
+
+function funche(x){
+  return x + 186;
+}
+
+function funchf(x){
+  return x + 187;
+}
+
+function funchg(x){
+  return x + 188;
+}
+
+function funchh(x){
+  return x + 189;
+}
+
+function funchi(x){
+  return x + 190;
+}
+
+function funchj(x){
+  return x + 191;
+}
+
+function funchk(x){
+  return x + 192;
+}
+
+function funchl(x){
+  return x + 193;
+}
+
+function funchm(x){
+  return x + 194;
+}
+
+function funchn(x){
+  return x + 195;
+}
+
+function funcho(x){
+  return x + 196;
+}
+
+function funchp(x){
+  return x + 197;
+}
+
+function funchq(x){
+  return x + 198;
+}
+
+function funchr(x){
+  return x + 199;
+}
+
+function leaf(x){
+  return x + 1;
+}
+
+function middle(x){
+  let y = leaf(x);
+  if(y > 0){
+    let z = y;
+    return z;
+  }
+  return y;
+}
+
+function main(args){
+  let start = System.currentTimeMillis();
+  let total = 0;
+  for(let i = 0; i < 20000; i = i + 1){
+    total = middle(total);
+  }
+  let end = System.currentTimeMillis();
+  let elapsed = end - start;
+  println(total);
+  print("elapsed ms: ");
+  println(elapsed);
+}
@@ -0,0 +1,30 @@
+/*
+ Measures the cost of function calls and nested blocks. 
+ Compare against ScopeLarge.w
+*/
+
+function leaf(x){
+  return x + 1;
+}
+
+function middle(x){
+  let y = leaf(x);
+  if(y > 0){
+    let z = y;
+    return z;
+  }
+  return y;
+}
+
+function main(args){
+  let start = System.currentTimeMillis();
+  let total = 0;
+  for(let i = 0; i < 20000; i = i + 1){
+    total = middle(total);
+  }
+  let end = System.currentTimeMillis();
+  let elapsed = end - start;
+  println(total);
+  print("elapsed ms: ");
+  println(elapsed);
+}
@@ -0,0 +1,49 @@
+import wordy.standard.Array;
+import java.lang.Thread;
+
+/*
+ Measures fan-out with spawn() and join() - many independent calls that
+ mostly wait (like I/O), and a few that compute.
+*/
+
+function fetch(id){
+  let wait = Long.parseLong("20");
+  Thread.sleep(wait);
+  return id * 2;
+}
+
+function fib(n){
+  if(n < 2){
+    return n;
+  }
+  return fib(n - 1) + fib(n - 2);
+}
+
+function main(args){
+  let tasks = 64;
+  let handles = Array(tasks);
+
+  let start = System.currentTimeMillis();
+  for(let i = 0; i < tasks; i = i + 1){
+    handles.set(i, spawn("fetch", i));
+  }
+  let total = 0;
+  for(let i = 0; i < tasks; i = i + 1){
+    total = total + join(handles.get(i));
+  }
+  let end = System.currentTimeMillis();
+  let elapsed = end - start;
+  println(total);
+  print("fan-out elapsed ms: ");
+  println(elapsed);
+
+  start = System.currentTimeMillis();
+  let left = spawn("fib", 20);
+  let right = spawn("fib", 20);
+  let sum = join(left) + join(right);
+  end = System.currentTimeMillis();
+  elapsed = end - start;
+  println(sum);
+  print("compute elapsed ms: ");
+  println(elapsed);
+}
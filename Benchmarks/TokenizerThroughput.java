@@ -0,0 +1,57 @@
+import java.io.File;
+import java.nio.CharBuffer;
+
+import wordy.logic.compile.Token;
+import wordy.logic.compile.Tokenizer;
+
+/**
+ * Measures the throughput of the Tokenizer, in MB/s, on the given source files.
+ * 
+ * Each file is tokenized a few times first (so the JIT has compiled the scanner),
+ * then timed over several rounds - both with reading/decoding the file and without.
+ * 
+ * usage: java TokenizerThroughput <source files...>
+ * (see tokenizer.sh, which generates large sources and runs this)
+ * 
+ * @author Jose Guaro
+ *
+ */
+public class TokenizerThroughput {
+  
+  private static final int WARMUP = 5;
+  private static final int ROUNDS = 10;
+
+  public static void main(String[] args) throws Exception {
+    for (String sourceFile : args) {
+      long size = new File(sourceFile).length();
+      
+      int tokenCount = 0;
+      for (int i = 0; i < WARMUP; i++) {
+        tokenCount = Tokenizer.tokenize(sourceFile).length;
+      }
+      
+      //reading, decoding and scanning
+      long start = System.nanoTime();
+      for (int i = 0; i < ROUNDS; i++) {
+        Tokenizer.tokenize(sourceFile);
+      }
+      long fileTime = (System.nanoTime() - start) / ROUNDS;
+      
+      //scanning only
+      CharBuffer source = Tokenizer.readSource(sourceFile);
+      char [] chars = source.array();
+      int offset = source.arrayOffset() + source.position();
+      int length = source.remaining();
+      start = System.nanoTime();
+      for (int i = 0; i < ROUNDS; i++) {
+        Token [] tokens = Tokenizer.tokenize(chars, offset, length);
+        tokenCount = tokens.length;
+      }
+      long scanTime = (System.nanoTime() - start) / ROUNDS;
+      
+      System.out.println(new File(sourceFile).getName()+": "+size+" bytes, "+tokenCount+" tokens | "
+                         +"file: "+Tokenizer.throughput(size, fileTime)+" MB/s | "
+                         +"scan: "+Tokenizer.throughput(size, scanTime)+" MB/s");
+    }
+  }
+}
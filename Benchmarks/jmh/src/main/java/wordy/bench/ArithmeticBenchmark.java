@@ -0,0 +1,122 @@
+package wordy.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import wordy.logic.compile.Token;
+import wordy.logic.compile.Token.Type;
+import wordy.logic.compile.nodes.OpCode;
+import wordy.logic.runtime.components.JavaInstance;
+import wordy.logic.runtime.execution.Operator;
+
+/**
+ * Arithmetic, comparisons and boolean logic: Operator on boxed operands,
+ * and expressions in compiled code.
+ *
+ * @author Jose Guaro
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArithmeticBenchmark {
+
+  @State(Scope.Thread)
+  public static class Operands {
+
+    public JavaInstance leftInt;
+    public JavaInstance rightInt;
+    public JavaInstance leftDouble;
+    public JavaInstance rightDouble;
+    public JavaInstance leftLong;
+    public JavaInstance yes;
+    public JavaInstance no;
+
+    public Token plus;
+    public Token mult;
+    public Token less;
+    public Token and;
+
+    @Setup
+    public void wrap() {
+      leftInt = JavaInstance.wrapInstance(12345);
+      rightInt = JavaInstance.wrapInstance(678);
+      leftDouble = JavaInstance.wrapInstance(1.5);
+      rightDouble = JavaInstance.wrapInstance(2.25);
+      leftLong = JavaInstance.wrapInstance(1L << 40);
+      yes = JavaInstance.wrapInstance(true);
+      no = JavaInstance.wrapInstance(false);
+
+      plus = new Token("+", Type.PLUS, 1);
+      mult = new Token("*", Type.MULT, 1);
+      less = new Token("<", Type.LESS_THAN, 1);
+      and = new Token("&&", Type.BOOL_AND, 1);
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class Expressions extends ScriptState {
+
+    protected String source() {
+      return "function main(n){\n"+
+             "  let total = 0;\n"+
+             "  let ratio = 0.5;\n"+
+             "  for(let i = 0; i < n; i = i + 1){\n"+
+             "    total = total + i * 3 - i / 2;\n"+
+             "    ratio = ratio * 1.0001 + 0.25;\n"+
+             "  }\n"+
+             "  return total;\n"+
+             "}\n";
+    }
+  }
+
+  @Benchmark
+  public JavaInstance intAdd(Operands operands) {
+    return Operator.simpleArithmetic(operands.leftInt, operands.rightInt, OpCode.ADD, operands.plus);
+  }
+
+  @Benchmark
+  public JavaInstance doubleMultiply(Operands operands) {
+    return Operator.simpleArithmetic(operands.leftDouble, operands.rightDouble, OpCode.MULTIPLY, operands.mult);
+  }
+
+  /**
+   * Operands of different types are widened first
+   */
+  @Benchmark
+  public JavaInstance mixedAdd(Operands operands) {
+    return Operator.simpleArithmetic(operands.leftLong, operands.rightDouble, OpCode.ADD, operands.plus);
+  }
+
+  @Benchmark
+  public JavaInstance intCompare(Operands operands) {
+    return Operator.arithemticComparison(operands.leftInt, operands.rightInt, OpCode.LESS, operands.less);
+  }
+
+  @Benchmark
+  public JavaInstance booleanAnd(Operands operands) {
+    return Operator.booleanOperations(operands.yes, operands.no, OpCode.AND, operands.and);
+  }
+
+  /**
+   * Two arithmetic statements (six operators) per operation
+   */
+  @Benchmark
+  @OperationsPerInvocation(ScriptState.LOOP)
+  public Object expressionsInLoop(Expressions expressions) {
+    return expressions.run();
+  }
+}
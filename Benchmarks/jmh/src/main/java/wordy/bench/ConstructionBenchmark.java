@@ -0,0 +1,88 @@
+package wordy.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Constructing instances of Wordy classes through their ConstructorFunctions:
+ * a class with fields, and a class whose constructor invokes its parent's.
+ *
+ * @author Jose Guaro
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConstructionBenchmark {
+
+  private static final String CLASSES =
+      "class Point{\n"+
+      "  let x;\n"+
+      "  let y;\n"+
+      "  Point(a, b){\n"+
+      "    x = a;\n"+
+      "    y = b;\n"+
+      "  }\n"+
+      "}\n"+
+      "class Spot : Point{\n"+
+      "  let label;\n"+
+      "  Spot(a, b){\n"+
+      "    super(a, b);\n"+
+      "    label = a;\n"+
+      "  }\n"+
+      "}\n";
+
+  @State(Scope.Benchmark)
+  public static class Points extends ScriptState {
+
+    protected String source() {
+      return CLASSES+
+             "function main(n){\n"+
+             "  let p = null;\n"+
+             "  for(let i = 0; i < n; i = i + 1){\n"+
+             "    p = Point(i, i);\n"+
+             "  }\n"+
+             "  return p.x;\n"+
+             "}\n";
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class Spots extends ScriptState {
+
+    protected String source() {
+      return CLASSES+
+             "function main(n){\n"+
+             "  let p = null;\n"+
+             "  for(let i = 0; i < n; i = i + 1){\n"+
+             "    p = Spot(i, i);\n"+
+             "  }\n"+
+             "  return p.label;\n"+
+             "}\n";
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ScriptState.LOOP)
+  public Object construct(Points state) {
+    return state.run();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ScriptState.LOOP)
+  public Object constructWithSuper(Spots state) {
+    return state.run();
+  }
+}
@@ -0,0 +1,109 @@
+package wordy.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Function calls: resolving the callee (through the call site's CallSiteCache),
+ * creating its frame and returning - for file functions, methods of Wordy classes
+ * and recursion (ten calls deep, as the interpreter recurses on the Java stack).
+ *
+ * @author Jose Guaro
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FunctionCallBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class FileFunctions extends ScriptState {
+
+    protected String source() {
+      return "function twice(x){\n"+
+             "  return x + x;\n"+
+             "}\n"+
+             "function main(n){\n"+
+             "  let total = 0;\n"+
+             "  for(let i = 0; i < n; i = i + 1){\n"+
+             "    total = twice(i);\n"+
+             "  }\n"+
+             "  return total;\n"+
+             "}\n";
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class Methods extends ScriptState {
+
+    protected String source() {
+      return "class Counter{\n"+
+             "  let count;\n"+
+             "  Counter(){\n"+
+             "    count = 0;\n"+
+             "  }\n"+
+             "  function bump(by){\n"+
+             "    count = count + by;\n"+
+             "    return count;\n"+
+             "  }\n"+
+             "}\n"+
+             "function main(n){\n"+
+             "  let counter = Counter();\n"+
+             "  for(let i = 0; i < n; i = i + 1){\n"+
+             "    counter.bump(1);\n"+
+             "  }\n"+
+             "  return counter.bump(0);\n"+
+             "}\n";
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class Recursion extends ScriptState {
+
+    protected String source() {
+      return "function depth(n){\n"+
+             "  if(n == 0){\n"+
+             "    return 0;\n"+
+             "  }\n"+
+             "  return depth(n - 1) + 1;\n"+
+             "}\n"+
+             "function main(n){\n"+
+             "  let total = 0;\n"+
+             "  for(let i = 0; i < n; i = i + 10){\n"+
+             "    total = depth(9);\n"+
+             "  }\n"+
+             "  return total;\n"+
+             "}\n";
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ScriptState.LOOP)
+  public Object fileFunction(FileFunctions state) {
+    return state.run();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ScriptState.LOOP)
+  public Object method(Methods state) {
+    return state.run();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ScriptState.LOOP)
+  public Object recursive(Recursion state) {
+    return state.run();
+  }
+}
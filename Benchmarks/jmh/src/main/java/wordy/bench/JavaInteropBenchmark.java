@@ -0,0 +1,126 @@
+package wordy.bench;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import wordy.logic.runtime.components.Instance;
+import wordy.logic.runtime.components.JavaInstance;
+import wordy.logic.runtime.execution.JavaCallable;
+
+/**
+ * Calls into Java: JavaCallable on its own (unwrapping arguments, invoking and
+ * wrapping the result), and Java methods and constructors called from compiled code.
+ *
+ * @author Jose Guaro
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JavaInteropBenchmark {
+
+  @State(Scope.Thread)
+  public static class Callables {
+
+    public JavaCallable size;
+    public JavaCallable charAt;
+    public JavaCallable indexOf;
+    public JavaInstance list;
+    public JavaInstance string;
+    public Instance [] noArgs;
+    public Instance [] index;
+    public Instance [] search;
+
+    @Setup
+    public void bind() throws NoSuchMethodException {
+      size = new JavaCallable(ArrayList.class.getMethod("size"));
+      charAt = new JavaCallable(String.class.getMethod("charAt", int.class));
+      indexOf = new JavaCallable(String.class.getMethod("indexOf", String.class, int.class));
+
+      ArrayList<Object> elements = new ArrayList<>();
+      elements.add("element");
+      list = JavaInstance.wrapInstance(elements);
+      string = JavaInstance.wrapInstance("a string to look into");
+
+      noArgs = new Instance[0];
+      index = new Instance[] {JavaInstance.wrapInstance(5)};
+      search = new Instance[] {JavaInstance.wrapInstance("look"), JavaInstance.wrapInstance(2)};
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class Methods extends ScriptState {
+
+    protected String source() {
+      return "import java.util.ArrayList;\n"+
+             "function main(n){\n"+
+             "  let list = ArrayList();\n"+
+             "  let builder = StringBuilder();\n"+
+             "  for(let i = 0; i < n; i = i + 1){\n"+
+             "    list.add(i);\n"+
+             "    builder.append(\"x\");\n"+
+             "  }\n"+
+             "  return list.size() + builder.length();\n"+
+             "}\n";
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class Constructors extends ScriptState {
+
+    protected String source() {
+      return "import java.util.HashMap;\n"+
+             "function main(n){\n"+
+             "  let map = null;\n"+
+             "  for(let i = 0; i < n; i = i + 1){\n"+
+             "    map = HashMap(4);\n"+
+             "  }\n"+
+             "  return map.size();\n"+
+             "}\n";
+    }
+  }
+
+  @Benchmark
+  public Instance noArguments(Callables callables) {
+    return callables.size.callOn(callables.list, callables.noArgs);
+  }
+
+  @Benchmark
+  public Instance primitiveArgument(Callables callables) {
+    return callables.charAt.callOn(callables.string, callables.index);
+  }
+
+  @Benchmark
+  public Instance twoArguments(Callables callables) {
+    return callables.indexOf.callOn(callables.string, callables.search);
+  }
+
+  /**
+   * Two Java method calls per operation
+   */
+  @Benchmark
+  @OperationsPerInvocation(ScriptState.LOOP)
+  public Object methodsFromWordy(Methods state) {
+    return state.run();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ScriptState.LOOP)
+  public Object constructorFromWordy(Constructors state) {
+    return state.run();
+  }
+}
@@ -0,0 +1,72 @@
+package wordy.bench;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import wordy.logic.runtime.ExecutionEngine;
+import wordy.logic.runtime.WordyRuntime;
+
+/**
+ * Whole programs (those in Benchmarks/), end to end:
+ *
+ * - run: invoking main of an already initialized program
+ * - compileAndRun: tokenizing, formatting, verifying and initializing the program, then invoking main
+ *
+ * What the programs print is discarded.
+ *
+ * @author Jose Guaro
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProgramBenchmark {
+
+  @Param({"Arith", "Concurrent", "Dispatch", "Interop", "ScopeLarge", "ScopeSmall", "Spawn"})
+  public String program;
+
+  @Param({"INTERPRETER", "TREE", "BYTECODE"})
+  public ExecutionEngine engine;
+
+  private String source;
+  private WordyRuntime runtime;
+  private PrintStream console;
+
+  @Setup
+  public void load() {
+    console = Scripts.silence();
+    source = Scripts.program(program);
+    runtime = Scripts.load(program, source, engine);
+  }
+
+  @TearDown
+  public void restore() {
+    System.setOut(console);
+  }
+
+  @Benchmark
+  public Object run() {
+    return Scripts.runMain(runtime, program);
+  }
+
+  @Benchmark
+  public Object compileAndRun() {
+    return Scripts.runMain(Scripts.load(program, source, engine), program);
+  }
+}
@@ -0,0 +1,52 @@
+package wordy.bench;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import wordy.logic.runtime.ExecutionEngine;
+import wordy.logic.runtime.WordyRuntime;
+
+/**
+ * A snippet of Wordy code, compiled once per trial with each ExecutionEngine.
+ *
+ * The snippet's main function takes the amount of times to repeat the measured operation
+ * (see Scripts.runMain(WordyRuntime, int)), so benchmarks report the time of a single operation
+ * through @OperationsPerInvocation(LOOP).
+ *
+ * @author Jose Guaro
+ *
+ */
+@State(Scope.Benchmark)
+public abstract class ScriptState {
+
+  /**
+   * How many times snippets repeat the measured operation per invocation of main
+   */
+  public static final int LOOP = 1000;
+
+  @Param({"INTERPRETER", "TREE", "BYTECODE"})
+  public ExecutionEngine engine;
+
+  public WordyRuntime runtime;
+
+  /**
+   * Retrieves the source code of the snippet
+   * @return the source code, compiled as Scripts.FILE_NAME
+   */
+  protected abstract String source();
+
+  @Setup
+  public void load() {
+    runtime = Scripts.load(Scripts.FILE_NAME, source(), engine);
+  }
+
+  /**
+   * Invokes the snippet's main function, repeating its operation LOOP times
+   * @return the return value of main
+   */
+  public Object run() {
+    return Scripts.runMain(runtime, LOOP);
+  }
+}
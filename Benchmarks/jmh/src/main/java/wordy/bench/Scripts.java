@@ -0,0 +1,118 @@
+package wordy.bench;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import wordy.logic.compile.WordyCompiler;
+import wordy.logic.compile.structure.FileStructure;
+import wordy.logic.runtime.ExecutionEngine;
+import wordy.logic.runtime.WordyRuntime;
+import wordy.logic.runtime.components.Instance;
+import wordy.logic.runtime.components.JavaInstance;
+import wordy.logic.runtime.errors.InvocationException;
+import wordy.standard.Array;
+
+/**
+ * Compiles and runs the Wordy code benchmarks execute
+ *
+ * @author Jose Guaro
+ *
+ */
+final class Scripts {
+
+  /**
+   * The file name benchmark snippets are compiled as
+   */
+  static final String FILE_NAME = "Bench";
+
+  private Scripts() {}
+
+  /**
+   * Compiles Wordy source code and initializes a runtime with it
+   * @param fileName - the file name to compile the code as
+   * @param source - the source code
+   * @param engine - the ExecutionEngine to run the code with
+   * @return the initialized WordyRuntime
+   */
+  static WordyRuntime load(String fileName, String source, ExecutionEngine engine) {
+    FileStructure structure = WordyCompiler.compileSource(fileName, source);
+    WordyRuntime runtime = new WordyRuntime(engine);
+    runtime.initialize(Collections.singletonMap(fileName, structure));
+    return runtime;
+  }
+
+  /**
+   * Invokes the main function of a file, which takes the program arguments (none, here)
+   * @param runtime - the WordyRuntime the file is in
+   * @param fileName - the name of the file
+   * @return the return value of main
+   */
+  static Object runMain(WordyRuntime runtime, String fileName) {
+    try {
+      return runtime.invoke(fileName, 1, noArgs());
+    } catch (InvocationException e) {
+      throw new IllegalStateException(e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Invokes a main function that takes a single number
+   * @param runtime - the WordyRuntime the file is in
+   * @param n - the number to pass to main
+   * @return the return value of main
+   */
+  static Object runMain(WordyRuntime runtime, int n) {
+    try {
+      return runtime.invoke(FILE_NAME, 1, JavaInstance.wrapInstance(n));
+    } catch (InvocationException e) {
+      throw new IllegalStateException(e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Reads one of the programs in Benchmarks/ (bundled under programs/)
+   * @param name - the name of the program, without its extension
+   * @return the source code of the program
+   */
+  static String program(String name) {
+    try (InputStream in = Scripts.class.getResourceAsStream("/programs/"+name+".w")) {
+      if (in == null) {
+        throw new IllegalArgumentException("No benchmark program named "+name);
+      }
+
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      byte [] buffer = new byte[8192];
+      int read = 0;
+      while ((read = in.read(buffer)) != -1) {
+        out.write(buffer, 0, read);
+      }
+      return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Replaces System.out with a stream that discards everything, so println() in
+   * benchmarked code doesn't measure the console
+   * @return the System.out that was replaced
+   */
+  static PrintStream silence() {
+    PrintStream previous = System.out;
+    System.setOut(new PrintStream(new OutputStream() {
+      public void write(int b) {}
+
+      public void write(byte [] b, int off, int len) {}
+    }));
+    return previous;
+  }
+
+  private static Instance noArgs() {
+    return JavaInstance.wrapInstance(new Array(0));
+  }
+}
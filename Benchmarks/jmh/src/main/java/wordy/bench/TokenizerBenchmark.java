@@ -0,0 +1,72 @@
+package wordy.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import wordy.logic.compile.Token;
+import wordy.logic.compile.Tokenizer;
+
+/**
+ * Tokenizing generated sources (functions with arithmetic, comments, string literals
+ * and decimals - like tokenizer.sh generates) already in memory.
+ *
+ * Throughput in MB/s is the source size over the reported time.
+ *
+ * @author Jose Guaro
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenizerBenchmark {
+
+  /**
+   * The size of the source, in KB
+   */
+  @Param({"16", "1024"})
+  public int kilobytes;
+
+  private char [] source;
+
+  @Setup
+  public void generate() {
+    StringBuilder builder = new StringBuilder(kilobytes * 1024 + 512);
+    for(int f = 0; builder.length() < kilobytes * 1024; f++) {
+      String name = Integer.toString(f, 26).replaceAll("[0-9]", "z");
+      builder.append("/*\n  Computes a total, with ").append(f).append(" as the factor\n*/\n")
+             .append("function compute").append(name).append("(n){\n")
+             .append("  let total = 0;\n")
+             .append("  let label = \"running total of compute").append(name).append("\";\n")
+             .append("  for(let k = 0; k < n; k = k + 1){\n")
+             .append("    if(k % 2 == 0 && total >= 0){\n")
+             .append("      total = total + k * ").append(f).append(" - 1.25;\n")
+             .append("    }\n")
+             .append("    else{\n")
+             .append("      total = total - 1; //odd\n")
+             .append("    }\n")
+             .append("  }\n")
+             .append("  return total;\n")
+             .append("}\n\n");
+    }
+    source = builder.toString().toCharArray();
+  }
+
+  @Benchmark
+  public Token [] tokenize() {
+    return Tokenizer.tokenize(source, 0, source.length);
+  }
+}
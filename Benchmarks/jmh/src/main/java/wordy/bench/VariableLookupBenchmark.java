@@ -0,0 +1,107 @@
+package wordy.bench;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import wordy.logic.common.FunctionKey;
+import wordy.logic.runtime.RuntimeTable;
+import wordy.logic.runtime.VariableMember;
+import wordy.logic.runtime.components.JavaInstance;
+import wordy.logic.runtime.execution.Callable;
+
+/**
+ * Variable lookup: RuntimeTable's name-based lookup (used by the interpreter for
+ * variables without slots), and variable reads in compiled code.
+ *
+ * @author Jose Guaro
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VariableLookupBenchmark {
+
+  @State(Scope.Thread)
+  public static class Tables {
+
+    public RuntimeTable function;
+    public RuntimeTable nested; //three blocks deep in function
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void build() {
+      Map<String, VariableMember> locals = variables("local", 8);
+      Map<String, VariableMember> fileVars = variables("file", 32);
+      Map<FunctionKey, List<Callable>> functions = new HashMap<>();
+
+      function = new RuntimeTable(new Map[] {locals, fileVars}, new Map[] {functions}, new HashMap<String, String>());
+      nested = function.newBlockScope().newBlockScope().newBlockScope();
+    }
+
+    private static Map<String, VariableMember> variables(String prefix, int count) {
+      HashMap<String, VariableMember> variables = new HashMap<>();
+      for(int i = 0; i < count; i++) {
+        String name = prefix + (char) ('a' + i % 26) + (char) ('a' + i / 26);
+        variables.put(name, new VariableMember(name, JavaInstance.wrapInstance(i), null, false));
+      }
+      return variables;
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class Reads extends ScriptState {
+
+    protected String source() {
+      return "let total = 3;\n"+
+             "function main(n){\n"+
+             "  let a = 1;\n"+
+             "  let b = 0;\n"+
+             "  for(let i = 0; i < n; i = i + 1){\n"+
+             "    b = a;\n"+
+             "    b = total;\n"+
+             "  }\n"+
+             "  return b;\n"+
+             "}\n";
+    }
+  }
+
+  @Benchmark
+  public VariableMember localInFunction(Tables tables) {
+    return tables.function.findVariable("localea");
+  }
+
+  @Benchmark
+  public VariableMember localInNestedBlock(Tables tables) {
+    return tables.nested.findVariable("localea");
+  }
+
+  @Benchmark
+  public VariableMember fileVariable(Tables tables) {
+    return tables.nested.findVariable("fileza");
+  }
+
+  /**
+   * A local and a file-level variable read per operation
+   */
+  @Benchmark
+  @OperationsPerInvocation(ScriptState.LOOP)
+  public Object readInLoop(Reads reads) {
+    return reads.run();
+  }
+}
@@ -0,0 +1,66 @@
+package wordy.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks, taking the same options as JMH's own Main (see -h).
+ *
+ * Unless another result format or file is given (-rf, -rff), results are exported as JSON
+ * to results/jmh-[date]-[time].json - one file per run, so runs can be compared over time
+ * (Like: with JMH Visualizer).
+ *
+ * usage: java -jar benchmarks.jar [JMH options] [benchmark regex]
+ *
+ * @author Jose Guaro
+ *
+ */
+public class WordyBenchmarks {
+
+  /**
+   * The directory results are exported to, relative to the working directory
+   */
+  public static final String RESULTS_DIRECTORY = "results";
+
+  public static void main(String[] args) throws RunnerException, IOException {
+    CommandLineOptions commandLine = null;
+    try {
+      commandLine = new CommandLineOptions(args);
+    } catch (CommandLineOptionException e) {
+      System.err.println("Error parsing command line: "+e.getMessage());
+      System.exit(1);
+    }
+
+    if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListWithParams() ||
+        commandLine.shouldListProfilers() || commandLine.shouldListResultFormats()) {
+      //nothing to run. Let JMH print what was asked for
+      org.openjdk.jmh.Main.main(args);
+      return;
+    }
+
+    ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+    if (commandLine.getResultFormat().hasValue() == false) {
+      options.resultFormat(ResultFormatType.JSON);
+    }
+    if (commandLine.getResult().hasValue() == false) {
+      String extension = commandLine.getResultFormat().orElse(ResultFormatType.JSON).toString().toLowerCase();
+      String timestamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+
+      File results = new File(RESULTS_DIRECTORY, "jmh-"+timestamp+"."+extension);
+      results.getParentFile().mkdirs();
+      options.result(results.getPath());
+    }
+
+    new Runner(options.build()).run();
+  }
+}
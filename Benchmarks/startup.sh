@@ -0,0 +1,87 @@
+#!/bin/bash
+#
+# Measures compilation time (tokenizing, formatting and verifying) against
+# the amount of source files.
+#
+# Generates programs of 1, 8, 32 and 64 files, each file holding a class and
+# 20 functions, and reports the time
+# WordyCompiler took for each: cold (every file formed and verified) and
+# warm (every file loaded from the structure cache, in a temporary directory).
+#
+# usage: startup.sh <class path of Wordy and commons-cli> [file counts...]
+
+if [ -z "$1" ]; then
+  echo "usage: startup.sh <class path of Wordy and commons-cli> [file counts...]"
+  exit 1
+fi
+
+CLASSPATH_ARG=$1
+shift
+COUNTS=${@:-1 8 32 64}
+WORK=$(mktemp -d)
+trap 'rm -rf "$WORK"' EXIT
+
+#identifiers can't hold digits, so numbers are spelled with letters (12 -> bc)
+name() {
+  echo "$1" | tr 0123456789 abcdefghij
+}
+
+generate() {
+  local dir=$1
+  local count=$2
+  mkdir -p "$dir"
+  for ((i = 0; i < count; i++)); do
+    local unit=Unit$(name $i)
+    local file="$dir/$unit.w"
+    {
+      echo "import java.util.HashMap;"
+      echo ""
+      echo "class Shape$(name $i){"
+      echo "  let side;"
+      echo "  Shape$(name $i)(s){"
+      echo "    side = s;"
+      echo "  }"
+      echo "  function area(){"
+      echo "    return side * side;"
+      echo "  }"
+      echo "}"
+      echo ""
+      for ((f = 0; f < 20; f++)); do
+        echo "function compute$(name $f)(n){"
+        echo "  let total = 0;"
+        echo "  for(let k = 0; k < n; k = k + 1){"
+        echo "    if(k % 2 == 0){"
+        echo "      total = total + k * $f;"
+        echo "    }"
+        echo "    else{"
+        echo "      total = total - 1;"
+        echo "    }"
+        echo "  }"
+        echo "  return total;"
+        echo "}"
+        echo ""
+      done
+      if ((i == 0)); then
+        echo "function main(args){"
+        echo "  println(computeb(10));"
+        echo "}"
+      fi
+    } > "$file"
+  done
+}
+
+for count in $COUNTS; do
+  dir="$WORK/files$count"
+  generate "$dir" "$count"
+  sources=""
+  for ((i = 0; i < count; i++)); do
+    sources="$sources $dir/Unit$(name $i).w"
+  done
+  compile() {
+    echo n | java -Dwordy.cache="$WORK/cache" -cp "$CLASSPATH_ARG" wordy.logic.Main --verbose 1 "$@" $sources 2>&1 | grep -- "---COMPILE DONE"
+  }
+  cold=$(compile --no-cache)
+  compile > /dev/null
+  warm=$(compile)
+  echo "$count files: cold $cold | warm $warm"
+done
@@ -0,0 +1,28 @@
+#!/bin/bash
+#
+# Runs every program in Suite/ with --bench, on each execution engine, and 
+# reports the min, median and p99 time of a run and how much a run allocated.
+#
+# Each program and engine pair runs in its own JVM.
+#
+# usage: suite.sh <class path of Wordy and commons-cli> [runs] [engines...]
+
+if [ -z "$1" ]; then
+  echo "usage: suite.sh <class path of Wordy and commons-cli> [runs] [engines...]"
+  exit 1
+fi
+
+CLASSPATH_ARG=$1
+RUNS=${2:-20}
+shift
+[ $# -gt 0 ] && shift
+ENGINES=${@:-interpreter tree bytecode}
+SUITE="$(dirname "$0")/../Suite"
+
+for program in "$SUITE"/*.w; do
+  for engine in $ENGINES; do
+    echo "== $(basename "$program" .w) ($engine)"
+    echo n | java -cp "$CLASSPATH_ARG" wordy.logic.Main --bench "$RUNS" --engine "$engine" "$program" 2>&1 | 
+      sed -n '/--Benchmarked/,$p' | tail -n +2
+  done
+done
@@ -0,0 +1,65 @@
+#!/bin/bash
+#
+# Measures Tokenizer throughput (in MB/s) on large generated sources.
+#
+# Generates sources of 1, 8 and 32 MB (functions with arithmetic, comments,
+# string literals and decimals), compiles TokenizerThroughput.java against
+# the given class path and runs it on them.
+#
+# usage: tokenizer.sh <class path of Wordy> [sizes in MB...]
+
+if [ -z "$1" ]; then
+  echo "usage: tokenizer.sh <class path of Wordy> [sizes in MB...]"
+  exit 1
+fi
+
+CLASSPATH_ARG=$1
+shift
+SIZES=${@:-1 8 32}
+HERE=$(cd "$(dirname "$0")" && pwd)
+WORK=$(mktemp -d)
+trap 'rm -rf "$WORK"' EXIT
+
+#identifiers can't hold digits, so numbers are spelled with letters (12 -> bc)
+name() {
+  echo "$1" | tr 0123456789 abcdefghij
+}
+
+#one chunk of source, repeated until the file is large enough
+chunk() {
+  for ((f = 0; f < 100; f++)); do
+    echo "/*"
+    echo " computes a running total"
+    echo "*/"
+    echo "function compute$(name $f)(n){"
+    echo "  let total = 0.5; // the starting total"
+    echo "  for(let k = 0; k < n; k = k + 1){"
+    echo "    if(k % 2 == 0 && k != $f){"
+    echo "      total = total + k * $f.25;"
+    echo "    }"
+    echo "    else{"
+    echo "      total = total - 1;"
+    echo "    }"
+    echo "  }"
+    echo "  println(\"total: \" + total);"
+    echo "  return total;"
+    echo "}"
+    echo ""
+  done
+}
+
+chunk > "$WORK/chunk.w"
+CHUNK_SIZE=$(wc -c < "$WORK/chunk.w")
+
+sources=""
+for size in $SIZES; do
+  file="$WORK/Source$(name $size).w"
+  repeats=$(( (size * 1048576 + CHUNK_SIZE - 1) / CHUNK_SIZE ))
+  for ((r = 0; r < repeats; r++)); do
+    cat "$WORK/chunk.w"
+  done > "$file"
+  sources="$sources $file"
+done
+
+javac -nowarn -cp "$CLASSPATH_ARG" -d "$WORK" "$HERE/TokenizerThroughput.java" || exit 1
+java -cp "$CLASSPATH_ARG:$WORK" TokenizerThroughput $sources
@@ -0,0 +1,54 @@
+/*
+ Binary trees: allocating and walking many short lived trees of Wordy
+ objects (plus one long lived tree), then checking their node counts.
+*/
+
+class TreeNode{
+  let left;
+  let right;
+  
+  TreeNode(l, r){
+    left = l;
+    right = r;
+  }
+  
+  function count(){
+    if(left == null){
+      return 1;
+    }
+    return 1 + left.count() + right.count();
+  }
+}
+
+function bottomUp(depth){
+  if(depth > 0){
+    return TreeNode(bottomUp(depth - 1), bottomUp(depth - 1));
+  }
+  return TreeNode(null, null);
+}
+
+function main(args){
+  let minDepth = 4;
+  let maxDepth = 10;
+  
+  let stretch = bottomUp(maxDepth + 1);
+  println("stretch tree of depth " + (maxDepth + 1) + " check: " + stretch.count());
+  
+  let longLived = bottomUp(maxDepth);
+  
+  for(let depth = minDepth; depth <= maxDepth; depth = depth + 2){
+    let iterations = 1;
+    for(let k = depth; k < maxDepth + minDepth; k = k + 1){
+      iterations = iterations * 2;
+    }
+    
+    let total = 0;
+    for(let i = 0; i < iterations; i = i + 1){
+      let tree = bottomUp(depth);
+      total = total + tree.count();
+    }
+    println(iterations + " trees of depth " + depth + " check: " + total);
+  }
+  
+  println("long lived tree of depth " + maxDepth + " check: " + longLived.count());
+}
@@ -0,0 +1,45 @@
+import wordy.standard.Exception;
+
+/*
+ Exception heavy control flow: a third of the calls throw from a few
+ calls deep, and are caught in main.
+*/
+
+class InvalidValue : Exception{
+  let value;
+  
+  InvalidValue(v){
+    super("invalid value " + v);
+    value = v;
+  }
+}
+
+function validate(v){
+  if(v % 3 == 0){
+    throw InvalidValue(v);
+  }
+  return v;
+}
+
+function nested(v, depth){
+  if(depth == 0){
+    return validate(v);
+  }
+  return nested(v, depth - 1);
+}
+
+function main(args){
+  let total = 0;
+  let caught = 0;
+  for(let i = 0; i < 5000; i = i + 1){
+    try{
+      total = total + nested(i, 8);
+    }
+    catch(InvalidValue e){
+      caught = caught + 1;
+      total = total - e.value;
+    }
+  }
+  println(caught);
+  println(total);
+}
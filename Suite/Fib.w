@@ -0,0 +1,15 @@
+/*
+ Recursive fibonacci: calls to a file function, comparisons and
+ integer arithmetic. fib(n) is never more than n calls deep.
+*/
+
+function fib(n){
+  if(n < 2){
+    return n;
+  }
+  return fib(n - 1) + fib(n - 2);
+}
+
+function main(args){
+  println(fib(25));
+}
@@ -0,0 +1,79 @@
+/*
+ Linked list traversal: a list of Wordy objects built once, then walked
+ over and over - reading fields and calling methods on every node.
+*/
+
+class Node{
+  let value;
+  let next;
+  
+  Node(v){
+    value = v;
+  }
+  
+  function getValue(){
+    return value;
+  }
+}
+
+class LinkedList{
+  let head;
+  let tail;
+  let size;
+  
+  LinkedList(){
+    size = 0;
+  }
+  
+  function add(value){
+    let node = Node(value);
+    if(head == null){
+      head = node;
+    }
+    else{
+      tail.next = node;
+    }
+    tail = node;
+    size = size + 1;
+  }
+  
+  function sum(){
+    let total = 0;
+    let cur = head;
+    while(cur != null){
+      total = total + cur.getValue();
+      cur = cur.next;
+    }
+    return total;
+  }
+  
+  function contains(value){
+    let cur = head;
+    while(cur != null){
+      if(cur.value == value){
+        return true;
+      }
+      cur = cur.next;
+    }
+    return false;
+  }
+}
+
+function main(args){
+  let list = LinkedList();
+  for(let i = 0; i < 2000; i = i + 1){
+    list.add(i);
+  }
+  
+  let total = 0;
+  let found = 0;
+  for(let pass = 0; pass < 20; pass = pass + 1){
+    total = total + list.sum();
+    if(list.contains(pass * 100)){
+      found = found + 1;
+    }
+  }
+  println(list.size);
+  println(total);
+  println(found);
+}
@@ -0,0 +1,155 @@
+/*
+ N-body: a floating point simulation of the Jovian planets, reading and
+ writing fields of Wordy objects. The bodies are chained through their
+ next field.
+ 
+ Numbers are written as decimals throughout, as arithmetic on a mix of
+ integers and decimals only adds.
+*/
+
+class Body{
+  let x;
+  let y;
+  let z;
+  let vx;
+  let vy;
+  let vz;
+  let mass;
+  let next;
+  
+  Body(px, py, pz, pvx, pvy, pvz, pmass, pnext){
+    x = px;
+    y = py;
+    z = pz;
+    vx = pvx;
+    vy = pvy;
+    vz = pvz;
+    mass = pmass;
+    next = pnext;
+  }
+}
+
+function solarMass(){
+  let pi = 3.141592653589793;
+  return 4.0 * pi * pi;
+}
+
+//a Body from its velocity in AU per year, and its mass in solar masses
+function planet(px, py, pz, pvx, pvy, pvz, pmass, next){
+  let daysPerYear = 365.24;
+  return Body(px, py, pz, pvx * daysPerYear, pvy * daysPerYear, pvz * daysPerYear, pmass * solarMass(), next);
+}
+
+function createBodies(){
+  let neptune = planet(15.3796971148509165, 
+                       -25.9193146099879641, 
+                       0.179258772950371181, 
+                       0.00268067772490389322, 
+                       0.00162824170038242295, 
+                       -0.0000951592254519715870, 
+                       0.0000515138902046611451, 
+                       null);
+  let uranus = planet(12.8943695621391310, 
+                      -15.1111514016986312, 
+                      -0.223307578892655734, 
+                      0.00296460137564761618, 
+                      0.00237847173959480950, 
+                      -0.0000296589568540237556, 
+                      0.0000436624404335156298, 
+                      neptune);
+  let saturn = planet(8.34336671824457987, 
+                      4.12479856412430479, 
+                      -0.403523417114321381, 
+                      -0.00276742510726862411, 
+                      0.00499852801234917238, 
+                      0.0000230417297573763929, 
+                      0.000285885980666130812, 
+                      uranus);
+  let jupiter = planet(4.84143144246472090, 
+                       -1.16032004402742839, 
+                       -0.103622044471123109, 
+                       0.00166007664274403694, 
+                       0.00769901118419740425, 
+                       -0.0000690460016972063023, 
+                       0.000954791938424326609, 
+                       saturn);
+  return planet(0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 1.0, jupiter);
+}
+
+function offsetMomentum(sun){
+  let px = 0.0;
+  let py = 0.0;
+  let pz = 0.0;
+  let body = sun;
+  while(body != null){
+    px = px + body.vx * body.mass;
+    py = py + body.vy * body.mass;
+    pz = pz + body.vz * body.mass;
+    body = body.next;
+  }
+  sun.vx = 0.0 - px / solarMass();
+  sun.vy = 0.0 - py / solarMass();
+  sun.vz = 0.0 - pz / solarMass();
+}
+
+function advance(bodies, dt){
+  let body = bodies;
+  while(body != null){
+    let other = body.next;
+    while(other != null){
+      let dx = body.x - other.x;
+      let dy = body.y - other.y;
+      let dz = body.z - other.z;
+      
+      let squared = dx * dx + dy * dy + dz * dz;
+      let magnitude = dt / (squared * Math.sqrt(squared));
+      
+      body.vx = body.vx - dx * other.mass * magnitude;
+      body.vy = body.vy - dy * other.mass * magnitude;
+      body.vz = body.vz - dz * other.mass * magnitude;
+      
+      other.vx = other.vx + dx * body.mass * magnitude;
+      other.vy = other.vy + dy * body.mass * magnitude;
+      other.vz = other.vz + dz * body.mass * magnitude;
+      other = other.next;
+    }
+    body = body.next;
+  }
+  
+  body = bodies;
+  while(body != null){
+    body.x = body.x + dt * body.vx;
+    body.y = body.y + dt * body.vy;
+    body.z = body.z + dt * body.vz;
+    body = body.next;
+  }
+}
+
+function energy(bodies){
+  let total = 0.0;
+  let body = bodies;
+  while(body != null){
+    total = total + 0.5 * body.mass * (body.vx * body.vx + body.vy * body.vy + body.vz * body.vz);
+    let other = body.next;
+    while(other != null){
+      let dx = body.x - other.x;
+      let dy = body.y - other.y;
+      let dz = body.z - other.z;
+      total = total - (body.mass * other.mass) / Math.sqrt(dx * dx + dy * dy + dz * dz);
+      other = other.next;
+    }
+    body = body.next;
+  }
+  return total;
+}
+
+function main(args){
+  let bodies = createBodies();
+  offsetMomentum(bodies);
+  
+  println(energy(bodies));
+  for(let step = 0; step < 1000; step = step + 1){
+    advance(bodies, 0.01);
+  }
+  println(energy(bodies));
+}
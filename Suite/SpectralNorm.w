@@ -0,0 +1,61 @@
+import wordy.standard.Array;
+
+/*
+ Spectral norm: the largest singular value of an infinite matrix, by the
+ power method on its 100 by 100 corner. Mostly function calls and
+ floating point arithmetic on the elements of Arrays.
+*/
+
+function entry(i, j){
+  let sum = i + j;
+  //+ 0.0 makes the integer a decimal, as arithmetic on a mix of the two only adds
+  return 1.0 / (sum * (sum + 1) / 2 + i + 1 + 0.0);
+}
+
+function multiplyAv(n, v, av){
+  for(let i = 0; i < n; i = i + 1){
+    let sum = 0.0;
+    for(let j = 0; j < n; j = j + 1){
+      sum = sum + entry(i, j) * v.get(j);
+    }
+    av.set(i, sum);
+  }
+}
+
+function multiplyAtv(n, v, atv){
+  for(let i = 0; i < n; i = i + 1){
+    let sum = 0.0;
+    for(let j = 0; j < n; j = j + 1){
+      sum = sum + entry(j, i) * v.get(j);
+    }
+    atv.set(i, sum);
+  }
+}
+
+function multiplyAtAv(n, v, atav, temp){
+  multiplyAv(n, v, temp);
+  multiplyAtv(n, temp, atav);
+}
+
+function main(args){
+  let n = 100;
+  let u = Array(n);
+  let v = Array(n);
+  let temp = Array(n);
+  for(let i = 0; i < n; i = i + 1){
+    u.set(i, 1.0);
+  }
+  
+  for(let i = 0; i < 10; i = i + 1){
+    multiplyAtAv(n, u, v, temp);
+    multiplyAtAv(n, v, u, temp);
+  }
+  
+  let vBv = 0.0;
+  let vv = 0.0;
+  for(let i = 0; i < n; i = i + 1){
+    vBv = vBv + u.get(i) * v.get(i);
+    vv = vv + v.get(i) * v.get(i);
+  }
+  println(Math.sqrt(vBv / vv));
+}
@@ -0,0 +1,28 @@
+import java.lang.StringBuilder;
+
+/*
+ String building: appending to a StringBuilder (calls to overloaded Java
+ methods), and concatenating Strings with +.
+*/
+
+function main(args){
+  let builder = StringBuilder();
+  for(let i = 0; i < 20000; i = i + 1){
+    builder.append("item ");
+    builder.append(i);
+    builder.append(", ");
+  }
+  println(builder.length());
+  
+  let line = "";
+  let lines = 0;
+  for(let i = 0; i < 20000; i = i + 1){
+    line = line + i + " ";
+    if(line.length() > 256){
+      line = "";
+      lines = lines + 1;
+    }
+  }
+  println(lines);
+  println(line.length());
+}
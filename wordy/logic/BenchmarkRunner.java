@@ -0,0 +1,175 @@
+package wordy.logic;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+
+import wordy.logic.runtime.WordyRuntime;
+import wordy.logic.runtime.components.Instance;
+import wordy.logic.runtime.errors.FatalInternalException;
+import wordy.logic.runtime.errors.InvocationException;
+
+/**
+ * Runs the main function of a program over and over in this JVM, and reports
+ * how long each run took (min, median and p99) and how much it allocated.
+ *
+ * The measured runs come after a number of unmeasured warmup runs, so that the
+ * runtime's caches are filled and the JIT has compiled the hot paths. Only the first
+ * warmup run prints what main prints - the output of every other run is discarded.
+ *
+ * Allocation is what the main thread allocated during a run, so it doesn't include what
+ * functions invoked through spawn() allocate on carrier threads. It's only reported
+ * on JVMs that can measure it (Like: HotSpot).
+ *
+ * @author Jose Guaro
+ *
+ */
+public class BenchmarkRunner {
+
+  /**
+   * The amount of warmup runs, when not given
+   */
+  public static final int DEFAULT_WARMUP = 5;
+
+  private final WordyRuntime runtime;
+  private final String mainFile;
+  private final Instance mainArg;
+  private final int runs;
+  private final int warmup;
+
+  /**
+   * Constructs a BenchmarkRunner
+   * @param runtime - the initialized WordyRuntime
+   * @param mainFile - the name of the file whose main function to run
+   * @param mainArg - the argument to pass to the main function
+   * @param runs - the amount of measured runs
+   * @param warmup - the amount of unmeasured runs before the measured ones
+   */
+  public BenchmarkRunner(WordyRuntime runtime, String mainFile, Instance mainArg, int runs, int warmup) {
+    this.runtime = runtime;
+    this.mainFile = mainFile;
+    this.mainArg = mainArg;
+    this.runs = runs;
+    this.warmup = warmup;
+  }
+
+  /**
+   * Runs the warmup runs, then the measured runs, and prints the results.
+   *
+   * If main fails in any run, the error is printed and no more runs are done
+   * @return true if all runs completed, false if main failed
+   */
+  public boolean run() {
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    com.sun.management.ThreadMXBean allocations = null;
+    if (threads instanceof com.sun.management.ThreadMXBean) {
+      allocations = (com.sun.management.ThreadMXBean) threads;
+      if (allocations.isThreadAllocatedMemorySupported() == false) {
+        allocations = null;
+      }
+      else if (allocations.isThreadAllocatedMemoryEnabled() == false) {
+        allocations.setThreadAllocatedMemoryEnabled(true);
+      }
+    }
+    long threadId = Thread.currentThread().getId();
+
+    long [] times = new long[runs];
+    long [] allocated = new long[runs];
+
+    PrintStream console = System.out;
+    PrintStream discard = new PrintStream(new OutputStream() {
+      public void write(int b) {}
+
+      public void write(byte [] b, int off, int len) {}
+    });
+
+    try {
+      for(int i = 0; i < warmup; i++) {
+        if (i == 1) {
+          //only the first run prints
+          System.setOut(discard);
+        }
+        runMain();
+      }
+
+      System.setOut(discard);
+      for(int i = 0; i < runs; i++) {
+        long allocatedBefore = allocations == null ? 0 : allocations.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        runMain();
+        times[i] = System.nanoTime() - start;
+        allocated[i] = allocations == null ? 0 : allocations.getThreadAllocatedBytes(threadId) - allocatedBefore;
+      }
+    } catch (InvocationException e) {
+      e.printStackTrace();
+      return false;
+    } catch (FatalInternalException e) {
+      System.err.println(e.getMessage());
+      return false;
+    } catch (RuntimeException e) {
+      //Like: calling a function that doesn't exist
+      e.printStackTrace();
+      return false;
+    } finally {
+      System.setOut(console);
+    }
+
+    Arrays.sort(times);
+    long totalAllocated = 0;
+    for(long bytes : allocated) {
+      totalAllocated += bytes;
+    }
+
+    System.out.println();
+    System.out.println("      --Benchmarked main in "+mainFile+": "+runs+" runs after "+warmup+" warmup runs--      ");
+    System.out.println("  min:       "+millis(times[0]));
+    System.out.println("  median:    "+millis(median(times)));
+    System.out.println("  p99:       "+millis(percentile(times, 99)));
+    System.out.println("  allocated: "+(allocations == null ? "not measurable on this JVM" : bytes(totalAllocated / runs)+" per run"));
+    return true;
+  }
+
+  private void runMain() throws InvocationException {
+    runtime.invoke(mainFile, 1, mainArg);
+  }
+
+  /**
+   * Returns the median of sorted values
+   * @param sorted - the values, in ascending order
+   * @return the middle value, or the mean of the two middle values if there's an even amount
+   */
+  private static long median(long [] sorted) {
+    int middle = sorted.length / 2;
+    if (sorted.length % 2 == 0) {
+      return (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+    return sorted[middle];
+  }
+
+  /**
+   * Returns a percentile of sorted values, by nearest rank
+   * @param sorted - the values, in ascending order
+   * @param percent - the percentile, from 1 to 100
+   * @return the smallest value that at least percent% of the values are less or equal to
+   */
+  private static long percentile(long [] sorted, int percent) {
+    int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+    return sorted[Math.max(rank, 1) - 1];
+  }
+
+  private static String millis(long nanos) {
+    return String.format("%.3f ms", nanos / 1000000.0);
+  }
+
+  private static String bytes(long bytes) {
+    if (bytes >= 1024 * 1024) {
+      return String.format("%.2f MB", bytes / (1024.0 * 1024.0));
+    }
+    else if (bytes >= 1024) {
+      return String.format("%.2f KB", bytes / 1024.0);
+    }
+    return bytes+" B";
+  }
+}
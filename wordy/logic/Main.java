@@ -6,6 +6,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
@@ -16,7 +17,12 @@ import org.apache.commons.cli.ParseException;
 
 import wordy.logic.compile.WordyCompiler;
 import wordy.logic.compile.structure.FileStructure;
+import wordy.logic.compile.trace.PrintingTraceListener;
+import wordy.logic.compile.trace.Trace;
+import wordy.logic.compile.trace.TraceLevel;
+import wordy.logic.runtime.ExecutionEngine;
 import wordy.logic.runtime.WordyRuntime;
+import wordy.logic.runtime.execution.TaskScheduler;
 import wordy.logic.runtime.components.Instance;
 import wordy.logic.runtime.components.JavaInstance;
 import wordy.standard.Array;
@@ -42,12 +48,22 @@ public class Main {
           
           System.out.println("---SOURCES: "+Arrays.toString(sourceFiles));
           
+          if (arguments.traceLevel != null) {
+            Trace.setListener(new PrintingTraceListener(System.out), arguments.traceLevel);
+          }
+          
           WordyCompiler compiler = new WordyCompiler(sourceFiles);
+          if (arguments.useCache == false) {
+            compiler.setStructureCache(null);
+          }
           Map<String, FileStructure> fileMap = compiler.compile();
           
           
           System.out.println("      --...Form completed. Interpreting now...--      ");
-          WordyRuntime runtime = new WordyRuntime();
+          WordyRuntime runtime = new WordyRuntime(arguments.engine);
+          if (arguments.carriers > 0) {
+            runtime.setCarriers(arguments.carriers);
+          }
           System.out.println("      --Initializing runtime environment--      ");
           runtime.initialize(fileMap);
           String mainSourceFile = arguments.mainFile;
@@ -65,7 +81,22 @@ public class Main {
             arrayOfArgs.set(i, JavaInstance.wrapInstance(programArgs[i]));
           }
                     
-          runtime.execute(mainSourceFile, 1, JavaInstance.wrapInstance(arrayOfArgs));
+          if (arguments.watch) {
+            SourceWatcher watcher = new SourceWatcher(sourceFiles, compiler, fileMap, runtime, 
+                                                      mainSourceFile, JavaInstance.wrapInstance(arrayOfArgs));
+            watcher.runMain();
+            watcher.watch();
+          }
+          else if (arguments.bench > 0) {
+            new BenchmarkRunner(runtime, mainSourceFile, JavaInstance.wrapInstance(arrayOfArgs), 
+                                arguments.bench, arguments.warmup).run();
+          }
+          else if (arguments.threads > 1) {
+            executeConcurrently(runtime, mainSourceFile, arguments.threads, JavaInstance.wrapInstance(arrayOfArgs));
+          }
+          else {
+            runtime.execute(mainSourceFile, 1, JavaInstance.wrapInstance(arrayOfArgs));
+          }
         }
         else {
           //must have at least one source file
@@ -75,6 +106,49 @@ public class Main {
     }  
   }
   
+  /**
+   * Executes the main function on multiple threads at once, all sharing the same 
+   * WordyRuntime, and prints how long it took.
+   * 
+   * Running this with an increasing amount of threads shows how executions scale across cores
+   * 
+   * @param runtime - the initialized WordyRuntime
+   * @param mainSourceFile - the name of the file whose main function to execute
+   * @param threads - the amount of threads to execute the main function on
+   * @param mainArg - the argument to pass to the main function
+   */
+  private static void executeConcurrently(final WordyRuntime runtime, 
+                                          final String mainSourceFile, 
+                                          int threads, 
+                                          final Instance mainArg) throws InterruptedException {
+    final CountDownLatch startSignal = new CountDownLatch(1);
+    Thread [] executors = new Thread[threads];
+    for(int i = 0; i < threads; i++) {
+      executors[i] = new Thread(new Runnable() {
+        public void run() {
+          try {
+            startSignal.await();
+          } catch (InterruptedException e) {
+            return;
+          }
+          runtime.execute(mainSourceFile, 1, mainArg);
+        }
+      }, "wordy-main-"+i);
+      executors[i].start();
+    }
+    
+    long start = System.nanoTime();
+    startSignal.countDown();
+    for(Thread executor : executors) {
+      executor.join();
+    }
+    long elapsed = (System.nanoTime() - start) / 1000000;
+    
+    System.out.println();
+    System.out.println("      --Executed main on "+threads+" threads in "+elapsed+" ms ("+
+                       (threads * 1000.0 / Math.max(elapsed, 1))+" executions/s)--      ");
+  }
+  
   private static void printCompilerIntro(String [] sources) {
     System.out.println("      WORDY: Vers. "+WordyCompiler.WORDY_VERSION+"      ");
     System.out.println("--Target source files: ");
@@ -117,6 +191,89 @@ public class Main {
           }
           arguments.setClassFolder(directory);
         }
+        else if (proc.getLongOpt().equals("engine")) {
+          try {
+            arguments.setEngine(ExecutionEngine.valueOf(proc.getValue().toUpperCase()));
+          } catch (IllegalArgumentException e) {
+            System.err.println("'"+proc.getValue()+"' isn't an execution engine. Expected one of "+Arrays.toString(ExecutionEngine.values()));
+            System.err.println(USAGE);
+            return null;
+          }
+        }
+        else if (proc.getLongOpt().equals("threads")) {
+          try {
+            arguments.setThreads(Integer.parseInt(proc.getValue()));
+          } catch (NumberFormatException e) {
+            arguments.setThreads(0);
+          }
+          if (arguments.threads < 1) {
+            System.err.println("'"+proc.getValue()+"' isn't a valid amount of threads. Expected a positive integer");
+            System.err.println(USAGE);
+            return null;
+          }
+        }
+        else if (proc.getLongOpt().equals("carriers")) {
+          try {
+            arguments.setCarriers(Integer.parseInt(proc.getValue()));
+          } catch (NumberFormatException e) {
+            arguments.setCarriers(0);
+          }
+          if (arguments.carriers < 1) {
+            System.err.println("'"+proc.getValue()+"' isn't a valid amount of carrier threads. Expected a positive integer");
+            System.err.println(USAGE);
+            return null;
+          }
+        }
+        else if (proc.getLongOpt().equals("verbose")) {
+          int verbosity = -1;
+          try {
+            verbosity = Integer.parseInt(proc.getValue());
+          } catch (NumberFormatException e) {
+            //checked below
+          }
+          if (verbosity < 0 || verbosity > TraceLevel.values().length) {
+            System.err.println("'"+proc.getValue()+"' isn't a valid verbosity. Expected 0 to "+TraceLevel.values().length);
+            System.err.println(USAGE);
+            return null;
+          }
+          arguments.setTraceLevel(verbosity == 0 ? null : TraceLevel.values()[verbosity - 1]);
+        }
+        else if (proc.getLongOpt().equals("no-cache")) {
+          arguments.setUseCache(false);
+        }
+        else if (proc.getLongOpt().equals("watch")) {
+          arguments.setWatch(true);
+        }
+        else if (proc.getLongOpt().equals("bench")) {
+          try {
+            arguments.setBench(Integer.parseInt(proc.getValue()));
+          } catch (NumberFormatException e) {
+            arguments.setBench(0);
+          }
+          if (arguments.bench < 1) {
+            System.err.println("'"+proc.getValue()+"' isn't a valid amount of runs. Expected a positive integer");
+            System.err.println(USAGE);
+            return null;
+          }
+        }
+        else if (proc.getLongOpt().equals("warmup")) {
+          try {
+            arguments.setWarmup(Integer.parseInt(proc.getValue()));
+          } catch (NumberFormatException e) {
+            arguments.setWarmup(-1);
+          }
+          if (arguments.warmup < 0) {
+            System.err.println("'"+proc.getValue()+"' isn't a valid amount of warmup runs. Expected zero or a positive integer");
+            System.err.println(USAGE);
+            return null;
+          }
+        }
+      }
+      
+      if (arguments.bench > 0 && (arguments.watch || arguments.threads > 1)) {
+        System.err.println("-bench can't be combined with -watch or -threads");
+        System.err.println(USAGE);
+        return null;
       }
       
       String [] parsedArgs = cmd.getArgs();
@@ -171,9 +328,63 @@ public class Main {
     compiledClasses.setArgs(1);
     compiledClasses.setLongOpt("class");
     
+    Option engine = new Option("e", "Sets how functions are executed: 'interpreter' (default), 'tree' or 'bytecode'"+System.lineSeparator()+
+                                    "With 'tree', functions are converted to trees of executable nodes. With 'bytecode',"+System.lineSeparator()+
+                                    "functions are compiled to JVM classes. Both fall back to the interpreter"+System.lineSeparator()+
+                                    "for functions that can't be converted");
+    engine.setLongOpt("engine");
+    engine.setArgs(1);
+    
     options.addOption(help);
     options.addOption(mainFunc);
     options.addOption(compiledClasses);
+    Option threads = new Option("t", "Executes the main function on this many threads at once, all sharing one runtime,"+System.lineSeparator()+
+                                     "and prints the time taken. Used to measure how executions scale across cores");
+    threads.setLongOpt("threads");
+    threads.setArgs(1);
+    
+    Option carriers = new Option("r", "Sets how many platform threads run the functions invoked through spawn()."+System.lineSeparator()+
+                                      "On Java 21 and later, it's the amount of carrier threads of the virtual threads spawned"+System.lineSeparator()+
+                                      "functions run on (by default, the amount of available processors). On older JVMs, it's the"+System.lineSeparator()+
+                                      "most threads spawned functions run on at once (by default, "+TaskScheduler.DEFAULT_MAX_THREADS+")");
+    carriers.setLongOpt("carriers");
+    carriers.setArgs(1);
+    
+    Option verbose = new Option("v", "Sets how much of the compilation is printed: 0 (default) prints nothing,"+System.lineSeparator()+
+                                     "1 prints the time each phase took for each source file, 2 also prints"+System.lineSeparator()+
+                                     "the Tokens of each source file and 3 prints everything the compiler comes across");
+    verbose.setLongOpt("verbose");
+    verbose.setArgs(1);
+    
+    Option noCache = new Option("n", "Forms and verifies every source file, instead of loading unchanged files"+System.lineSeparator()+
+                                     "from the structure cache (in the directory given by -Dwordy.cache)");
+    noCache.setLongOpt("no-cache");
+    noCache.setArgs(0);
+    
+    Option watch = new Option("w", "After running main, keeps watching the source files. Whenever they change, the changed"+System.lineSeparator()+
+                                   "files are compiled and swapped into the running program, and main is run again once it has finished");
+    watch.setLongOpt("watch");
+    watch.setArgs(0);
+    
+    Option bench = new Option("b", "Runs main this many times in one JVM, after the warmup runs, and prints the min, median"+System.lineSeparator()+
+                                   "and p99 time of a run, and how much a run allocated. Only the first warmup run prints"+System.lineSeparator()+
+                                   "what main prints");
+    bench.setLongOpt("bench");
+    bench.setArgs(1);
+    
+    Option warmup = new Option("u", "Sets how many unmeasured runs of main come before the measured ones, with -bench."+System.lineSeparator()+
+                                    "By default, it's "+BenchmarkRunner.DEFAULT_WARMUP);
+    warmup.setLongOpt("warmup");
+    warmup.setArgs(1);
+    
+    options.addOption(engine);
+    options.addOption(threads);
+    options.addOption(carriers);
+    options.addOption(verbose);
+    options.addOption(noCache);
+    options.addOption(watch);
+    options.addOption(bench);
+    options.addOption(warmup);
     
     return options;
   }
@@ -192,12 +403,24 @@ public class Main {
   public static class ParsedArguments{
     private String mainFile;
     private String classFolder; 
+    private ExecutionEngine engine;
+    private int threads;
+    private int carriers;
+    private TraceLevel traceLevel;
+    private boolean useCache;
+    private boolean watch;
+    private int bench;
+    private int warmup;
     private List<String> sources;
     private List<String> arguments;
     
     public ParsedArguments() {
       sources = new ArrayList<>();
       arguments = new ArrayList<>();
+      engine = ExecutionEngine.INTERPRETER;
+      threads = 1;
+      useCache = true;
+      warmup = BenchmarkRunner.DEFAULT_WARMUP;
     }
     
     public void setMainFile(String mainFile) {
@@ -208,6 +431,38 @@ public class Main {
       this.classFolder = classFolder;
     }
     
+    public void setEngine(ExecutionEngine engine) {
+      this.engine = engine;
+    }
+    
+    public void setThreads(int threads) {
+      this.threads = threads;
+    }
+    
+    public void setCarriers(int carriers) {
+      this.carriers = carriers;
+    }
+    
+    public void setTraceLevel(TraceLevel traceLevel) {
+      this.traceLevel = traceLevel;
+    }
+    
+    public void setUseCache(boolean useCache) {
+      this.useCache = useCache;
+    }
+    
+    public void setWatch(boolean watch) {
+      this.watch = watch;
+    }
+    
+    public void setBench(int bench) {
+      this.bench = bench;
+    }
+    
+    public void setWarmup(int warmup) {
+      this.warmup = warmup;
+    }
+    
     public void addArgument(String arg) {
       arguments.add(arg);
     }
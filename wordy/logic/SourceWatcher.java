@@ -0,0 +1,190 @@
+package wordy.logic;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import wordy.logic.compile.WordyCompiler;
+import wordy.logic.compile.structure.FileStructure;
+import wordy.logic.runtime.WordyRuntime;
+import wordy.logic.runtime.components.Instance;
+import wordy.logic.runtime.errors.FatalInternalException;
+import wordy.logic.runtime.errors.InvocationException;
+
+/**
+ * Watches the source files of a running program, and swaps the changed files into it.
+ *
+ * Only the changed files are compiled again (see WordyCompiler.recompile()) and swapped into
+ * the runtime (see WordyRuntime.swap()) - the runtime itself, and the files that didn't change, are kept.
+ *
+ * The main function runs on its own thread. If it's still running when files change, it keeps
+ * on running and its next calls use the new code. Otherwise, it's run again.
+ *
+ * Errors (while compiling, or running main) are printed, and the watcher keeps on watching.
+ *
+ * @author Jose Guaro
+ *
+ */
+public class SourceWatcher {
+
+  /**
+   * How long to wait for further changes once a change is seen,
+   * as editors may write a file in multiple steps
+   */
+  private static final long SETTLE_MILLIS = 30;
+
+  private final WordyCompiler compiler;
+  private final WordyRuntime runtime;
+  private final Map<String, FileStructure> structures;
+  private final Map<Path, String> watched; //source files by their absolute path
+  private final String mainFile;
+  private final Instance mainArg;
+  private Thread mainThread;
+
+  /**
+   * Constructs a SourceWatcher
+   * @param sources - the file paths of the program's sources
+   * @param compiler - the WordyCompiler the sources were compiled with
+   * @param structures - the FileStructures of the sources, as compiled by compiler
+   * @param runtime - the WordyRuntime initialized with the structures
+   * @param mainFile - the name of the file whose main function to run
+   * @param mainArg - the argument to pass to the main function
+   */
+  public SourceWatcher(String [] sources,
+                       WordyCompiler compiler,
+                       Map<String, FileStructure> structures,
+                       WordyRuntime runtime,
+                       String mainFile,
+                       Instance mainArg) {
+    this.compiler = compiler;
+    this.runtime = runtime;
+    this.structures = new HashMap<>(structures);
+    this.mainFile = mainFile;
+    this.mainArg = mainArg;
+
+    watched = new HashMap<>();
+    for(String source : sources) {
+      watched.put(Paths.get(source).toAbsolutePath().normalize(), source);
+    }
+  }
+
+  /**
+   * Starts running the main function on its own thread, printing any error it ends with
+   */
+  public void runMain() {
+    mainThread = new Thread(new Runnable() {
+      public void run() {
+        long start = System.nanoTime();
+        try {
+          runtime.invoke(mainFile, 1, mainArg);
+        } catch (InvocationException e) {
+          e.printStackTrace();
+        } catch (FatalInternalException e) {
+          System.err.println(e.getMessage());
+        } catch (RuntimeException e) {
+          //Like: calling a function that doesn't exist
+          e.printStackTrace();
+        }
+
+        System.out.println();
+        System.out.println("      --main finished in "+((System.nanoTime() - start) / 1000000)+" ms--      ");
+      }
+    }, "wordy-main");
+    mainThread.setDaemon(true);
+    mainThread.start();
+  }
+
+  /**
+   * Watches the source files until this thread is interrupted, compiling and swapping
+   * in the changed files on every change
+   * @throws IOException - if the directories of the source files can't be watched
+   */
+  public void watch() throws IOException {
+    try (WatchService service = FileSystems.getDefault().newWatchService()) {
+      Set<Path> directories = new HashSet<>();
+      for(Path source : watched.keySet()) {
+        if (directories.add(source.getParent())) {
+          source.getParent().register(service,
+                                      StandardWatchEventKinds.ENTRY_CREATE,
+                                      StandardWatchEventKinds.ENTRY_MODIFY);
+        }
+      }
+
+      System.out.println("      --Watching "+watched.size()+" source files for changes--      ");
+      while (true) {
+        LinkedHashSet<String> changed = new LinkedHashSet<>();
+        collectChanges(service.take(), changed);
+
+        WatchKey key = null;
+        while ((key = service.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+          collectChanges(key, changed);
+        }
+
+        if (changed.isEmpty() == false) {
+          reload(changed);
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void collectChanges(WatchKey key, Set<String> changed) {
+    Path directory = (Path) key.watchable();
+    for(WatchEvent<?> event : key.pollEvents()) {
+      if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+        //events were lost. Assume every file changed
+        changed.addAll(watched.values());
+        continue;
+      }
+
+      String source = watched.get(directory.resolve((Path) event.context()).toAbsolutePath().normalize());
+      if (source != null) {
+        changed.add(source);
+      }
+    }
+    key.reset();
+  }
+
+  private void reload(Set<String> changed) {
+    System.out.println();
+    System.out.println("      --Changed: "+changed+"--      ");
+
+    long start = System.nanoTime();
+    try {
+      Map<String, FileStructure> recompiled = compiler.recompile(structures, changed.toArray(new String[changed.size()]));
+      long compiled = System.nanoTime();
+
+      runtime.swap(recompiled);
+      structures.putAll(recompiled);
+      long swapped = System.nanoTime();
+
+      System.out.print("      --Compiled in "+((compiled - start) / 1000000)+" ms, swapped in "+
+                       ((swapped - compiled) / 1000000)+" ms. ");
+    } catch (IOException | RuntimeException e) {
+      //compile errors leave the runtime as it was. The files are compiled again on their next change
+      System.err.println(e.getMessage());
+      return;
+    }
+
+    if (mainThread != null && mainThread.isAlive()) {
+      System.out.println("main is still running, and calls the new code from now on--      ");
+    }
+    else {
+      System.out.println("Invoking main function in "+mainFile+" --      ");
+      System.out.println();
+      runMain();
+    }
+  }
+}
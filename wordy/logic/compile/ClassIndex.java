@@ -0,0 +1,256 @@
+package wordy.logic.compile;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import wordy.logic.compile.trace.Trace;
+import wordy.logic.compile.trace.TraceLevel;
+
+/**
+ * The index of Java standard classes (those in java.lang and its subpackages)
+ * that every Wordy source file can use without importing.
+ *
+ * Finding these classes means scanning the JDK - rt.jar on Java 8, or the jrt:/ filesystem
+ * on Java 9 and later. As that's slow, the index is cached on disk, keyed by the JDK's version,
+ * and only rebuilt if the cached index is missing or was made for another JDK.
+ *
+ * The cache is kept in the directory given by the system property "wordy.cache"
+ * (by default, .wordy/cache in the user's home directory)
+ *
+ * @author Jose Guaro
+ *
+ */
+public class ClassIndex {
+
+  /**
+   * The version of the index file format. Index files of other versions are rebuilt
+   */
+  public static final int INDEX_VERSION = 1;
+
+  /**
+   * The system property holding the directory to cache the index in
+   */
+  public static final String CACHE_PROPERTY = "wordy.cache";
+
+  private static final String HEADER = "WORDY-CLASS-INDEX "+INDEX_VERSION;
+  private static final String PACKAGE_PATH = "java/lang/";
+
+  private ClassIndex() {}
+
+  /**
+   * Loads the index of Java standard classes of the current JDK, from the cache if possible
+   * @return the binary names of the classes (Like: java.lang.Thread$State), in a consistent order
+   */
+  public static List<String> load() {
+    long start = System.nanoTime();
+    String jdkVersion = System.getProperty("java.runtime.version", System.getProperty("java.version"));
+    String jdkHome = System.getProperty("java.home");
+
+    Path indexFile = getCacheDirectory().resolve("classes-"+jdkVersion.replaceAll("[^A-Za-z0-9._-]", "_")+".idx");
+
+    List<String> classes = readIndex(indexFile, jdkVersion, jdkHome);
+    String source = "cache";
+    if (classes == null) {
+      classes = scanJDK();
+      source = "JDK";
+      writeIndex(indexFile, jdkVersion, jdkHome, classes);
+    }
+
+    if (Trace.isOn(TraceLevel.PHASES)) {
+      Trace.message(TraceLevel.PHASES, "---LOADED "+classes.size()+" JAVA CLASSES FROM "+source+" IN "+
+                                       ((System.nanoTime() - start) / 1000000)+" ms---");
+    }
+    return classes;
+  }
+
+  /**
+   * Retrieves the directory the index is cached in
+   * @return the cache directory
+   */
+  public static Path getCacheDirectory() {
+    String directory = System.getProperty(CACHE_PROPERTY);
+    if (directory == null) {
+      return Paths.get(System.getProperty("user.home"), ".wordy", "cache");
+    }
+    return Paths.get(directory);
+  }
+
+  /**
+   * Reads a cached index
+   * @param indexFile - the index file
+   * @param jdkVersion - the version of the current JDK
+   * @param jdkHome - the home directory of the current JDK
+   * @return the classes in the index, or null if the index is missing,
+   *         can't be read or wasn't made for the current JDK
+   */
+  private static List<String> readIndex(Path indexFile, String jdkVersion, String jdkHome) {
+    if (Files.isRegularFile(indexFile) == false) {
+      return null;
+    }
+
+    try (BufferedReader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+      if (!HEADER.equals(reader.readLine()) ||
+          !jdkVersion.equals(reader.readLine()) ||
+          !String.valueOf(jdkHome).equals(reader.readLine())) {
+        return null;
+      }
+
+      ArrayList<String> classes = new ArrayList<>();
+      String line = null;
+      while ((line = reader.readLine()) != null) {
+        if (line.isEmpty() == false) {
+          classes.add(line);
+        }
+      }
+      return classes.isEmpty() ? null : classes;
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Caches an index. If the index can't be written, it's simply rebuilt on the next launch
+   * @param indexFile - the index file
+   * @param jdkVersion - the version of the current JDK
+   * @param jdkHome - the home directory of the current JDK
+   * @param classes - the classes of the index
+   */
+  private static void writeIndex(Path indexFile, String jdkVersion, String jdkHome, List<String> classes) {
+    if (classes.isEmpty()) {
+      return;
+    }
+
+    try {
+      Files.createDirectories(indexFile.getParent());
+
+      //written to a temporary file first, so other processes never read a partial index
+      Path temp = Files.createTempFile(indexFile.getParent(), "classes", ".tmp");
+      try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+        writer.write(HEADER);
+        writer.newLine();
+        writer.write(jdkVersion);
+        writer.newLine();
+        writer.write(String.valueOf(jdkHome));
+        writer.newLine();
+        for(String className : classes) {
+          writer.write(className);
+          writer.newLine();
+        }
+      }
+
+      try {
+        Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (IOException e) {
+        Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException e) {
+      //not cached
+    }
+  }
+
+  /**
+   * Finds the Java standard classes of the current JDK
+   * @return the binary names of the classes
+   */
+  private static List<String> scanJDK() {
+    try {
+      FileSystem jrt = FileSystems.getFileSystem(URI.create("jrt:/"));
+      return scanModules(jrt.getPath("/modules"));
+    } catch (Exception e) {
+      //Java 8 - no jrt:/ filesystem
+      return scanRuntimeJar();
+    }
+  }
+
+  /**
+   * Finds the Java standard classes in the modules of the jrt:/ filesystem (Java 9 and later)
+   * @param modules - the directory of all modules in the jrt:/ filesystem
+   * @return the binary names of the classes, sorted
+   * @throws IOException - if the jrt:/ filesystem couldn't be read
+   */
+  private static List<String> scanModules(Path modules) throws IOException {
+    final ArrayList<String> classes = new ArrayList<>();
+
+    try (DirectoryStream<Path> moduleDirs = Files.newDirectoryStream(modules)) {
+      for(Path module : moduleDirs) {
+        final Path moduleRoot = module;
+        Path javaLang = module.resolve(PACKAGE_PATH);
+        if (Files.isDirectory(javaLang) == false) {
+          continue;
+        }
+
+        Files.walkFileTree(javaLang, new SimpleFileVisitor<Path>() {
+          public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+            String entry = moduleRoot.relativize(file).toString();
+            if (entry.endsWith(WordyCompiler.CLASS_FILE)) {
+              classes.add(toClassName(entry));
+            }
+            return FileVisitResult.CONTINUE;
+          }
+        });
+      }
+    }
+
+    Collections.sort(classes);
+    return classes;
+  }
+
+  /**
+   * Finds the Java standard classes in rt.jar, from the boot class path (Java 8)
+   * @return the binary names of the classes, in the order they're in rt.jar
+   */
+  private static List<String> scanRuntimeJar() {
+    ArrayList<String> classNames = new ArrayList<>();
+    String paths = ManagementFactory.getRuntimeMXBean().getBootClassPath();
+
+    File rtFile = null;
+    for(String path : paths.split(File.pathSeparator)) {
+      File file = new File(path);
+      if (file.getName().equals(WordyCompiler.RUNTIME_JAR)) {
+        rtFile = file;
+        break;
+      }
+    }
+
+    if (rtFile == null) {
+      return classNames;
+    }
+
+    try (ZipInputStream inputStream = new ZipInputStream(new FileInputStream(rtFile))) {
+      for(ZipEntry entry = inputStream.getNextEntry() ; entry != null; entry = inputStream.getNextEntry()) {
+        if (entry.getName().startsWith(PACKAGE_PATH) && entry.getName().endsWith(WordyCompiler.CLASS_FILE)) {
+          classNames.add(toClassName(entry.getName()));
+        }
+      }
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
+
+    return classNames;
+  }
+
+  private static String toClassName(String entry) {
+    return entry.substring(0, entry.length() - WordyCompiler.CLASS_FILE.length()).replace('/', '.');
+  }
+}
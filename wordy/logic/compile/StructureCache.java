@@ -0,0 +1,818 @@
+package wordy.logic.compile;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import wordy.logic.compile.Token.Type;
+import wordy.logic.compile.nodes.ASTNode;
+import wordy.logic.compile.nodes.BinaryOpNode;
+import wordy.logic.compile.nodes.ConstantNode;
+import wordy.logic.compile.nodes.IdentifierNode;
+import wordy.logic.compile.nodes.LiteralNode;
+import wordy.logic.compile.nodes.MemberAccessNode;
+import wordy.logic.compile.nodes.MethodCallNode;
+import wordy.logic.compile.nodes.UnaryNode;
+import wordy.logic.compile.structure.CatchBlock;
+import wordy.logic.compile.structure.CatchBlock.ExceptionName;
+import wordy.logic.compile.structure.ClassStruct;
+import wordy.logic.compile.structure.FileStructure;
+import wordy.logic.compile.structure.ForLoopBlock;
+import wordy.logic.compile.structure.Function;
+import wordy.logic.compile.structure.IfBlock;
+import wordy.logic.compile.structure.ImportedFile;
+import wordy.logic.compile.structure.Statement;
+import wordy.logic.compile.structure.Statement.StatementDescription;
+import wordy.logic.compile.structure.StatementBlock;
+import wordy.logic.compile.structure.StatementBlock.BlockType;
+import wordy.logic.compile.structure.TryBlock;
+import wordy.logic.compile.structure.Variable;
+import wordy.logic.compile.structure.WhileLoopBlock;
+
+/**
+ * Caches the verified FileStructures of source files on disk, so unchanged sources
+ * don't have to be tokenized, formatted and verified again.
+ *
+ * A structure is cached under a hash of its file's name and content, along with the
+ * cache format and a fingerprint of the Wordy build (see getBuildFingerprint()), so a rebuilt
+ * compiler never loads structures formed by an older one. As verifying a file checks it against
+ * all other files, each cached structure also records the program (see programDigest()) it was verified in.
+ * A structure loaded for another program must be verified again.
+ *
+ * Structures are stored in a compact binary form: Tokens, nodes and statements are written
+ * once, then referred to by index, and so are the Strings of Tokens.
+ *
+ * The cache is kept in the "structures" directory of ClassIndex.getCacheDirectory()
+ *
+ * @author Jose Guaro
+ *
+ */
+public class StructureCache {
+
+  /**
+   * The version of the cache file format. Cached structures of other versions are ignored
+   */
+  public static final int FORMAT_VERSION = 1;
+
+  private static final int MAGIC = 0x57535443; //"WSTC"
+  private static final String CACHE_FILE = ".wst";
+
+  /*
+   * Tags preceding each written Token, node or statement
+   */
+  private static final byte NULL = 0;
+  private static final byte REFERENCE = 1;
+
+  private static final byte CONSTANT = 2;
+  private static final byte LITERAL = 3;
+  private static final byte IDENTIFIER = 4;
+  private static final byte OPERATOR = 5;
+  private static final byte UNARY = 6;
+  private static final byte MEM_ACCESS = 7;
+  private static final byte FUNC_CALL = 8;
+
+  private static final byte STATEMENT = 9;
+  private static final byte VARIABLE = 10;
+  private static final byte BLOCK = 11;
+  private static final byte IF_BLOCK = 12;
+  private static final byte WHILE_BLOCK = 13;
+  private static final byte FOR_BLOCK = 14;
+  private static final byte TRY_BLOCK = 15;
+  private static final byte CATCH_BLOCK = 16;
+
+  private static final byte TOKEN = 17;
+
+  private static String buildFingerprint;
+
+  private final Path directory;
+
+  /**
+   * Constructs a StructureCache
+   * @param directory - the directory to cache structures in
+   */
+  public StructureCache(Path directory) {
+    this.directory = directory;
+  }
+
+  /**
+   * Retrieves the directory structures are cached in by default
+   * @return the "structures" directory of ClassIndex.getCacheDirectory()
+   */
+  public static Path getDefaultDirectory() {
+    return ClassIndex.getCacheDirectory().resolve("structures");
+  }
+
+  /**
+   * Computes the key a source file's structure is cached under
+   * @param fileName - the name of the file's structure (the file name, without the .w extension)
+   * @param content - the content of the file
+   * @return the key of the file's structure
+   */
+  public static String key(String fileName, byte [] content) {
+    MessageDigest digest = newDigest();
+    digest.update((FORMAT_VERSION+"|"+getBuildFingerprint()+"|"+fileName+"|").getBytes(StandardCharsets.UTF_8));
+    digest.update(content);
+    return toHex(digest.digest());
+  }
+
+  /**
+   * Retrieves the fingerprint of the running Wordy build: a hash of the name, size and checksum
+   * (or modification time, when not in a jar) of every Wordy class in the jar or directory they
+   * were loaded from. It's computed once, the first time it's needed.
+   *
+   * If the classes can't be listed (Like: they weren't loaded from a jar or directory), the
+   * Implementation-Version of the jar is used instead
+   * @return the fingerprint of the running build
+   */
+  public static synchronized String getBuildFingerprint() {
+    if (buildFingerprint == null) {
+      buildFingerprint = computeBuildFingerprint();
+    }
+    return buildFingerprint;
+  }
+
+  private static String computeBuildFingerprint() {
+    //sorted by name, so the hash doesn't depend on the order classes are listed in
+    final TreeMap<String, String> classes = new TreeMap<>();
+    try {
+      CodeSource source = StructureCache.class.getProtectionDomain().getCodeSource();
+      final Path location = Paths.get(source.getLocation().toURI());
+
+      if (Files.isDirectory(location)) {
+        Files.walkFileTree(location.resolve("wordy"), new SimpleFileVisitor<Path>() {
+          public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+            if (file.toString().endsWith(".class")) {
+              classes.put(location.relativize(file).toString().replace('\\', '/'),
+                          attributes.size()+":"+attributes.lastModifiedTime().toMillis());
+            }
+            return FileVisitResult.CONTINUE;
+          }
+        });
+      }
+      else {
+        //the checksums are read from the jar's directory, without reading the classes themselves
+        try (JarFile jar = new JarFile(location.toFile())) {
+          Enumeration<JarEntry> entries = jar.entries();
+          while (entries.hasMoreElements()) {
+            JarEntry entry = entries.nextElement();
+            if (entry.getName().startsWith("wordy/") && entry.getName().endsWith(".class")) {
+              classes.put(entry.getName(), entry.getSize()+":"+Long.toHexString(entry.getCrc()));
+            }
+          }
+        }
+      }
+    } catch (IOException | URISyntaxException | RuntimeException e) {
+      //Like: no code source, or classes loaded over the network
+      return "version-"+StructureCache.class.getPackage().getImplementationVersion();
+    }
+
+    MessageDigest digest = newDigest();
+    for(Map.Entry<String, String> entry : classes.entrySet()) {
+      digest.update((entry.getKey()+"="+entry.getValue()+"|").getBytes(StandardCharsets.UTF_8));
+    }
+    return toHex(digest.digest());
+  }
+
+  /**
+   * Computes the digest of a program - identifying all the source files compiled together,
+   * and the Java standard classes available to them
+   * @param keys - the keys (see key()) of the program's source files, in the order they were given
+   * @return the digest of the program
+   */
+  public static String programDigest(List<String> keys) {
+    MessageDigest digest = newDigest();
+    digest.update(String.valueOf(System.getProperty("java.runtime.version")).getBytes(StandardCharsets.UTF_8));
+    for(String key : keys) {
+      digest.update((byte) '|');
+      digest.update(key.getBytes(StandardCharsets.UTF_8));
+    }
+    return toHex(digest.digest());
+  }
+
+  /**
+   * Loads a cached structure
+   * @param key - the key of the structure
+   * @return the cached structure, or null if there's none, or it couldn't be read
+   */
+  public CachedStructure load(String key) {
+    Path file = directory.resolve(key+CACHE_FILE);
+    if (Files.isRegularFile(file) == false) {
+      return null;
+    }
+
+    try (InputStream stream = Files.newInputStream(file)) {
+      DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+      if (in.readInt() != MAGIC ||
+          in.readInt() != FORMAT_VERSION ||
+          in.readDouble() != WordyCompiler.WORDY_VERSION) {
+        return null;
+      }
+
+      String verifiedIn = in.readUTF();
+      FileStructure structure = new StructureReader(in).readFile();
+      return new CachedStructure(structure, verifiedIn);
+    } catch (IOException | RuntimeException e) {
+      //a corrupt or outdated entry is simply formed again
+      return null;
+    }
+  }
+
+  /**
+   * Caches a verified structure. If it can't be written, the structure is simply formed again next time
+   * @param key - the key of the structure
+   * @param structure - the verified structure
+   * @param verifiedIn - the digest of the program the structure was verified in
+   */
+  public void store(String key, FileStructure structure, String verifiedIn) {
+    try {
+      Files.createDirectories(directory);
+
+      //written to a temporary file first, so other processes never read a partial structure
+      Path temp = Files.createTempFile(directory, key, ".tmp");
+      try (OutputStream stream = Files.newOutputStream(temp)) {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeDouble(WordyCompiler.WORDY_VERSION);
+        out.writeUTF(verifiedIn);
+        new StructureWriter(out).writeFile(structure);
+        out.flush();
+      } catch (IOException e) {
+        Files.deleteIfExists(temp);
+        throw e;
+      }
+
+      Path file = directory.resolve(key+CACHE_FILE);
+      try {
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (IOException e) {
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException e) {
+      //not cached
+    }
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      //every Java platform must support SHA-256
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static String toHex(byte [] bytes) {
+    StringBuilder builder = new StringBuilder(bytes.length * 2);
+    for(byte b : bytes) {
+      builder.append(Character.forDigit((b >> 4) & 0xF, 16));
+      builder.append(Character.forDigit(b & 0xF, 16));
+    }
+    return builder.toString();
+  }
+
+  /**
+   * A structure loaded from the cache
+   * @author Jose Guaro
+   *
+   */
+  public static class CachedStructure{
+
+    private final FileStructure structure;
+    private final String verifiedIn;
+
+    private CachedStructure(FileStructure structure, String verifiedIn) {
+      this.structure = structure;
+      this.verifiedIn = verifiedIn;
+    }
+
+    public FileStructure getStructure() {
+      return structure;
+    }
+
+    /**
+     * Retrieves the digest of the program this structure was verified in
+     * @return the digest of the program (see programDigest())
+     */
+    public String getVerifiedIn() {
+      return verifiedIn;
+    }
+  }
+
+  /**
+   * Writes a FileStructure. Each Token, node and statement is written the first time it's
+   * come across - and referred to by the order it was written in afterwards.
+   */
+  private static class StructureWriter{
+
+    private final DataOutputStream out;
+    private final Map<String, Integer> strings;
+    private final IdentityHashMap<Object, Integer> written;
+
+    private StructureWriter(DataOutputStream out) {
+      this.out = out;
+      this.strings = new HashMap<>();
+      this.written = new IdentityHashMap<>();
+    }
+
+    private void writeFile(FileStructure structure) throws IOException {
+      writeString(structure.getFileName());
+
+      out.writeInt(structure.getImports().size());
+      for(ImportedFile imported : structure.getImports()) {
+        writeToken(imported.getImportKey());
+        writeString(imported.getImported());
+        writeToken(imported.getAlias());
+      }
+
+      List<ClassStruct> classes = structure.getClasses();
+      out.writeInt(classes.size());
+      for(ClassStruct struct : classes) {
+        writeString(struct.getFileName());
+        writeToken(struct.getName());
+        writeTokens(struct.getParentClass());
+        writeVariables(struct.getVariables());
+        writeFunctions(struct.getFunctions());
+      }
+
+      writeFunctions(structure.getFunctions());
+      writeVariables(structure.getVariables());
+    }
+
+    private void writeVariables(List<Variable> variables) throws IOException {
+      out.writeInt(variables.size());
+      for(Variable variable : variables) {
+        writeStatement(variable);
+      }
+    }
+
+    private void writeFunctions(List<Function> functions) throws IOException {
+      out.writeInt(functions.size());
+      for(Function function : functions) {
+        writeToken(function.getName());
+        out.writeInt(function.argAmount());
+        out.writeBoolean(function.isConstructor());
+        out.writeInt(function.frameSize());
+        out.writeInt(function.getStatements().length);
+        for(Statement statement : function.getStatements()) {
+          writeStatement(statement);
+        }
+      }
+    }
+
+    /**
+     * Writes the tag of an object, if it's null or has already been written
+     * @return true if the object was fully written, false if it must still be written
+     */
+    private boolean writeKnown(Object object) throws IOException {
+      if (object == null) {
+        out.writeByte(NULL);
+        return true;
+      }
+
+      Integer index = written.get(object);
+      if (index != null) {
+        out.writeByte(REFERENCE);
+        out.writeInt(index);
+        return true;
+      }
+
+      written.put(object, written.size());
+      return false;
+    }
+
+    private void writeStatement(Statement statement) throws IOException {
+      if (writeKnown(statement)) {
+        return;
+      }
+
+      if (statement instanceof Variable) {
+        Variable variable = (Variable) statement;
+        out.writeByte(VARIABLE);
+        writeToken(variable.getName());
+        out.writeBoolean(variable.isConstant());
+        out.writeInt(variable.getSlot());
+        writeNode(variable.getExpression());
+      }
+      else if (statement instanceof StatementBlock) {
+        writeBlock((StatementBlock) statement);
+      }
+      else {
+        out.writeByte(STATEMENT);
+        out.writeByte(statement.getDescription().ordinal());
+        writeNode(statement.getExpression());
+      }
+    }
+
+    private void writeBlock(StatementBlock block) throws IOException {
+      if (block instanceof IfBlock) {
+        IfBlock ifBlock = (IfBlock) block;
+        out.writeByte(IF_BLOCK);
+        writeStatement(ifBlock.getCondition());
+        out.writeBoolean(ifBlock.isElseIf());
+      }
+      else if (block instanceof WhileLoopBlock) {
+        WhileLoopBlock whileBlock = (WhileLoopBlock) block;
+        out.writeByte(WHILE_BLOCK);
+        writeStatement(whileBlock.getCondition());
+        out.writeBoolean(whileBlock.isDoWhile());
+      }
+      else if (block instanceof ForLoopBlock) {
+        ForLoopBlock forBlock = (ForLoopBlock) block;
+        out.writeByte(FOR_BLOCK);
+        writeStatement(forBlock.getInitialization());
+        writeStatement(forBlock.getCheckStatement());
+        writeStatement(forBlock.getChangeStatement());
+      }
+      else if (block instanceof TryBlock) {
+        out.writeByte(TRY_BLOCK);
+      }
+      else if (block instanceof CatchBlock) {
+        CatchBlock catchBlock = (CatchBlock) block;
+        out.writeByte(CATCH_BLOCK);
+        writeToken(catchBlock.getVariableName());
+        out.writeInt(catchBlock.getExceptionTypes().length);
+        for(ExceptionName exceptionName : catchBlock.getExceptionTypes()) {
+          writeTokens(exceptionName.getNameArray());
+        }
+        out.writeInt(catchBlock.getVariableSlot());
+      }
+      else {
+        out.writeByte(BLOCK);
+        out.writeByte(block.blockType().ordinal());
+      }
+
+      writeToken(block.getBlockSig());
+      out.writeInt(block.getStatements().size());
+      for(Statement statement : block.getStatements()) {
+        writeStatement(statement);
+      }
+    }
+
+    private void writeNode(ASTNode node) throws IOException {
+      if (writeKnown(node)) {
+        return;
+      }
+
+      if (node instanceof ConstantNode) {
+        out.writeByte(CONSTANT);
+        writeToken(node.tokens()[0]);
+      }
+      else if (node instanceof LiteralNode) {
+        out.writeByte(LITERAL);
+        writeToken(node.tokens()[0]);
+      }
+      else if (node instanceof IdentifierNode) {
+        IdentifierNode identifier = (IdentifierNode) node;
+        out.writeByte(IDENTIFIER);
+        writeToken(identifier.getTokenName());
+        out.writeInt(identifier.slotDepth());
+        out.writeInt(identifier.slotIndex());
+        out.writeBoolean(identifier.isConstantSlot());
+      }
+      else if (node instanceof BinaryOpNode) {
+        BinaryOpNode operator = (BinaryOpNode) node;
+        out.writeByte(OPERATOR);
+        writeToken(operator.tokens()[0]);
+        writeNode(operator.getLeftOperand());
+        writeNode(operator.getRightOperand());
+      }
+      else if (node instanceof UnaryNode) {
+        UnaryNode unary = (UnaryNode) node;
+        out.writeByte(UNARY);
+        writeToken(unary.tokens()[0]);
+        writeNode(unary.getExpr());
+      }
+      else if (node instanceof MemberAccessNode) {
+        MemberAccessNode access = (MemberAccessNode) node;
+        out.writeByte(MEM_ACCESS);
+        writeToken(access.getMemberName());
+        writeNode(access.getCalle());
+        out.writeBoolean(access.isForFunction());
+      }
+      else if (node instanceof MethodCallNode) {
+        MethodCallNode call = (MethodCallNode) node;
+        out.writeByte(FUNC_CALL);
+        writeToken(call.getName());
+        writeToken(call.tokens()[1]);
+        writeNode(call.getCallee());
+        out.writeInt(call.arguments().length);
+        for(ASTNode argument : call.arguments()) {
+          writeNode(argument);
+        }
+      }
+      else {
+        throw new IOException("Can't cache the node "+node.getClass().getName());
+      }
+    }
+
+    private void writeTokens(Token [] tokens) throws IOException {
+      if (tokens == null) {
+        out.writeInt(-1);
+        return;
+      }
+
+      out.writeInt(tokens.length);
+      for(Token token : tokens) {
+        writeToken(token);
+      }
+    }
+
+    private void writeToken(Token token) throws IOException {
+      if (writeKnown(token)) {
+        return;
+      }
+
+      out.writeByte(TOKEN);
+      writeString(token.content());
+      out.writeByte(token.type().ordinal());
+      out.writeInt(token.lineNumber());
+      out.writeInt(token.offset());
+    }
+
+    /*
+     * Strings are written as UTF-8 bytes (not with writeUTF(), as a literal may be longer than it allows)
+     */
+    private void writeString(String string) throws IOException {
+      Integer index = strings.get(string);
+      if (index != null) {
+        out.writeInt(index);
+        return;
+      }
+
+      strings.put(string, strings.size());
+      byte [] bytes = string.getBytes(StandardCharsets.UTF_8);
+      out.writeInt(-1);
+      out.writeInt(bytes.length);
+      out.write(bytes);
+    }
+  }
+
+  /**
+   * Reads a FileStructure written by a StructureWriter
+   */
+  private static class StructureReader{
+
+    private static final Type [] TOKEN_TYPES = Type.values();
+    private static final StatementDescription [] DESCRIPTIONS = StatementDescription.values();
+    private static final BlockType [] BLOCK_TYPES = BlockType.values();
+
+    private final DataInputStream in;
+    private final List<String> strings;
+    private final List<Object> read;
+
+    private StructureReader(DataInputStream in) {
+      this.in = in;
+      this.strings = new ArrayList<>();
+      this.read = new ArrayList<>();
+    }
+
+    private FileStructure readFile() throws IOException {
+      FileStructure structure = new FileStructure(readString());
+
+      int imports = in.readInt();
+      for(int i = 0; i < imports; i++) {
+        ImportedFile imported = new ImportedFile(readToken(), readString());
+        imported.setAlias(readToken());
+        structure.addImport(imported);
+      }
+
+      int classes = in.readInt();
+      for(int i = 0; i < classes; i++) {
+        String fileName = readString();
+        Token name = readToken();
+        ClassStruct struct = new ClassStruct(fileName, name, readTokens());
+        for(Variable variable : readVariables()) {
+          struct.addVariable(variable);
+        }
+        for(Function function : readFunctions()) {
+          struct.addFunction(function);
+        }
+        structure.addClass(struct);
+      }
+
+      for(Function function : readFunctions()) {
+        structure.addFunction(function);
+      }
+      for(Variable variable : readVariables()) {
+        structure.addVariable(variable);
+      }
+      return structure;
+    }
+
+    private List<Variable> readVariables() throws IOException {
+      int amount = in.readInt();
+      ArrayList<Variable> variables = new ArrayList<>(amount);
+      for(int i = 0; i < amount; i++) {
+        variables.add((Variable) readStatement());
+      }
+      return variables;
+    }
+
+    private List<Function> readFunctions() throws IOException {
+      int amount = in.readInt();
+      ArrayList<Function> functions = new ArrayList<>(amount);
+      for(int i = 0; i < amount; i++) {
+        Token name = readToken();
+        int paramAmnt = in.readInt();
+        boolean isConstructor = in.readBoolean();
+        int frameSize = in.readInt();
+        Statement [] statements = new Statement[in.readInt()];
+        for(int s = 0; s < statements.length; s++) {
+          statements[s] = readStatement();
+        }
+
+        Function function = new Function(name, statements, paramAmnt, isConstructor);
+        function.setFrameSize(frameSize);
+        functions.add(function);
+      }
+      return functions;
+    }
+
+    /**
+     * Reserves the index of an object about to be read, as it's written before its children
+     */
+    private int reserve() {
+      read.add(null);
+      return read.size() - 1;
+    }
+
+    private <T> T readAt(int index, T object) {
+      read.set(index, object);
+      return object;
+    }
+
+    private Statement readStatement() throws IOException {
+      byte tag = in.readByte();
+      if (tag == NULL) {
+        return null;
+      }
+      else if (tag == REFERENCE) {
+        return (Statement) read.get(in.readInt());
+      }
+
+      int index = reserve();
+      if (tag == VARIABLE) {
+        Variable variable = new Variable(readToken(), in.readBoolean());
+        variable.setSlot(in.readInt());
+        variable.setAssignment(readNode());
+        return readAt(index, variable);
+      }
+      else if (tag == STATEMENT) {
+        StatementDescription description = DESCRIPTIONS[in.readByte()];
+        return readAt(index, new Statement(readNode(), description));
+      }
+
+      StatementBlock block = null;
+      if (tag == IF_BLOCK) {
+        block = new IfBlock(readStatement(), in.readBoolean());
+      }
+      else if (tag == WHILE_BLOCK) {
+        block = new WhileLoopBlock(readStatement(), in.readBoolean());
+      }
+      else if (tag == FOR_BLOCK) {
+        block = new ForLoopBlock(readStatement(), readStatement(), readStatement());
+      }
+      else if (tag == TRY_BLOCK) {
+        block = new TryBlock(null);
+      }
+      else if (tag == CATCH_BLOCK) {
+        Token variableName = readToken();
+        ExceptionName [] exceptionTypes = new ExceptionName[in.readInt()];
+        for(int i = 0; i < exceptionTypes.length; i++) {
+          exceptionTypes[i] = new ExceptionName(readTokens());
+        }
+        CatchBlock catchBlock = new CatchBlock(variableName, exceptionTypes);
+        catchBlock.setVariableSlot(in.readInt());
+        block = catchBlock;
+      }
+      else if (tag == BLOCK) {
+        block = new StatementBlock(BLOCK_TYPES[in.readByte()]);
+      }
+      else {
+        throw new IOException("Unknown statement tag "+tag);
+      }
+
+      //the block is referable while its statements are read
+      readAt(index, block);
+      block.setBlockSig(readToken());
+      int statements = in.readInt();
+      for(int i = 0; i < statements; i++) {
+        block.addStatement(readStatement());
+      }
+      return block;
+    }
+
+    private ASTNode readNode() throws IOException {
+      byte tag = in.readByte();
+      if (tag == NULL) {
+        return null;
+      }
+      else if (tag == REFERENCE) {
+        return (ASTNode) read.get(in.readInt());
+      }
+
+      int index = reserve();
+      switch (tag) {
+      case CONSTANT:
+        return readAt(index, new ConstantNode(readToken()));
+      case LITERAL:
+        return readAt(index, new LiteralNode(readToken()));
+      case IDENTIFIER:
+        IdentifierNode identifier = new IdentifierNode(readToken());
+        identifier.resolveSlot(in.readInt(), in.readInt(), in.readBoolean());
+        return readAt(index, identifier);
+      case OPERATOR:
+        return readAt(index, new BinaryOpNode(readToken(), readNode(), readNode()));
+      case UNARY:
+        return readAt(index, new UnaryNode(readToken(), readNode()));
+      case MEM_ACCESS:
+        Token memberName = readToken();
+        MemberAccessNode access = new MemberAccessNode(readNode(), memberName);
+        access.setForFunction(in.readBoolean());
+        return readAt(index, access);
+      case FUNC_CALL:
+        Token name = readToken();
+        Token paren = readToken();
+        ASTNode calle = readNode();
+        ASTNode [] arguments = new ASTNode[in.readInt()];
+        for(int i = 0; i < arguments.length; i++) {
+          arguments[i] = readNode();
+        }
+        return readAt(index, new MethodCallNode(calle, paren, name, arguments));
+      default:
+        throw new IOException("Unknown node tag "+tag);
+      }
+    }
+
+    private Token [] readTokens() throws IOException {
+      int amount = in.readInt();
+      if (amount < 0) {
+        return null;
+      }
+
+      Token [] tokens = new Token[amount];
+      for(int i = 0; i < amount; i++) {
+        tokens[i] = readToken();
+      }
+      return tokens;
+    }
+
+    private Token readToken() throws IOException {
+      byte tag = in.readByte();
+      if (tag == NULL) {
+        return null;
+      }
+      else if (tag == REFERENCE) {
+        return (Token) read.get(in.readInt());
+      }
+      else if (tag != TOKEN) {
+        throw new IOException("Unknown token tag "+tag);
+      }
+
+      int index = reserve();
+      String content = readString();
+      Type type = TOKEN_TYPES[in.readByte()];
+      int lineNumber = in.readInt();
+      return readAt(index, new Token(content, type, lineNumber, in.readInt()));
+    }
+
+    private String readString() throws IOException {
+      int index = in.readInt();
+      if (index >= 0) {
+        return strings.get(index);
+      }
+
+      byte [] bytes = new byte[in.readInt()];
+      in.readFully(bytes);
+      String string = new String(bytes, StandardCharsets.UTF_8);
+      strings.add(string);
+      return string;
+    }
+  }
+}
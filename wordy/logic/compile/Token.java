@@ -54,11 +54,24 @@ public class Token {
   private final String content;
   private final Type type;
   private final int lineNumber;
+  private final int offset;
   
   public Token(String content, Type type, int lineNumber) {
+    this(content, type, lineNumber, -1);
+  }
+  
+  /**
+   * Constructs a Token
+   * @param content - the content of this Token
+   * @param type - the Type of this Token
+   * @param lineNumber - the line this Token is at
+   * @param offset - the index of this Token's first character in its source, or -1 if unknown
+   */
+  public Token(String content, Type type, int lineNumber, int offset) {
     this.content = content;
     this.type = type;
     this.lineNumber = lineNumber;
+    this.offset = offset;
   }
   
   public String content() {
@@ -73,6 +86,14 @@ public class Token {
     return lineNumber;
   }
   
+  /**
+   * Retrieves the index of this Token's first character in its source
+   * @return the index of this Token's first character, or -1 if unknown
+   */
+  public int offset() {
+    return offset;
+  }
+  
   public String toString() {
     return "["+content+" | "+type+" | ln:"+lineNumber+"]";
   }
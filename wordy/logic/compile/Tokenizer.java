@@ -1,21 +1,46 @@
 package wordy.logic.compile;
 
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.PushbackInputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 
 import wordy.logic.compile.Token.Type;
 import wordy.logic.compile.errors.ParseError;
+import wordy.logic.compile.trace.Trace;
+import wordy.logic.compile.trace.TraceLevel;
 
 /**
  * Groups and transforms the characters in a source file 
  * into Tokens.
+ * 
+ * The source file is decoded (as UTF-8) into a char array in one go and 
+ * scanned by index. Each Token is made from the range of characters it spans, 
+ * and records where that range starts (see Token.offset()).
  * @author Jose Guaro
  *
  */
 public class Tokenizer {
   
+  /**
+   * Files at least this large (in bytes) are memory-mapped. Smaller files are read in bulk
+   */
+  private static final int MAP_THRESHOLD = 1 << 20;
+  
+  /**
+   * The character that ends a line, besides '\n' (only differs on platforms with a 
+   * single character line separator that isn't '\n')
+   */
+  private static final char NEW_LN = ReservedSymbols.NEW_LN.length() == 1 ? ReservedSymbols.NEW_LN.charAt(0) : '\n';
+  
   /**
    * Tokenizes the content of a source file
    * @param sourceFile - the file path of the source file
@@ -23,28 +48,74 @@ public class Tokenizer {
    * @throws IOException - if an I/O error occurs
    */
   public static Token[] tokenize(String sourceFile) throws IOException {
-    Token [] tokens = rawTokenize(sourceFile);    
+    CharBuffer source = readSource(sourceFile);
+    Token [] tokens = rawTokenize(source.array(), source.arrayOffset() + source.position(), source.remaining());    
     return tokens;
   }
   
-  private static Token[] rawTokenize(String sourceFile) throws IOException{
-    ArrayList<Token> tokens = new ArrayList<>();
+  /**
+   * Tokenizes Wordy source code
+   * @param source - the array holding the source code
+   * @param offset - the index of the first character of the source code in the array
+   * @param length - the amount of characters of source code
+   * @return an array of Tokens representing the source code
+   */
+  public static Token[] tokenize(char [] source, int offset, int length) {
+    return rawTokenize(source, offset, length);
+  }
+  
+  /**
+   * Reads and decodes (as UTF-8) the content of a source file
+   * 
+   * Malformed UTF-8 sequences are replaced with U+FFFD
+   * @param sourceFile - the file path of the source file
+   * @return a CharBuffer, backed by an array, holding the file's content
+   * @throws IOException - if an I/O error occurs
+   */
+  public static CharBuffer readSource(String sourceFile) throws IOException {
+    FileChannel channel = FileChannel.open(Paths.get(sourceFile), StandardOpenOption.READ);
+    try {
+      long size = channel.size();
+      ByteBuffer bytes;
+      if (size >= MAP_THRESHOLD) {
+        bytes = channel.map(MapMode.READ_ONLY, 0, size);
+      }
+      else {
+        bytes = ByteBuffer.allocate((int) size);
+        while (bytes.hasRemaining() && channel.read(bytes) != -1);
+        bytes.flip();
+      }
+      return decode(bytes);
+    } finally {
+      channel.close();
+    }
+  }
+  
+  /**
+   * Decodes (as UTF-8) the content of a source file that was already read, 
+   * the same way readSource() does
+   * 
+   * Malformed UTF-8 sequences are replaced with U+FFFD
+   * @param content - the bytes of the source file
+   * @return a CharBuffer, backed by an array, holding the decoded content
+   * @throws CharacterCodingException - never, as malformed input is replaced
+   */
+  public static CharBuffer decode(ByteBuffer content) throws CharacterCodingException {
+    CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                                                   .onMalformedInput(CodingErrorAction.REPLACE)
+                                                   .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    return decoder.decode(content);
+  }
+  
+  private static Token[] rawTokenize(char [] source, int offset, int length){
+    //roughly a token per 4 characters
+    ArrayList<Token> tokens = new ArrayList<>(Math.max(16, length / 4));
 
-    /*
-     * Why a PushbackInputStream?
-     * 
-     * In the loop below, when we encounter a letter or digit or literal or operator,
-     * We keep reading for that same type until we reach a character that is different
-     * 
-     * However, the we've read one extra character and so we need to push that back
-     * to the next read operation
-     */
-    PushbackInputStream inputStream = new PushbackInputStream(new FileInputStream(sourceFile), 1);
+    final int end = offset + length;
+    int index = offset;
     
     int lineNumber = 1;
     
-    int read = 0;
-    
     boolean dotRecieved = false;
     boolean doubleResolved = false;
         
@@ -53,14 +124,14 @@ public class Tokenizer {
     
     String commentedString = "";
     
-    while ((read = inputStream.read()) != -1) {
-      /*
-       * What we just read from the file.
-       * It's stored as a String to make comparisons easier
-       */
-      String readByte = String.valueOf( (char) read);
+    //checked once, as it's needed for every character
+    final boolean traceCharacters = Trace.isOn(TraceLevel.DETAIL);
+    
+    while (index < end) {
+      final int tokenStart = index - offset;
+      final char read = source[index++];
       
-      if (readByte.equals(ReservedSymbols.NEW_LN) || readByte.equals("\n")) {
+      if (read == NEW_LN || read == '\n') {
         if (currentComment && !commentIsBlock) {
           currentComment = false;
         }
@@ -69,34 +140,43 @@ public class Tokenizer {
       }
       
       if (!currentComment) {
-        System.out.println("---READ: "+readByte+" | "+currentComment+" "+lineNumber);
-        if (Character.isDigit( (char) read)) {
+        if (traceCharacters) {
+          Trace.message(TraceLevel.DETAIL, "---READ: "+read+" | "+currentComment+" "+lineNumber);
+        }
+        if (Character.isDigit(read)) {
           doubleResolved = false;
         }
         
-        if (readByte.equals(ReservedSymbols.LEFT_PAREN)) {
-          tokens.add(new Token(readByte, Type.LEFT_PAREN, lineNumber));
+        if (read == '(') {
+          tokens.add(new Token(ReservedSymbols.LEFT_PAREN, Type.LEFT_PAREN, lineNumber, tokenStart));
         }
-        else if (readByte.equals(ReservedSymbols.RIGHT_PAREN)) {
-          tokens.add(new Token(readByte, Type.RIGHT_PAREN, lineNumber));
+        else if (read == ')') {
+          tokens.add(new Token(ReservedSymbols.RIGHT_PAREN, Type.RIGHT_PAREN, lineNumber, tokenStart));
         }
-        else if (ReservedSymbols.isAnOperator(readByte)) {
-          
-          String operator = readByte;
+        else if (isOperatorChar(read)) {
+          int start = index - 1;
+          String operator = null;
 
-          while ((read = inputStream.read()) != -1 &&
-              ReservedSymbols.isAnOperator(String.valueOf((char) read))) {
-            operator = operator.concat(String.valueOf((char)read));
-            System.out.println("OP? "+operator);
+          while (index < end && isOperatorChar(source[index])) {
+            index++;
+            operator = new String(source, start, index - start);
+            if (traceCharacters) {
+              Trace.message(TraceLevel.DETAIL, "OP? "+operator);
+            }
             if (operator.equals(ReservedSymbols.LNE_COMMENT)) { 
               currentComment = true;
               commentIsBlock = false;
+              //the last character of the comment symbol is read again, as part of the comment
+              index--;
               break;
             }
             else if (operator.equals(ReservedSymbols.BLC_CMN_SRT)) {
-              System.out.println("---BLOCK COMMENT");
+              if (traceCharacters) {
+                Trace.message(TraceLevel.DETAIL, "---BLOCK COMMENT");
+              }
               currentComment = true;
               commentIsBlock = true;
+              index--;
               break;
             }
             else if (ReservedSymbols.isAnOperator(operator) == false) {
@@ -104,119 +184,108 @@ public class Tokenizer {
             }
           }
           
-          if (read != -1) {
-            inputStream.unread(read);
-          }
-          
           if (!currentComment) {
-            tokens.add(new Token(operator, getType(operator), lineNumber));
+            if (operator == null) {
+              operator = singleCharacter(read);
+            }
+            tokens.add(new Token(operator, getType(operator), lineNumber, tokenStart));
           }
         }
-        else if (Character.isDigit(readByte.charAt(0))) {
-          //keep reading from string until non-numerical is found
-
-          String number = readByte;
-          while ((read = inputStream.read()) != -1 &&
-              Character.isDigit((char) read)) {
-            number = number.concat(String.valueOf((char)read));
-          }
-          
-          if (read != -1) {
-            inputStream.unread(read);
+        else if (Character.isDigit(read)) {
+          //keep reading until non-numerical is found
+          int start = index - 1;
+          while (index < end && Character.isDigit(source[index])) {
+            index++;
           }
+          String number = new String(source, start, index - start);
           
           if (dotRecieved && !doubleResolved) {
             Token last = tokens.remove(tokens.size()-1);
-            Token newNum = new Token(last.content()+number, Type.NUMBER, lineNumber);
+            Token newNum = new Token(last.content()+number, Type.NUMBER, lineNumber, last.offset());
             dotRecieved = false;
             doubleResolved = true;
             tokens.add(newNum);
           }
           else {
-            tokens.add(new Token(number, Type.NUMBER, lineNumber));
+            tokens.add(new Token(number, Type.NUMBER, lineNumber, tokenStart));
           }
         }
-        else if (readByte.equals(ReservedSymbols.DOUB_QUOTE)) {
-          String literalContent = ""; //the content of the literal
-
-          while ((read = inputStream.read()) != -1 &&
-              String.valueOf((char) read).equals(ReservedSymbols.DOUB_QUOTE) == false) {
-            literalContent = literalContent.concat(String.valueOf((char)read));
+        else if (read == '"') {
+          int start = index;
+          while (index < end && source[index] != '"') {
+            index++;
           }
-                  
-          if (read == -1 && String.valueOf((char) read).equals(ReservedSymbols.DOUB_QUOTE) == false) {
+          
+          String literalContent = new String(source, start, index - start); //the content of the literal
+          if (index == end) {
             throw new ParseError("Missing terminating '\"' for '"+literalContent+"' ", lineNumber);
           }
+          index++; //past the terminating quote
           
-          tokens.add(new Token(literalContent, Type.LITERAL, lineNumber));
+          tokens.add(new Token(literalContent, Type.LITERAL, lineNumber, tokenStart));
         }
-        else if (Character.isLetter(readByte.charAt(0))) {
-          String identStr = readByte; //the content of the literal
-          
-          while ((read = inputStream.read()) != -1 &&
-              Character.isLetter((char) read)) {
-            identStr = identStr.concat(String.valueOf((char)read));
-          }
-          
-          if (read != -1) {
-            inputStream.unread(read);
+        else if (Character.isLetter(read)) {
+          int start = index - 1;
+          while (index < end && Character.isLetter(source[index])) {
+            index++;
           }
+          String identStr = new String(source, start, index - start);
           
           if (ReservedSymbols.isABlockSignifier(identStr)) {
             if (identStr.equals(ReservedSymbols.FUNC)) {
-              tokens.add(new Token(identStr, Type.FUNCTION, lineNumber));
+              tokens.add(new Token(identStr, Type.FUNCTION, lineNumber, tokenStart));
             }
             else {
-              tokens.add(new Token(identStr, Type.BLOCK_SIG, lineNumber));
+              tokens.add(new Token(identStr, Type.BLOCK_SIG, lineNumber, tokenStart));
             }
           }
           else if (ReservedSymbols.isABooleanVal(identStr)) {
-            tokens.add(new Token(identStr, Type.BOOL, lineNumber));
+            tokens.add(new Token(identStr, Type.BOOL, lineNumber, tokenStart));
           }
           else if (ReservedSymbols.LET.equals(identStr)) {
-            tokens.add(new Token(identStr, Type.LET, lineNumber));
+            tokens.add(new Token(identStr, Type.LET, lineNumber, tokenStart));
           }
           else if (ReservedSymbols.RETURN.equals(identStr)) {
-            tokens.add(new Token(identStr, Type.RETURN, lineNumber));
+            tokens.add(new Token(identStr, Type.RETURN, lineNumber, tokenStart));
           }
           else if (ReservedSymbols.CONST.equals(identStr)) {
-            tokens.add(new Token(identStr, Type.CONST, lineNumber));
+            tokens.add(new Token(identStr, Type.CONST, lineNumber, tokenStart));
           }
           else if (ReservedSymbols.CLASS.equals(identStr)) {
-            tokens.add(new Token(identStr, Type.CLASS, lineNumber));
+            tokens.add(new Token(identStr, Type.CLASS, lineNumber, tokenStart));
           }
           else if (ReservedSymbols.BREAK.equals(identStr)) {
-            tokens.add(new Token(identStr, Type.BREAK, lineNumber));
+            tokens.add(new Token(identStr, Type.BREAK, lineNumber, tokenStart));
           }
           else if (ReservedSymbols.CONTINUE.equals(identStr)) {
-            tokens.add(new Token(identStr, Type.CONTINUE, lineNumber));
+            tokens.add(new Token(identStr, Type.CONTINUE, lineNumber, tokenStart));
           }
           else if (ReservedSymbols.NULL.equals(identStr)) {
-            tokens.add(new Token(identStr, Type.NULL, lineNumber));
+            tokens.add(new Token(identStr, Type.NULL, lineNumber, tokenStart));
           }
           else if (ReservedSymbols.IMPORT.equals(identStr)) {
-            tokens.add(new Token(identStr, Type.IMPORT, lineNumber));
+            tokens.add(new Token(identStr, Type.IMPORT, lineNumber, tokenStart));
           }
           else if (ReservedSymbols.AS.equals(identStr)) {
-            tokens.add(new Token(identStr, Type.AS, lineNumber));
+            tokens.add(new Token(identStr, Type.AS, lineNumber, tokenStart));
           }
           else if (ReservedSymbols.IMPLNT.equals(identStr)) {
-            tokens.add(new Token(identStr, Type.IMPLEMENT, lineNumber));
+            tokens.add(new Token(identStr, Type.IMPLEMENT, lineNumber, tokenStart));
           }
           else {
-            tokens.add(new Token(identStr, Type.IDENT, lineNumber));
+            tokens.add(new Token(identStr, Type.IDENT, lineNumber, tokenStart));
           }
         }
-        else if (readByte.equals(ReservedSymbols.SEMI_COLON)) {
-          tokens.add(new Token(readByte, Type.STATE_END, lineNumber));
+        else if (read == ';') {
+          tokens.add(new Token(ReservedSymbols.SEMI_COLON, Type.STATE_END, lineNumber, tokenStart));
         }
-        else if (readByte.equals(ReservedSymbols.COLON)) {
-          tokens.add(new Token(readByte, Type.COLON, lineNumber));
+        else if (read == ':') {
+          tokens.add(new Token(ReservedSymbols.COLON, Type.COLON, lineNumber, tokenStart));
         }
-        else if (readByte.equals(ReservedSymbols.COMMA)) {
-          tokens.add(new Token(readByte, Type.COMMA, lineNumber));
+        else if (read == ',') {
+          tokens.add(new Token(ReservedSymbols.COMMA, Type.COMMA, lineNumber, tokenStart));
         }
-        else if (readByte.equals(ReservedSymbols.DOT)) {
+        else if (read == '.') {
           dotRecieved = true;
           /*
            * Check last token and see if it's a number
@@ -224,35 +293,34 @@ public class Tokenizer {
           if (tokens.isEmpty() == false && doubleResolved == false) {
             if (tokens.get(tokens.size()-1).type() == Type.NUMBER) {
               Token last = tokens.remove(tokens.size()-1);
-              Token newNum = new Token(last.content()+readByte, Type.NUMBER, lineNumber);
+              Token newNum = new Token(last.content()+ReservedSymbols.DOT, Type.NUMBER, lineNumber, last.offset());
               tokens.add(newNum);
             }
             else {
               dotRecieved = false;
-              tokens.add(new Token(readByte, Type.DOT, lineNumber));
+              tokens.add(new Token(ReservedSymbols.DOT, Type.DOT, lineNumber, tokenStart));
             }
             doubleResolved = false;
           }
           else {
-            tokens.add(new Token(readByte, Type.DOT, lineNumber));
+            //a member access after a decimal (Like: 1.5, then arr.get(0)), not a decimal point
+            dotRecieved = false;
+            tokens.add(new Token(ReservedSymbols.DOT, Type.DOT, lineNumber, tokenStart));
           }
         }
-        else if (readByte.equals(ReservedSymbols.LEFT_CURLY)) {
-          tokens.add(new Token(readByte, Type.OPEN_SCOPE, lineNumber));
+        else if (read == '{') {
+          tokens.add(new Token(ReservedSymbols.LEFT_CURLY, Type.OPEN_SCOPE, lineNumber, tokenStart));
         }
-        else if (readByte.equals(ReservedSymbols.RIGHT_CURLY)) {
-          tokens.add(new Token(readByte, Type.CLOSE_SCOPE, lineNumber));
+        else if (read == '}') {
+          tokens.add(new Token(ReservedSymbols.RIGHT_CURLY, Type.CLOSE_SCOPE, lineNumber, tokenStart));
         } 
       }
       else {
         //check for comment block end
-        commentedString += readByte;
-        commentedString = commentedString.trim();
-        if (commentedString.equals(ReservedSymbols.BLC_CMN_END)) {
-          if (currentComment == false) {
-            throw new ParseError("Misplaced commend block symbol", lineNumber);
-          }
-          else {
+        if (commentIsBlock) {
+          commentedString += read;
+          commentedString = commentedString.trim();
+          if (commentedString.equals(ReservedSymbols.BLC_CMN_END)) {
             currentComment = false;
             commentIsBlock = false;
           }
@@ -260,10 +328,78 @@ public class Tokenizer {
       }      
     }
 
-    inputStream.close();
     return tokens.toArray(new Token[tokens.size()]);
   }
   
+  /**
+   * Formats the rate at which source code was tokenized
+   * @param bytes - the size of the source code, in bytes
+   * @param nanos - the time it took to tokenize the source code, in nanoseconds
+   * @return the rate, in megabytes (2^20 bytes) per second, with two decimal places
+   */
+  public static String throughput(long bytes, long nanos) {
+    double seconds = Math.max(nanos, 1) / 1e9;
+    return String.format("%.2f", (bytes / (double) (1 << 20)) / seconds);
+  }
+  
+  /**
+   * Checks if a character is one of the characters operators are made of
+   * @param c - the character to check
+   * @return true if an operator can be made of this character, false if else
+   */
+  private static boolean isOperatorChar(char c) {
+    switch (c) {
+      case '+':
+      case '-':
+      case '*':
+      case '/':
+      case '%':
+      case '=':
+      case '!':
+      case '<':
+      case '>':
+      case '&':
+      case '|':
+        return true;
+      default:
+        return false;
+    }
+  }
+  
+  /**
+   * Retrieves the symbol of a single-character operator, without creating a String
+   * @param c - the operator character
+   * @return the operator's symbol
+   */
+  private static String singleCharacter(char c) {
+    switch (c) {
+      case '+':
+        return ReservedSymbols.PLUS;
+      case '-':
+        return ReservedSymbols.MINUS;
+      case '*':
+        return ReservedSymbols.MULT;
+      case '/':
+        return ReservedSymbols.DIV;
+      case '%':
+        return ReservedSymbols.MOD;
+      case '=':
+        return ReservedSymbols.EQUALS;
+      case '!':
+        return ReservedSymbols.BANG;
+      case '<':
+        return ReservedSymbols.LESS;
+      case '>':
+        return ReservedSymbols.GREAT;
+      case '&':
+        return ReservedSymbols.AND;
+      case '|':
+        return ReservedSymbols.OR;
+      default:
+        return String.valueOf(c);
+    }
+  }
+  
   private static Type getType(String cont) {
     Type type = null;
     switch (cont) {
@@ -1,22 +1,30 @@
 package wordy.logic.compile;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import wordy.logic.common.FunctionKey;
+import wordy.logic.compile.StructureCache.CachedStructure;
 import wordy.logic.compile.formatter.Formatter;
 import wordy.logic.compile.structure.FileStructure;
+import wordy.logic.compile.trace.CompilePhase;
+import wordy.logic.compile.trace.Trace;
+import wordy.logic.compile.trace.TraceLevel;
 import wordy.logic.compile.verify.StructureVerifier;
 
 /**
@@ -33,7 +41,7 @@ public class WordyCompiler {
   public static final List<String> JAVA_CLASSES;
   
   static {
-    List<String> classes = new ArrayList<>(getStandardJavaClasses());
+    List<String> classes = new ArrayList<>(ClassIndex.load());
     classes.add("wordy.standard.Array");
     classes.add("wordy.standard.ArrayList");
     classes.add("wordy.standard.Reflection");
@@ -43,99 +51,340 @@ public class WordyCompiler {
   public static final String RUNTIME_JAR = "rt.jar";
   public static final String CLASS_FILE = ".class";
   
+  /**
+   * The functions every file can call without declaring them (Like: println() )
+   */
+  private static final List<FunctionKey> SYSTEM_FUNCTIONS = 
+      Collections.unmodifiableList(Arrays.asList(new FunctionKey("println", 1), 
+                                                 new FunctionKey("print", 1) ,
+                                                 new FunctionKey("input", 1) ,
+                                                 new FunctionKey("typeof", 1) ,
+                                                 new FunctionKey("eprintln", 1),
+                                                 new FunctionKey("eprint", 1)));
+  
+  /**
+   * The pool source files are tokenized, formatted and verified on
+   */
+  private static final ForkJoinPool POOL = ForkJoinPool.commonPool();
+  
   private String [] sources;
+  private StructureCache cache;
+  private Map<String, String> cacheKeys; //cache keys of the sources, in the order the sources were given
     
   /**
-   * Constructs a WordyCompiler
+   * Constructs a WordyCompiler, caching verified structures in StructureCache.getDefaultDirectory()
    * @param sources - the array of file paths to sources for compilation
    */
   public WordyCompiler(String ... sources) {
     this.sources = sources;
+    this.cache = new StructureCache(StructureCache.getDefaultDirectory());
   }
   
+  /**
+   * Sets the cache verified structures are loaded from and stored in
+   * @param cache - the StructureCache to use, or null to always form and verify every source file
+   */
+  public void setStructureCache(StructureCache cache) {
+    this.cache = cache;
+  }
+  
+  /**
+   * Compiles the source files of this compiler.
+   * 
+   * Each file is tokenized and formatted in parallel with the others. Once all files have been
+   * formatted, each file is verified in parallel with the others.
+   * 
+   * If multiple files have errors, the error of the first such file (in the order the sources were given)
+   * is thrown - the same error a file-by-file compilation would throw
+   * 
+   * Unchanged files whose structure was cached are loaded from the StructureCache instead. They're only
+   * verified again if any other source file changed since (as they're verified against all other files)
+   * 
+   * The time each phase took, and any diagnostics, are sent to the TraceListener set 
+   * through Trace.setListener() - nothing is printed otherwise
+   * 
+   * @return a map of file names to the FileStructure of the file
+   * @throws IOException - if a source file couldn't be read
+   */
   public Map<String, FileStructure> compile() throws IOException{
-    HashMap<String, FileStructure> structures = new HashMap<>();
-
-    for(String currentFile : sources) {
-      System.out.println("---COMPILING SOURCE: "+currentFile+" ---");
-
-      Token [] fileTokens = Tokenizer.tokenize(currentFile);
-      
-      System.out.println("------TOKENS------");
-      for (int i = 0; i < fileTokens.length; i++) {
-        System.out.println(fileTokens[i]);
+    cacheKeys = new LinkedHashMap<>();
+    for(String source : sources) {
+      cacheKeys.put(source, null);
+    }
+    return compile(sources, Collections.<String, FileStructure>emptyMap());
+  }
+  
+  /**
+   * Compiles some of the source files of this compiler again, after they've changed. 
+   * 
+   * Only the changed files are formed and verified (against the structures of all files). 
+   * Other files aren't verified again - so a change that breaks another file only shows at runtime
+   * 
+   * @param structures - the FileStructures of all source files, as of the last compilation
+   * @param changed - the file paths of the changed sources. Each must be one of the sources of this compiler
+   * @return a map of file names to the new FileStructure of each changed file
+   * @throws IOException - if a source file couldn't be read
+   */
+  public Map<String, FileStructure> recompile(Map<String, FileStructure> structures, String ... changed) throws IOException{
+    if (cacheKeys == null) {
+      throw new IllegalStateException("The sources must be compiled before they're recompiled");
+    }
+    for(String source : changed) {
+      if (cacheKeys.containsKey(source) == false) {
+        throw new IllegalArgumentException("'"+source+"' isn't a source file of this compiler");
       }
-      System.out.println("------TOKENS_END------");
-
-      Formatter formatter = new Formatter(Arrays.asList(fileTokens), new File(currentFile).getName().split("\\.")[0]);
-      FileStructure structure = formatter.formatSource();
+    }
+    return compile(changed, structures);
+  }
+  
+  /**
+   * Compiles Wordy source code that isn't in a file (Like: a script given by an embedding application).
+   * 
+   * The code is verified on its own, so it can't refer to other source files. Nothing is cached
+   * 
+   * @param fileName - the name the code is compiled as (what a file name without its extension would be)
+   * @param source - the source code
+   * @return the FileStructure of the code
+   */
+  public static FileStructure compileSource(String fileName, String source) {
+    long start = System.nanoTime();
+    String previousSource = Trace.enterSource(fileName);
+    try {
+      long phaseStart = System.nanoTime();
+      char [] chars = source.toCharArray();
+      Token [] tokens = Tokenizer.tokenize(chars, 0, chars.length);
+      Trace.phaseDone(CompilePhase.TOKENIZE, fileName, System.nanoTime() - phaseStart);
       
-      structures.put(structure.getFileName(), structure);
+      phaseStart = System.nanoTime();
+      Formatter formatter = new Formatter(Arrays.asList(tokens), fileName);
+      FileStructure structure = formatter.formatSource();
+      Trace.phaseDone(CompilePhase.FORMAT, fileName, System.nanoTime() - phaseStart);
       
-      System.out.println("---DONE FOR SOURCE: "+currentFile+" ---");
+      phaseStart = System.nanoTime();
+      StructureVerifier verifier = new StructureVerifier(structure, SYSTEM_FUNCTIONS, 
+                                                         Collections.singletonMap(fileName, structure));
+      verifier.verify();
+      Trace.phaseDone(CompilePhase.VERIFY, fileName, System.nanoTime() - phaseStart);
+    
+      Trace.phaseDone(CompilePhase.COMPILE, null, System.nanoTime() - start);
+      return structure;
+    } finally {
+      Trace.exitSource(previousSource);
     }
+  }
+  
+  /**
+   * Forms and verifies source files
+   * @param toForm - the file paths of the sources to form and verify
+   * @param unchanged - the FileStructures of the other sources, by file name
+   * @return a map of file names to the FileStructure of each formed file
+   */
+  private Map<String, FileStructure> compile(String [] toForm, Map<String, FileStructure> unchanged) throws IOException{
+    long start = System.nanoTime();
+    HashMap<String, FileStructure> structures = new HashMap<>(unchanged);
+    HashMap<String, FileStructure> formedStructures = new HashMap<>();
+    
+    final StructureCache cache = this.cache;
+    List<ForkJoinTask<FormedSource>> formTasks = new ArrayList<>(toForm.length);
+    for(final String currentFile : toForm) {
+      formTasks.add(POOL.submit(new Callable<FormedSource>() {
+        public FormedSource call() throws IOException {
+          return formSource(currentFile, cache);
+        }
+      }));
+    }
+    
+    //collect in source order, so the first error reported doesn't depend on scheduling
+    for(int i = 0; i < toForm.length; i++) {
+      FormedSource formed = await(formTasks.get(i), formTasks);
+      structures.put(formed.structure.getFileName(), formed.structure);
+      formedStructures.put(formed.structure.getFileName(), formed.structure);
+      cacheKeys.put(toForm[i], formed.cacheKey);
+    }
+    final String program = cache == null ? null : StructureCache.programDigest(new ArrayList<>(cacheKeys.values()));
     
     /*
      * We verify the structure of all files after all files have been formed.
      * This is so that all files and their structures are defined
      */
     
-    ArrayList<FunctionKey> sysFuncs = new ArrayList<>();
-    sysFuncs.addAll( Arrays.asList(new FunctionKey("println", 1), 
-                                   new FunctionKey("print", 1) ,
-                                   new FunctionKey("input", 1) ,
-                                   new FunctionKey("typeof", 1) ,
-                                   new FunctionKey("eprintln", 1),
-                                   new FunctionKey("eprint", 1))  );
+    final Map<String, FileStructure> allStructures = Collections.unmodifiableMap(structures);
+    if (Trace.isOn(TraceLevel.STRUCTURE)) {
+      Trace.message(TraceLevel.STRUCTURE, "***************************STRUCUTRE: "+structures.values()+"***************************");
+    }
     
-    Collection<FileStructure> files = structures.values();
-    System.out.println("***************************STRUCUTRE: "+files+"***************************");
-    for(FileStructure structure: files) {
-      StructureVerifier verifier = new StructureVerifier(structure, sysFuncs, structures);
-      verifier.verify();
+    List<ForkJoinTask<Void>> verifyTasks = new ArrayList<>(toForm.length);
+    for(int i = 0; i < toForm.length; i++) {
+      final String currentFile = toForm[i];
+      final FormedSource formed = formTasks.get(i).join();
+      if (formedStructures.get(formed.structure.getFileName()) != formed.structure) {
+        //a later source with the same file name replaced this one
+        continue;
+      }
+      else if (program != null && program.equals(formed.verifiedIn)) {
+        //already verified against these same source files
+        continue;
+      }
+      verifyTasks.add(POOL.submit(new Callable<Void>() {
+        public Void call() {
+          verifySource(currentFile, formed.structure, SYSTEM_FUNCTIONS, allStructures);
+          if (cache != null) {
+            cache.store(formed.cacheKey, formed.structure, program);
+          }
+          return null;
+        }
+      }));
     }
     
-    return structures;
-  }
+    for(ForkJoinTask<Void> task : verifyTasks) {
+      await(task, verifyTasks);
+    }
     
-  private static List<String> getStandardJavaClasses(){
-    ArrayList<String> classNames = new ArrayList<>();
-    String paths = ManagementFactory.getRuntimeMXBean().getBootClassPath();
-
-    String [] indiv = paths.split(File.pathSeparator);
-    File [] files = new File[indiv.length];
+    Trace.phaseDone(CompilePhase.COMPILE, null, System.nanoTime() - start);
+    return formedStructures;
+  }
+  
+  /**
+   * Tokenizes and formats a source file, or loads its structure from the cache if it's unchanged
+   * @param currentFile - the path to the source file
+   * @param cache - the StructureCache to load the file's structure from, or null if there's none
+   * @return the FileStructure of the file
+   */
+  private static FormedSource formSource(String currentFile, StructureCache cache) throws IOException {
+    String previousSource = Trace.enterSource(currentFile);
+    try {
+      if (Trace.isOn(TraceLevel.STRUCTURE)) {
+        Trace.message(TraceLevel.STRUCTURE, "---COMPILING SOURCE: "+currentFile+" ---");
+      }
+      
+      String fileName = new File(currentFile).getName().split("\\.")[0];
+      String cacheKey = null;
+      byte [] content = null;
+      long phaseStart = System.nanoTime();
+      if (cache != null) {
+        /*
+         * The file is read once: the structure cached under this key must be formed from 
+         * the very content the key was hashed from, even if the file changes in between
+         */
+        content = Files.readAllBytes(Paths.get(currentFile));
+        cacheKey = StructureCache.key(fileName, content);
+        CachedStructure cached = cache.load(cacheKey);
+        if (cached != null) {
+          Trace.phaseDone(CompilePhase.LOAD, currentFile, System.nanoTime() - phaseStart);
+          return new FormedSource(cached.getStructure(), cacheKey, cached.getVerifiedIn());
+        }
+      }
 
-    for(int i = 0; i < indiv.length; i++) {
-      files[i] = new File(indiv[i]);
-    }
+      phaseStart = System.nanoTime();
+      Token [] fileTokens = null;
+      if (content != null) {
+        CharBuffer source = Tokenizer.decode(ByteBuffer.wrap(content));
+        fileTokens = Tokenizer.tokenize(source.array(), source.arrayOffset() + source.position(), source.remaining());
+      }
+      else {
+        fileTokens = Tokenizer.tokenize(currentFile);
+      }
+      long tokenizeTime = System.nanoTime() - phaseStart;
+      Trace.phaseDone(CompilePhase.TOKENIZE, currentFile, tokenizeTime);
+      
+      if (Trace.isOn(TraceLevel.PHASES)) {
+        long size = content != null ? content.length : new File(currentFile).length();
+        Trace.message(TraceLevel.PHASES, "---TOKENIZED "+size+" BYTES ("+Tokenizer.throughput(size, tokenizeTime)+" MB/s)---");
+      }
+      if (Trace.isOn(TraceLevel.STRUCTURE)) {
+        Trace.message(TraceLevel.STRUCTURE, "------TOKENS------");
+        for (int i = 0; i < fileTokens.length; i++) {
+          Trace.message(TraceLevel.STRUCTURE, fileTokens[i].toString());
+        }
+        Trace.message(TraceLevel.STRUCTURE, "------TOKENS_END------");
+      }
 
-    File rtFile = null;
-    for(File file: files) {
-      if (file.getName().equals("rt.jar")) {
-        rtFile = file;
-        break;
+      phaseStart = System.nanoTime();
+      Formatter formatter = new Formatter(Arrays.asList(fileTokens), fileName);
+      FileStructure structure = formatter.formatSource();
+      Trace.phaseDone(CompilePhase.FORMAT, currentFile, System.nanoTime() - phaseStart);
+      
+      if (Trace.isOn(TraceLevel.STRUCTURE)) {
+        Trace.message(TraceLevel.STRUCTURE, "---DONE FOR SOURCE: "+currentFile+" ---");
       }
+      return new FormedSource(structure, cacheKey, null);
+    } finally {
+      Trace.exitSource(previousSource);
     }
-
+  }
+  
+  /**
+   * Verifies the structure of a source file
+   * @param currentFile - the path to the source file
+   * @param structure - the FileStructure of the file
+   * @param sysFuncs - the system functions available to all files
+   * @param allStructures - the FileStructures of all source files, by file name
+   */
+  private static void verifySource(String currentFile, 
+                                   FileStructure structure, 
+                                   List<FunctionKey> sysFuncs, 
+                                   Map<String, FileStructure> allStructures) {
+    String previousSource = Trace.enterSource(currentFile);
     try {
-      ZipInputStream inputStream = new ZipInputStream(new FileInputStream(rtFile));
-      
-      for(ZipEntry entry = inputStream.getNextEntry() ; entry != null; entry = inputStream.getNextEntry()) {
-        if (entry.getName().startsWith("java/lang/")) {
-          String className = entry.getName().replace('/', '.').replace(".class", "");
-          classNames.add(className);
-        }
+      long phaseStart = System.nanoTime();
+      StructureVerifier verifier = new StructureVerifier(structure, sysFuncs, allStructures);
+      verifier.verify();
+      Trace.phaseDone(CompilePhase.VERIFY, currentFile, System.nanoTime() - phaseStart);
+    } finally {
+      Trace.exitSource(previousSource);
+    }
+  }
+  
+  /**
+   * Waits for a compilation task, rethrowing its error as is. 
+   * If it failed, the remaining tasks of its phase are cancelled
+   * @param task - the task to wait for
+   * @param phase - all tasks of the task's phase
+   * @return the result of the task
+   * @throws IOException - if the task failed to read a source file
+   */
+  private static <T> T await(ForkJoinTask<T> task, List<? extends ForkJoinTask<?>> phase) throws IOException {
+    try {
+      return task.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while compiling", e);
+    } catch (ExecutionException e) {
+      for(ForkJoinTask<?> other : phase) {
+        other.cancel(false);
       }
       
-      inputStream.close();
-    } catch (IOException e) {
-      e.printStackTrace();
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new RuntimeException(cause);
     }
-    
-    return classNames;
   }
   
   private void announceError(Throwable throwable) {
     System.err.println(throwable.getMessage());
   }
+  
+  /**
+   * The structure of a source file, once formed or loaded from the cache
+   */
+  private static class FormedSource{
+    
+    private final FileStructure structure;
+    private final String cacheKey; //null if there's no cache
+    private final String verifiedIn; //digest of the program the structure was verified in, or null if it was just formed
+    
+    private FormedSource(FileStructure structure, String cacheKey, String verifiedIn) {
+      this.structure = structure;
+      this.cacheKey = cacheKey;
+      this.verifiedIn = verifiedIn;
+    }
+  }
 }
@@ -13,6 +13,8 @@ import wordy.logic.compile.structure.IfBlock;
 import wordy.logic.compile.structure.StatementBlock;
 import wordy.logic.compile.structure.TryBlock;
 import wordy.logic.compile.structure.StatementBlock.BlockType;
+import wordy.logic.compile.trace.Trace;
+import wordy.logic.compile.trace.TraceLevel;
 
 public class BlockFormatter {
   
@@ -71,7 +73,9 @@ public class BlockFormatter {
       CatchBlock catchBlock = new CatchBlockFormatter(tokens).formCatchBlock();
       return catchBlock;
     default:
-      System.out.println("---DEFAULT");
+      if (Trace.isOn(TraceLevel.DETAIL)) {
+        Trace.message(TraceLevel.DETAIL, "---DEFAULT");
+      }
       return formatGeneralBlock();
     }
     
@@ -90,16 +94,22 @@ public class BlockFormatter {
     Token current = null;
     while (iterator.hasNext()) {
       current = iterator.next();
-      System.out.println("---BL: "+current);
+      if (Trace.isOn(TraceLevel.DETAIL)) {
+        Trace.message(TraceLevel.DETAIL, "---BL: "+current);
+      }
       tempStatement.add(current);
       if (current.type() == Type.STATE_END) {
         tempStatement.remove(tempStatement.size()-1);
         
-        System.out.println("GENERAL: "+tempStatement);
+        if (Trace.isOn(TraceLevel.DETAIL)) {
+          Trace.message(TraceLevel.DETAIL, "GENERAL: "+tempStatement);
+        }
         
         StatementFormatter statementFormatter = new StatementFormatter(tempStatement);
         block.addStatement(statementFormatter.formatStatements());
-        System.out.println("---POST BLOCK: "+block.getStatements().size());
+        if (Trace.isOn(TraceLevel.DETAIL)) {
+          Trace.message(TraceLevel.DETAIL, "---POST BLOCK: "+block.getStatements().size());
+        }
         tempStatement = new ArrayList<>();
       }
       else if (current.type() == Type.BLOCK_SIG ) {
@@ -130,8 +140,10 @@ public class BlockFormatter {
         //these are for general scopes/blocks
         tempStatement.addAll(Formatter.gatherBlock(iterator, current.lineNumber()));
         
-        for(Token g: tempStatement) {
-          System.out.println("-GENERAL: "+g);
+        if (Trace.isOn(TraceLevel.DETAIL)) {
+          for(Token g: tempStatement) {
+            Trace.message(TraceLevel.DETAIL, "-GENERAL: "+g);
+          }
         }
         
         BlockFormatter formatter = new BlockFormatter(tempStatement);
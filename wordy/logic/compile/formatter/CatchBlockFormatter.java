@@ -11,6 +11,8 @@ import wordy.logic.compile.errors.ParseError;
 import wordy.logic.compile.structure.CatchBlock;
 import wordy.logic.compile.structure.CatchBlock.ExceptionName;
 import wordy.logic.compile.structure.StatementBlock;
+import wordy.logic.compile.trace.Trace;
+import wordy.logic.compile.trace.TraceLevel;
 
 public class CatchBlockFormatter {
   
@@ -41,7 +43,9 @@ public class CatchBlockFormatter {
         else if (current.type() == Type.LEFT_PAREN){
           //gather all the stuff enclosing the parenthesis
           List<Token> enclosed = Formatter.gatherEnclosingParanthesis(iterator, current.lineNumber());
-          System.out.println("----ENCLOSED: "+enclosed);
+          if (Trace.isOn(TraceLevel.DETAIL)) {
+            Trace.message(TraceLevel.DETAIL, "----ENCLOSED: "+enclosed);
+          }
           enclosed.remove(enclosed.size()-1);  //remove last parenthesis
           if (enclosed.isEmpty()) {
             //empty catch block conditional
@@ -57,7 +61,9 @@ public class CatchBlockFormatter {
           List<Token> scopeTokens = new ArrayList<>();
           scopeTokens.add(current);
           scopeTokens.addAll(Formatter.gatherBlock(iterator, current.lineNumber()));          
-          System.out.println("---CATCH BLOCK BODY: "+scopeTokens);
+          if (Trace.isOn(TraceLevel.DETAIL)) {
+            Trace.message(TraceLevel.DETAIL, "---CATCH BLOCK BODY: "+scopeTokens);
+          }
           
           if (!scopeTokens.isEmpty()) {
             BlockFormatter formatter = new BlockFormatter(scopeTokens);
@@ -99,7 +105,9 @@ public class CatchBlockFormatter {
     
     while (iterator.hasNext()) {
       current = iterator.next();
-      System.out.println("---CATCH CUR: "+current);
+      if (Trace.isOn(TraceLevel.DETAIL)) {
+        Trace.message(TraceLevel.DETAIL, "---CATCH CUR: "+current);
+      }
       if (expected.contains(current.type())) {
         if (current.type() == Type.IDENT) {
           if (nextIdenMayBeVar) {
@@ -140,7 +148,9 @@ public class CatchBlockFormatter {
     //adds the exception name if no comma was found
     names.add(new ExceptionName(currentName.toArray(new Token[currentName.size()])));
     
-    System.out.println("EXCEPTIONS----CATCH: "+names);
+    if (Trace.isOn(TraceLevel.DETAIL)) {
+      Trace.message(TraceLevel.DETAIL, "EXCEPTIONS----CATCH: "+names);
+    }
     
     Object [] ret = {names.toArray(new ExceptionName[names.size()]), varName};
     return ret;
@@ -17,6 +17,8 @@ import wordy.logic.compile.parser.Parser;
 import wordy.logic.compile.structure.ForLoopBlock;
 import wordy.logic.compile.structure.Statement;
 import wordy.logic.compile.structure.StatementBlock;
+import wordy.logic.compile.trace.Trace;
+import wordy.logic.compile.trace.TraceLevel;
 
 public class ForLoopFormatter {
   
@@ -86,11 +88,13 @@ public class ForLoopFormatter {
     //gave at next(), and since we know that buildBlock returns the list with ending brace
     //We can remove the first and last tokens and just get the bare tokens of the body
     
-    System.out.println("---FOR LOOP: ");
-    for(Token token: body) {
-      System.out.println("token: "+token);
+    if (Trace.isOn(TraceLevel.DETAIL)) {
+      Trace.message(TraceLevel.DETAIL, "---FOR LOOP: ");
+      for(Token token: body) {
+        Trace.message(TraceLevel.DETAIL, "token: "+token);
+      }
+      Trace.message(TraceLevel.DETAIL, "---FOR LOOP END");
     }
-    System.out.println("---FOR LOOP END");
     
     if (body.size() > 2) {
       BlockFormatter blockFormatter = new BlockFormatter(body);
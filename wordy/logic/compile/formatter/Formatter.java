@@ -18,6 +18,8 @@ import wordy.logic.compile.structure.Function;
 import wordy.logic.compile.structure.ImportedFile;
 import wordy.logic.compile.structure.Variable;
 import wordy.logic.compile.structure.Function.FunctionBuilder;
+import wordy.logic.compile.trace.Trace;
+import wordy.logic.compile.trace.TraceLevel;
 
 /**
  * Forms the structures and members of a source file
@@ -59,7 +61,9 @@ public class Formatter{
           if (!structure.addImport(importedFile)) {
             throw new ParseError("The file '"+importedFile.getImported()+"' has already been imported", current.lineNumber());
           }
-          System.out.println("!!! IMPORTED RAISED!!! | "+importedFile.getTypeNameImported() +" | "+importedFile.getAlias());
+          if (Trace.isOn(TraceLevel.DETAIL)) {
+            Trace.message(TraceLevel.DETAIL, "!!! IMPORTED RAISED!!! | "+importedFile.getTypeNameImported() +" | "+importedFile.getAlias());
+          }
           
           expected.clear();
           expected.addAll(Arrays.asList(Type.IMPORT, Type.LET, Type.FUNCTION, Type.CLASS, Type.NO_EXPECT));
@@ -122,7 +126,9 @@ public class Formatter{
   }
   
   private Function parseFunction(ListIterator<Token> iterator, boolean isConstructor) {
-    System.out.println("------PARSING FUNCTION-------");
+    if (Trace.isOn(TraceLevel.DETAIL)) {
+      Trace.message(TraceLevel.DETAIL, "------PARSING FUNCTION-------");
+    }
     ArrayList<Type> expected = new ArrayList<>(Arrays.asList(Type.IDENT));
     
     FunctionBuilder functionBuilder = new FunctionBuilder();
@@ -134,7 +140,9 @@ public class Formatter{
     Token current = null;
     while (iterator.hasNext()) {
       current = iterator.next();
-      System.out.println("--FUNC CUR: "+current);
+      if (Trace.isOn(TraceLevel.DETAIL)) {
+        Trace.message(TraceLevel.DETAIL, "--FUNC CUR: "+current);
+      }
       if (expected.contains(current.type())) {
         if (current.type() == Type.IDENT) {
           if (parsingParams) {
@@ -176,8 +184,10 @@ public class Formatter{
           bodyTokens.addAll(gatherBlock(iterator, current.lineNumber()));
           bodyTokens.remove(bodyTokens.size()-1);
           
-          for(Token b: bodyTokens) {
-            System.out.println("BODY: "+b);
+          if (Trace.isOn(TraceLevel.DETAIL)) {
+            for(Token b: bodyTokens) {
+              Trace.message(TraceLevel.DETAIL, "BODY: "+b);
+            }
           }
           
           if (!bodyTokens.isEmpty()) {
@@ -211,7 +221,9 @@ public class Formatter{
     Token current = null;
     while (iterator.hasNext()) {
       current = iterator.next();
-      System.out.println("---CURRENT CLASS"+current);
+      if (Trace.isOn(TraceLevel.DETAIL)) {
+        Trace.message(TraceLevel.DETAIL, "---CURRENT CLASS"+current);
+      }
       if (expected.contains(current.type())) {
         if(current.type() == Type.IDENT) {
           if (name != null) {    
@@ -252,11 +264,15 @@ public class Formatter{
     List<Token> body = gatherBlock(iterator, current.lineNumber());
     body.remove(body.size()-1);
     
-    System.out.println("----CLASS DEC INFO: "+name.content()+" | pare: "+parentName);
+    if (Trace.isOn(TraceLevel.DETAIL)) {
+      Trace.message(TraceLevel.DETAIL, "----CLASS DEC INFO: "+name.content()+" | pare: "+parentName);
+    }
     
     ClassStruct struct = new ClassStruct(fileName, name, parentName.toArray(new Token[parentName.size()]));
     if (body.isEmpty()) {
-      System.out.println("---CLASS PRINT: "+struct.getParentClass());
+      if (Trace.isOn(TraceLevel.DETAIL)) {
+        Trace.message(TraceLevel.DETAIL, "---CLASS PRINT: "+struct.getParentClass());
+      }
       return struct;
     }
     else {
@@ -264,7 +280,9 @@ public class Formatter{
       expected = new ArrayList<>(Arrays.asList(Type.LET, Type.FUNCTION, Type.IDENT));
       while (iterator.hasNext()) {
         current = iterator.next();
-        System.out.println("---CLASS FORM: "+current);
+        if (Trace.isOn(TraceLevel.DETAIL)) {
+          Trace.message(TraceLevel.DETAIL, "---CLASS FORM: "+current);
+        }
         if (expected.contains(current.type())) {
           if (current.type() == Type.LET) {
             ArrayList<Token> varDecTokens = new ArrayList<>();
@@ -305,7 +323,9 @@ public class Formatter{
               /*
                * Check is there's already a function with the same name
                */
-              System.out.println("****CONSTRUCTOR "+current+" || "+function.argAmount());
+              if (Trace.isOn(TraceLevel.DETAIL)) {
+                Trace.message(TraceLevel.DETAIL, "****CONSTRUCTOR "+current+" || "+function.argAmount());
+              }
               if(!struct.addFunction(function)) {
                 throw new ParseError("Duplicate constructor definition of class '"+
                                       function.getName().content()+"'",
@@ -325,14 +345,16 @@ public class Formatter{
         }
       }
       
-      System.out.println("---CLASS PRINT: "+struct.getFullName());
-      for(Function function: struct.getFunctions()) {
-        System.out.println("FUNC: "+function.getName()+" || "+function.isConstructor());
-      }
-      for(Variable variable: struct.getVariables()) {
-        System.out.println("VAR: "+variable.getName());
+      if (Trace.isOn(TraceLevel.DETAIL)) {
+        Trace.message(TraceLevel.DETAIL, "---CLASS PRINT: "+struct.getFullName());
+        for(Function function: struct.getFunctions()) {
+          Trace.message(TraceLevel.DETAIL, "FUNC: "+function.getName()+" || "+function.isConstructor());
+        }
+        for(Variable variable: struct.getVariables()) {
+          Trace.message(TraceLevel.DETAIL, "VAR: "+variable.getName());
+        }
+        Trace.message(TraceLevel.DETAIL, "----CLASS PRINT END-----");
       }
-      System.out.println("----CLASS PRINT END-----");
       
       return struct;
     }
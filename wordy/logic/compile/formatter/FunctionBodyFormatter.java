@@ -10,6 +10,8 @@ import wordy.logic.compile.Token.Type;
 import wordy.logic.compile.errors.ParseError;
 import wordy.logic.compile.structure.Function;
 import wordy.logic.compile.structure.Function.FunctionBuilder;
+import wordy.logic.compile.trace.Trace;
+import wordy.logic.compile.trace.TraceLevel;
 
 /**
  * Forms a function from a list of tokens that contains a function's contents
@@ -39,7 +41,9 @@ public class FunctionBodyFormatter {
     while (iterator.hasNext()) {
       token = iterator.next();
       tempStatement.add(token);
-      System.out.println("---FUNC FORM: "+token);
+      if (Trace.isOn(TraceLevel.DETAIL)) {
+        Trace.message(TraceLevel.DETAIL, "---FUNC FORM: "+token);
+      }
       if (token.type() == Type.STATE_END ) {
         tempStatement.remove(tempStatement.size()-1);
         
@@ -50,7 +54,9 @@ public class FunctionBodyFormatter {
         StatementFormatter statementFormatter = new StatementFormatter(tempStatement);
         builder.addStatement(statementFormatter.formatStatements(), false);
         
-        System.out.println("---FORM: STATE: "+tempStatement);
+        if (Trace.isOn(TraceLevel.DETAIL)) {
+          Trace.message(TraceLevel.DETAIL, "---FORM: STATE: "+tempStatement);
+        }
         
         tempStatement = new ArrayList<>();
       }
@@ -80,8 +86,10 @@ public class FunctionBodyFormatter {
         //these are for general scopes/blocks
         tempStatement.addAll(Formatter.gatherBlock(iterator, token.lineNumber()));
         
-        for(Token g: tempStatement) {
-          System.out.println("-GENERAL: "+g);
+        if (Trace.isOn(TraceLevel.DETAIL)) {
+          for(Token g: tempStatement) {
+            Trace.message(TraceLevel.DETAIL, "-GENERAL: "+g);
+          }
         }
         
         BlockFormatter formatter = new BlockFormatter(tempStatement);
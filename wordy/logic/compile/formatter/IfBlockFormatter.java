@@ -11,6 +11,8 @@ import wordy.logic.compile.nodes.ASTNode;
 import wordy.logic.compile.parser.Parser;
 import wordy.logic.compile.structure.IfBlock;
 import wordy.logic.compile.structure.Statement;
+import wordy.logic.compile.trace.Trace;
+import wordy.logic.compile.trace.TraceLevel;
 
 public class IfBlockFormatter {
   
@@ -24,18 +26,22 @@ public class IfBlockFormatter {
     ListIterator<Token> iterator = tokens.listIterator();
     ArrayList<Type> expected = new ArrayList<>(Arrays.asList(Type.BLOCK_SIG));
     
-    System.out.println("-----IF STATE------");
-    for(Token token: tokens) {
-      System.out.println("----> "+token);
+    if (Trace.isOn(TraceLevel.DETAIL)) {
+      Trace.message(TraceLevel.DETAIL, "-----IF STATE------");
+      for(Token token: tokens) {
+        Trace.message(TraceLevel.DETAIL, "----> "+token);
+      }
+      Trace.message(TraceLevel.DETAIL, "-----IF STATE-END------");
     }
-    System.out.println("-----IF STATE-END------");
     
     Statement actCond = null;
     List<Statement> statements = new ArrayList<>();
     Token current = null;
     while (iterator.hasNext()) {
       current = iterator.next();
-      System.out.println("--IF: "+current+" | ");
+      if (Trace.isOn(TraceLevel.DETAIL)) {
+        Trace.message(TraceLevel.DETAIL, "--IF: "+current+" | ");
+      }
       if (expected.contains(current.type())) {
         if (current.type() == Type.BLOCK_SIG) {
           expected.clear();
@@ -116,8 +122,10 @@ public class IfBlockFormatter {
           throw new RuntimeException("Missing '{' for scope declaration at line "+current.lineNumber());
         }
 
-        for(Token g: tempStatement) {
-          System.out.println("GIVING: "+g);
+        if (Trace.isOn(TraceLevel.DETAIL)) {
+          for(Token g: tempStatement) {
+            Trace.message(TraceLevel.DETAIL, "GIVING: "+g);
+          }
         }
 
         BlockFormatter blockForm = new BlockFormatter(tempStatement);
@@ -129,8 +137,10 @@ public class IfBlockFormatter {
         //these are for general scopes/blocks
         tempStatement.addAll(Formatter.gatherBlock(iterator, current.lineNumber()));
         
-        for(Token g: tempStatement) {
-          System.out.println("-GENERAL: "+g);
+        if (Trace.isOn(TraceLevel.DETAIL)) {
+          for(Token g: tempStatement) {
+            Trace.message(TraceLevel.DETAIL, "-GENERAL: "+g);
+          }
         }
         
         BlockFormatter formatter = new BlockFormatter(tempStatement);
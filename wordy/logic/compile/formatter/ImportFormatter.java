@@ -9,6 +9,8 @@ import wordy.logic.compile.Token;
 import wordy.logic.compile.Token.Type;
 import wordy.logic.compile.errors.ParseError;
 import wordy.logic.compile.structure.ImportedFile;
+import wordy.logic.compile.trace.Trace;
+import wordy.logic.compile.trace.TraceLevel;
 
 public class ImportFormatter {  
   private List<Token> tokens;
@@ -33,7 +35,9 @@ public class ImportFormatter {
     Token current = null;
     while (iterator.hasNext()) {
       current = iterator.next();
-      System.out.println("---Import CURR: "+current+" | "+expectAliasName);
+      if (Trace.isOn(TraceLevel.DETAIL)) {
+        Trace.message(TraceLevel.DETAIL, "---Import CURR: "+current+" | "+expectAliasName);
+      }
       if (expected.contains(current.type())) {
         if (current.type() == Type.IMPORT) {
           importKey = current;
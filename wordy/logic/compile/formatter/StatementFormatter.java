@@ -10,6 +10,8 @@ import wordy.logic.compile.nodes.IdentifierNode;
 import wordy.logic.compile.parser.Parser;
 import wordy.logic.compile.structure.Statement;
 import wordy.logic.compile.structure.Statement.StatementDescription;
+import wordy.logic.compile.trace.Trace;
+import wordy.logic.compile.trace.TraceLevel;
 
 /**
  * Formats a sequence of Tokens that are terminated by
@@ -69,7 +71,9 @@ public class StatementFormatter {
       
       if (tokens.size() == 1) {
         if (tokens.get(0).type() != Type.IDENT) {
-          System.out.println(tokens.get(0).content());
+          if (Trace.isOn(TraceLevel.DETAIL)) {
+            Trace.message(TraceLevel.DETAIL, String.valueOf(tokens.get(0).content()));
+          }
           throw new ParseError("Invalid statement", tokens.get(0).lineNumber());
         }
       }
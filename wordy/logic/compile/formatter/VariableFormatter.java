@@ -11,6 +11,8 @@ import wordy.logic.compile.errors.ParseError;
 import wordy.logic.compile.nodes.ASTNode;
 import wordy.logic.compile.parser.Parser;
 import wordy.logic.compile.structure.Variable;
+import wordy.logic.compile.trace.Trace;
+import wordy.logic.compile.trace.TraceLevel;
 
 /**
  * Forms a variable from a list of Tokens
@@ -72,7 +74,9 @@ public class VariableFormatter {
           if (assignment.isEmpty()) {
             throw new ParseError("Invalid assignment expression", current.lineNumber());
           }
-          System.out.println("---PARING: "+varName.content()+" | "+assignment);
+          if (Trace.isOn(TraceLevel.DETAIL)) {
+            Trace.message(TraceLevel.DETAIL, "---PARING: "+varName.content()+" | "+assignment);
+          }
           expression = new Parser(assignment).parse();    
         }
       }
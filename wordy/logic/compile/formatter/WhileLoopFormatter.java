@@ -17,6 +17,8 @@ import wordy.logic.compile.structure.ForLoopBlock;
 import wordy.logic.compile.structure.Statement;
 import wordy.logic.compile.structure.StatementBlock;
 import wordy.logic.compile.structure.WhileLoopBlock;
+import wordy.logic.compile.trace.Trace;
+import wordy.logic.compile.trace.TraceLevel;
 
 public class WhileLoopFormatter {
 
@@ -41,7 +43,9 @@ public class WhileLoopFormatter {
       BinaryOpNode opNode = (BinaryOpNode) compExpr;
       if (!ReservedSymbols.isABooleanOperator(opNode.getOperator()) && 
           !ReservedSymbols.isAComparisonOp(opNode.getOperator())) {
-        System.out.println(opNode.getOperator());
+        if (Trace.isOn(TraceLevel.DETAIL)) {
+          Trace.message(TraceLevel.DETAIL, String.valueOf(opNode.getOperator()));
+        }
         throw new ParseError("While loop conditional expression doesn't evaluate to a boolean", blockSig.lineNumber());
       }
     }
@@ -76,7 +80,9 @@ public class WhileLoopFormatter {
     ArrayList<Token> conditional = new ArrayList<>();
     while (iterator.hasNext()) {
       current = iterator.next();
-      System.out.println("WHILE_LOOP: "+current);
+      if (Trace.isOn(TraceLevel.DETAIL)) {
+        Trace.message(TraceLevel.DETAIL, "WHILE_LOOP: "+current);
+      }
       if (expected.contains(current.type())) {
         if (current.type() == Type.BLOCK_SIG) {
           blockSig = current;
@@ -108,7 +114,9 @@ public class WhileLoopFormatter {
           
           conditional.add(current);
           conditional.addAll(Formatter.gatherEnclosingParanthesis(iterator, current.lineNumber()));
-          System.out.println("--WHILE-LOOP CONDITION: "+conditional);
+          if (Trace.isOn(TraceLevel.DETAIL)) {
+            Trace.message(TraceLevel.DETAIL, "--WHILE-LOOP CONDITION: "+conditional);
+          }
           
           //can't have empty conditionals
           if(conditional.size() - 2 == 0) {
@@ -129,7 +137,9 @@ public class WhileLoopFormatter {
       throw new RuntimeException("Malformed while loop at line "+current.lineNumber());
     }
     
-    System.out.println("---POST COND: "+conditional);
+    if (Trace.isOn(TraceLevel.DETAIL)) {
+      Trace.message(TraceLevel.DETAIL, "---POST COND: "+conditional);
+    }
     StatementFormatter formatter = new StatementFormatter(conditional);
     return formatter.formatStatements();
   }
@@ -21,6 +21,7 @@ public class BinaryOpNode extends ASTNode{
   
   private ASTNode leftOperand;
   private ASTNode rightOperand;
+  private OpCode opCode;
   
   /**
    * Constructs a BinaryOpNode
@@ -32,12 +33,17 @@ public class BinaryOpNode extends ASTNode{
     super(NodeType.OPERATOR, op);
     this.leftOperand = left;
     this.rightOperand = right;
+    this.opCode = OpCode.binaryOperator(op.content());
   }
     
   public String getOperator() {
     return tokens[0].content();
   }
   
+  public OpCode opCode() {
+    return opCode;
+  }
+  
   public ASTNode getLeftOperand() {
     return leftOperand;
   }
@@ -1,23 +1,62 @@
 package wordy.logic.compile.nodes;
 
 import wordy.logic.common.NodeVisitor;
+import wordy.logic.compile.ReservedSymbols;
 import wordy.logic.compile.Token;
+import wordy.logic.runtime.components.Instance;
+import wordy.logic.runtime.components.JavaInstance;
+import wordy.logic.runtime.components.PrimitiveInstance;
 
 /**
  * Represents a number constant, be it
  * decimal or integer values.
+ * 
+ * The Instance a constant evaluates to is created once, when the 
+ * node is constructed.
  * @author Jose Guaro
  *
  */
 public class ConstantNode extends ASTNode{
   
+  private final Instance constant;
+  
   public ConstantNode(Token value) {
     super(NodeType.CONSTANT, value);
+    this.constant = parseConstant(value.content());
   }
   
   public String getValue() {
     return tokens[0].content();
   }
+  
+  /**
+   * Retrieves the Instance this constant evaluates to. 
+   * The same Instance is returned on every call.
+   * @return the Instance this constant evaluates to
+   */
+  public Instance getConstant() {
+    return constant;
+  }
+  
+  private static Instance parseConstant(String value) {
+    if (value.equals(ReservedSymbols.NULL)) {
+      return JavaInstance.getNullRep();
+    }
+    else if (ReservedSymbols.isABooleanVal(value)) {
+      return JavaInstance.wrapInstance(Boolean.parseBoolean(value));
+    }
+    else {
+      try {
+        return PrimitiveInstance.ofInt(Integer.parseInt(value));
+      } catch (NumberFormatException e) {
+        try {
+          return PrimitiveInstance.ofLong(Long.parseLong(value));
+        } catch (NumberFormatException e2) {
+          return PrimitiveInstance.ofDouble(Double.parseDouble(value));
+        }
+      }
+    }
+  }
 
   @Override
   public void accept(NodeVisitor visitor) {
@@ -14,8 +14,53 @@ import wordy.logic.compile.Token;
  */
 public class IdentifierNode extends ASTNode{
   
+  /*
+   * Frame slot this identifier refers to, as assigned by the SlotResolver.
+   * A slotIndex of -1 means the identifier couldn't be resolved prior to runtime
+   * and must be looked up by name.
+   */
+  private int slotDepth;
+  private int slotIndex;
+  private boolean constantSlot;
+  
   public IdentifierNode(Token name) {
     super(NodeType.IDENTIFIER, name);
+    slotDepth = 0;
+    slotIndex = -1;
+  }
+  
+  /**
+   * Binds this identifier to a frame slot
+   * @param depth - how many frames up from the current frame the slot is in 
+   *                (0 for the current function's frame, 1 for the file's frame)
+   * @param index - the index of the slot in that frame
+   * @param constant - true if the variable in that slot can't be reassigned
+   */
+  public void resolveSlot(int depth, int index, boolean constant) {
+    this.slotDepth = depth;
+    this.slotIndex = index;
+    this.constantSlot = constant;
+  }
+  
+  /**
+   * Checks if this identifier has been bound to a frame slot
+   * @return true if this identifier refers to a frame slot,
+   *         false if it must be looked up by name
+   */
+  public boolean isSlotResolved() {
+    return slotIndex >= 0;
+  }
+  
+  public int slotDepth() {
+    return slotDepth;
+  }
+  
+  public int slotIndex() {
+    return slotIndex;
+  }
+  
+  public boolean isConstantSlot() {
+    return constantSlot;
   }
   
   public Token getTokenName() {
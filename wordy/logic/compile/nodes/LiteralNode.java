@@ -2,6 +2,7 @@ package wordy.logic.compile.nodes;
 
 import wordy.logic.common.NodeVisitor;
 import wordy.logic.compile.Token;
+import wordy.logic.runtime.components.JavaInstance;
 
 /**
  * Represents a string or character literal.
@@ -11,19 +12,34 @@ import wordy.logic.compile.Token;
  * 
  * A char literal is character in between two
  * single quotes
+ * 
+ * The JavaInstance a literal evaluates to is created once, when the 
+ * node is constructed.
  * @author Jose Guaro
  *
  */
 public class LiteralNode extends ASTNode{
+  
+  private final JavaInstance literal;
 
   public LiteralNode(Token literal) {
     super(NodeType.LITERAL, literal);
+    this.literal = JavaInstance.wrapInstance(literal.content());
   }
 
   public String getLiteralContent() {
     return tokens[0].content();
   }
   
+  /**
+   * Retrieves the JavaInstance (of a String) this literal evaluates to. 
+   * The same JavaInstance is returned on every call.
+   * @return the JavaInstance this literal evaluates to
+   */
+  public JavaInstance getLiteral() {
+    return literal;
+  }
+  
   @Override
   public void accept(NodeVisitor visitor) {
     visitor.visit(this);
@@ -1,6 +1,7 @@
 package wordy.logic.compile.nodes;
 import wordy.logic.common.NodeVisitor;
 import wordy.logic.compile.Token;
+import wordy.logic.runtime.execution.CallSiteCache;
 
 /**
  * Represents a function/method call
@@ -12,6 +13,7 @@ public class MethodCallNode extends ASTNode{
 
   private ASTNode [] arguments;
   private ASTNode calle;
+  private final CallSiteCache callSiteCache;
   
   /**
    * Constructs a MethodCallNode
@@ -24,6 +26,7 @@ public class MethodCallNode extends ASTNode{
     super(NodeType.FUNC_CALL, name, paren);
     this.calle = calle;
     this.arguments = arguments;
+    this.callSiteCache = new CallSiteCache();
   }
   
   public Token getName() {
@@ -37,6 +40,15 @@ public class MethodCallNode extends ASTNode{
   public ASTNode [] arguments() {
     return arguments;
   }
+  
+  /**
+   * Retrieves the inline cache the runtime uses to remember
+   * which function this call resolved to
+   * @return the CallSiteCache of this call
+   */
+  public CallSiteCache getCallSiteCache() {
+    return callSiteCache;
+  }
 
   @Override
   public void accept(NodeVisitor visitor){
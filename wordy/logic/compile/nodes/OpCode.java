@@ -0,0 +1,93 @@
+package wordy.logic.compile.nodes;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import wordy.logic.compile.ReservedSymbols;
+
+/**
+ * Identifies the operation a BinaryOpNode or UnaryNode performs.
+ *
+ * Operators are resolved to an OpCode when their node is parsed, so the runtime
+ * can choose an operation without comparing operator symbols.
+ *
+ * @author Jose Guaro
+ *
+ */
+public enum OpCode {
+  ASSIGN(ReservedSymbols.EQUALS),
+
+  ADD(ReservedSymbols.PLUS),
+  SUBTRACT(ReservedSymbols.MINUS),
+  MULTIPLY(ReservedSymbols.MULT),
+  DIVIDE(ReservedSymbols.DIV),
+  MOD(ReservedSymbols.MOD),
+
+  EQUAL(ReservedSymbols.EQUAL_EQ),
+  NOT_EQUAL(ReservedSymbols.BANG_EQUALS),
+  LESS(ReservedSymbols.LESS),
+  LESS_EQUAL(ReservedSymbols.LESSE),
+  GREATER(ReservedSymbols.GREAT),
+  GREATER_EQUAL(ReservedSymbols.GREATE),
+
+  AND(ReservedSymbols.BOOL_AND),
+  OR(ReservedSymbols.BOOL_OR),
+
+  /*
+   * Unary operators
+   */
+  NEGATE(ReservedSymbols.MINUS),
+  NOT(ReservedSymbols.BANG),
+
+  /**
+   * An operator the runtime doesn't support (Like: ++ , & )
+   */
+  UNSUPPORTED(null);
+
+  private static final Map<String, OpCode> BINARY_OPS = new HashMap<>();
+
+  static {
+    for(OpCode opCode : values()) {
+      if (opCode.symbol != null && opCode != NEGATE && opCode != NOT) {
+        BINARY_OPS.put(opCode.symbol, opCode);
+      }
+    }
+  }
+
+  private final String symbol;
+
+  private OpCode(String symbol) {
+    this.symbol = symbol;
+  }
+
+  public String symbol() {
+    return symbol;
+  }
+
+  /**
+   * Checks if this is a comparison that results in a boolean (==, !=, <, <=, >, >=)
+   * @return true if this is a comparison, false if else
+   */
+  public boolean isComparison() {
+    return this == EQUAL || this == NOT_EQUAL || this == LESS || this == LESS_EQUAL ||
+           this == GREATER || this == GREATER_EQUAL;
+  }
+
+  /**
+   * Checks if this is a boolean operator (&&, ||)
+   * @return true if this is a boolean operator, false if else
+   */
+  public boolean isBooleanOperator() {
+    return this == AND || this == OR;
+  }
+
+  /**
+   * Retrieves the OpCode of a binary operator
+   * @param symbol - the symbol of the operator
+   * @return the OpCode of the operator, or UNSUPPORTED if there's none
+   */
+  public static OpCode binaryOperator(String symbol) {
+    OpCode opCode = BINARY_OPS.get(symbol);
+    return opCode == null ? UNSUPPORTED : opCode;
+  }
+}
@@ -19,18 +19,33 @@ import wordy.logic.compile.Token.Type;
 public class UnaryNode extends ASTNode{
   
   private Type unaryType;
+  private OpCode opCode;
   private ASTNode expr;
   
   public UnaryNode(Token unary, ASTNode expr) {
     super(NodeType.UNARY, unary);
     this.unaryType = unary.type();
     this.expr = expr;
+    
+    if (unaryType == Type.BANG) {
+      opCode = OpCode.NOT;
+    }
+    else if (unaryType == Type.MINUS) {
+      opCode = OpCode.NEGATE;
+    }
+    else {
+      opCode = OpCode.UNSUPPORTED;
+    }
   }
   
   public Type unaryType() {
     return unaryType;
   }
   
+  public OpCode opCode() {
+    return opCode;
+  }
+  
   public ASTNode getExpr() {
     return expr;
   }
@@ -15,6 +15,8 @@ import wordy.logic.compile.nodes.MethodCallNode;
 import wordy.logic.compile.nodes.UnaryNode;
 import wordy.logic.compile.nodes.ASTNode.NodeType;
 import wordy.logic.compile.parser.FuncArgumentParser.ParseReturn;
+import wordy.logic.compile.trace.Trace;
+import wordy.logic.compile.trace.TraceLevel;
 
 public class FuncArgumentParser {
   
@@ -36,7 +38,9 @@ public class FuncArgumentParser {
   }
   
   private ASTNode expression() {
-    System.out.println("FUNCTION PARSE");
+    if (Trace.isOn(TraceLevel.DETAIL)) {
+      Trace.message(TraceLevel.DETAIL, "FUNCTION PARSE");
+    }
     return equality();
   }
   
@@ -107,16 +111,22 @@ public class FuncArgumentParser {
       if (match(Type.LEFT_PAREN)) {
         if (node.nodeType() == NodeType.MEM_ACCESS) {
           MemberAccessNode old = (MemberAccessNode) node;
-          System.out.println("**** SEETING FOR FUNC: "+old.getMemberName());
+          if (Trace.isOn(TraceLevel.DETAIL)) {
+            Trace.message(TraceLevel.DETAIL, "**** SEETING FOR FUNC: "+old.getMemberName());
+          }
           old.setForFunction(true);
         }
         else {
-          System.out.println("***** NOT MEMACCESSS "+node.nodeType()+" "+node.tokens()[0]);
+          if (Trace.isOn(TraceLevel.DETAIL)) {
+            Trace.message(TraceLevel.DETAIL, "***** NOT MEMACCESSS "+node.nodeType()+" "+node.tokens()[0]);
+          }
         }
         node = finishCall(node);                
       }
       else if (match(Type.DOT)) {
-        System.out.println("DOT-F!!!");
+        if (Trace.isOn(TraceLevel.DETAIL)) {
+          Trace.message(TraceLevel.DETAIL, "DOT-F!!!");
+        }
         Token name = consume(Type.IDENT, "Expected identifier after '.'");
         node = new MemberAccessNode(node, name);
       }
@@ -158,21 +168,29 @@ public class FuncArgumentParser {
   
   private ASTNode primary() {
     if (match(Type.BOOL, Type.NUMBER, Type.NULL)) {
-      System.out.println("PRIMARY-F: "+previous().content());
+      if (Trace.isOn(TraceLevel.DETAIL)) {
+        Trace.message(TraceLevel.DETAIL, "PRIMARY-F: "+previous().content());
+      }
       return new ConstantNode(previous());
     }
     else if (match(Type.LITERAL)) {
-      System.out.println("PRIMARY-F: "+previous().content());
+      if (Trace.isOn(TraceLevel.DETAIL)) {
+        Trace.message(TraceLevel.DETAIL, "PRIMARY-F: "+previous().content());
+      }
       return new LiteralNode(previous());
     }
     else if (match(Type.IDENT)) {
-      System.out.println("PRIMARY-F: "+previous().content()); 
+      if (Trace.isOn(TraceLevel.DETAIL)) {
+        Trace.message(TraceLevel.DETAIL, "PRIMARY-F: "+previous().content());
+      }
       return new IdentifierNode(previous()); 
     }
     
     
     if (match(Type.LEFT_PAREN)) {
-      System.out.println("NESTED-F!!!");
+      if (Trace.isOn(TraceLevel.DETAIL)) {
+        Trace.message(TraceLevel.DETAIL, "NESTED-F!!!");
+      }
       ASTNode expr = expression();
       consume(Type.RIGHT_PAREN, " ')' expected after expression");
       return expr;
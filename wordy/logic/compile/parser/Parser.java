@@ -17,6 +17,8 @@ import wordy.logic.compile.nodes.MethodCallNode;
 import wordy.logic.compile.nodes.UnaryNode;
 import wordy.logic.compile.nodes.ASTNode.NodeType;
 import wordy.logic.compile.parser.FuncArgumentParser.ParseReturn;
+import wordy.logic.compile.trace.Trace;
+import wordy.logic.compile.trace.TraceLevel;
 
 public class Parser {
   
@@ -32,11 +34,15 @@ public class Parser {
   }
   
   public ASTNode parse() {
-    System.out.println("----TO PARSE: "+tokens);
+    if (Trace.isOn(TraceLevel.DETAIL)) {
+      Trace.message(TraceLevel.DETAIL, "----TO PARSE: "+tokens);
+    }
     ASTNode result = expression();
 
     if (index < tokens.size()) {
-      System.out.println("INDEX: "+index+" | size: "+tokens.size()+" | what? "+tokens.get(index));
+      if (Trace.isOn(TraceLevel.DETAIL)) {
+        Trace.message(TraceLevel.DETAIL, "INDEX: "+index+" | size: "+tokens.size()+" | what? "+tokens.get(index));
+      }
       throw new ParseError("Extra token: "+tokens.get(index).content(), tokens.get(index).lineNumber());
     }
 
@@ -50,10 +56,14 @@ public class Parser {
   private ASTNode assignment() {
     ASTNode node = or();
     
-    System.out.println("-----TOKEN? "+node.nodeType()+node.tokens()[0]);
+    if (Trace.isOn(TraceLevel.DETAIL)) {
+      Trace.message(TraceLevel.DETAIL, "-----TOKEN? "+node.nodeType()+node.tokens()[0]);
+    }
     
     if (match(Type.EQUALS)) {
-      System.out.println("-----TOKEN-M? "+node.nodeType()+node.tokens()[0]);
+      if (Trace.isOn(TraceLevel.DETAIL)) {
+        Trace.message(TraceLevel.DETAIL, "-----TOKEN-M? "+node.nodeType()+node.tokens()[0]);
+      }
       Token equals = previous();
       ASTNode value = assignment();
       
@@ -174,18 +184,26 @@ public class Parser {
       if (match(Type.LEFT_PAREN)) {
         if (node.nodeType() == NodeType.MEM_ACCESS) {
           MemberAccessNode old = (MemberAccessNode) node;
-          System.out.println("**** SEETING FOR FUNC: "+old.getMemberName());
+          if (Trace.isOn(TraceLevel.DETAIL)) {
+            Trace.message(TraceLevel.DETAIL, "**** SEETING FOR FUNC: "+old.getMemberName());
+          }
           old.setForFunction(true);
         }
         else {
-          System.out.println("***** NOT MEMACCESSS "+node.nodeType()+" "+node.tokens()[0]);
+          if (Trace.isOn(TraceLevel.DETAIL)) {
+            Trace.message(TraceLevel.DETAIL, "***** NOT MEMACCESSS "+node.nodeType()+" "+node.tokens()[0]);
+          }
         }
         node = finishCall(node);
-        System.out.println("---FINISHED CALL: "+((MethodCallNode) node).getName());
+        if (Trace.isOn(TraceLevel.DETAIL)) {
+          Trace.message(TraceLevel.DETAIL, "---FINISHED CALL: "+((MethodCallNode) node).getName());
+        }
       }
       else if (match(Type.DOT)) {
         Token name = consume(Type.IDENT, "Expected identifier after '.'");
-        System.out.println("---FINISHED DOT: "+name.content());
+        if (Trace.isOn(TraceLevel.DETAIL)) {
+          Trace.message(TraceLevel.DETAIL, "---FINISHED DOT: "+name.content());
+        }
         node = new MemberAccessNode(node, name);
       }
       else {
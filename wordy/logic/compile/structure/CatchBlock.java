@@ -6,11 +6,13 @@ public class CatchBlock extends StatementBlock{
   
   private ExceptionName [] exceptionTypes;
   private Token variableName;
+  private int variableSlot;
   
   public CatchBlock(Token variableName, ExceptionName [] errorTypes) {
     super(BlockType.CATCH);
     this.variableName = variableName;
     this.exceptionTypes = errorTypes;
+    this.variableSlot = -1;
   }
 
   public ExceptionName[] getExceptionTypes() {
@@ -21,6 +23,19 @@ public class CatchBlock extends StatementBlock{
     return variableName;
   }
   
+  public void setVariableSlot(int variableSlot) {
+    this.variableSlot = variableSlot;
+  }
+  
+  /**
+   * Returns the frame slot the caught exception is stored in
+   * @return the index of the exception variable in its frame, or -1 if 
+   *         it hasn't been assigned a slot
+   */
+  public int getVariableSlot() {
+    return variableSlot;
+  }
+  
   public static class ExceptionName{
     
     private Token [] nameArr;
@@ -68,6 +68,14 @@ public class ClassStruct {
     return fileName+ReservedSymbols.DOT+name.content();
   }
   
+  /**
+   * Returns the name of the file this class is declared in (without the .w extension)
+   * @return the name of the file this class is declared in
+   */
+  public String getFileName() {
+    return fileName;
+  }
+  
   public Token getName() {
     return name;
   }
@@ -21,6 +21,7 @@ public class Function {
   private Statement [] statements;
   private int paramAmnt;
   private boolean isConstructor;
+  private int frameSize;
   
   /**
    * Constructs a Function
@@ -62,6 +63,24 @@ public class Function {
     return isConstructor;
   }
   
+  /**
+   * Sets the amount of frame slots needed to hold this Function's 
+   * parameters and local variables
+   * @param frameSize - the amount of slots
+   */
+  public void setFrameSize(int frameSize) {
+    this.frameSize = frameSize;
+  }
+  
+  /**
+   * Returns the amount of frame slots needed to hold this Function's 
+   * parameters and local variables
+   * @return the amount of frame slots this Function needs
+   */
+  public int frameSize() {
+    return frameSize;
+  }
+  
   public boolean equals(Object object) {
     if (object instanceof Function) {
       Function function = (Function) object;
@@ -7,11 +7,13 @@ public class Variable extends Statement{
   
   private Token name;
   private boolean isConstant;
+  private int slot;
     
   public Variable(Token name, boolean isConstant) {
     super(StatementDescription.VAR_DEC);
     this.name = name;
     this.isConstant = isConstant;
+    this.slot = -1;
   }
   
   public boolean equals(Object object) {
@@ -34,6 +36,27 @@ public class Variable extends Statement{
     return name;
   }
   
+  /**
+   * Sets the frame slot this variable is stored in
+   * @param slot - the index of this variable in its frame
+   */
+  public void setSlot(int slot) {
+    this.slot = slot;
+  }
+  
+  /**
+   * Returns the frame slot this variable is stored in
+   * @return the index of this variable in its frame, or -1 if 
+   *         this variable hasn't been assigned a slot
+   */
+  public int getSlot() {
+    return slot;
+  }
+  
+  public boolean hasSlot() {
+    return slot >= 0;
+  }
+  
   public String toString() {
     return name.content();
   }
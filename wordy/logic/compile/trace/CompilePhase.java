@@ -0,0 +1,35 @@
+package wordy.logic.compile.trace;
+
+/**
+ * The phases a source file goes through when compiled
+ * 
+ * @author Jose Guaro
+ *
+ */
+public enum CompilePhase {
+  
+  /**
+   * Grouping the file's characters into Tokens
+   */
+  TOKENIZE,
+  
+  /**
+   * Forming the file's structure (classes, functions, statements) from its Tokens
+   */
+  FORMAT,
+  
+  /**
+   * Checking the file's structure against the structures of all other files
+   */
+  VERIFY,
+  
+  /**
+   * Loading the file's structure from the StructureCache, in place of the other phases
+   */
+  LOAD,
+  
+  /**
+   * All phases, for all source files
+   */
+  COMPILE;
+}
@@ -0,0 +1,43 @@
+package wordy.logic.compile.trace;
+
+import java.io.PrintStream;
+
+/**
+ * A TraceListener that prints the trace to a PrintStream.
+ * 
+ * Each message is prefixed with the name of the source file it's for, 
+ * as messages from different files may be interleaved.
+ * 
+ * @author Jose Guaro
+ *
+ */
+public class PrintingTraceListener implements TraceListener {
+  
+  private final PrintStream out;
+  
+  /**
+   * Constructs a PrintingTraceListener
+   * @param out - the PrintStream to print to
+   */
+  public PrintingTraceListener(PrintStream out) {
+    this.out = out;
+  }
+
+  public synchronized void message(TraceLevel level, String sourceFile, String message) {
+    if (sourceFile == null) {
+      out.println(message);
+    }
+    else {
+      out.println("["+sourceFile+"] "+message);
+    }
+  }
+
+  public synchronized void phaseDone(CompilePhase phase, String sourceFile, long nanos) {
+    if (sourceFile == null) {
+      out.println("---"+phase+" DONE IN "+(nanos / 1000000)+" ms---");
+    }
+    else {
+      out.println("["+sourceFile+"] ---"+phase+" DONE IN "+(nanos / 1000000)+" ms---");
+    }
+  }
+}
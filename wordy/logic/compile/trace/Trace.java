@@ -0,0 +1,104 @@
+package wordy.logic.compile.trace;
+
+/**
+ * Sends the trace of a compilation to the current TraceListener.
+ * 
+ * Tracing is off unless a TraceListener is set. Callers check if a level is on 
+ * before building a message (Like: if (Trace.isOn(TraceLevel.DETAIL)) { Trace.message(...); } ),
+ * so a message costs nothing - not even its concatenation - when its level is off.
+ * 
+ * Messages are attributed to the source file the current thread is compiling 
+ * (see enterSource())
+ * 
+ * @author Jose Guaro
+ *
+ */
+public final class Trace {
+  
+  private static final ThreadLocal<String> CURRENT_SOURCE = new ThreadLocal<>();
+  
+  private static volatile TraceListener listener;
+  
+  /**
+   * The amount of TraceLevels that are on. 0 means tracing is off
+   */
+  private static volatile int verbosity;
+  
+  private Trace() {}
+  
+  /**
+   * Sets the TraceListener to send the trace to. This should be set before compiling.
+   * @param traceListener - the TraceListener, or null to turn off tracing
+   * @param level - the highest TraceLevel to send to the TraceListener
+   */
+  public static void setListener(TraceListener traceListener, TraceLevel level) {
+    listener = traceListener;
+    verbosity = traceListener == null || level == null ? 0 : level.ordinal() + 1;
+  }
+  
+  /**
+   * Turns off tracing
+   */
+  public static void disable() {
+    setListener(null, null);
+  }
+  
+  /**
+   * Checks if a TraceLevel is traced
+   * @param level - the TraceLevel to check
+   * @return true if messages of this level are sent to the TraceListener, false if else
+   */
+  public static boolean isOn(TraceLevel level) {
+    return level.ordinal() < verbosity;
+  }
+  
+  /**
+   * Sends a diagnostic message to the TraceListener, if its level is on
+   * @param level - the TraceLevel of the message
+   * @param message - the message
+   */
+  public static void message(TraceLevel level, String message) {
+    TraceListener current = listener;
+    if (current != null && isOn(level)) {
+      current.message(level, CURRENT_SOURCE.get(), message);
+    }
+  }
+  
+  /**
+   * Sends the time a compilation phase took to the TraceListener, if TraceLevel.PHASES is on
+   * @param phase - the CompilePhase that's done
+   * @param sourceFile - the source file the phase was done for, or null if it covers all source files
+   * @param nanos - the time the phase took, in nanoseconds
+   */
+  public static void phaseDone(CompilePhase phase, String sourceFile, long nanos) {
+    TraceListener current = listener;
+    if (current != null && isOn(TraceLevel.PHASES)) {
+      current.phaseDone(phase, sourceFile, nanos);
+    }
+  }
+  
+  /**
+   * Marks the current thread as compiling a source file, so messages sent
+   * from this thread are attributed to it
+   * @param sourceFile - the source file
+   * @return the source file the current thread was compiling before, to be given to exitSource()
+   */
+  public static String enterSource(String sourceFile) {
+    String previous = CURRENT_SOURCE.get();
+    CURRENT_SOURCE.set(sourceFile);
+    return previous;
+  }
+  
+  /**
+   * Marks the current thread as done compiling its current source file
+   * @param previous - the source file returned by the matching enterSource() call
+   */
+  public static void exitSource(String previous) {
+    if (previous == null) {
+      CURRENT_SOURCE.remove();
+    }
+    else {
+      CURRENT_SOURCE.set(previous);
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package wordy.logic.compile.trace;
+
+/**
+ * How much of the compilation is traced. Each level includes the levels before it.
+ * 
+ * @author Jose Guaro
+ *
+ */
+public enum TraceLevel {
+  
+  /**
+   * The time each compilation phase took, per source file
+   */
+  PHASES,
+  
+  /**
+   * The Tokens and structures formed from each source file
+   */
+  STRUCTURE,
+  
+  /**
+   * Everything the Tokenizer, Parser, formatters and verifiers come across
+   */
+  DETAIL;
+}
@@ -0,0 +1,31 @@
+package wordy.logic.compile.trace;
+
+/**
+ * Receives the trace of a compilation - diagnostic messages and phase timings.
+ * 
+ * Source files are compiled in parallel, so a TraceListener may be called 
+ * from multiple threads at once.
+ * 
+ * @author Jose Guaro
+ *
+ */
+public interface TraceListener {
+
+  /**
+   * Called with a diagnostic message
+   * @param level - the TraceLevel of the message
+   * @param sourceFile - the source file being compiled when the message was sent, 
+   *                     or null if it wasn't sent while compiling a specific file
+   * @param message - the message
+   */
+  public void message(TraceLevel level, String sourceFile, String message);
+  
+  /**
+   * Called when a compilation phase is done 
+   * @param phase - the CompilePhase that's done
+   * @param sourceFile - the source file the phase was done for, 
+   *                     or null if the phase covers all source files
+   * @param nanos - the time the phase took, in nanoseconds
+   */
+  public void phaseDone(CompilePhase phase, String sourceFile, long nanos);
+}
@@ -0,0 +1,263 @@
+package wordy.logic.compile.verify;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import wordy.logic.common.NodeVisitor;
+import wordy.logic.compile.Token;
+import wordy.logic.compile.errors.ParseError;
+import wordy.logic.compile.nodes.BinaryOpNode;
+import wordy.logic.compile.nodes.ConstantNode;
+import wordy.logic.compile.nodes.IdentifierNode;
+import wordy.logic.compile.nodes.LiteralNode;
+import wordy.logic.compile.nodes.MemberAccessNode;
+import wordy.logic.compile.nodes.MethodCallNode;
+import wordy.logic.compile.nodes.UnaryNode;
+import wordy.logic.compile.nodes.ASTNode.NodeType;
+import wordy.logic.compile.structure.CatchBlock;
+import wordy.logic.compile.structure.ClassStruct;
+import wordy.logic.compile.structure.FileStructure;
+import wordy.logic.compile.structure.ForLoopBlock;
+import wordy.logic.compile.structure.Function;
+import wordy.logic.compile.structure.IfBlock;
+import wordy.logic.compile.structure.Statement;
+import wordy.logic.compile.structure.StatementBlock;
+import wordy.logic.compile.structure.Variable;
+import wordy.logic.compile.structure.WhileLoopBlock;
+import wordy.logic.compile.structure.StatementBlock.BlockType;
+import wordy.logic.compile.structure.Statement.StatementDescription;
+
+/**
+ * Assigns frame slots to the variables of a source file.
+ *
+ * Every parameter, local variable and catch variable of a function is given
+ * an index in that function's frame, and every file variable is given an index in the
+ * file's frame. Identifiers referring to those variables are then bound to the depth
+ * (0 for the current frame, 1 for the file frame) and index of their slot, so the runtime
+ * can read them straight out of an array instead of searching by name.
+ *
+ * Identifiers that can't be known prior to runtime - class members, 'this', source file
+ * names and Java classes - are left unresolved and are looked up by name at runtime.
+ *
+ * @author Jose Guaro
+ *
+ */
+public class SlotResolver implements NodeVisitor{
+
+  private FileStructure structure;
+
+  private Map<String, Variable> fileVariables;
+  private List<Map<String, Variable>> scopes;
+
+  /*
+   * The depth of the file frame relative to the frame currently being resolved,
+   * or -1 if file variables aren't visible (as in class functions, where they
+   * may be hidden by inherited class members)
+   */
+  private int fileDepth;
+  private int nextSlot;
+
+  public SlotResolver(FileStructure structure) {
+    this.structure = structure;
+    this.fileVariables = new HashMap<>();
+    this.scopes = new ArrayList<>();
+  }
+
+  public void resolve() {
+    /*
+     * File variables first. A file variable's initial value can only refer
+     * to the file variables declared before it.
+     */
+    fileDepth = 0;
+    int fileSlot = 0;
+    for(Variable fileVar : structure.getVariables()) {
+      if (fileVar.getExpression() != null) {
+        fileVar.getExpression().accept(this);
+      }
+      fileVar.setSlot(fileSlot++);
+      fileVariables.put(fileVar.getName().content(), fileVar);
+    }
+
+    fileDepth = 1;
+    for(Function function : structure.getFunctions()) {
+      resolveFunction(function);
+    }
+
+    fileDepth = -1;
+    for(ClassStruct struct : structure.getClasses()) {
+      for(Function function : struct.getFunctions()) {
+        resolveFunction(function);
+      }
+    }
+  }
+
+  private void resolveFunction(Function function) {
+    nextSlot = 0;
+    scopes.clear();
+
+    resolveStatements(Arrays.asList(function.getStatements()));
+    function.setFrameSize(nextSlot);
+  }
+
+  private void resolveStatements(List<Statement> statements) {
+    scopes.add(new HashMap<>());
+    for(Statement statement : statements) {
+      if (statement.getDescription() == StatementDescription.VAR_DEC) {
+        Variable variable = (Variable) statement;
+        declare(variable, true);
+        if (variable.getExpression() != null) {
+          variable.getExpression().accept(this);
+        }
+      }
+      else if (statement.getDescription() == StatementDescription.BLOCK) {
+        resolveBlock((StatementBlock) statement);
+      }
+      else if (statement.getDescription() != StatementDescription.BREAK &&
+               statement.getDescription() != StatementDescription.CONTINUE) {
+        if (statement.getExpression() != null) {
+          statement.getExpression().accept(this);
+        }
+      }
+    }
+    scopes.remove(scopes.size() - 1);
+  }
+
+  private void resolveBlock(StatementBlock block) {
+    if (block.blockType() == BlockType.IF) {
+      IfBlock ifBlock = (IfBlock) block;
+      if (ifBlock.getCondition() != null) {
+        ifBlock.getExpression().accept(this);
+      }
+      resolveStatements(block.getStatements());
+    }
+    else if (block.blockType() == BlockType.WHILE) {
+      ((WhileLoopBlock) block).getExpression().accept(this);
+      resolveStatements(block.getStatements());
+    }
+    else if (block.blockType() == BlockType.FOR) {
+      /*
+       * The loop variable lives in its own scope, which encloses the loop's body
+       */
+      ForLoopBlock forLoop = (ForLoopBlock) block;
+      scopes.add(new HashMap<>());
+
+      Statement init = forLoop.getInitialization();
+      if (init != null) {
+        if (init.getDescription() == StatementDescription.VAR_DEC) {
+          declare((Variable) init, false);
+        }
+        if (init.getExpression() != null) {
+          init.getExpression().accept(this);
+        }
+      }
+      if (forLoop.getCheckStatement() != null) {
+        forLoop.getCheckStatement().getExpression().accept(this);
+      }
+      if (forLoop.getChangeStatement() != null) {
+        forLoop.getChangeStatement().getExpression().accept(this);
+      }
+
+      resolveStatements(block.getStatements());
+      scopes.remove(scopes.size() - 1);
+    }
+    else if (block.blockType() == BlockType.CATCH) {
+      CatchBlock catchBlock = (CatchBlock) block;
+      scopes.add(new HashMap<>());
+
+      Variable exceptionVar = new Variable(catchBlock.getVariableName(), false);
+      declare(exceptionVar, false);
+      catchBlock.setVariableSlot(exceptionVar.getSlot());
+
+      resolveStatements(block.getStatements());
+      scopes.remove(scopes.size() - 1);
+    }
+    else {
+      resolveStatements(block.getStatements());
+    }
+  }
+
+  /**
+   * Declares a variable in the innermost scope and assigns it the next free slot
+   * @param variable - the Variable to declare
+   * @param checkDuplicate - if true, an error is thrown when the variable's name is
+   *                         already declared in this function
+   */
+  private void declare(Variable variable, boolean checkDuplicate) {
+    Token name = variable.getName();
+    if (checkDuplicate && findLocal(name.content()) != null) {
+      throw new ParseError("Duplicate variable '"+name.content()+"' ", name.lineNumber());
+    }
+
+    variable.setSlot(nextSlot++);
+    scopes.get(scopes.size() - 1).put(name.content(), variable);
+  }
+
+  private Variable findLocal(String name) {
+    for(int i = scopes.size() - 1; i >= 0; i--) {
+      Variable variable = scopes.get(i).get(name);
+      if (variable != null) {
+        return variable;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public void visit(BinaryOpNode node) {
+    node.getLeftOperand().accept(this);
+    node.getRightOperand().accept(this);
+  }
+
+  @Override
+  public void visit(ConstantNode node) {
+    /*
+     * Constants don't refer to variables
+     */
+  }
+
+  @Override
+  public void visit(IdentifierNode node) {
+    Variable local = findLocal(node.name());
+    if (local != null) {
+      node.resolveSlot(0, local.getSlot(), local.isConstant());
+    }
+    else if (fileDepth >= 0 && fileVariables.containsKey(node.name())) {
+      Variable fileVar = fileVariables.get(node.name());
+      node.resolveSlot(fileDepth, fileVar.getSlot(), fileVar.isConstant());
+    }
+  }
+
+  @Override
+  public void visit(LiteralNode node) {
+    /*
+     * Literals don't refer to variables
+     */
+  }
+
+  @Override
+  public void visit(MemberAccessNode node) {
+    node.getCalle().accept(this);
+  }
+
+  @Override
+  public void visit(MethodCallNode node) {
+    /*
+     * A plain identifier as the callee is a function name, not a variable
+     */
+    if (node.getCallee().nodeType() != NodeType.IDENTIFIER) {
+      node.getCallee().accept(this);
+    }
+
+    for(int i = 0; i < node.arguments().length; i++) {
+      node.arguments()[i].accept(this);
+    }
+  }
+
+  @Override
+  public void visit(UnaryNode node) {
+    node.getExpr().accept(this);
+  }
+}
@@ -23,6 +23,8 @@ import wordy.logic.compile.structure.TryBlock;
 import wordy.logic.compile.structure.Variable;
 import wordy.logic.compile.structure.WhileLoopBlock;
 import wordy.logic.compile.structure.Statement.StatementDescription;
+import wordy.logic.compile.trace.Trace;
+import wordy.logic.compile.trace.TraceLevel;
 
 /**
  * Checks the provided file structure of any problems
@@ -154,6 +156,11 @@ public class StructureVerifier {
         verifyFunction(function, nestedFunc, struct.getName());
       }
     }
+    
+    /*
+     * Finally, assign frame slots to variables now that the structure is known to be valid
+     */
+    new SlotResolver(structure).resolve();
   }
   
   private void verifyFunction(Function function, SymbolTable funcTable, Token className) {
@@ -174,7 +181,9 @@ public class StructureVerifier {
         SymbolTable blockTable = funcTable.clone();
         StatementBlock block = (StatementBlock) statement;
         boolean insideALoop = false;
-        System.out.println("---NEXT-F: "+block.blockType()+" | "+block.getBlockSig());
+        if (Trace.isOn(TraceLevel.DETAIL)) {
+          Trace.message(TraceLevel.DETAIL, "---NEXT-F: "+block.blockType()+" | "+block.getBlockSig());
+        }
         
         if(recentTryBlock != null && block.blockType() != BlockType.CATCH) {
           throw new ParseError("Invalid try block placement", recentTryBlock.getBlockSig().lineNumber());
@@ -235,12 +244,16 @@ public class StructureVerifier {
           insideALoop = true;
         }
         else if (block.blockType() == BlockType.TRY) {
-          System.out.println("---TRY-F!!!!! "+block.getBlockSig().lineNumber());
+          if (Trace.isOn(TraceLevel.DETAIL)) {
+            Trace.message(TraceLevel.DETAIL, "---TRY-F!!!!! "+block.getBlockSig().lineNumber());
+          }
           recentTryBlock = (TryBlock) block;
           insideALoop = false;
         }
         else if (block.blockType() == BlockType.CATCH) {
-          System.out.println("---CATCH-F!!!!! "+block.getBlockSig().lineNumber());
+          if (Trace.isOn(TraceLevel.DETAIL)) {
+            Trace.message(TraceLevel.DETAIL, "---CATCH-F!!!!! "+block.getBlockSig().lineNumber());
+          }
           if(recentTryBlock == null) {
             throw new ParseError("Invalid catch block placement", block.getBlockSig().lineNumber());
           }
@@ -254,7 +267,9 @@ public class StructureVerifier {
           }
         }
         
-        System.out.println("---GOING: "+insideALoop);
+        if (Trace.isOn(TraceLevel.DETAIL)) {
+          Trace.message(TraceLevel.DETAIL, "---GOING: "+insideALoop);
+        }
         verifyBlock(block, blockTable, className, insideALoop);
         insideALoop = false;
       }
@@ -270,7 +285,9 @@ public class StructureVerifier {
           }
         }
         else {
-          System.out.println("---IS A BREAK? "+statement.getDescription());       
+          if (Trace.isOn(TraceLevel.DETAIL)) {
+            Trace.message(TraceLevel.DETAIL, "---IS A BREAK? "+statement.getDescription());
+          }
           statement.getExpression().accept(visitor);
         }
       }
@@ -288,7 +305,9 @@ public class StructureVerifier {
     TryBlock recentTryBlock = null;
     
     for(Statement statement : block.getStatements()) {
-      System.out.println(">>>>>BLOCK EXEC---- "+statement.getClass().getName());
+      if (Trace.isOn(TraceLevel.DETAIL)) {
+        Trace.message(TraceLevel.DETAIL, ">>>>>BLOCK EXEC---- "+statement.getClass().getName());
+      }
       if (statement.getDescription() == StatementDescription.VAR_DEC) {
         table.placeVariable((Variable) statement);
         Variable variable = (Variable) statement;
@@ -301,7 +320,9 @@ public class StructureVerifier {
         StatementBlock nestedBlock = (StatementBlock) statement;
         boolean nestedInsideLoop = insideALoop;
         
-        System.out.println("---NEXT: "+nestedBlock.blockType());
+        if (Trace.isOn(TraceLevel.DETAIL)) {
+          Trace.message(TraceLevel.DETAIL, "---NEXT: "+nestedBlock.blockType());
+        }
         if(recentTryBlock != null && nestedBlock.blockType() != BlockType.CATCH) {
           throw new ParseError("Invalid try block placement", recentTryBlock.getBlockSig().lineNumber());
         }       
@@ -333,7 +354,7 @@ public class StructureVerifier {
           if (forLoopBlock.getInitialization() != null) {
             Statement init = forLoopBlock.getInitialization();
             if(init.getDescription() == StatementDescription.VAR_DEC) {
-              Variable variable = (Variable) statement;
+              Variable variable = (Variable) init;
               blockTable.placeVariable(variable);
               if (variable.getExpression() != null) {
                 variable.getExpression().accept(visitor);
@@ -347,11 +368,11 @@ public class StructureVerifier {
           }
           if (forLoopBlock.getCheckStatement() != null) {
             Statement comp = forLoopBlock.getCheckStatement();
-            comp.getExpression().accept(visitor);
+            comp.getExpression().accept(new VerifierVisitor(blockTable, className));
           }
           if(forLoopBlock.getChangeStatement() != null) {
             Statement change = forLoopBlock.getChangeStatement();
-            change.getExpression().accept(visitor);
+            change.getExpression().accept(new VerifierVisitor(blockTable, className));
           }
           nestedInsideLoop = true;
         }
@@ -361,12 +382,16 @@ public class StructureVerifier {
           nestedInsideLoop = true;
         }
         else if (nestedBlock.blockType() == BlockType.TRY) {
-          System.out.println("-----TRY!!!!! "+block.getBlockSig().lineNumber());
+          if (Trace.isOn(TraceLevel.DETAIL)) {
+            Trace.message(TraceLevel.DETAIL, "-----TRY!!!!! "+block.getBlockSig().lineNumber());
+          }
           recentTryBlock = (TryBlock) nestedBlock;
           nestedInsideLoop = false;
         }
         else if (nestedBlock.blockType() == BlockType.CATCH) {
-          System.out.println("---CATCH!!!!! "+block.getBlockSig().lineNumber());
+          if (Trace.isOn(TraceLevel.DETAIL)) {
+            Trace.message(TraceLevel.DETAIL, "---CATCH!!!!! "+block.getBlockSig().lineNumber());
+          }
           if(recentTryBlock == null) {
             throw new ParseError("Invalid catch block placement", nestedBlock.getBlockSig().lineNumber());
           }
@@ -377,12 +402,16 @@ public class StructureVerifier {
             CatchBlock catchBlock = (CatchBlock) nestedBlock;
             Variable exceptVar = new Variable(catchBlock.getVariableName(), false);
             blockTable.placeVariable(exceptVar);
-            System.out.println(">>>>>>>BLOCK TABLE: placed var: "+exceptVar.getName().content());
+            if (Trace.isOn(TraceLevel.DETAIL)) {
+              Trace.message(TraceLevel.DETAIL, ">>>>>>>BLOCK TABLE: placed var: "+exceptVar.getName().content());
+            }
           }
         }
         
-        System.out.println(">>TABLE CONTENTS NESTED: ");
-        System.out.println("  "+blockTable.getVariables());
+        if (Trace.isOn(TraceLevel.DETAIL)) {
+          Trace.message(TraceLevel.DETAIL, ">>TABLE CONTENTS NESTED: ");
+          Trace.message(TraceLevel.DETAIL, "  "+blockTable.getVariables());
+        }
         verifyBlock(nestedBlock, blockTable, className, nestedInsideLoop);     
       }
       else {
@@ -394,14 +423,18 @@ public class StructureVerifier {
           }
         }
         else {
-          System.out.println(">>TABLE CONTENTS: ");
-          System.out.println("  "+table.getVariables());
+          if (Trace.isOn(TraceLevel.DETAIL)) {
+            Trace.message(TraceLevel.DETAIL, ">>TABLE CONTENTS: ");
+            Trace.message(TraceLevel.DETAIL, "  "+table.getVariables());
+          }
           statement.getExpression().accept(visitor);
         }
       }
       
       
-      System.out.println("----BLOCK EXEC END---- ");
+      if (Trace.isOn(TraceLevel.DETAIL)) {
+        Trace.message(TraceLevel.DETAIL, "----BLOCK EXEC END---- ");
+      }
     }
     
     //dangling try block
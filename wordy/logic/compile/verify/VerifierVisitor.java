@@ -16,6 +16,8 @@ import wordy.logic.compile.nodes.UnaryNode;
 import wordy.logic.compile.structure.ClassStruct;
 import wordy.logic.compile.structure.Function;
 import wordy.logic.compile.structure.Variable;
+import wordy.logic.compile.trace.Trace;
+import wordy.logic.compile.trace.TraceLevel;
 
 public class VerifierVisitor implements NodeVisitor{
   
@@ -37,12 +39,18 @@ public class VerifierVisitor implements NodeVisitor{
 
   @Override
   public void visit(BinaryOpNode node) {
-    System.out.println("----VISITOR OP: "+node.getOperator());
-    System.out.println("---VISITING LEFT "+node.getLeftOperand().getClass().getName());
+    if (Trace.isOn(TraceLevel.DETAIL)) {
+      Trace.message(TraceLevel.DETAIL, "----VISITOR OP: "+node.getOperator());
+      Trace.message(TraceLevel.DETAIL, "---VISITING LEFT "+node.getLeftOperand().getClass().getName());
+    }
     node.getLeftOperand().accept(this); 
-    System.out.println("---VISITNG RIGHT "+node.getRightOperand().getClass().getName());
+    if (Trace.isOn(TraceLevel.DETAIL)) {
+      Trace.message(TraceLevel.DETAIL, "---VISITNG RIGHT "+node.getRightOperand().getClass().getName());
+    }
     node.getRightOperand().accept(this); 
-    System.out.println("---OP DONE");
+    if (Trace.isOn(TraceLevel.DETAIL)) {
+      Trace.message(TraceLevel.DETAIL, "---OP DONE");
+    }
   }
 
   @Override
@@ -54,14 +62,18 @@ public class VerifierVisitor implements NodeVisitor{
 
   @Override
   public void visit(IdentifierNode node) {
-    System.out.println("----VISITED IDENTIFIER: "+node.getTokenName().content()+" | "+prior);
+    if (Trace.isOn(TraceLevel.DETAIL)) {
+      Trace.message(TraceLevel.DETAIL, "----VISITED IDENTIFIER: "+node.getTokenName().content()+" | "+prior);
+    }
     Token iden = node.getTokenName();
     if (prior == null || prior == Prior.MEM_ACC || prior == Prior.IDEN) {
       Variable variable = table.getVariable(iden.content());
       if (!iden.content().equals(ReservedSymbols.THIS)) {
         if (variable == null) {
           if (className == null) {
-            System.out.println("---FINDING: "+iden.content()+" | "+table.getFiles()+" | "+table.getFileStruct(iden.content()));
+            if (Trace.isOn(TraceLevel.DETAIL)) {
+              Trace.message(TraceLevel.DETAIL, "---FINDING: "+iden.content()+" | "+table.getFiles()+" | "+table.getFileStruct(iden.content()));
+            }
             if (table.getFileStruct(iden.content()) == null) {
               if (!table.importedClassExists(iden.content())) {
                 try {
@@ -73,7 +85,9 @@ public class VerifierVisitor implements NodeVisitor{
             }
           }
           else {
-            System.out.println("***CHECKING CLASS");
+            if (Trace.isOn(TraceLevel.DETAIL)) {
+              Trace.message(TraceLevel.DETAIL, "***CHECKING CLASS");
+            }
             ClassStruct struct = table.getClass(className.content());
             if (struct == null) {
               throw new ParseError("Can't find class '"+className.content()+"' ", iden.lineNumber());
@@ -91,7 +105,9 @@ public class VerifierVisitor implements NodeVisitor{
         if (!iden.content().equals(ReservedSymbols.SUPER)) {
           Function function = table.getFunction(iden.content(), argAmnt);
           if (function == null) {
-            System.out.println("---SYS FUNCS: "+table.getSystemFunctions());
+            if (Trace.isOn(TraceLevel.DETAIL)) {
+              Trace.message(TraceLevel.DETAIL, "---SYS FUNCS: "+table.getSystemFunctions());
+            }
             if (table.systemFunctionExists(iden.content(), argAmnt) == false) {
               if (className == null) {
                 throw new ParseError("Can't find function '"+iden.content()+"' ", iden.lineNumber());
@@ -125,7 +141,9 @@ public class VerifierVisitor implements NodeVisitor{
 
   @Override
   public void visit(MemberAccessNode node) {
-    System.out.println("---MEMBER ACCESS: "+node.getMemberName()+" | "+prior);
+    if (Trace.isOn(TraceLevel.DETAIL)) {
+      Trace.message(TraceLevel.DETAIL, "---MEMBER ACCESS: "+node.getMemberName()+" | "+prior);
+    }
     prior = Prior.MEM_ACC;
     node.getCalle().accept(this);
     
@@ -138,21 +156,29 @@ public class VerifierVisitor implements NodeVisitor{
 
   @Override
   public void visit(MethodCallNode node) {
-    System.out.println("----VISITED FUNCTION CALL "+node.getCallee().getClass().getName()+" | "+prior);
+    if (Trace.isOn(TraceLevel.DETAIL)) {
+      Trace.message(TraceLevel.DETAIL, "----VISITED FUNCTION CALL "+node.getCallee().getClass().getName()+" | "+prior);
+    }
     prior = Prior.FUNC;
     argAmnt = node.arguments().length;
     node.getCallee().accept(this);
     
     for(int i = 0; i < node.arguments().length; i++) {
-      System.out.println("---ARG "+i+" ----");
+      if (Trace.isOn(TraceLevel.DETAIL)) {
+        Trace.message(TraceLevel.DETAIL, "---ARG "+i+" ----");
+      }
       node.arguments()[i].accept(this);
-      System.out.println("---ARG "+i+" END----");
+      if (Trace.isOn(TraceLevel.DETAIL)) {
+        Trace.message(TraceLevel.DETAIL, "---ARG "+i+" END----");
+      }
     }
   }
 
   @Override
   public void visit(UnaryNode node) {
-    System.out.println("---VISITVED UNARY: "+node.tokens()[0]);
+    if (Trace.isOn(TraceLevel.DETAIL)) {
+      Trace.message(TraceLevel.DETAIL, "---VISITVED UNARY: "+node.tokens()[0]);
+    }
     /*
      * We don't care about unary ops
      */
@@ -0,0 +1,26 @@
+package wordy.logic.runtime;
+
+/**
+ * The ways a WordyRuntime can execute the functions of a program
+ * @author Jose Guaro
+ *
+ */
+public enum ExecutionEngine {
+  
+  /**
+   * Functions are executed by walking their statements
+   */
+  INTERPRETER,
+  
+  /**
+   * Functions are converted into trees of executable nodes when the runtime 
+   * is initialized. Functions that can't be converted are interpreted.
+   */
+  TREE,
+  
+  /**
+   * Functions are compiled into JVM classes when the runtime is initialized.
+   * Functions that can't be compiled are interpreted.
+   */
+  BYTECODE;
+}
@@ -0,0 +1,78 @@
+package wordy.logic.runtime;
+
+import java.util.Arrays;
+
+import wordy.logic.runtime.components.Instance;
+import wordy.logic.runtime.components.JavaInstance;
+
+/**
+ * Holds the values of the variables that were assigned slots prior to runtime.
+ *
+ * Each function invocation gets its own Frame, whose parent is the Frame of the
+ * source file the function is in. Variables are then read and written by their
+ * depth (how many parents up from the current Frame) and their index in that Frame.
+ *
+ * @author Jose Guaro
+ *
+ */
+public class Frame {
+
+  private final Instance [] slots;
+  private final Frame parent;
+
+  /**
+   * Constructs a Frame
+   * @param size - the amount of slots in this Frame
+   * @param parent - the enclosing Frame, or null if there's none
+   */
+  public Frame(int size, Frame parent) {
+    this.slots = new Instance[size];
+    this.parent = parent;
+    Arrays.fill(slots, JavaInstance.getNullRep());
+  }
+
+  /**
+   * Retrieves the value at the given slot
+   * @param depth - how many parents up from this Frame the slot is in
+   * @param index - the index of the slot
+   * @return the value at the given slot
+   */
+  public Instance get(int depth, int index) {
+    return ancestor(depth).slots[index];
+  }
+
+  /**
+   * Sets the value at the given slot
+   * @param depth - how many parents up from this Frame the slot is in
+   * @param index - the index of the slot
+   * @param value - the value to set
+   */
+  public void set(int depth, int index, Instance value) {
+    ancestor(depth).slots[index] = value;
+  }
+
+  public Instance get(int index) {
+    return slots[index];
+  }
+
+  public void set(int index, Instance value) {
+    slots[index] = value;
+  }
+
+  public Frame getParent() {
+    return parent;
+  }
+
+  public int size() {
+    return slots.length;
+  }
+
+  private Frame ancestor(int depth) {
+    Frame current = this;
+    while (depth > 0) {
+      current = current.parent;
+      depth--;
+    }
+    return current;
+  }
+}
@@ -0,0 +1,42 @@
+package wordy.logic.runtime;
+
+import wordy.logic.compile.nodes.ASTNode;
+import wordy.logic.runtime.components.Instance;
+import wordy.logic.runtime.types.TypeDefinition;
+
+/**
+ * Represents a variable whose value is held in a Frame slot.
+ *
+ * This is used for file variables, so that code referring to them by name
+ * (such as SourceFile.variable) and code referring to them by slot see the same value.
+ *
+ * @author Jose Guaro
+ *
+ */
+public class FrameVariableMember extends VariableMember{
+
+  private final Frame frame;
+  private final int index;
+
+  public FrameVariableMember(String name, ASTNode expr, boolean isConstant, Frame frame, int index) {
+    super(name, expr, isConstant);
+    this.frame = frame;
+    this.index = index;
+  }
+
+  public void forceSetValue(Instance constant) {
+    frame.set(index, constant);
+  }
+
+  public Instance getValue() {
+    return frame.get(index);
+  }
+
+  public TypeDefinition getType() {
+    return frame.get(index).getDefinition();
+  }
+
+  public VariableMember clone() {
+    return new FrameVariableMember(getName(), expr, isConstant, frame, index);
+  }
+}
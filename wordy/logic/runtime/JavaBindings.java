@@ -0,0 +1,193 @@
+package wordy.logic.runtime;
+
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import wordy.logic.common.FunctionKey;
+import wordy.logic.compile.WordyCompiler;
+import wordy.logic.runtime.execution.Callable;
+import wordy.logic.runtime.execution.JavaCallable;
+
+/**
+ * Binds the Java classes usable by Wordy code to their constructors.
+ *
+ * Java classes are only loaded (and their constructors wrapped) when code first refers
+ * to them. The constructors of a class are bound once, and shared by all RuntimeFiles.
+ *
+ * @author Jose Guaro
+ *
+ */
+public class JavaBindings {
+
+  /**
+   * Java standard classes (see WordyCompiler.JAVA_CLASSES), by the name they're referred to as
+   * (Like: Thread$State for java.lang.Thread$State)
+   */
+  private static final Map<String, String> STANDARD_CLASSES;
+
+  /**
+   * Java standard classes, by the simple name their constructors are invoked with
+   * (Like: State for java.lang.Thread$State)
+   */
+  private static final Map<String, List<String>> STANDARD_CONSTRUCTOR_NAMES;
+
+  /**
+   * The constructors of bound classes, by binary class name and then argument count
+   */
+  private static final ConcurrentHashMap<String, Map<Integer, List<Callable>>> CLASS_CONSTRUCTORS = new ConcurrentHashMap<>();
+
+  /**
+   * The constructors of the standard classes, by the FunctionKey they're invoked with.
+   * Names without constructors map to an empty list
+   */
+  private static final ConcurrentHashMap<FunctionKey, List<Callable>> STANDARD_CONSTRUCTORS = new ConcurrentHashMap<>();
+
+  static {
+    HashMap<String, String> classes = new HashMap<>();
+    HashMap<String, List<String>> constructorNames = new HashMap<>();
+    for(String standard : WordyCompiler.JAVA_CLASSES) {
+      String [] split = standard.split("\\.");
+      classes.put(split[split.length-1], standard);
+
+      String simpleName = simpleName(standard);
+      List<String> named = constructorNames.get(simpleName);
+      if (named == null) {
+        named = new ArrayList<>(1);
+        constructorNames.put(simpleName, named);
+      }
+      named.add(standard);
+    }
+    STANDARD_CLASSES = Collections.unmodifiableMap(classes);
+    STANDARD_CONSTRUCTOR_NAMES = Collections.unmodifiableMap(constructorNames);
+  }
+
+  private JavaBindings() {}
+
+  /**
+   * Retrieves the Java standard classes, by the name they're referred to as in Wordy code
+   * @return an unmodifiable map of names to binary class names
+   */
+  public static Map<String, String> getStandardClasses() {
+    return STANDARD_CLASSES;
+  }
+
+  /**
+   * Retrieves the constructors of the Java standard classes invoked with the given name
+   * and argument count, binding those classes if they haven't been yet
+   * @param key - the FunctionKey of the constructor invocation
+   * @return the constructors, or an empty list if there are none
+   */
+  public static List<Callable> getStandardConstructors(FunctionKey key) {
+    List<Callable> constructors = STANDARD_CONSTRUCTORS.get(key);
+    if (constructors == null) {
+      List<String> named = STANDARD_CONSTRUCTOR_NAMES.get(key.name);
+      if (named == null) {
+        constructors = Collections.emptyList();
+      }
+      else {
+        ArrayList<Callable> found = new ArrayList<>();
+        for(String className : named) {
+          found.addAll(getConstructors(className, key.argAmnt));
+        }
+        constructors = found.isEmpty() ? Collections.<Callable>emptyList() : Collections.unmodifiableList(found);
+      }
+
+      List<Callable> existing = STANDARD_CONSTRUCTORS.putIfAbsent(key, constructors);
+      if (existing != null) {
+        constructors = existing;
+      }
+    }
+    return constructors;
+  }
+
+  /**
+   * Retrieves the public constructors of a Java class that take the given amount of arguments,
+   * binding the class if it hasn't been yet
+   * @param className - the binary name of the class
+   * @param argc - the amount of arguments
+   * @return the constructors, or an empty list if there are none
+   */
+  public static List<Callable> getConstructors(String className, int argc) {
+    Map<Integer, List<Callable>> constructors = CLASS_CONSTRUCTORS.get(className);
+    if (constructors == null) {
+      constructors = bind(className);
+      Map<Integer, List<Callable>> existing = CLASS_CONSTRUCTORS.putIfAbsent(className, constructors);
+      if (existing != null) {
+        constructors = existing;
+      }
+    }
+
+    List<Callable> withArgc = constructors.get(argc);
+    if (withArgc == null) {
+      return Collections.emptyList();
+    }
+    return withArgc;
+  }
+
+  /**
+   * Loads a Java class, throwing an error if it doesn't exist
+   * @param className - the binary name of the class
+   * @return the class
+   */
+  public static Class<?> load(String className) {
+    try {
+      return Class.forName(className);
+    } catch (ClassNotFoundException e) {
+      throw new RuntimeException("Cannot load the class "+className);
+    }
+  }
+
+  /**
+   * Checks that a Java class exists, without loading or initializing it
+   * @param className - the binary name of the class
+   */
+  public static void checkExists(String className) {
+    try {
+      Class.forName(className, false, JavaBindings.class.getClassLoader());
+    } catch (ClassNotFoundException e) {
+      throw new RuntimeException("Cannot load the class "+className);
+    }
+  }
+  
+  /**
+   * Retrieves the name the constructors of a class are invoked with, without loading it
+   * (the name Class.getSimpleName() would give)
+   * @param className - the binary name of the class
+   * @return the simple name of the class
+   */
+  public static String simpleName(String className) {
+    String simpleName = className.substring(className.lastIndexOf('.') + 1);
+    simpleName = simpleName.substring(simpleName.lastIndexOf('$') + 1);
+
+    //local classes are named with their index first (Like: Outer$1Local)
+    int start = 0;
+    while (start < simpleName.length() && Character.isDigit(simpleName.charAt(start))) {
+      start++;
+    }
+    return simpleName.substring(start);
+  }
+
+  private static Map<Integer, List<Callable>> bind(String className) {
+    Class<?> curClass = load(className);
+
+    HashMap<Integer, List<Callable>> constructors = new HashMap<>();
+    for(Constructor<?> constructor : curClass.getConstructors()) {
+      List<Callable> withArgc = constructors.get(constructor.getParameterCount());
+      if (withArgc == null) {
+        withArgc = new ArrayList<>(1);
+        constructors.put(constructor.getParameterCount(), withArgc);
+      }
+      withArgc.add(new JavaCallable(constructor));
+    }
+
+    for(Map.Entry<Integer, List<Callable>> entry : constructors.entrySet()) {
+      entry.setValue(Collections.unmodifiableList(entry.getValue()));
+    }
+    return constructors;
+  }
+}
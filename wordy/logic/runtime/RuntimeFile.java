@@ -1,26 +1,28 @@
 package wordy.logic.runtime;
 
-import java.lang.reflect.Constructor;
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import wordy.logic.common.FunctionKey;
-import wordy.logic.compile.WordyCompiler;
 import wordy.logic.compile.structure.ClassStruct;
 import wordy.logic.compile.structure.FileStructure;
 import wordy.logic.compile.structure.Function;
 import wordy.logic.compile.structure.ImportedFile;
 import wordy.logic.compile.structure.Variable;
+import wordy.logic.runtime.bytecode.WordyClassLoader;
 import wordy.logic.runtime.components.FileInstance;
 import wordy.logic.runtime.components.Instance;
 import wordy.logic.runtime.components.StackComponent;
 import wordy.logic.runtime.execution.Callable;
 import wordy.logic.runtime.execution.FunctionMember;
 import wordy.logic.runtime.execution.GenVisitor;
-import wordy.logic.runtime.execution.JavaCallable;
 import wordy.logic.runtime.types.TypeDefinition;
 
 /**
@@ -42,6 +44,7 @@ import wordy.logic.runtime.types.TypeDefinition;
 public class RuntimeFile extends TypeDefinition{
     
   private FileInstance instance;
+  private Frame fileFrame;
   private boolean initialized;
   
   /*
@@ -52,82 +55,44 @@ public class RuntimeFile extends TypeDefinition{
    * 
    * The key to this map will be the class' simple name, and value is it's fully qualified name
    */
-  private Map<String, String> javaClasses; //imported java classes
-  private Map<FunctionKey, List<Callable>> javaConstructors;
+  private JavaClassMap javaClasses; //imported java classes
+  private JavaConstructorMap javaConstructors;
   private Map<String, TypeDefinition> typeDefs; //file classes
+  private WordyClassLoader classLoader; //loads the classes compiled from this file's functions
   
   public RuntimeFile(String name) {
     super(name);
-    javaClasses = new HashMap<>();
-    javaConstructors = new HashMap<>();
+    javaClasses = new JavaClassMap();
+    javaConstructors = new JavaConstructorMap();
     typeDefs = new HashMap<>();
   }
   
   public FileInstance initialize(FileStructure structure, WordyRuntime runtime) {
     if (!initialized) {
       instance = new FileInstance(this);
+      fileFrame = new Frame(structure.getVariables().size(), null);
       
-      //Load imported classes first  
-      //start with the standards (java.lang)
-      for(String standard: WordyCompiler.JAVA_CLASSES) {
-        String [] split = standard.split("\\.");
-        javaClasses.put(split[split.length-1], standard);
-        
-        try {
-          Class<?> curClass = Class.forName(standard);
-          for(Constructor<?> constructor : curClass.getConstructors()) {
-            FunctionKey consKey = new FunctionKey(curClass.getSimpleName(), constructor.getParameterCount());
-            JavaCallable javaConstructor = new JavaCallable(constructor);
-            if (javaConstructors.containsKey(consKey)) {
-              javaConstructors.get(consKey).add(javaConstructor);
-            }
-            else {
-              javaConstructors.put(consKey, new ArrayList<>(Arrays.asList(javaConstructor)));
-            }
-          }
-        } catch (ClassNotFoundException e) {
-          throw new RuntimeException("Cannot load the class "+standard);
-        }
-      }
-      
-      //then the actual imports
+      /*
+       * The standard classes (java.lang) are shared by all files, and bound by JavaBindings
+       * when first referred to. Only the actual imports are mapped here
+       */
       for(ImportedFile file: structure.getImports()) {
         String key = file.getTypeNameImported();
+        String constructorName = JavaBindings.simpleName(file.getImported());
         if (file.getAlias() != null) {
           key = file.getAlias().content();
+          constructorName = key;
         }
         
+        //the class itself is loaded when its constructors are first looked up
+        JavaBindings.checkExists(file.getImported());
         javaClasses.put(key, file.getImported());
-        
-        try {
-          Class<?> curClass = Class.forName(file.getImported());
-          for(Constructor<?> constructor : curClass.getConstructors()) {
-            FunctionKey consKey = new FunctionKey(curClass.getSimpleName(), constructor.getParameterCount());
-            if (file.getAlias() != null) {
-              consKey = new FunctionKey(file.getAlias().content(), constructor.getParameterCount());
-            }
-            
-            //System.out.println("--PLACED JVA CONSTRUCTOR: "+consKey.name+ " | "+consKey.argAmnt);
-            JavaCallable javaConstructor = new JavaCallable(constructor);
-            if (javaConstructors.containsKey(consKey)) {
-              javaConstructors.get(consKey).add(javaConstructor);
-            }
-            else {
-              javaConstructors.put(consKey, new ArrayList<>(Arrays.asList(javaConstructor)));
-            }
-          }
-        } catch (ClassNotFoundException e) {
-          throw new RuntimeException("Cannot load the class "+file.getImported());
-        }
+        javaConstructors.addImport(constructorName, file.getImported());
       }
       
       //now initialize the functions
       for(Function func: structure.getFunctions()) {
-        FunctionMember functionMember = new FunctionMember(func.getName().content(), 
-                                                           func.argAmount(), 
-                                                           runtime, 
-                                                           instance, 
-                                                           func.getStatements());
+        FunctionMember functionMember = runtime.createFunction(func, instance);
         FunctionKey functionKey = new FunctionKey(functionMember.getName(), functionMember.requiredArgs());
         if (functions.containsKey(functionKey)) {
           functions.get(functionKey).add(functionMember);
@@ -159,24 +124,26 @@ public class RuntimeFile extends TypeDefinition{
       
       //finally, initialize and add file variables
       for(Variable fileVar : structure.getVariables()) {
-        VariableMember member = new VariableMember(fileVar.getName().content(), 
-                                                   fileVar.getExpression(), 
-                                                   fileVar.isConstant());
+        VariableMember member = new FrameVariableMember(fileVar.getName().content(), 
+                                                        fileVar.getExpression(), 
+                                                        fileVar.isConstant(),
+                                                        fileFrame,
+                                                        fileVar.getSlot());
         if (member.getExpr() != null) {
           Map [] varMaps = {variables};
           Map [] funcMaps = {functions, javaConstructors};
           RuntimeTable table = new RuntimeTable(varMaps, funcMaps, javaClasses);
           
-          GenVisitor visitor = new GenVisitor(table, instance, runtime);
+          GenVisitor visitor = new GenVisitor(table, fileFrame, instance, runtime);
           member.getExpr().accept(visitor);
           
           StackComponent peeked = visitor.peekStack();
           if (peeked.isAnInstance()) {
-            member.setValue((Instance) peeked);
+            member.forceSetValue((Instance) peeked);
           }
           else {
             VariableMember peekedVar = (VariableMember) peeked;
-            member.setValue(peekedVar.getValue());
+            member.forceSetValue(peekedVar.getValue());
           }
         }
         variables.put(member.getName(), member);
@@ -224,6 +191,29 @@ public class RuntimeFile extends TypeDefinition{
     return instance;
   }
   
+  /**
+   * Retrieves the Frame holding this file's variables
+   * @return the Frame holding this file's variables
+   */
+  public Frame getFileFrame() {
+    return fileFrame;
+  }
+  
+  /**
+   * Retrieves the WordyClassLoader of the classes the FunctionCompiler compiles from
+   * this file's functions (and the functions of its classes).
+   * 
+   * Each RuntimeFile has its own, so once a file is no longer used (Like: it was swapped out
+   * of its runtime, or its runtime is gone), the classes compiled from it can be unloaded
+   * @return the WordyClassLoader of this file
+   */
+  public synchronized WordyClassLoader getClassLoader() {
+    if (classLoader == null) {
+      classLoader = new WordyClassLoader(RuntimeFile.class.getClassLoader());
+    }
+    return classLoader;
+  }
+  
   public Map<FunctionKey, List<Callable>> getJavaConstructors(){
     return javaConstructors;
   }
@@ -243,4 +233,106 @@ public class RuntimeFile extends TypeDefinition{
   public String toString() {
     return "Source File: "+getName();
   }
+  
+  /**
+   * Maps the names Java classes are referred to as in a file to their binary names - 
+   * the file's imports first, then the standard classes shared by all files
+   * @author Jose Guaro
+   *
+   */
+  private static class JavaClassMap extends AbstractMap<String, String>{
+    
+    private final Map<String, String> imports = new HashMap<>();
+    
+    public String get(Object key) {
+      String className = imports.get(key);
+      if (className == null) {
+        return JavaBindings.getStandardClasses().get(key);
+      }
+      return className;
+    }
+    
+    public boolean containsKey(Object key) {
+      return imports.containsKey(key) || JavaBindings.getStandardClasses().containsKey(key);
+    }
+    
+    public String put(String key, String value) {
+      return imports.put(key, value);
+    }
+
+    public Set<Entry<String, String>> entrySet() {
+      HashMap<String, String> all = new HashMap<>(JavaBindings.getStandardClasses());
+      all.putAll(imports);
+      return Collections.unmodifiableMap(all).entrySet();
+    }
+  }
+  
+  /**
+   * Maps constructor invocations (Like: HashMap(), with 0 arguments) to the constructors 
+   * of the Java classes a file can use. 
+   * 
+   * Constructors are looked up when first invoked. A name only the standard classes
+   * have is looked up in JavaBindings, and shared by all files
+   * @author Jose Guaro
+   *
+   */
+  private static class JavaConstructorMap extends AbstractMap<FunctionKey, List<Callable>>{
+    
+    /**
+     * Imported classes, by the name their constructors are invoked with
+     */
+    private final Map<String, List<String>> imports = new HashMap<>();
+    
+    /**
+     * Constructors invoked with the name of an imported class
+     */
+    private final ConcurrentHashMap<FunctionKey, List<Callable>> importedConstructors = new ConcurrentHashMap<>();
+    
+    void addImport(String constructorName, String className) {
+      List<String> classes = imports.get(constructorName);
+      if (classes == null) {
+        classes = new ArrayList<>(1);
+        imports.put(constructorName, classes);
+      }
+      classes.add(className);
+    }
+    
+    public List<Callable> get(Object key) {
+      if (key instanceof FunctionKey == false) {
+        return null;
+      }
+      
+      FunctionKey functionKey = (FunctionKey) key;
+      List<String> classes = imports.get(functionKey.name);
+      List<Callable> constructors = null;
+      if (classes == null) {
+        constructors = JavaBindings.getStandardConstructors(functionKey);
+      }
+      else {
+        constructors = importedConstructors.get(functionKey);
+        if (constructors == null) {
+          //standard classes first, as when an import shares a standard class' name
+          ArrayList<Callable> found = new ArrayList<>(JavaBindings.getStandardConstructors(functionKey));
+          for(String className : classes) {
+            found.addAll(JavaBindings.getConstructors(className, functionKey.argAmnt));
+          }
+          importedConstructors.putIfAbsent(functionKey, found);
+          constructors = importedConstructors.get(functionKey);
+        }
+      }
+      
+      return constructors.isEmpty() ? null : constructors;
+    }
+    
+    public boolean containsKey(Object key) {
+      return get(key) != null;
+    }
+
+    /**
+     * Only holds the constructors of imported classes looked up so far
+     */
+    public Set<Entry<FunctionKey, List<Callable>>> entrySet() {
+      return Collections.unmodifiableMap(importedConstructors).entrySet();
+    }
+  }
 }
@@ -14,22 +14,35 @@ import wordy.logic.runtime.execution.Callable;
 import wordy.logic.runtime.execution.EmbeddedFunction;
 import wordy.logic.runtime.execution.FunctionMember;
 import wordy.logic.runtime.execution.GenVisitor;
+import wordy.logic.runtime.execution.Task;
 
 /**
  * Acts as a dictionary for identifiers - be it functions and variables.
  * 
- * The table keeps two lists of maps - the first holds mappings to variables, and the latter to functions.
- *  The list for maps on variables contains at least one map, and the very first map
- *  is reserved for local variables (be it local to the function or current block). 
- *  The other maps can be used for non-local variables.
+ * The table keeps a map of local variables, and two lists of maps - the first holds mappings 
+ * to non-local variables, and the latter to functions.
+ * 
+ * Tables are chained: a table made for a nested block (through newBlockScope()) only holds the 
+ * variables declared in that block, and defers to its parent for the rest. The lists of non-local 
+ * variable and function maps are shared between a table and the tables made from it, and are only
+ * copied when a table adds a map to them. Entering a block or a function is then constant-time,
+ * regardless of how many variables and functions are in scope.
  * 
  * @author Jose Guaro
  *
  */
 public class RuntimeTable {
   
-  private static Map<FunctionKey, EmbeddedFunction> embeddedFunctions;
+  /**
+   * The most arguments a function invoked through spawn() can be given
+   */
+  public static final int MAX_SPAWN_ARGS = 8;
+  
+  private static volatile Map<FunctionKey, EmbeddedFunction> embeddedFunctions;
 
+  private final RuntimeTable parent;
+  private Map<String, VariableMember> localVars;
+  
   private List<Map<String, VariableMember>> varNameMaps;
   private List<Map<FunctionKey, List<Callable>>> funcNameMaps;
   private Map<String, String> javaClassMap;
@@ -37,13 +50,16 @@ public class RuntimeTable {
 
   /**
    * Constructs a RuntimeTable
-   * @param vars - the array of Maps to use when looking for variables
+   * @param vars - the array of Maps to use when looking for variables. The first map
+   *               is used as the map for local variables
    * @param funcs - the array of Maps to use when looking for functions
    */
   public RuntimeTable(Map<String,  VariableMember> [] vars, 
                       Map<FunctionKey, List<Callable>> [] funcs,
                       Map<String, String> javaClassMap) {
-    varNameMaps = new ArrayList<>(Arrays.asList(vars));
+    this.parent = null;
+    this.localVars = vars[0];
+    varNameMaps = new ArrayList<>(Arrays.asList(vars).subList(1, vars.length));
     
     funcNameMaps = new ArrayList<>(Arrays.asList(funcs));
     this.javaClassMap = javaClassMap;
@@ -52,20 +68,33 @@ public class RuntimeTable {
       embeddedFunctions = loadEmbeddedFunctions();
     }
   }
+  
+  private RuntimeTable(RuntimeTable parent, 
+                       List<Map<String, VariableMember>> varNameMaps, 
+                       List<Map<FunctionKey, List<Callable>>> funcNameMaps,
+                       Map<String, String> javaClassMap) {
+    this.parent = parent;
+    this.varNameMaps = varNameMaps;
+    this.funcNameMaps = funcNameMaps;
+    this.javaClassMap = javaClassMap;
+  }
 
   /**
    * Finds a variable in this table's variable maps
    * 
-   * The function first queries the first map in the variable map array provided
-   * when the constructor was invoked. It then sequentially queries the following maps
-   * in the array until it finds a VariableMember
+   * The function first queries the local variables of this table and the tables it is nested in,
+   * It then sequentially queries the non-local variable maps until it finds a VariableMember
    * 
    * @param name - the name of the variable
    * @return the corresponding VariableMember, or null if no VariableMember was found
    */
   public VariableMember findVariable(String name) {
+    VariableMember local = findLocalVar(name);
+    if (local != null) {
+      return local;
+    }
+    
     for(Map<String, VariableMember> current : varNameMaps) {
-      //System.out.println(current == null);
       if (current.containsKey(name)) {
         return current.get(name);
       }
@@ -74,6 +103,15 @@ public class RuntimeTable {
     return null;
   }
   
+  private VariableMember findLocalVar(String name) {
+    for(RuntimeTable scope = this; scope != null; scope = scope.parent) {
+      if (scope.localVars != null && scope.localVars.containsKey(name)) {
+        return scope.localVars.get(name);
+      }
+    }
+    return null;
+  }
+  
   /**
    * Finds a function in this table's function maps
    * 
@@ -87,7 +125,6 @@ public class RuntimeTable {
   public List<Callable> findCallable(FunctionKey key) {
     for(Map<FunctionKey, List<Callable>> current : funcNameMaps) {
       if (current.containsKey(key)) {
-        //System.out.println("---current : "+key.name);
         return current.get(key);
       }
     }
@@ -98,6 +135,17 @@ public class RuntimeTable {
     return null;
   }
   
+  /**
+   * Retrieves the function maps of this table, in the order they're queried.
+   * 
+   * The returned list is shared and must not be modified. As lists of maps are copied
+   * before a map is added to them, the returned list itself never changes.
+   * @return the function maps of this table
+   */
+  public List<Map<FunctionKey, List<Callable>>> functionMaps() {
+    return funcNameMaps;
+  }
+  
   public List<Callable> findCallable(String name, int argc) {
     return findCallable(new FunctionKey(name, argc));
   } 
@@ -108,58 +156,85 @@ public class RuntimeTable {
   
   /**
    * Places the given variable in the local variable map 
-   * (The first variable map in this table)
    * @param member - the VariableMember to add
-   * @return true - if the variable's name has already been mapped, false if else
+   * @return true - if the variable's name has already been mapped in this table
+   *                or the tables it's nested in, false if else
    */
   public boolean placeLocalVar(VariableMember member) {
-    return varNameMaps.get(0).put(member.getName(), member) != null;
+    boolean alreadyMapped = findLocalVar(member.getName()) != null;
+    if (localVars == null) {
+      localVars = new HashMap<>();
+    }
+    localVars.put(member.getName(), member);
+    return alreadyMapped;
+  }
+  
+  public void addVariableMap(Map<String, VariableMember> varMap) {
+    if (!containsMap(varNameMaps, varMap)) {
+      varNameMaps = new ArrayList<>(varNameMaps);
+      varNameMaps.add(varMap);
+    }
+  }
+  
+  public void addFuncMap(Map<FunctionKey, List<Callable>> funcMap) {
+    if (!containsMap(funcNameMaps, funcMap)) {
+      funcNameMaps = new ArrayList<>(funcNameMaps);
+      funcNameMaps.add(funcMap);
+    }
   }
   
   /**
-   * Clears the local variable map.
+   * Creates a table for a block nested in the scope of this table.
+   * 
+   * Variables placed in the returned table aren't visible to this table, 
+   * but variables in this table are visible to the returned table.
+   * @return a table for a nested block
    */
-  public void clearLocalVars() {
-    varNameMaps.get(0).clear();
+  public RuntimeTable newBlockScope() {
+    return new RuntimeTable(this, varNameMaps, funcNameMaps, javaClassMap);
   }
   
-  public void addVariableMap(Map<String, VariableMember> varMap) {
-    varNameMaps.add(varMap);
+  /**
+   * Creates a table for a function invocation.
+   * 
+   * The returned table has no local variables, but shares this table's 
+   * non-local variable and function maps
+   * @return a table for a function invocation
+   */
+  public RuntimeTable newFunctionScope() {
+    return new RuntimeTable(null, varNameMaps, funcNameMaps, javaClassMap);
   }
   
-  public void addFuncMap(Map<FunctionKey, List<Callable>> funcMap) {
-    funcNameMaps.add(funcMap);
+  /**
+   * Creates a table for invoking a method on an instance of a Wordy class.
+   * 
+   * Like newFunctionScope(), but the fields of the instance are queried before this table's 
+   * non-local variable maps - so a method called from another method (Like: left.count(), 
+   * from within count()) sees the fields of the instance it's called on, not those of the caller
+   * @param fields - the fields of the instance the method is called on
+   * @return a table for a method invocation
+   */
+  public RuntimeTable newMethodScope(Map<String, VariableMember> fields) {
+    List<Map<String, VariableMember>> maps = new ArrayList<>(varNameMaps.size() + 1);
+    maps.add(fields);
+    maps.addAll(varNameMaps);
+    return new RuntimeTable(null, maps, funcNameMaps, javaClassMap);
   }
   
-  @SuppressWarnings("unchecked")
-  public RuntimeTable clone(boolean keepLocalVar) {
-    //System.out.println("----ABOUT TO CLONE");
-    Map<String, VariableMember>[] cloneVarMap = new Map[varNameMaps.size()];
-    
-    if (keepLocalVar) {
-      cloneVarMap[0] = new HashMap<>(varNameMaps.get(0));
-    }
-    else {
-      cloneVarMap[0] = new HashMap<>();
-    }
-    
-    for(int i = 1; i < cloneVarMap.length; i++) {
-      //System.out.println("CLONING: "+(varNameMaps.get(i) == null));
-      cloneVarMap[i] = new HashMap<>(varNameMaps.get(i));
-    }
-    
-    Map<FunctionKey, List<Callable>>[] cloneFuncNameMaps = new Map[funcNameMaps.size() ];    
-    for(int i = 0; i < cloneFuncNameMaps.length; i++) {
-      //System.out.println("CLONING FUNCS: "+(funcNameMaps.get(i) == null));
-      cloneFuncNameMaps[i] = new HashMap<>(funcNameMaps.get(i));
+  public Map<String, VariableMember> getLocalVarMap(){
+    if (localVars == null) {
+      localVars = new HashMap<>();
     }
-    
-    //System.out.println("----DONE CLONE "+cloneVarMap.length);
-    return new RuntimeTable(cloneVarMap, cloneFuncNameMaps, new HashMap<>(javaClassMap));
+    return localVars;
   }
   
-  public Map<String, VariableMember> getLocalVarMap(){
-    return varNameMaps.get(0);
+  private static boolean containsMap(List<? extends Map<?, ?>> maps, Map<?, ?> map) {
+    for(Map<?, ?> current : maps) {
+      if (current == map) {
+        return true;
+      }
+    }
+    return false;
   }
   
   private static Map<FunctionKey, EmbeddedFunction> loadEmbeddedFunctions(){
@@ -237,6 +312,52 @@ public class RuntimeTable {
     };    
     map.put(new FunctionKey(errPrint.getName(), errPrint.requiredArgs()), errPrint);
     
+    /*
+     * spawn(name, args...) invokes a function on another thread, and returns a Task
+     * for join(). Functions aren't values in Wordy, so they're referred to by name.
+     * 
+     * There's a spawn() for every amount of arguments up to MAX_SPAWN_ARGS
+     */
+    for(int argc = 0; argc <= MAX_SPAWN_ARGS; argc++) {
+      EmbeddedFunction spawn = new EmbeddedFunction("spawn", argc + 1, null) {
+        @Override
+        public Instance call(GenVisitor visitor, RuntimeTable table, Instance... args) {
+          Object name = args[0] instanceof JavaInstance ? ((JavaInstance) args[0]).getInstance() : null;
+          if (name instanceof String == false) {
+            throw new RuntimeException("spawn() must be given the name of a function, not '"+args[0]+"'");
+          }
+          
+          Instance [] funcArgs = Arrays.copyOfRange(args, 1, args.length);
+          List<Callable> callables = table.findCallable((String) name, funcArgs.length);
+          if (callables != null) {
+            for(Callable callable : callables) {
+              if (callable.argumentsCompatible(funcArgs)) {
+                Task task = visitor.getRuntime().getScheduler().spawn(callable, table, visitor.getCurrentFile(), 
+                                                                      visitor.getRuntime(), funcArgs);
+                return JavaInstance.wrapInstance(task);
+              }
+            }
+          }
+          throw new RuntimeException("Can't find function '"+name+"' that takes "+funcArgs.length+" arguments to spawn");
+        }
+
+      };
+      map.put(new FunctionKey(spawn.getName(), spawn.requiredArgs()), spawn);
+    }
+    
+    EmbeddedFunction join = new EmbeddedFunction("join", 1, null) {
+      @Override
+      public Instance call(GenVisitor visitor, RuntimeTable table, Instance... args) throws InvocationException {
+        Object task = args[0] instanceof JavaInstance ? ((JavaInstance) args[0]).getInstance() : null;
+        if (task instanceof Task == false) {
+          throw new RuntimeException("join() must be given a Task returned by spawn(), not '"+args[0]+"'");
+        }
+        return ((Task) task).join();
+      }
+
+    };    
+    map.put(new FunctionKey(join.getName(), join.requiredArgs()), join);
+    
     return map;
   }
   
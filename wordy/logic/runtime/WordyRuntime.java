@@ -1,22 +1,34 @@
 package wordy.logic.runtime;
 
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.Set;
 
 import wordy.logic.compile.nodes.ASTNode.NodeType;
 import wordy.logic.compile.nodes.MethodCallNode;
 import wordy.logic.compile.structure.FileStructure;
+import wordy.logic.compile.structure.Function;
 import wordy.logic.compile.structure.Statement;
 import wordy.logic.compile.structure.Statement.StatementDescription;
+import wordy.logic.runtime.bytecode.BytecodeFunctionMember;
+import wordy.logic.runtime.bytecode.CompiledBody;
+import wordy.logic.runtime.bytecode.FunctionCompiler;
 import wordy.logic.runtime.components.FileInstance;
 import wordy.logic.runtime.components.Instance;
 import wordy.logic.runtime.components.JavaInstance;
 import wordy.logic.runtime.errors.FatalInternalException;
 import wordy.logic.runtime.errors.InvocationException;
+import wordy.logic.runtime.execution.CallSiteCache;
 import wordy.logic.runtime.execution.Callable;
 import wordy.logic.runtime.execution.FunctionMember;
 import wordy.logic.runtime.execution.GenVisitor;
+import wordy.logic.runtime.execution.TaskScheduler;
+import wordy.logic.runtime.tree.ExecStatement;
+import wordy.logic.runtime.tree.TreeCompiler;
+import wordy.logic.runtime.tree.TreeFunctionMember;
 import wordy.logic.runtime.types.TypeDefinition;
 
 /**
@@ -26,41 +38,155 @@ import wordy.logic.runtime.types.TypeDefinition;
  */
 public class WordyRuntime {
   
-  private Map<String, FileInstance> files;
-  private boolean runtimeInitialized;
+  /*
+   * Copy-on-write: replaced as a whole by swapIn(), never modified in place
+   */
+  private volatile Program program;
+  private final ThreadLocal<Map<String, FileInstance>> staged;
+  private final Object swapLock;
+  private volatile boolean runtimeInitialized;
+  private final ExecutionEngine engine;
+  private int carriers;
+  private TaskScheduler scheduler;
   
   public WordyRuntime() {
-    files = new HashMap<>();
+    this(ExecutionEngine.INTERPRETER);
+  }
+  
+  /**
+   * Constructs a WordyRuntime
+   * @param engine - the ExecutionEngine to execute functions with
+   */
+  public WordyRuntime(ExecutionEngine engine) {
+    program = new Program(Collections.<String, FileInstance>emptyMap(), 
+                          new IdentityHashMap<TypeDefinition, TypeDefinition>());
+    staged = new ThreadLocal<>();
+    swapLock = new Object();
+    this.engine = engine;
+    this.carriers = 0; //the TaskScheduler's default
+  }
+  
+  /**
+   * Sets the amount of platform threads that functions invoked through spawn() run on.
+   * 
+   * With virtual threads, it's the amount of carrier threads (by default, the amount of available processors).
+   * Without, it's the most platform threads spawned functions run on at once (by default, 
+   * TaskScheduler.DEFAULT_MAX_THREADS). See TaskScheduler.
+   * 
+   * This must be set before the first spawn()
+   * @param carriers - the amount of carrier threads
+   */
+  public void setCarriers(int carriers) {
+    this.carriers = carriers;
+  }
+  
+  /**
+   * Retrieves the TaskScheduler running the functions invoked through spawn(),
+   * creating it on the first call
+   * @return the TaskScheduler of this runtime
+   */
+  public synchronized TaskScheduler getScheduler() {
+    if (scheduler == null) {
+      scheduler = new TaskScheduler(carriers);
+    }
+    return scheduler;
   }
   
   public void initialize(Map<String, FileStructure> sources) {
     if (!runtimeInitialized) {
-      for(FileStructure structure : sources.values()) {
-        RuntimeFile file = new RuntimeFile(structure.getFileName());
-        FileInstance instance = file.initialize(structure, this);
+      swapIn(sources.values());
+      runtimeInitialized = true;
+    }
+  }
+  
+  /**
+   * Replaces files of this runtime with their new structures (Like: after they were edited and recompiled),
+   * while the program may still be executing.
+   * 
+   * The swap is atomic: the new files are initialized (their variables set to their initial values) and 
+   * linked aside, and then published all at once, along with the parent of every class - so the 
+   * classes of other files are relinked to the new classes they extend in the same step. Executions 
+   * already in a function of a replaced file finish on the old code, while every call resolved after 
+   * the swap goes to the new code: CallSiteCaches are suspended while the swap is published, so 
+   * no call resolved against the old files is cached past it. Other files keep their variables.
+   * 
+   * If the new files can't be initialized or linked, nothing is replaced.
+   * 
+   * @param changed - the new FileStructures of the changed files, by file name. Files that 
+   *                  weren't in this runtime before are added
+   */
+  public void swap(Map<String, FileStructure> changed) {
+    if (runtimeInitialized == false) {
+      throw new RuntimeException("Runtime hasn't been initialized!");
+    }
+    swapIn(changed.values());
+  }
+  
+  private void swapIn(Collection<FileStructure> structures) {
+    synchronized (swapLock) {
+      Program previous = program;
+      HashMap<String, FileInstance> next = new HashMap<>(previous.files);
+      
+      //the new files are only visible to this thread (through findFile()) until they're published
+      staged.set(next);
+      try {
+        for(FileStructure structure : structures) {
+          RuntimeFile file = new RuntimeFile(structure.getFileName());
+          FileInstance instance = file.initialize(structure, this);
+          
+          next.put(file.getName(), instance);
+        }
         
-        files.put(file.getName(), instance);
+        IdentityHashMap<TypeDefinition, TypeDefinition> parents = linkInheritance(next);
+        
+        //classes of replaced files keep the parents they're linked to now (see TypeDefinition.getParent())
+        for(Map.Entry<TypeDefinition, TypeDefinition> link : previous.parents.entrySet()) {
+          if (parents.containsKey(link.getKey()) == false) {
+            link.getKey().retire(link.getValue());
+          }
+        }
+        
+        //functions and types are replaced. Calls resolved to the old ones mustn't be cached past this point
+        CallSiteCache.suspendAll();
+        try {
+          program = new Program(Collections.unmodifiableMap(next), parents);
+        } finally {
+          CallSiteCache.resumeAll();
+        }
+      } finally {
+        staged.remove();
       }
-      
-      enforceInheritance();
-      runtimeInitialized = true;
     }
   }
   
-  private void enforceInheritance() {
-    ArrayList<TypeDefinition> allDefs = new ArrayList<>();
+  /**
+   * Retrieves the parent of a Wordy class, as linked in the published program
+   * @param definition - the TypeDefinition of the class
+   * @return the parent of the class, or null if the class isn't part of the published program
+   */
+  public TypeDefinition parentOf(TypeDefinition definition) {
+    return program.parents.get(definition);
+  }
+  
+  /**
+   * Finds the parent of every class in the given files, and checks the classes against them
+   * @param files - the files to link, by file name
+   * @return the parent of each class
+   */
+  private IdentityHashMap<TypeDefinition, TypeDefinition> linkInheritance(Map<String, FileInstance> files) {
+    IdentityHashMap<TypeDefinition, TypeDefinition> parents = new IdentityHashMap<>();
     for(FileInstance instance : files.values()) {
       RuntimeFile file = instance.getDefinition();
       for(TypeDefinition definition : file.getTypeDefs().values()) {
-        TypeDefinition.includeInhertianceInfo(this, definition, instance);
+        TypeDefinition parent = TypeDefinition.findParent(this, definition, instance);
         
         //Now, check the super class' constructors.
         //If all constructors of the parent require at least one argument, then check 
         //the child's constructors for a super() 
         
-        //System.out.println("----DEF: "+definition.getName()+" | "+definition.getParent());
+        //System.out.println("----DEF: "+definition.getName()+" | "+parent);
         boolean mustCheck = false;
-        Map<Integer, FunctionMember> superConstructors = definition.getParent().getConstructors();
+        Map<Integer, FunctionMember> superConstructors = parent.getConstructors();
         for(FunctionMember supCons : superConstructors.values()) {
           if (supCons.requiredArgs() > 0) {
             mustCheck = true;
@@ -72,7 +198,7 @@ public class WordyRuntime {
             Statement [] constStates = constructor.getStatements();
             if (constStates == null || (constStates.length - constructor.requiredArgs()) < 1) {
               throw new RuntimeException("The constructor for "+definition.getName()+" that takes "+constructor.requiredArgs()+
-                                         " arguments must first invoke a constructor to its parent, "+definition.getParent().getName());
+                                         " arguments must first invoke a constructor to its parent, "+parent.getName());
             }
             else {
               Statement firstStatement = constStates[constructor.requiredArgs()];
@@ -80,18 +206,18 @@ public class WordyRuntime {
               if (firstStatement.getDescription() !=  StatementDescription.REGULAR || 
                   firstStatement.getExpression().nodeType() != NodeType.FUNC_CALL) {
                 throw new RuntimeException("The constructor for "+definition.getName()+" that takes "+constructor.requiredArgs()+
-                    " arguments must first invoke a constructor to its parent, "+definition.getParent().getName());
+                    " arguments must first invoke a constructor to its parent, "+parent.getName());
               }
               else {
                 MethodCallNode callNode = (MethodCallNode) firstStatement.getExpression();
                 if (callNode.getName().content().equals("super") == false) {
                   throw new RuntimeException("The constructor for "+definition.getName()+" that takes "+constructor.requiredArgs()+
-                      " arguments must first invoke a constructor to its parent, "+definition.getParent().getName());
+                      " arguments must first invoke a constructor to its parent, "+parent.getName());
                 }
                 else {
                   if (superConstructors.containsKey(callNode.arguments().length) == false) {
                     throw new RuntimeException("The constructor for "+definition.getName()+" that takes "+constructor.requiredArgs()+
-                        " arguments must first invoke a constructor to its parent, "+definition.getParent().getName());
+                        " arguments must first invoke a constructor to its parent, "+parent.getName());
                   }
                 }
               }
@@ -99,21 +225,32 @@ public class WordyRuntime {
           }
         }
         
-        allDefs.add(definition);
+        parents.put(definition, parent);
       }
     }
     
-    
-    for(TypeDefinition def: allDefs) {
-      if (def.getParent().isChildOf(def)) {
-        throw new RuntimeException("Type Error! "+def.getName()+" is a child of "+def.getParent().getName());
+    //the classes aren't linked yet, so walk up the found parents rather than getParent()
+    for(Map.Entry<TypeDefinition, TypeDefinition> link : parents.entrySet()) {
+      TypeDefinition def = link.getKey();
+      Set<TypeDefinition> visited = Collections.newSetFromMap(new IdentityHashMap<TypeDefinition, Boolean>());
+      for(TypeDefinition ancestor = link.getValue(); ancestor != null && visited.add(ancestor); ) {
+        if (ancestor.equals(def)) {
+          throw new RuntimeException("Type Error! "+def.getName()+" is a child of "+link.getValue().getName());
+        }
+        ancestor = parents.containsKey(ancestor) ? parents.get(ancestor) : ancestor.getParent();
       }
     }
     
+    return parents;
   }
 
   /**
    * Invokes the main function of this Wordy program
+   * 
+   * Once initialized, a WordyRuntime can execute from multiple threads at once. 
+   * Each execution has its own frames and operand stack, but file-level variables
+   * are shared by all executions.
+   * 
    * @param file - the file name whose main function to invoke
    * @param argc - the amount of arguments this function accepts
    * @param constants - the arguments to pass to the main function
@@ -121,6 +258,36 @@ public class WordyRuntime {
    * @return the return value of the main function, or null if no return
    */
   public Object execute(String file, int argc,  Instance ... constants) {
+    try {
+      return invoke(file, argc, constants);
+    } catch (InvocationException e) {
+      e.printStackTrace();
+      System.exit(0);
+    } catch (FatalInternalException e) {
+      /*
+       * If fatal exception, just print the exception message and exit the runtime
+       */
+      System.err.println(e.getMessage());
+      e.printStackTrace();
+      System.exit(0);
+    } 
+    
+    return null;
+  }
+  
+  /**
+   * Invokes the main function of this Wordy program, like execute() - but
+   * errors are thrown to the caller rather than ending the process
+   * 
+   * @param file - the file name whose main function to invoke
+   * @param argc - the amount of arguments this function accepts
+   * @param constants - the arguments to pass to the main function
+   * 
+   * @return the return value of the main function, or null if no return
+   * @throws InvocationException - if the main function threw an exception
+   * @throws FatalInternalException - if the program had an unrecoverable error (Like: calling an unknown function)
+   */
+  public Object invoke(String file, int argc,  Instance ... constants) throws InvocationException {
     if (runtimeInitialized == false) {
       throw new RuntimeException("Runtime hasn't been initialized!");
     }
@@ -129,7 +296,7 @@ public class WordyRuntime {
                                 + "amount of arguments the main function accepts");
     }
     else {
-      FileInstance fileInstance = files.get(file);
+      FileInstance fileInstance = program.files.get(file);
       if (fileInstance == null) {
         throw new RuntimeException("Cannot find the file '"+file+"' !");
       }
@@ -148,42 +315,95 @@ public class WordyRuntime {
       //System.out.println(">INITIALIZE: "+varMaps[0].size());
       
       RuntimeTable table = new RuntimeTable(varMaps, funcMaps, orgFile.getJavaClassMap() );
-      GenVisitor visitor = new GenVisitor(table, fileInstance, this);
+      GenVisitor visitor = new GenVisitor(table, orgFile.getFileFrame(), fileInstance, this);
       
-      try {
-        Instance ret = main.call(visitor, table, constants);
-        if (ret != null) {
-          if (ret instanceof JavaInstance) {
-            JavaInstance instance = (JavaInstance) ret;
-            return instance.getInstance();
-          }
+      Instance ret = main.call(visitor, table, constants);
+      if (ret != null) {
+        if (ret instanceof JavaInstance) {
+          JavaInstance instance = (JavaInstance) ret;
+          return instance.getInstance();
         }
-        return ret;
-        
-      } catch (InvocationException e) {
-        e.printStackTrace();
-        System.exit(0);
-      } catch (FatalInternalException e) {
-        /*
-         * If fatal exception, just print the exception message and exit the runtime
-         */
-        System.err.println(e.getMessage());
-        e.printStackTrace();
-        System.exit(0);
-      } 
-      
-      return null;
+      }
+      return ret;
     }
   }
   
+  /**
+   * Creates the FunctionMember of a (non-constructor) function, according
+   * to this runtime's ExecutionEngine
+   * @param function - the Function to create a FunctionMember for
+   * @param currentFile - the FileInstance of the file the function is in
+   * @return the FunctionMember representing the function
+   */
+  public FunctionMember createFunction(Function function, FileInstance currentFile) {
+    if (engine == ExecutionEngine.BYTECODE) {
+      CompiledBody body = FunctionCompiler.compile(currentFile.getName(), function, 
+                                                   currentFile.getDefinition().getClassLoader());
+      if (body != null) {
+        return new BytecodeFunctionMember(function.getName().content(), 
+                                          function.argAmount(), 
+                                          this, 
+                                          currentFile, 
+                                          function.frameSize(), 
+                                          body, 
+                                          function.getStatements());
+      }
+      //System.out.println("---CAN'T COMPILE: "+function.getName().content());
+    }
+    else if (engine == ExecutionEngine.TREE) {
+      ExecStatement body = TreeCompiler.compile(function);
+      if (body != null) {
+        return new TreeFunctionMember(function.getName().content(), 
+                                      function.argAmount(), 
+                                      this, 
+                                      currentFile, 
+                                      function.frameSize(), 
+                                      body, 
+                                      function.getStatements());
+      }
+    }
+    
+    return new FunctionMember(function.getName().content(), 
+                              function.argAmount(), 
+                              this, 
+                              currentFile, 
+                              function.frameSize(),
+                              function.getStatements());
+  }
+  
+  public ExecutionEngine getEngine() {
+    return engine;
+  }
+  
   public FileInstance findFile(String name) {
-    return files.get(name);
+    Map<String, FileInstance> stagedFiles = staged.get();
+    if (stagedFiles != null) {
+      return stagedFiles.get(name);
+    }
+    return program.files.get(name);
   }
   
   public TypeDefinition findTypeDef(String fileName, String className) {
-    if (files.containsKey(fileName)) {
-      return files.get(fileName).getDefinition().getTypeDefs().get(className);
+    FileInstance file = findFile(fileName);
+    if (file != null) {
+      return file.getDefinition().getTypeDefs().get(className);
     }
     return null;
   }
+  
+  /**
+   * The files of a program, and the parent of each of their classes. Never modified once published
+   * @author Jose Guaro
+   *
+   */
+  private static class Program {
+    
+    private final Map<String, FileInstance> files;
+    private final IdentityHashMap<TypeDefinition, TypeDefinition> parents;
+    
+    Program(Map<String, FileInstance> files, IdentityHashMap<TypeDefinition, TypeDefinition> parents) {
+      this.files = files;
+      this.parents = parents;
+    }
+  }
 }
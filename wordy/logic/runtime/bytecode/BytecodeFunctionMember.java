@@ -0,0 +1,50 @@
+package wordy.logic.runtime.bytecode;
+
+import wordy.logic.compile.structure.Statement;
+import wordy.logic.compile.structure.Variable;
+import wordy.logic.runtime.Frame;
+import wordy.logic.runtime.RuntimeTable;
+import wordy.logic.runtime.WordyRuntime;
+import wordy.logic.runtime.components.FileInstance;
+import wordy.logic.runtime.components.Instance;
+import wordy.logic.runtime.errors.InvocationException;
+import wordy.logic.runtime.execution.FunctionMember;
+import wordy.logic.runtime.execution.GenVisitor;
+
+/**
+ * Represents a function whose body was compiled by the FunctionCompiler
+ * @author Jose Guaro
+ *
+ */
+public class BytecodeFunctionMember extends FunctionMember{
+
+  private final CompiledBody body;
+  private final int [] parameterSlots;
+  
+  public BytecodeFunctionMember(String name, 
+                                int argumentAmnt, 
+                                WordyRuntime runtime, 
+                                FileInstance currentFile, 
+                                int frameSize,
+                                CompiledBody body,
+                                Statement ... statements) {
+    super(name, argumentAmnt, runtime, currentFile, frameSize, statements);
+    this.body = body;
+    this.parameterSlots = new int[argumentAmnt];
+    for(int i = 0; i < argumentAmnt; i++) {
+      parameterSlots[i] = ((Variable) statements[i]).getSlot();
+    }
+  }
+  
+  public Instance call(GenVisitor visitor, RuntimeTable table, Instance ... args) throws InvocationException{
+    table.addFuncMap(currentFile.getDefinition().getFunctions());
+    
+    Frame frame = new Frame(frameSize, currentFile.getDefinition().getFileFrame());
+    for(int i = 0; i < parameterSlots.length; i++) {
+      frame.set(parameterSlots[i], args[i]);
+    }
+    
+    visitor = visitor.child(table, frame, currentFile);
+    return body.run(frame, new CompiledContext(visitor, body.nodes, currentFile));
+  }
+}
@@ -0,0 +1,407 @@
+package wordy.logic.runtime.bytecode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A minimal JVM class file writer.
+ *
+ * Only what's needed to generate a subclass of CompiledBody is supported:
+ * a constant pool, one constructor that passes its arguments to the super constructor,
+ * and one method with its code and exception table.
+ *
+ * Class files are written with version 49.0 so that the JVM verifies them
+ * by type inference, which means no StackMapTable has to be computed.
+ *
+ * @author Jose Guaro
+ *
+ */
+public class ClassAssembler {
+
+  //opcodes used by the FunctionCompiler
+  public static final int ACONST_NULL = 0x01;
+  public static final int BIPUSH = 0x10;
+  public static final int SIPUSH = 0x11;
+  public static final int LDC_W = 0x13;
+  public static final int ALOAD = 0x19;
+  public static final int AALOAD = 0x32;
+  public static final int ASTORE = 0x3a;
+  public static final int AASTORE = 0x53;
+  public static final int POP = 0x57;
+  public static final int DUP = 0x59;
+  public static final int SWAP = 0x5f;
+  public static final int IFEQ = 0x99;
+  public static final int GOTO = 0xa7;
+  public static final int ARETURN = 0xb0;
+  public static final int RETURN = 0xb1;
+  public static final int GETFIELD = 0xb4;
+  public static final int INVOKEVIRTUAL = 0xb6;
+  public static final int INVOKESPECIAL = 0xb7;
+  public static final int ANEWARRAY = 0xbd;
+  public static final int ATHROW = 0xbf;
+
+  private static final int CLASS_VERSION = 49;
+  private static final int ACC_PUBLIC = 0x0001;
+  private static final int ACC_FINAL = 0x0010;
+  private static final int ACC_SUPER = 0x0020;
+
+  private static final int MAX_CODE_LENGTH = 65535;
+
+  private final String className;
+  private final String superName;
+
+  private final ByteArrayOutputStream poolBytes;
+  private final DataOutputStream pool;
+  private final Map<String, Integer> poolIndices;
+  private int poolCount;
+
+  private final ByteArrayOutputStream code;
+  private final List<int []> exceptionTable;
+  private final List<Label> handlers;
+  private final List<Label> allLabels;
+  private int stackDepth;
+  private int maxStack;
+  private int maxLocals;
+
+  /**
+   * Constructs a ClassAssembler
+   * @param className - the internal name of the class to generate (Ex: wordy/gen/Sample)
+   * @param superName - the internal name of the class' super class
+   * @param maxLocals - the amount of local variable slots the method initially uses
+   *                    (including 'this' and its parameters)
+   */
+  public ClassAssembler(String className, String superName, int maxLocals) {
+    this.className = className;
+    this.superName = superName;
+    this.poolBytes = new ByteArrayOutputStream();
+    this.pool = new DataOutputStream(poolBytes);
+    this.poolIndices = new HashMap<>();
+    this.poolCount = 1;
+    this.code = new ByteArrayOutputStream();
+    this.exceptionTable = new ArrayList<>();
+    this.handlers = new ArrayList<>();
+    this.allLabels = new ArrayList<>();
+    this.maxLocals = maxLocals;
+  }
+
+  /*
+   * Constant pool
+   */
+
+  public int utf8(String value) {
+    return constant("U" + value, 1, out -> out.writeUTF(value));
+  }
+
+  public int classRef(String internalName) {
+    int nameIndex = utf8(internalName);
+    return constant("C" + internalName, 7, out -> out.writeShort(nameIndex));
+  }
+
+  public int integer(int value) {
+    return constant("I" + value, 3, out -> out.writeInt(value));
+  }
+
+  public int fieldRef(String owner, String name, String descriptor) {
+    return memberRef(9, owner, name, descriptor);
+  }
+
+  public int methodRef(String owner, String name, String descriptor) {
+    return memberRef(10, owner, name, descriptor);
+  }
+
+  private int memberRef(int tag, String owner, String name, String descriptor) {
+    int classIndex = classRef(owner);
+    int nameIndex = utf8(name);
+    int descIndex = utf8(descriptor);
+    int nameAndType = constant("N" + name + ":" + descriptor, 12, out -> {
+      out.writeShort(nameIndex);
+      out.writeShort(descIndex);
+    });
+    return constant("M" + tag + owner + "." + name + ":" + descriptor, tag, out -> {
+      out.writeShort(classIndex);
+      out.writeShort(nameAndType);
+    });
+  }
+
+  private int constant(String key, int tag, PoolWriter writer) {
+    Integer index = poolIndices.get(key);
+    if (index == null) {
+      try {
+        pool.writeByte(tag);
+        writer.write(pool);
+      } catch (IOException e) {
+        throw new IllegalStateException(e);
+      }
+      index = poolCount++;
+      poolIndices.put(key, index);
+    }
+    return index;
+  }
+
+  /*
+   * Code
+   */
+
+  /**
+   * Emits an instruction without operands
+   * @param opcode - the instruction's opcode
+   * @param stackChange - the change in operand stack depth the instruction causes
+   */
+  public void op(int opcode, int stackChange) {
+    code.write(opcode);
+    adjustStack(stackChange);
+  }
+
+  /**
+   * Emits an instruction with a 2-byte operand, such as a constant pool index
+   * @param opcode - the instruction's opcode
+   * @param operand - the operand
+   * @param stackChange - the change in operand stack depth the instruction causes
+   */
+  public void op(int opcode, int operand, int stackChange) {
+    code.write(opcode);
+    writeShort(operand);
+    adjustStack(stackChange);
+  }
+
+  public void loadLocal(int index) {
+    if (index <= 3) {
+      op(0x2a + index, 1);
+    }
+    else {
+      code.write(ALOAD);
+      code.write(index);
+      adjustStack(1);
+    }
+  }
+
+  public void storeLocal(int index) {
+    if (index <= 3) {
+      op(0x4b + index, -1);
+    }
+    else {
+      code.write(ASTORE);
+      code.write(index);
+      adjustStack(-1);
+    }
+  }
+
+  /**
+   * Reserves a new local variable slot
+   * @return the index of the slot
+   */
+  public int newLocal() {
+    if (maxLocals >= 255) {
+      throw new IllegalStateException("Too many local variables");
+    }
+    return maxLocals++;
+  }
+
+  public void pushInt(int value) {
+    if (value >= -1 && value <= 5) {
+      op(0x03 + value, 1);
+    }
+    else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+      code.write(BIPUSH);
+      code.write(value);
+      adjustStack(1);
+    }
+    else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+      op(SIPUSH, value, 1);
+    }
+    else {
+      op(LDC_W, integer(value), 1);
+    }
+  }
+
+  /**
+   * Emits a jump to the given Label
+   * @param opcode - the branch instruction's opcode
+   * @param target - the Label to jump to
+   * @param stackChange - the change in operand stack depth the instruction causes
+   */
+  public void jump(int opcode, Label target, int stackChange) {
+    int instruction = code.size();
+    code.write(opcode);
+    target.reference(instruction, code.size());
+    writeShort(0);
+    adjustStack(stackChange);
+  }
+
+  /**
+   * Places the given Label at the current position of the code
+   * @param label - the Label to place
+   */
+  public void mark(Label label) {
+    label.position = code.size();
+  }
+
+  /**
+   * Sets the operand stack depth, as at the start of an exception handler
+   * @param depth - the stack depth at this point of the code
+   */
+  public void setStackDepth(int depth) {
+    stackDepth = depth;
+    maxStack = Math.max(maxStack, depth);
+  }
+
+  public int position() {
+    return code.size();
+  }
+
+  /**
+   * Adds an entry to the exception table
+   * @param start - the start of the protected range (inclusive)
+   * @param end - the end of the protected range (exclusive)
+   * @param handler - the Label of the handler's code
+   * @param catchType - the internal name of the exception class caught
+   */
+  public void addHandler(int start, int end, Label handler, String catchType) {
+    exceptionTable.add(new int[] {start, end, -1, classRef(catchType)});
+    handlers.add(handler);
+  }
+
+  private void adjustStack(int change) {
+    stackDepth += change;
+    maxStack = Math.max(maxStack, stackDepth);
+  }
+
+  private void writeShort(int value) {
+    code.write((value >>> 8) & 0xFF);
+    code.write(value & 0xFF);
+  }
+
+  /**
+   * Writes the class file
+   * @param constructorDesc - the descriptor of the constructor, whose arguments are all
+   *                          passed to the super class constructor of the same descriptor
+   * @param constructorArgs - the amount of arguments the constructor takes
+   * @param methodName - the name of the generated method
+   * @param methodDesc - the descriptor of the generated method
+   * @return the bytes of the class file
+   */
+  public byte [] toByteArray(String constructorDesc, int constructorArgs, String methodName, String methodDesc) {
+    byte [] methodCode = code.toByteArray();
+    if (methodCode.length >= MAX_CODE_LENGTH) {
+      throw new IllegalStateException("Method too large");
+    }
+    for(Label label : allLabels) {
+      label.patch(methodCode);
+    }
+
+    int thisIndex = classRef(className);
+    int superIndex = classRef(superName);
+    int codeName = utf8("Code");
+    int initName = utf8("<init>");
+    int initDesc = utf8(constructorDesc);
+    int superInit = methodRef(superName, "<init>", constructorDesc);
+    int runName = utf8(methodName);
+    int runDesc = utf8(methodDesc);
+
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bytes);
+      out.writeInt(0xCAFEBABE);
+      out.writeShort(0);
+      out.writeShort(CLASS_VERSION);
+      out.writeShort(poolCount);
+      out.write(poolBytes.toByteArray());
+      out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+      out.writeShort(thisIndex);
+      out.writeShort(superIndex);
+      out.writeShort(0); //interfaces
+      out.writeShort(0); //fields
+      out.writeShort(2); //methods
+
+      //constructor
+      ByteArrayOutputStream initCode = new ByteArrayOutputStream();
+      for(int i = 0; i <= constructorArgs; i++) {
+        initCode.write(0x2a + i);
+      }
+      initCode.write(INVOKESPECIAL);
+      initCode.write((superInit >>> 8) & 0xFF);
+      initCode.write(superInit & 0xFF);
+      initCode.write(RETURN);
+      writeMethod(out, initName, initDesc, codeName, constructorArgs + 1, constructorArgs + 1,
+                  initCode.toByteArray(), new ArrayList<>());
+
+      //generated method
+      for(int i = 0; i < exceptionTable.size(); i++) {
+        exceptionTable.get(i)[2] = handlers.get(i).position;
+      }
+      writeMethod(out, runName, runDesc, codeName, maxStack, maxLocals, methodCode, exceptionTable);
+
+      out.writeShort(0); //class attributes
+      out.flush();
+      return bytes.toByteArray();
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static void writeMethod(DataOutputStream out, int name, int desc, int codeName,
+                                  int maxStack, int maxLocals, byte [] code, List<int []> exceptions) throws IOException {
+    out.writeShort(ACC_PUBLIC);
+    out.writeShort(name);
+    out.writeShort(desc);
+    out.writeShort(1); //attributes
+    out.writeShort(codeName);
+    out.writeInt(2 + 2 + 4 + code.length + 2 + exceptions.size() * 8 + 2);
+    out.writeShort(maxStack);
+    out.writeShort(maxLocals);
+    out.writeInt(code.length);
+    out.write(code);
+    out.writeShort(exceptions.size());
+    for(int [] entry : exceptions) {
+      for(int value : entry) {
+        out.writeShort(value);
+      }
+    }
+    out.writeShort(0); //code attributes
+  }
+
+  /**
+   * Creates a new Label to jump to
+   * @return the new Label
+   */
+  public Label newLabel() {
+    Label label = new Label();
+    allLabels.add(label);
+    return label;
+  }
+
+  /**
+   * A position in the code that can be jumped to, before it's known
+   */
+  public static class Label{
+
+    private int position = -1;
+    private final List<int []> references = new ArrayList<>();
+
+    private Label() {}
+
+    private void reference(int instruction, int operand) {
+      references.add(new int[] {instruction, operand});
+    }
+
+    private void patch(byte [] code) {
+      for(int [] reference : references) {
+        int offset = position - reference[0];
+        if (position < 0 || offset < Short.MIN_VALUE || offset > Short.MAX_VALUE) {
+          throw new IllegalStateException("Invalid jump");
+        }
+        code[reference[1]] = (byte) (offset >>> 8);
+        code[reference[1] + 1] = (byte) offset;
+      }
+    }
+  }
+
+  private interface PoolWriter{
+    void write(DataOutputStream out) throws IOException;
+  }
+}
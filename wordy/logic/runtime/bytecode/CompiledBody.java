@@ -0,0 +1,41 @@
+package wordy.logic.runtime.bytecode;
+
+import wordy.logic.compile.nodes.ASTNode;
+import wordy.logic.runtime.Frame;
+import wordy.logic.runtime.components.Instance;
+import wordy.logic.runtime.errors.InvocationException;
+
+/**
+ * The super class of all classes generated by the FunctionCompiler.
+ * 
+ * A generated class implements run() with the statements of a single Wordy function.
+ * 
+ * @author Jose Guaro
+ *
+ */
+public abstract class CompiledBody {
+  
+  /*
+   * Values of the constants and literals in the function, loaded by the generated code
+   */
+  public final Instance [] constants;
+  
+  /*
+   * Nodes the generated code passes to a CompiledContext by index
+   */
+  public final ASTNode [] nodes;
+  
+  public CompiledBody(Instance [] constants, ASTNode [] nodes) {
+    this.constants = constants;
+    this.nodes = nodes;
+  }
+  
+  /**
+   * Executes the compiled function
+   * @param frame - the Frame of this invocation, with the function's parameters already set
+   * @param context - the CompiledContext of this invocation
+   * @return the returned value of the function, or null if it returned nothing
+   * @throws InvocationException - if an exception is thrown within the function
+   */
+  public abstract Instance run(Frame frame, CompiledContext context) throws InvocationException;
+}
@@ -0,0 +1,87 @@
+package wordy.logic.runtime.bytecode;
+
+import wordy.logic.compile.nodes.ASTNode;
+import wordy.logic.compile.nodes.BinaryOpNode;
+import wordy.logic.compile.nodes.MemberAccessNode;
+import wordy.logic.compile.nodes.MethodCallNode;
+import wordy.logic.compile.nodes.UnaryNode;
+import wordy.logic.runtime.TypeChecks;
+import wordy.logic.runtime.components.FileInstance;
+import wordy.logic.runtime.components.Instance;
+import wordy.logic.runtime.components.JavaInstance;
+import wordy.logic.runtime.components.PrimitiveInstance;
+import wordy.logic.runtime.errors.InvocationException;
+import wordy.logic.runtime.execution.GenVisitor;
+import wordy.logic.runtime.execution.GenVisitor.CarrierInvocationException;
+import wordy.logic.runtime.execution.Operator;
+
+/**
+ * The operations generated code calls into during a single invocation of a compiled function.
+ *
+ * Anything that depends on the runtime - operators, function calls, property access - is
+ * delegated to a GenVisitor, so compiled and interpreted code behave the same.
+ *
+ * @author Jose Guaro
+ *
+ */
+public class CompiledContext {
+
+  private final GenVisitor visitor;
+  private final ASTNode [] nodes;
+  private final FileInstance currentFile;
+
+  public CompiledContext(GenVisitor visitor, ASTNode [] nodes, FileInstance currentFile) {
+    this.visitor = visitor;
+    this.nodes = nodes;
+    this.currentFile = currentFile;
+  }
+
+  public Instance binary(Instance left, Instance right, int node) {
+    return visitor.binaryOperation((BinaryOpNode) nodes[node], left, right);
+  }
+
+  public Instance unary(Instance value, int node) {
+    return Operator.performUnaryOperation((JavaInstance) value, ((UnaryNode) nodes[node]).opCode());
+  }
+
+  public Instance call(int node, Instance [] args) {
+    return visitor.invokeFunction((MethodCallNode) nodes[node], args);
+  }
+
+  public Instance callOn(int node, Instance target, Instance [] args) {
+    return visitor.invokeMethod((MethodCallNode) nodes[node], target, args);
+  }
+
+  public Instance member(Instance target, int node) {
+    return visitor.retrieveMember((MemberAccessNode) nodes[node], target).getValue();
+  }
+
+  /**
+   * Evaluates an expression the FunctionCompiler didn't compile, using the interpreter
+   * @param node - the index of the expression's node
+   * @return the value of the expression
+   */
+  public Instance eval(int node) {
+    return visitor.evaluate(nodes[node]);
+  }
+
+  public boolean truth(Instance value) {
+    if (value instanceof PrimitiveInstance) {
+      return ((PrimitiveInstance) value).truth();
+    }
+    return TypeChecks.getBooleanEquivalent(((JavaInstance) value).getInstance());
+  }
+
+  /**
+   * Registers the current file and line to the trace of an exception that
+   * passed through a statement
+   * @param carrier - the CarrierInvocationException holding the exception
+   * @param line - the line number of the statement
+   * @return the carried InvocationException, to be thrown by the generated code
+   */
+  public InvocationException trace(CarrierInvocationException carrier, int line) {
+    InvocationException invocationException = carrier.getException();
+    invocationException.registerTrace(currentFile.getName(), line);
+    return invocationException;
+  }
+}
@@ -0,0 +1,514 @@
+package wordy.logic.runtime.bytecode;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+import wordy.logic.compile.nodes.ASTNode;
+import wordy.logic.compile.nodes.BinaryOpNode;
+import wordy.logic.compile.nodes.ConstantNode;
+import wordy.logic.compile.nodes.IdentifierNode;
+import wordy.logic.compile.nodes.LiteralNode;
+import wordy.logic.compile.nodes.MemberAccessNode;
+import wordy.logic.compile.nodes.MethodCallNode;
+import wordy.logic.compile.nodes.OpCode;
+import wordy.logic.compile.nodes.UnaryNode;
+import wordy.logic.compile.nodes.ASTNode.NodeType;
+import wordy.logic.compile.structure.ForLoopBlock;
+import wordy.logic.compile.structure.Function;
+import wordy.logic.compile.structure.IfBlock;
+import wordy.logic.compile.structure.Statement;
+import wordy.logic.compile.structure.StatementBlock;
+import wordy.logic.compile.structure.Variable;
+import wordy.logic.compile.structure.WhileLoopBlock;
+import wordy.logic.compile.structure.Statement.StatementDescription;
+import wordy.logic.compile.structure.StatementBlock.BlockType;
+import wordy.logic.runtime.components.Instance;
+import wordy.logic.runtime.components.JavaInstance;
+import wordy.logic.runtime.bytecode.ClassAssembler.Label;
+
+import static wordy.logic.runtime.bytecode.ClassAssembler.*;
+
+/**
+ * Compiles the statements of a Wordy function into a JVM class, so that
+ * the function's body can be JIT compiled like any other Java code.
+ *
+ * Control flow (if/else, loops, break/continue and returns) and access to variables
+ * with resolved slots are compiled to plain bytecode. Operators, calls and property access
+ * are compiled to calls to a CompiledContext, and any expression that isn't supported
+ * is evaluated by the interpreter through CompiledContext.eval().
+ *
+ * Functions with try/catch blocks or throw statements aren't compiled at all,
+ * and are left to the interpreter.
+ *
+ * @author Jose Guaro
+ *
+ */
+public class FunctionCompiler {
+
+  private static final String BODY = "wordy/logic/runtime/bytecode/CompiledBody";
+  private static final String CONTEXT = "wordy/logic/runtime/bytecode/CompiledContext";
+  private static final String FRAME = "wordy/logic/runtime/Frame";
+  private static final String INSTANCE = "wordy/logic/runtime/components/Instance";
+  private static final String CARRIER = "wordy/logic/runtime/execution/GenVisitor$CarrierInvocationException";
+  private static final String INVOCATION = "wordy/logic/runtime/errors/InvocationException";
+  private static final String NODE = "wordy/logic/compile/nodes/ASTNode";
+
+  private static final String INST = "L"+INSTANCE+";";
+  private static final String CONSTRUCTOR_DESC = "([" + INST + "[L" + NODE + ";)V";
+  private static final String RUN_DESC = "(L" + FRAME + ";L" + CONTEXT + ";)" + INST;
+
+  //local variable indices of the generated run() method
+  private static final int THIS = 0;
+  private static final int FRAME_LOCAL = 1;
+  private static final int CONTEXT_LOCAL = 2;
+
+  private static int classCount;
+
+  private final ClassAssembler asm;
+  private final List<Instance> constants;
+  private final List<ASTNode> nodes;
+  private final Deque<Label []> loops; //{break target, continue target} of enclosing loops
+  private final List<Label> handlers;
+  private final List<Integer> handlerLines;
+
+  private FunctionCompiler(String className) {
+    this.asm = new ClassAssembler(className, BODY, 3);
+    this.constants = new ArrayList<>();
+    this.nodes = new ArrayList<>();
+    this.loops = new ArrayDeque<>();
+    this.handlers = new ArrayList<>();
+    this.handlerLines = new ArrayList<>();
+  }
+
+  /**
+   * Compiles a function
+   * @param fileName - the name of the source file the function is in
+   * @param function - the Function to compile
+   * @param loader - the WordyClassLoader to define the compiled class with. The class
+   *                 can only be unloaded along with the loader and every class it defined
+   * @return the CompiledBody of the function, or null if the function
+   *         has constructs that can't be compiled
+   */
+  public static CompiledBody compile(String fileName, Function function, WordyClassLoader loader) {
+    String binaryName = "wordy.gen."+sanitize(fileName)+"$"+sanitize(function.getName().content())+"$"+nextClassNumber();
+    FunctionCompiler compiler = new FunctionCompiler(binaryName.replace('.', '/'));
+
+    try {
+      Statement [] statements = function.getStatements();
+      /*
+       * The first statements are the function's parameters, which
+       * are placed in the Frame prior to run() being invoked
+       */
+      compiler.compileStatements(Arrays.asList(statements).subList(function.argAmount(), statements.length));
+      compiler.asm.op(ACONST_NULL, 1);
+      compiler.asm.op(ARETURN, -1);
+      compiler.emitHandlers();
+
+      byte [] classFile = compiler.asm.toByteArray(CONSTRUCTOR_DESC, 2, "run", RUN_DESC);
+      Class<?> bodyClass;
+      synchronized (loader) {
+        bodyClass = loader.defineGenerated(binaryName, classFile);
+      }
+
+      Instance [] constantArray = compiler.constants.toArray(new Instance[compiler.constants.size()]);
+      ASTNode [] nodeArray = compiler.nodes.toArray(new ASTNode[compiler.nodes.size()]);
+      return (CompiledBody) bodyClass.getConstructor(Instance[].class, ASTNode[].class).newInstance(constantArray, nodeArray);
+    } catch (UnsupportedConstruct e) {
+      return null;
+    } catch (IllegalStateException e) {
+      //method too large, too many temporaries, etc.
+      return null;
+    } catch (ReflectiveOperationException e) {
+      throw new RuntimeException("Couldn't load the compiled function "+function.getName().content(), e);
+    }
+  }
+
+  private static synchronized int nextClassNumber() {
+    return classCount++;
+  }
+
+  private static String sanitize(String name) {
+    StringBuilder builder = new StringBuilder();
+    for(char c : name.toCharArray()) {
+      builder.append(Character.isJavaIdentifierPart(c) ? c : '_');
+    }
+    return builder.toString();
+  }
+
+  /*
+   * Statements
+   */
+
+  private void compileStatements(List<Statement> statements) {
+    int index = 0;
+    while (index < statements.size()) {
+      Statement statement = statements.get(index);
+      if (statement instanceof IfBlock) {
+        /*
+         * Collect the if block along with the else-if/else blocks that follow it
+         */
+        if (((IfBlock) statement).isElseIf()) {
+          throw new UnsupportedConstruct();
+        }
+
+        List<IfBlock> chain = new ArrayList<>();
+        chain.add((IfBlock) statement);
+        index++;
+        while (index < statements.size() &&
+               statements.get(index) instanceof IfBlock &&
+               ((IfBlock) statements.get(index)).isElseIf()) {
+          chain.add((IfBlock) statements.get(index));
+          index++;
+        }
+        compileIfChain(chain);
+      }
+      else {
+        compileStatement(statement);
+        index++;
+      }
+    }
+  }
+
+  private void compileStatement(Statement statement) {
+    switch (statement.getDescription()) {
+    case VAR_DEC:
+      Variable variable = (Variable) statement;
+      if (!variable.hasSlot()) {
+        throw new UnsupportedConstruct();
+      }
+      int line = variable.getExpression() == null ? variable.getName().lineNumber() : lineOf(variable.getExpression());
+      int start = asm.position();
+      asm.loadLocal(FRAME_LOCAL);
+      asm.pushInt(variable.getSlot());
+      if (variable.getExpression() == null) {
+        loadConstant(JavaInstance.getNullRep());
+      }
+      else {
+        compileExpression(variable.getExpression());
+      }
+      invoke(FRAME, "set", "(I"+INST+")V", -3);
+      protect(start, line);
+      break;
+    case REGULAR:
+      start = asm.position();
+      compileExpression(statement.getExpression());
+      asm.op(POP, -1);
+      protect(start, lineOf(statement.getExpression()));
+      break;
+    case RETURN:
+      if (statement.getExpression() == null) {
+        asm.op(ACONST_NULL, 1);
+      }
+      else {
+        start = asm.position();
+        compileExpression(statement.getExpression());
+        protect(start, lineOf(statement.getExpression()));
+      }
+      asm.op(ARETURN, -1);
+      break;
+    case BREAK:
+    case CONTINUE:
+      if (loops.isEmpty()) {
+        throw new UnsupportedConstruct();
+      }
+      Label target = loops.peek()[statement.getDescription() == StatementDescription.BREAK ? 0 : 1];
+      asm.jump(GOTO, target, 0);
+      break;
+    case BLOCK:
+      compileBlock((StatementBlock) statement);
+      break;
+    default:
+      //throw statements
+      throw new UnsupportedConstruct();
+    }
+  }
+
+  private void compileBlock(StatementBlock block) {
+    if (block.blockType() == BlockType.WHILE) {
+      WhileLoopBlock whileLoop = (WhileLoopBlock) block;
+      Label condition = asm.newLabel();
+      Label end = asm.newLabel();
+
+      asm.mark(condition);
+      compileCondition(whileLoop.getExpression());
+      asm.jump(IFEQ, end, -1);
+
+      loops.push(new Label[] {end, condition});
+      compileStatements(block.getStatements());
+      loops.pop();
+
+      asm.jump(GOTO, condition, 0);
+      asm.mark(end);
+    }
+    else if (block.blockType() == BlockType.FOR) {
+      ForLoopBlock forLoop = (ForLoopBlock) block;
+      Label condition = asm.newLabel();
+      Label change = asm.newLabel();
+      Label end = asm.newLabel();
+
+      if (forLoop.getInitialization() != null) {
+        compileStatement(forLoop.getInitialization());
+      }
+
+      asm.mark(condition);
+      if (forLoop.getCheckStatement() != null) {
+        compileCondition(forLoop.getCheckStatement().getExpression());
+        asm.jump(IFEQ, end, -1);
+      }
+
+      loops.push(new Label[] {end, change});
+      compileStatements(block.getStatements());
+      loops.pop();
+
+      asm.mark(change);
+      if (forLoop.getChangeStatement() != null) {
+        int start = asm.position();
+        compileExpression(forLoop.getChangeStatement().getExpression());
+        asm.op(POP, -1);
+        protect(start, lineOf(forLoop.getChangeStatement().getExpression()));
+      }
+      asm.jump(GOTO, condition, 0);
+      asm.mark(end);
+    }
+    else if (block.blockType() == BlockType.GENERAL) {
+      compileStatements(block.getStatements());
+    }
+    else {
+      //try and catch blocks
+      throw new UnsupportedConstruct();
+    }
+  }
+
+  private void compileIfChain(List<IfBlock> chain) {
+    Label end = asm.newLabel();
+    for(IfBlock ifBlock : chain) {
+      if (ifBlock.getCondition() == null) {
+        //pure else block
+        compileStatements(ifBlock.getStatements());
+      }
+      else {
+        Label next = asm.newLabel();
+        compileCondition(ifBlock.getExpression());
+        asm.jump(IFEQ, next, -1);
+        compileStatements(ifBlock.getStatements());
+        asm.jump(GOTO, end, 0);
+        asm.mark(next);
+      }
+    }
+    asm.mark(end);
+  }
+
+  /**
+   * Compiles a condition, leaving an int (0 for false) on the operand stack
+   */
+  private void compileCondition(ASTNode condition) {
+    int start = asm.position();
+    asm.loadLocal(CONTEXT_LOCAL);
+    compileExpression(condition);
+    invoke(CONTEXT, "truth", "("+INST+")Z", -1);
+    protect(start, lineOf(condition));
+  }
+
+  /**
+   * Registers the code from start to the current position as a statement,
+   * whose exceptions are traced to the given line
+   */
+  private void protect(int start, int line) {
+    Label handler = asm.newLabel();
+    asm.addHandler(start, asm.position(), handler, CARRIER);
+    handlers.add(handler);
+    handlerLines.add(line);
+  }
+
+  private void emitHandlers() {
+    for(int i = 0; i < handlers.size(); i++) {
+      asm.mark(handlers.get(i));
+      asm.setStackDepth(1); //the caught exception
+      asm.loadLocal(CONTEXT_LOCAL);
+      asm.op(SWAP, 0);
+      asm.pushInt(handlerLines.get(i));
+      invoke(CONTEXT, "trace", "(L"+CARRIER+";I)L"+INVOCATION+";", -2);
+      asm.op(ATHROW, -1);
+    }
+  }
+
+  /*
+   * Expressions - each leaves exactly one Instance on the operand stack
+   */
+
+  private void compileExpression(ASTNode node) {
+    switch (node.nodeType()) {
+    case CONSTANT:
+      loadConstant(((ConstantNode) node).getConstant());
+      break;
+    case LITERAL:
+      loadConstant(((LiteralNode) node).getLiteral());
+      break;
+    case IDENTIFIER:
+      IdentifierNode identifier = (IdentifierNode) node;
+      if (identifier.isSlotResolved()) {
+        loadSlot(identifier);
+      }
+      else {
+        interpret(node);
+      }
+      break;
+    case OPERATOR:
+      compileBinary((BinaryOpNode) node);
+      break;
+    case UNARY:
+      asm.loadLocal(CONTEXT_LOCAL);
+      compileExpression(((UnaryNode) node).getExpr());
+      asm.pushInt(addNode(node));
+      invoke(CONTEXT, "unary", "("+INST+"I)"+INST, -2);
+      break;
+    case MEM_ACCESS:
+      MemberAccessNode memberAccess = (MemberAccessNode) node;
+      if (memberAccess.isForFunction()) {
+        compileExpression(memberAccess.getCalle());
+      }
+      else {
+        asm.loadLocal(CONTEXT_LOCAL);
+        compileExpression(memberAccess.getCalle());
+        asm.pushInt(addNode(node));
+        invoke(CONTEXT, "member", "("+INST+"I)"+INST, -2);
+      }
+      break;
+    case FUNC_CALL:
+      compileCall((MethodCallNode) node);
+      break;
+    default:
+      interpret(node);
+      break;
+    }
+  }
+
+  private void compileBinary(BinaryOpNode node) {
+    if (node.opCode() == OpCode.ASSIGN) {
+      ASTNode left = node.getLeftOperand();
+      if (left.nodeType() == NodeType.IDENTIFIER &&
+          ((IdentifierNode) left).isSlotResolved() &&
+          !((IdentifierNode) left).isConstantSlot()) {
+        IdentifierNode target = (IdentifierNode) left;
+        int value = asm.newLocal();
+        compileExpression(node.getRightOperand());
+        asm.storeLocal(value);
+
+        asm.loadLocal(FRAME_LOCAL);
+        if (target.slotDepth() == 0) {
+          asm.pushInt(target.slotIndex());
+          asm.loadLocal(value);
+          invoke(FRAME, "set", "(I"+INST+")V", -3);
+        }
+        else {
+          asm.pushInt(target.slotDepth());
+          asm.pushInt(target.slotIndex());
+          asm.loadLocal(value);
+          invoke(FRAME, "set", "(II"+INST+")V", -4);
+        }
+        asm.loadLocal(value);
+      }
+      else {
+        interpret(node);
+      }
+    }
+    else {
+      asm.loadLocal(CONTEXT_LOCAL);
+      compileExpression(node.getLeftOperand());
+      compileExpression(node.getRightOperand());
+      asm.pushInt(addNode(node));
+      invoke(CONTEXT, "binary", "("+INST+INST+"I)"+INST, -3);
+    }
+  }
+
+  private void compileCall(MethodCallNode node) {
+    if (node.getCallee().nodeType() == NodeType.IDENTIFIER) {
+      asm.loadLocal(CONTEXT_LOCAL);
+      asm.pushInt(addNode(node));
+      compileArguments(node.arguments());
+      invoke(CONTEXT, "call", "(I["+INST+")"+INST, -2);
+    }
+    else {
+      //arguments are evaluated prior to the instance the function is called on
+      int args = asm.newLocal();
+      compileArguments(node.arguments());
+      asm.storeLocal(args);
+
+      asm.loadLocal(CONTEXT_LOCAL);
+      asm.pushInt(addNode(node));
+      compileExpression(node.getCallee());
+      asm.loadLocal(args);
+      invoke(CONTEXT, "callOn", "(I"+INST+"["+INST+")"+INST, -3);
+    }
+  }
+
+  private void compileArguments(ASTNode [] arguments) {
+    asm.pushInt(arguments.length);
+    asm.op(ANEWARRAY, asm.classRef(INSTANCE), 0);
+    for(int i = 0; i < arguments.length; i++) {
+      asm.op(DUP, 1);
+      asm.pushInt(i);
+      compileExpression(arguments[i]);
+      asm.op(AASTORE, -3);
+    }
+  }
+
+  private void loadSlot(IdentifierNode identifier) {
+    asm.loadLocal(FRAME_LOCAL);
+    if (identifier.slotDepth() == 0) {
+      asm.pushInt(identifier.slotIndex());
+      invoke(FRAME, "get", "(I)"+INST, -1);
+    }
+    else {
+      asm.pushInt(identifier.slotDepth());
+      asm.pushInt(identifier.slotIndex());
+      invoke(FRAME, "get", "(II)"+INST, -2);
+    }
+  }
+
+  private void loadConstant(Instance value) {
+    int index = constants.size();
+    constants.add(value);
+    asm.loadLocal(THIS);
+    asm.op(GETFIELD, asm.fieldRef(BODY, "constants", "["+INST), 0);
+    asm.pushInt(index);
+    asm.op(AALOAD, -1);
+  }
+
+  /**
+   * Evaluates an expression through the interpreter
+   */
+  private void interpret(ASTNode node) {
+    asm.loadLocal(CONTEXT_LOCAL);
+    asm.pushInt(addNode(node));
+    invoke(CONTEXT, "eval", "(I)"+INST, -1);
+  }
+
+  private int addNode(ASTNode node) {
+    nodes.add(node);
+    return nodes.size() - 1;
+  }
+
+  private void invoke(String owner, String name, String descriptor, int stackChange) {
+    asm.op(INVOKEVIRTUAL, asm.methodRef(owner, name, descriptor), stackChange);
+  }
+
+  private static int lineOf(ASTNode node) {
+    return node.locationToken().lineNumber();
+  }
+
+  /**
+   * Thrown when a construct that can't be compiled is found
+   */
+  private static class UnsupportedConstruct extends RuntimeException{
+
+    private static final long serialVersionUID = 1L;
+
+    public UnsupportedConstruct() {
+      super(null, null, false, false);
+    }
+  }
+}
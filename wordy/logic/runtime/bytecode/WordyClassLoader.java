@@ -0,0 +1,26 @@
+package wordy.logic.runtime.bytecode;
+
+/**
+ * Loads the classes generated by the FunctionCompiler.
+ * 
+ * Each RuntimeFile has its own WordyClassLoader (see RuntimeFile.getClassLoader()), so
+ * the generated classes are unloaded once the file they were compiled from isn't used anymore
+ * @author Jose Guaro
+ *
+ */
+public class WordyClassLoader extends ClassLoader{
+  
+  public WordyClassLoader(ClassLoader parent) {
+    super(parent);
+  }
+  
+  /**
+   * Defines a generated class
+   * @param binaryName - the binary name of the class (Ex: wordy.gen.Sample)
+   * @param classFile - the bytes of the class file
+   * @return the defined Class
+   */
+  public Class<?> defineGenerated(String binaryName, byte [] classFile) {
+    return defineClass(binaryName, classFile, 0, classFile.length);
+  }
+}
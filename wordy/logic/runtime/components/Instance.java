@@ -18,9 +18,18 @@ public abstract class Instance extends StackComponent{
   protected Map<String, VariableMember> instanceVars;
   
   public Instance(TypeDefinition baseClass) {
+    this(baseClass, new LinkedHashMap<>());
+  }
+  
+  /**
+   * Constructs an Instance whose members are held in the given map
+   * @param baseClass - the TypeDefinition of this instance
+   * @param instanceVars - the members of this instance. This map may be shared with other instances
+   */
+  protected Instance(TypeDefinition baseClass, Map<String, VariableMember> instanceVars) {
     super(baseClass.getName());
     this.definition = baseClass;
-    instanceVars = new LinkedHashMap<>();
+    this.instanceVars = instanceVars;
   }
 
   public VariableMember retrieveVariable(String memberName) {
@@ -15,31 +15,46 @@ import wordy.standard.Array;
  */
 public class JavaInstance extends Instance{
   
-  private static JavaInstance nullRep;
+  private static volatile JavaInstance nullRep;
   
   private Object object;
   private boolean isStaticRep;
   
   protected JavaInstance(Object object, JavaClassDefinition classDefinition, boolean isStaticRep) {
-    super(classDefinition);
-    instanceVars.putAll(definition.getVariables());
+    this(object, classDefinition, classDefinition.getFieldTable(), isStaticRep);
+  }
+  
+  /**
+   * Constructs a JavaInstance whose Java object is provided by overriding getInstance()
+   * @param classDefinition - the JavaClassDefinition of the instance's class
+   */
+  protected JavaInstance(JavaClassDefinition classDefinition) {
+    super(classDefinition, classDefinition.getFieldTable());
+  }
+  
+  /*
+   * The field table isn't copied, as JavaVariableMembers are bound to their target
+   * object when they're retrieved (see retrieveVariable())
+   */
+  private JavaInstance(Object object, JavaClassDefinition classDefinition, 
+                       Map<String, VariableMember> fieldTable, boolean isStaticRep) {
+    super(classDefinition, fieldTable);
     this.object = object;
     this.isStaticRep = isStaticRep;
   }
   
   public boolean deepEquality(JavaInstance instance) {
-    return object.equals(instance.object);
+    return getInstance().equals(instance.getInstance());
   }
   
   public VariableMember retrieveVariable(String memberName) {
     JavaVariableMember instance = (JavaVariableMember) instanceVars.get(memberName);
     //System.out.println("---returning ? "+(instance == null)+" | "+memberName+" | "+instanceVars.keySet());
-    if (instance == null) {
+    if (instance == null || instance.isStatic()) {
       return instance;
     }
     
-    instance.setTarget(object);
-    return instance;
+    return instance.bindTo(getInstance());
   }
   
   public Map<String , VariableMember> varMap() {
@@ -54,6 +69,15 @@ public class JavaInstance extends Instance{
     return object;
   }
   
+  /**
+   * Retrieves the class of the Java object, without creating the object if
+   * this instance represents a primitive value
+   * @return the class of the Java object, or null if the object is null
+   */
+  public Class<?> instanceClass() {
+    return object == null ? null : object.getClass();
+  }
+  
   public String toString() {
     if (object == null) {
       return "null";
@@ -68,17 +92,18 @@ public class JavaInstance extends Instance{
       return definition.getStaticRep();
     }
     
-    JavaInstance instance = new JavaInstance("STATIC REP: "+respClass.getName(), definition, true);
-    for(VariableMember member : instance.instanceVars.values()) {
-      JavaVariableMember javaVar = (JavaVariableMember) member;
-      if (!javaVar.isStatic()) {
-        instance.instanceVars.remove(javaVar.getName());
+    //only one static rep. is ever made for a class, even when requested by multiple threads at once
+    synchronized (definition) {
+      if (definition.getStaticRep() != null) {
+        return definition.getStaticRep();
       }
+      
+      JavaInstance instance = new JavaInstance("STATIC REP: "+respClass.getName(), definition, 
+                                               definition.getStaticFieldTable(), true);
+      definition.setStaticRep(instance);
+
+      return instance;
     }
-    
-    definition.setStaticRep(instance);
-    
-    return instance;
   }
   
   public static JavaInstance wrapInstance(Object instance) {
@@ -91,6 +116,11 @@ public class JavaInstance extends Instance{
         return getNullRep();
       }
       
+      PrimitiveInstance primitive = PrimitiveInstance.fromBoxed(instance);
+      if (primitive != null) {
+        return primitive;
+      }
+      
       if (instance.getClass().isArray()) {
         JavaClassDefinition definition = JavaClassDefinition.defineClass(Array.class);
         Object [] arr = (Object[]) instance;
@@ -107,14 +137,26 @@ public class JavaInstance extends Instance{
     }
   }
   
+  public static JavaInstance wrapInstance(boolean instance) {
+    return PrimitiveInstance.ofBoolean(instance);
+  }
+  
   public static JavaInstance getNullRep() {
-    if (nullRep == null) {
-      nullRep = new JavaInstance(null, JavaClassDefinition.defineClass(Object.class), false);
+    JavaInstance current = nullRep;
+    if (current == null) {
+      //the null rep. is compared by identity, so it must only be made once
+      synchronized (JavaInstance.class) {
+        current = nullRep;
+        if (current == null) {
+          current = new JavaInstance(null, JavaClassDefinition.defineClass(Object.class), false);
+          nullRep = current;
+        }
+      }
     }
-    return nullRep;
+    return current;
   }
 
   public boolean isAJavaPrimitive() {
-    return TypeChecks.isAPrimiiveType(object.getClass());
+    return TypeChecks.isAPrimiiveType(instanceClass());
   }
 }
@@ -11,24 +11,38 @@ import wordy.logic.runtime.types.JavaClassDefinition;
  * Represents a Java variable.
  * 
  * Note: when retrieving or setting the value of a JavaVariableMember, 
- *       setTarget() must be called prior if the variable is an instance variable.
- *       If it's static, such call isn't required
+ *       it must have been bound to its target with bindTo() if the variable is an instance variable.
+ *       If it's static, such binding isn't required
  * @author Jose Guaro
  *
  */
 public class JavaVariableMember extends VariableMember{
 
   private Field field;
-  private Object target;
+  private final Object target;
   
   public JavaVariableMember(Field field, JavaClassDefinition valType) {
+    this(field, valType, null);
+  }
+  
+  private JavaVariableMember(Field field, JavaClassDefinition valType, Object target) {
     super(field.getName(), Modifier.isFinal(field.getModifiers()));
     this.field = field;
     this.type = valType;
+    this.target = target;
   }
   
-  public void setTarget(Object object) {
-    this.target = object;
+  /**
+   * Binds this variable to the object it's a field of.
+   * 
+   * This JavaVariableMember is left untouched, as it's shared by every 
+   * JavaInstance of its class (see JavaClassDefinition.getFieldTable())
+   * 
+   * @param object - the object whose field to retrieve and set
+   * @return a JavaVariableMember of the same field, bound to the given object
+   */
+  public JavaVariableMember bindTo(Object object) {
+    return new JavaVariableMember(field, (JavaClassDefinition) type, object);
   }
   
   public void setValue(Instance constant) {
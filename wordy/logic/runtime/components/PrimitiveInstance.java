@@ -0,0 +1,220 @@
+package wordy.logic.runtime.components;
+
+import wordy.logic.runtime.types.JavaClassDefinition;
+
+/**
+ * Represents an int, long, double or boolean value.
+ *
+ * The value is held as a primitive, so arithmetic and comparisons on it (see Operator)
+ * don't allocate boxed objects. The equivalent Java object (Integer, Long, Double or Boolean)
+ * is only created when it's asked for through getInstance() - such as when the value is
+ * passed to a Java method.
+ *
+ * To Wordy code, a PrimitiveInstance is indistinguishable from a JavaInstance
+ * holding the equivalent Java object.
+ *
+ * true, false and ints in [INT_CACHE_LOW, INT_CACHE_HIGH] are represented by
+ * canonical instances, which are never garbage.
+ *
+ * @author Jose Guaro
+ *
+ */
+public class PrimitiveInstance extends JavaInstance{
+
+  public enum Kind{
+    INT,
+    LONG,
+    DOUBLE,
+    BOOLEAN;
+  }
+
+  private static final JavaClassDefinition INT_DEF = JavaClassDefinition.defineClass(Integer.class);
+  private static final JavaClassDefinition LONG_DEF = JavaClassDefinition.defineClass(Long.class);
+  private static final JavaClassDefinition DOUBLE_DEF = JavaClassDefinition.defineClass(Double.class);
+  private static final JavaClassDefinition BOOLEAN_DEF = JavaClassDefinition.defineClass(Boolean.class);
+  
+  public static final int INT_CACHE_LOW = -128;
+  public static final int INT_CACHE_HIGH = 1023;
+  
+  private static final PrimitiveInstance TRUE = new PrimitiveInstance(Kind.BOOLEAN, BOOLEAN_DEF, 1, 0, Boolean.TRUE);
+  private static final PrimitiveInstance FALSE = new PrimitiveInstance(Kind.BOOLEAN, BOOLEAN_DEF, 0, 0, Boolean.FALSE);
+  private static final PrimitiveInstance [] INT_CACHE = new PrimitiveInstance[INT_CACHE_HIGH - INT_CACHE_LOW + 1];
+  
+  static {
+    //cached instances are boxed up front, so they're never written to after publication
+    for(int i = 0; i < INT_CACHE.length; i++) {
+      int value = i + INT_CACHE_LOW;
+      INT_CACHE[i] = new PrimitiveInstance(Kind.INT, INT_DEF, value, 0, Integer.valueOf(value));
+    }
+  }
+
+  private final Kind kind;
+  private final long longValue; //for INT, LONG and BOOLEAN (1 for true, 0 for false)
+  private final double doubleValue; //for DOUBLE
+
+  private Object boxed;
+
+  private PrimitiveInstance(Kind kind, JavaClassDefinition definition, long longValue, double doubleValue, Object boxed) {
+    super(definition);
+    this.kind = kind;
+    this.longValue = longValue;
+    this.doubleValue = doubleValue;
+    this.boxed = boxed;
+  }
+
+  public static PrimitiveInstance ofInt(int value) {
+    if (value >= INT_CACHE_LOW && value <= INT_CACHE_HIGH) {
+      return INT_CACHE[value - INT_CACHE_LOW];
+    }
+    return new PrimitiveInstance(Kind.INT, INT_DEF, value, 0, null);
+  }
+
+  public static PrimitiveInstance ofLong(long value) {
+    return new PrimitiveInstance(Kind.LONG, LONG_DEF, value, 0, null);
+  }
+
+  public static PrimitiveInstance ofDouble(double value) {
+    return new PrimitiveInstance(Kind.DOUBLE, DOUBLE_DEF, 0, value, null);
+  }
+
+  public static PrimitiveInstance ofBoolean(boolean value) {
+    return value ? TRUE : FALSE;
+  }
+
+  /**
+   * Creates a PrimitiveInstance from a boxed value
+   * @param value - the Integer, Long, Double or Boolean to represent
+   * @return the PrimitiveInstance representing the value, or null if the
+   *         value isn't of any of those types
+   */
+  static PrimitiveInstance fromBoxed(Object value) {
+    Class<?> valueClass = value.getClass();
+    if (valueClass == Integer.class) {
+      int intValue = (Integer) value;
+      if (intValue >= INT_CACHE_LOW && intValue <= INT_CACHE_HIGH) {
+        return INT_CACHE[intValue - INT_CACHE_LOW];
+      }
+      return new PrimitiveInstance(Kind.INT, INT_DEF, intValue, 0, value);
+    }
+    else if (valueClass == Long.class) {
+      return new PrimitiveInstance(Kind.LONG, LONG_DEF, (Long) value, 0, value);
+    }
+    else if (valueClass == Double.class) {
+      return new PrimitiveInstance(Kind.DOUBLE, DOUBLE_DEF, 0, (Double) value, value);
+    }
+    else if (valueClass == Boolean.class) {
+      return ((Boolean) value) ? TRUE : FALSE;
+    }
+    return null;
+  }
+
+  public Kind kind() {
+    return kind;
+  }
+
+  public boolean isNumeric() {
+    return kind != Kind.BOOLEAN;
+  }
+
+  public int intValue() {
+    return (int) longValue;
+  }
+
+  public long longValue() {
+    return longValue;
+  }
+
+  public boolean booleanValue() {
+    return longValue != 0;
+  }
+
+  /**
+   * Retrieves this value as a double
+   * @return the value of this numeric instance, converted to a double
+   */
+  public double doubleValue() {
+    return kind == Kind.DOUBLE ? doubleValue : longValue;
+  }
+
+  /**
+   * Returns the boolean equivalent of this value, exactly as TypeChecks.getBooleanEquivalent() would
+   * @return false if this value is an int 0, a double 0.0 or false. True otherwise
+   */
+  public boolean truth() {
+    switch (kind) {
+    case INT:
+    case BOOLEAN:
+      return longValue != 0;
+    case DOUBLE:
+      //Double.equals() compares bits, so -0.0 is true
+      return Double.doubleToLongBits(doubleValue) != 0L;
+    default:
+      //a Long is never equal to the Integer 0
+      return true;
+    }
+  }
+
+  public Object getInstance() {
+    if (boxed == null) {
+      switch (kind) {
+      case INT:
+        boxed = Integer.valueOf((int) longValue);
+        break;
+      case LONG:
+        boxed = Long.valueOf(longValue);
+        break;
+      case DOUBLE:
+        boxed = Double.valueOf(doubleValue);
+        break;
+      default:
+        boxed = Boolean.valueOf(longValue != 0);
+        break;
+      }
+    }
+    return boxed;
+  }
+
+  public Class<?> instanceClass() {
+    switch (kind) {
+    case INT:
+      return Integer.class;
+    case LONG:
+      return Long.class;
+    case DOUBLE:
+      return Double.class;
+    default:
+      return Boolean.class;
+    }
+  }
+
+  public boolean deepEquality(JavaInstance instance) {
+    if (instance instanceof PrimitiveInstance) {
+      //same as Object.equals() of the boxed values
+      PrimitiveInstance other = (PrimitiveInstance) instance;
+      if (kind != other.kind) {
+        return false;
+      }
+      if (kind == Kind.DOUBLE) {
+        return Double.doubleToLongBits(doubleValue) == Double.doubleToLongBits(other.doubleValue);
+      }
+      return longValue == other.longValue;
+    }
+    return super.deepEquality(instance);
+  }
+
+  public boolean isAJavaPrimitive() {
+    return true;
+  }
+
+  public String toString() {
+    switch (kind) {
+    case INT:
+    case LONG:
+      return String.valueOf(longValue);
+    case DOUBLE:
+      return String.valueOf(doubleValue);
+    default:
+      return String.valueOf(longValue != 0);
+    }
+  }
+}
@@ -0,0 +1,245 @@
+package wordy.logic.runtime.execution;
+
+import java.util.Arrays;
+import java.util.List;
+
+import wordy.logic.runtime.components.Instance;
+import wordy.logic.runtime.components.JavaInstance;
+import wordy.logic.runtime.types.TypeDefinition;
+
+/**
+ * An inline cache attached to a single call site (a MethodCallNode).
+ *
+ * It remembers which Callable a call resolved to, keyed on what the resolution depended on:
+ *
+ * - For method calls (Like: list.add() ), the TypeDefinition of the instance called on
+ * - For function calls (Like: println() ), the function maps visible to the caller
+ *
+ * and, if any of the candidate Callables were Java methods, the classes of the arguments.
+ *
+ * Up to MAX_ENTRIES resolutions are kept (a polymorphic cache). Once a call site sees more
+ * than that, it's considered megamorphic and is no longer cached.
+ *
+ * All caches are invalidated by invalidateAll(), which must be invoked whenever a
+ * TypeDefinition or a file's functions change. While a change is being made (Like: by
+ * WordyRuntime.swap() ), caches are suspended between suspendAll() and resumeAll(): calls
+ * are neither looked up in nor recorded to any cache, so no call resolved before the change
+ * completes is cached past it.
+ *
+ * @author Jose Guaro
+ *
+ */
+public class CallSiteCache {
+
+  public static final int MAX_ENTRIES = 4;
+
+  private static final Entry [] NO_ENTRIES = new Entry[0];
+
+  /*
+   * Incremented on every invalidation. Caches built under an older generation are ignored
+   */
+  private static volatile int generation;
+
+  /*
+   * The amount of changes in progress (see suspendAll()). Nothing is recorded while there's any
+   */
+  private static volatile int suspensions;
+
+  private volatile Snapshot snapshot;
+
+  public CallSiteCache() {
+    snapshot = new Snapshot(generation, NO_ENTRIES, false);
+  }
+
+  /**
+   * Invalidates every CallSiteCache
+   */
+  public static synchronized void invalidateAll() {
+    generation++;
+  }
+
+  /**
+   * Invalidates every CallSiteCache, and stops caching calls until resumeAll() is invoked.
+   * Every suspendAll() must be followed by a resumeAll()
+   */
+  public static synchronized void suspendAll() {
+    //suspended before invalidating, so nothing can be recorded under the new generation until resumeAll()
+    suspensions++;
+    generation++;
+  }
+
+  /**
+   * Invalidates every CallSiteCache again, and resumes caching calls once every change in progress is done.
+   * Calls resolved while caches were suspended are never cached
+   */
+  public static synchronized void resumeAll() {
+    generation++;
+    suspensions--;
+  }
+
+  /**
+   * Retrieves the current generation of all caches. A call resolved in one generation
+   * may only be recorded in the same generation (see record())
+   * @return the current generation
+   */
+  public static int currentGeneration() {
+    return generation;
+  }
+
+  /**
+   * Retrieves the cached Callable for a method call
+   * @param definition - the TypeDefinition of the instance the method is called on
+   * @param args - the arguments of the call
+   * @return the cached Callable, or null if there's none
+   */
+  public Callable findMethod(TypeDefinition definition, Instance [] args) {
+    return find(definition, args);
+  }
+
+  /**
+   * Retrieves the cached Callable for a function call
+   * @param functionMaps - the function maps visible to the caller (from RuntimeTable.functionMaps())
+   * @param args - the arguments of the call
+   * @return the cached Callable, or null if there's none
+   */
+  public Callable findFunction(List<?> functionMaps, Instance [] args) {
+    return find(functionMaps, args);
+  }
+
+  /**
+   * Caches the resolution of a call.
+   *
+   * If the caches were invalidated since the call was resolved (Like: by a WordyRuntime.swap() 
+   * on another thread), the resolution may be to replaced code and isn't cached
+   * @param resolvedIn - the generation the call was resolved in (from currentGeneration(), read before resolving)
+   * @param receiver - the TypeDefinition of the instance the method is called on,
+   *                   or the function maps visible to the caller
+   * @param args - the arguments of the call
+   * @param candidates - the Callables the call was resolved from
+   * @param resolved - the Callable the call was resolved to
+   */
+  public synchronized void record(int resolvedIn, Object receiver, Instance [] args, List<Callable> candidates, Callable resolved) {
+    int currentGen = generation;
+    if (resolvedIn != currentGen || suspensions > 0) {
+      return;
+    }
+
+    Snapshot current = snapshot;
+    Entry [] entries = current.generation == currentGen ? current.entries : NO_ENTRIES;
+    if (current.generation == currentGen && current.megamorphic) {
+      return;
+    }
+
+    if (entries.length == MAX_ENTRIES) {
+      snapshot = new Snapshot(currentGen, NO_ENTRIES, true);
+      return;
+    }
+
+    boolean shapeSensitive = false;
+    for(Callable callable : candidates) {
+      if (callable instanceof JavaCallable) {
+        shapeSensitive = true;
+        break;
+      }
+    }
+
+    Class<?> [] shape = null;
+    if (shapeSensitive) {
+      shape = new Class<?>[args.length];
+      for(int i = 0; i < args.length; i++) {
+        shape[i] = shapeOf(args[i]);
+      }
+    }
+
+    Entry [] newEntries = Arrays.copyOf(entries, entries.length + 1);
+    newEntries[entries.length] = new Entry(receiver, shape, resolved);
+    snapshot = new Snapshot(currentGen, newEntries, false);
+  }
+
+  public boolean isMegamorphic() {
+    Snapshot current = snapshot;
+    return current.generation == generation && current.megamorphic;
+  }
+
+  private Callable find(Object receiver, Instance [] args) {
+    Snapshot current = snapshot;
+    if (current.generation != generation) {
+      return null;
+    }
+
+    for(Entry entry : current.entries) {
+      if (entry.matches(receiver, args)) {
+        return entry.callable;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * The class JavaCallable.argumentsCompatible() checks an argument by
+   */
+  private static Class<?> shapeOf(Instance arg) {
+    if (arg instanceof JavaInstance) {
+      return ((JavaInstance) arg).instanceClass();
+    }
+    return arg == null ? null : arg.getClass();
+  }
+
+  private static class Snapshot{
+    private final int generation;
+    private final Entry [] entries;
+    private final boolean megamorphic;
+
+    Snapshot(int generation, Entry [] entries, boolean megamorphic) {
+      this.generation = generation;
+      this.entries = entries;
+      this.megamorphic = megamorphic;
+    }
+  }
+
+  private static class Entry{
+    private final Object receiver;
+    private final Class<?> [] shape; //null if the resolution doesn't depend on argument classes
+    private final Callable callable;
+
+    Entry(Object receiver, Class<?> [] shape, Callable callable) {
+      this.receiver = receiver;
+      this.shape = shape;
+      this.callable = callable;
+    }
+
+    boolean matches(Object otherReceiver, Instance [] args) {
+      if (receiver != otherReceiver) {
+        if (!(receiver instanceof List) || !(otherReceiver instanceof List) ||
+            !sameElements((List<?>) receiver, (List<?>) otherReceiver)) {
+          return false;
+        }
+      }
+
+      if (shape != null) {
+        for(int i = 0; i < shape.length; i++) {
+          if (shape[i] != shapeOf(args[i])) {
+            return false;
+          }
+        }
+      }
+      return true;
+    }
+
+    /*
+     * Function maps are compared by identity, as the same maps are shared
+     * by the RuntimeTables of a call chain
+     */
+    private static boolean sameElements(List<?> first, List<?> second) {
+      if (first.size() != second.size()) {
+        return false;
+      }
+      for(int i = 0; i < first.size(); i++) {
+        if (first.get(i) != second.get(i)) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
@@ -8,6 +8,7 @@ import wordy.logic.compile.nodes.ASTNode.NodeType;
 import wordy.logic.compile.nodes.MethodCallNode;
 import wordy.logic.compile.structure.Statement;
 import wordy.logic.compile.structure.Variable;
+import wordy.logic.runtime.Frame;
 import wordy.logic.runtime.RuntimeTable;
 import wordy.logic.runtime.VariableMember;
 import wordy.logic.runtime.WordyRuntime;
@@ -33,24 +34,30 @@ public class ConstructorFunction extends FunctionMember{
                                   Statement[] statements, 
                                   TypeDefinition definition,
                                   FileInstance currentFile,
-                                  WordyRuntime runtime) {
-    super(name, argumentAmnt, runtime, currentFile, statements);
+                                  WordyRuntime runtime,
+                                  int frameSize) {
+    super(name, argumentAmnt, runtime, currentFile, frameSize, statements);
     //System.out.println("****CREATING CONSTRUCTOR: "+name+" | statements: "+statements.length);
     this.definition = definition;
   }
   
   public Instance call(GenVisitor visitor,  RuntimeTable table, Instance ... args) throws InvocationException{
-    table = table.clone(false);
+    table = table.newFunctionScope();
     table.addFuncMap(currentFile.getDefinition().getFunctions());
-    visitor = new GenVisitor(table, currentFile, runtime);
+    Frame fileFrame = currentFile.getDefinition().getFileFrame();
+    visitor = new GenVisitor(table, fileFrame, currentFile, runtime);
     //System.out.println("-----CONSTRUCTOR!!!! "+definition.getName()+"------");
 
     Instance superInstance = null;
 
-    RuntimeTable superTable = table.clone(false);
-    superTable.clearLocalVars();
+    RuntimeTable superTable = table.newFunctionScope();
 
-    GenVisitor superVisitor = new GenVisitor(superTable, currentFile, runtime);
+ 
+    /*
+     * The super constructor's arguments may refer to this constructor's parameters
+     */
+    Frame paramFrame = new Frame(frameSize, fileFrame);
+    GenVisitor superVisitor = new GenVisitor(superTable, paramFrame, currentFile, runtime);
     
     /*
      * The actual statements that we'll execute
@@ -62,8 +69,13 @@ public class ConstructorFunction extends FunctionMember{
      */
     for(int i = 0; i < argAmnt; i++) {
       Variable rawParam = (Variable) statements[i];
-      VariableMember param = new VariableMember(rawParam.getName().content(), args[0], null, rawParam.isConstant());
-      superTable.placeLocalVar(param);
+      if (rawParam.hasSlot()) {
+        paramFrame.set(rawParam.getSlot(), args[i]);
+      }
+      else {
+        VariableMember param = new VariableMember(rawParam.getName().content(), args[i], null, rawParam.isConstant());
+        superTable.placeLocalVar(param);
+      }
     }
 
     /*
@@ -178,10 +190,11 @@ public class ConstructorFunction extends FunctionMember{
           argAmnt, 
           runtime, 
           currentFile, 
+          frameSize,
           actualFuncStatements.toArray(new Statement[actualFuncStatements.size()]));
       
       //System.out.println("---PROCEDING CONSTRUCTOR BODY!!! "+table.getLocalVarMap().keySet());
-      member.call(superVisitor, table, args);
+      member.call(superVisitor, superTable, args);
     }
     /*
      * Then return a new instance based on the provided TypeDefinition
@@ -15,6 +15,7 @@ import wordy.logic.compile.structure.Variable;
 import wordy.logic.compile.structure.WhileLoopBlock;
 import wordy.logic.compile.structure.StatementBlock.BlockType;
 import wordy.logic.compile.structure.TryBlock;
+import wordy.logic.runtime.Frame;
 import wordy.logic.runtime.RuntimeTable;
 import wordy.logic.runtime.TypeChecks;
 import wordy.logic.runtime.VariableMember;
@@ -40,24 +41,25 @@ public class FunctionMember extends Callable{
 
   protected final Statement [] statements;
   protected final FileInstance currentFile;
-  
-  private InvocationException lastThrow;
-  private boolean lastIf;
+  protected final int frameSize;
   
   /**
    * Constructs a FunctionMember
    * @param name - the name of this function
    * @param argumentAmnt - the amount of argument this function expects
+   * @param frameSize - the amount of variable slots this function's Frame needs
    * @param statements - the Statements in this function
    */
   public FunctionMember(String name, 
                         int argumentAmnt, 
                         WordyRuntime runtime, 
                         FileInstance currentFile, 
+                        int frameSize,
                         Statement ... statements) {
     super(name, argumentAmnt, runtime);
     this.statements = statements;
     this.currentFile = currentFile;
+    this.frameSize = frameSize;
   }
   
   /**
@@ -66,6 +68,19 @@ public class FunctionMember extends Callable{
   public Instance call(GenVisitor visitor, RuntimeTable table, Instance ... args) throws InvocationException{    
     //System.out.println("*****---CALLED: "+getName()+" | "+table.getLocalVarMap().keySet());
     table.addFuncMap(currentFile.getDefinition().getFunctions());
+    
+    /*
+     * Each invocation gets its own Frame for the variables resolved prior to runtime
+     */
+    Frame frame = new Frame(frameSize, currentFile.getDefinition().getFileFrame());
+    visitor = visitor.child(table, frame, currentFile);
+    
+    /*
+     * As is the invocation's state (the pending exception and the last if's outcome),
+     * so recursive and concurrent calls of this function don't see each other's
+     */
+    ExecutionContext context = new ExecutionContext();
+    
     int argCnt = argAmnt;
     for(Statement statement: statements) {
       //System.out.println("------NEXT STATEMENT------ || "+currentFile.getName()+" | "+statement.getClass().getName());
@@ -74,10 +89,10 @@ public class FunctionMember extends Callable{
       /*
        * Check for already present thrown exception
        */
-      if (lastThrow != null) {
+      if (context.lastThrow != null) {
         if (statement instanceof CatchBlock) {
-          RuntimeTable catchTable = table.clone(true);
-          BlockExecResult catchResult = executeCatch(new GenVisitor(catchTable, currentFile, runtime), 
+          RuntimeTable catchTable = table.newBlockScope();
+          BlockExecResult catchResult = executeCatch(context, visitor.child(catchTable), 
                                                      catchTable, 
                                                      (CatchBlock) statement);
           if (catchResult.gotBreak()) {
@@ -91,8 +106,8 @@ public class FunctionMember extends Callable{
           }
         }
         else {
-          lastThrow.registerTrace(currentFile.getName(), statement.getExpression().locationToken().lineNumber());
-          throw lastThrow;
+          context.lastThrow.registerTrace(currentFile.getName(), statement.getExpression().locationToken().lineNumber());
+          throw context.lastThrow;
         }
       }
       else {
@@ -100,10 +115,10 @@ public class FunctionMember extends Callable{
          * If not thrown exception, then execute normally 
          */
         if (statement.getDescription() == StatementDescription.BLOCK) {
-          RuntimeTable blockExec = table.clone(true);
+          RuntimeTable blockExec = table.newBlockScope();
           
           try {
-            BlockExecResult result = executeStatementBlock(new GenVisitor(blockExec, currentFile, runtime), 
+            BlockExecResult result = executeStatementBlock(context, visitor.child(blockExec), 
                                                            blockExec, (StatementBlock) statement);
             if (result.gotBreak()) {
               break;
@@ -116,7 +131,7 @@ public class FunctionMember extends Callable{
             }
           } catch (InvocationException e) {
             //System.out.println("---CAUGHT: "+e);
-            lastThrow = e;
+            context.lastThrow = e;
           }
           
          
@@ -125,7 +140,19 @@ public class FunctionMember extends Callable{
           Variable variable = (Variable) statement;
           VariableMember variableMember = new VariableMember(variable.getName().content(), variable.isConstant());
           //System.out.println("----PLACING VAR: "+variableMember.getName() + "|| " );
-          if(table.placeLocalVar(variableMember)) {
+          if (variable.hasSlot()) {
+            /*
+             * Same as below, but the parameter/variable's value goes to its slot
+             */
+            if (argCnt > 0) {
+              frame.set(variable.getSlot(), args[argAmnt - argCnt]);
+              argCnt--;
+            }
+            else {
+              frame.set(variable.getSlot(), evaluateDeclaration(visitor, variable));
+            }
+          }
+          else if(table.placeLocalVar(variableMember)) {
             throw new RuntimeException("Duplicate variable '"+variableMember.getName()+"' at line "+
                                          variable.getName().lineNumber()+", "+currentFile.getName());
           }
@@ -209,7 +236,7 @@ public class FunctionMember extends Callable{
               InvocationException exception = new InvocationException(actualInstance, runtime, table, currentFile);
               exception.registerTrace(currentFile.getName(), statement.getExpression().locationToken().lineNumber());
               
-              lastThrow = exception;
+              context.lastThrow = exception;
             }
             else {
               throw new FatalInternalException("throw exception doesn't evaluate to a throwable type! ", 
@@ -223,7 +250,7 @@ public class FunctionMember extends Callable{
               InvocationException exception = new InvocationException(actualInstance, runtime, table, currentFile);
               exception.registerTrace(currentFile.getName(), statement.getExpression().locationToken().lineNumber());
               
-              lastThrow = exception;
+              context.lastThrow = exception;
             }
             else {
               throw new FatalInternalException("throw exception doesn't evaluate to a throwable type! ", 
@@ -248,35 +275,35 @@ public class FunctionMember extends Callable{
      *        throw Exception("bye world");  //this would not be passed on to the caller
      *     }
      */
-    if (lastThrow != null) {
-      throw lastThrow;
+    if (context.lastThrow != null) {
+      throw context.lastThrow;
     }
     return null;
   }
   
-  private BlockExecResult executeStatementBlock(GenVisitor visitor, RuntimeTable executor, StatementBlock block) throws InvocationException {
+  private BlockExecResult executeStatementBlock(ExecutionContext context, GenVisitor visitor, RuntimeTable executor, StatementBlock block) throws InvocationException {
     if (block.blockType() == BlockType.FOR) {
-      return executeForLoop(visitor, executor, (ForLoopBlock) block);
+      return executeForLoop(context, visitor, executor, (ForLoopBlock) block);
     }
     else if (block.blockType() == BlockType.WHILE) {
-      return executeWhile(visitor, executor, (WhileLoopBlock) block);
+      return executeWhile(context, visitor, executor, (WhileLoopBlock) block);
     }
     else if (block.blockType() == BlockType.IF) {
-      return executeIf(visitor, executor, (IfBlock) block);
+      return executeIf(context, visitor, executor, (IfBlock) block);
     }
     else if (block.blockType() == BlockType.TRY) {
-      return executeTry(visitor, executor, (TryBlock) block);
+      return executeTry(context, visitor, executor, (TryBlock) block);
     }
     else if (block.blockType() == BlockType.CATCH) {
-      return executeCatch(visitor, executor, (CatchBlock) block);
+      return executeCatch(context, visitor, executor, (CatchBlock) block);
     }
     else {
-      return executeBlock(visitor, executor, block.getStatements(), false);
+      return executeBlock(context, visitor, executor, block.getStatements(), false);
     }
   }
   
-  private BlockExecResult executeCatch(GenVisitor visitor, RuntimeTable executor, CatchBlock catchBlock) throws InvocationException {
-    if (lastThrow != null) {
+  private BlockExecResult executeCatch(ExecutionContext context, GenVisitor visitor, RuntimeTable executor, CatchBlock catchBlock) throws InvocationException {
+    if (context.lastThrow != null) {
       ArrayList<TypeDefinition> exceptionTypes = new ArrayList<>();
       for(ExceptionName exName : catchBlock.getExceptionTypes()) {
         if (exName.getNameArray().length == 1) {
@@ -329,23 +356,28 @@ public class FunctionMember extends Callable{
       
       //System.out.println("---IN CATCH! "+catchBlock.getExceptionTypes().length);
       
-      TypeDefinition actualThrowDef = lastThrow.getThrowInstance().getDefinition();
+      TypeDefinition actualThrowDef = context.lastThrow.getThrowInstance().getDefinition();
       for(TypeDefinition definition : exceptionTypes) {
         if (actualThrowDef.equals(definition) || actualThrowDef.isChildOf(definition)) {
-          executor = executor.clone(true);
-          VariableMember exceptionVar = new VariableMember(catchBlock.getVariableName().content(), false);
-          exceptionVar.setValue(lastThrow.getThrowInstance());
-          executor.placeLocalVar(exceptionVar);
+          executor = executor.newBlockScope();
+          if (catchBlock.getVariableSlot() >= 0) {
+            visitor.getFrame().set(catchBlock.getVariableSlot(), context.lastThrow.getThrowInstance());
+          }
+          else {
+            VariableMember exceptionVar = new VariableMember(catchBlock.getVariableName().content(), false);
+            exceptionVar.setValue(context.lastThrow.getThrowInstance());
+            executor.placeLocalVar(exceptionVar);
+          }
 
           //System.out.println("---EXECUTING CATCH CODE "+actualThrowDef.getName());
-          lastThrow = null;
-          return executeBlock(new GenVisitor(executor, currentFile, runtime), executor, catchBlock.getStatements(), true);
+          context.lastThrow = null;
+          return executeBlock(context, visitor.child(executor), executor, catchBlock.getStatements(), true);
         }
       }
       
       //if any of the catch block's exception types are not parent's or is the type of the 
       //exception, then throw the exception. (bubble it up)
-      throw lastThrow;
+      throw context.lastThrow;
     }
     else {
       return new BlockExecResult(BlockExecResult.NORMAL_END, null);
@@ -353,19 +385,19 @@ public class FunctionMember extends Callable{
    
   }
   
-  private BlockExecResult executeTry(GenVisitor visitor, RuntimeTable executor, TryBlock tryBlock) throws InvocationException {
-     return executeBlock(visitor, executor, tryBlock.getStatements(), false);
+  private BlockExecResult executeTry(ExecutionContext context, GenVisitor visitor, RuntimeTable executor, TryBlock tryBlock) throws InvocationException {
+     return executeBlock(context, visitor, executor, tryBlock.getStatements(), false);
   }
   
-  private BlockExecResult executeIf(GenVisitor visitor, RuntimeTable executor, IfBlock ifBlock) throws InvocationException {   
+  private BlockExecResult executeIf(ExecutionContext context, GenVisitor visitor, RuntimeTable executor, IfBlock ifBlock) throws InvocationException {   
     try {
       if(ifBlock.isElseIf()) {
-        if(lastIf == false){
+        if(context.lastIf == false){
           if(ifBlock.getCondition() == null) {
             /*
              * Is just a pure else block. A.k.a: else{ }
              */
-            return executeBlock(visitor, executor, ifBlock.getStatements(), false);
+            return executeBlock(context, visitor, executor, ifBlock.getStatements(), false);
           }
           else {
             /*
@@ -374,15 +406,17 @@ public class FunctionMember extends Callable{
             ifBlock.getExpression().accept(visitor);
             StackComponent checkPeeked = visitor.peekStack();
             if (checkPeeked instanceof JavaInstance) {
-              lastIf = (boolean) ((JavaInstance) checkPeeked).getInstance();
+              context.lastIf = (boolean) ((JavaInstance) checkPeeked).getInstance();
             }
             else {
               VariableMember peekedVar = (VariableMember) checkPeeked;
               JavaInstance instance = (JavaInstance) peekedVar.getValue();
-              lastIf = (boolean) instance.getInstance();
+              context.lastIf = (boolean) instance.getInstance();
             }      
-            if(lastIf) {
-              return executeBlock(visitor, executor, ifBlock.getStatements(), false);
+            if(context.lastIf) {
+              BlockExecResult result = executeBlock(context, visitor, executor, ifBlock.getStatements(), false);
+              context.lastIf = true; //an if nested in this block may have changed it
+              return result;
             }
           }
         }
@@ -391,18 +425,20 @@ public class FunctionMember extends Callable{
         ifBlock.getExpression().accept(visitor);
         StackComponent checkPeeked = visitor.peekStack();
         if (checkPeeked instanceof JavaInstance) {
-          lastIf = (boolean) ((JavaInstance) checkPeeked).getInstance();
+          context.lastIf = (boolean) ((JavaInstance) checkPeeked).getInstance();
         }
         else {
           VariableMember peekedVar = (VariableMember) checkPeeked;
           JavaInstance instance = (JavaInstance) peekedVar.getValue();
-          lastIf = (boolean) instance.getInstance();
+          context.lastIf = (boolean) instance.getInstance();
         }      
 
-        //System.out.println("---IF VALUE CONDIT: "+lastIf);
+        //System.out.println("---IF VALUE CONDIT: "+context.lastIf);
 
-        if(lastIf) {
-          return executeBlock(visitor, executor, ifBlock.getStatements(), false);
+        if(context.lastIf) {
+          BlockExecResult result = executeBlock(context, visitor, executor, ifBlock.getStatements(), false);
+          context.lastIf = true; //an if nested in this block may have changed it
+          return result;
         }
       }
       return new BlockExecResult(BlockExecResult.NORMAL_END, null);
@@ -415,7 +451,7 @@ public class FunctionMember extends Callable{
     }
   }
   
-  private BlockExecResult executeWhile(GenVisitor visitor, RuntimeTable executor, WhileLoopBlock whileLoop) throws InvocationException {
+  private BlockExecResult executeWhile(ExecutionContext context, GenVisitor visitor, RuntimeTable executor, WhileLoopBlock whileLoop) throws InvocationException {
     //System.out.println("----EXECUTING WHILE----");
     try {
       whileLoop.getCondition().getExpression().accept(visitor);
@@ -433,7 +469,7 @@ public class FunctionMember extends Callable{
       }      
       
       while(peeked) {      
-        BlockExecResult result = executeBlock(visitor, executor, whileLoop.getStatements(), false);
+        BlockExecResult result = executeBlock(context, visitor, executor, whileLoop.getStatements(), false);
         if (result.gotBreak()) {
           break;
         }
@@ -466,7 +502,7 @@ public class FunctionMember extends Callable{
     }
   }
   
-  private BlockExecResult executeForLoop(GenVisitor visitor, RuntimeTable executor, ForLoopBlock forLoop) throws InvocationException {
+  private BlockExecResult executeForLoop(ExecutionContext context, GenVisitor visitor, RuntimeTable executor, ForLoopBlock forLoop) throws InvocationException {
     //System.out.println("----FOR LOOP: "+forLoop.getInitialization().getDescription());
     if (forLoop.getInitialization() != null) {
       if (forLoop.getInitialization().getDescription() == StatementDescription.VAR_DEC) {
@@ -474,8 +510,13 @@ public class FunctionMember extends Callable{
         VariableMember variableMember = new VariableMember(variable.getName().content(), 
                                                            variable.getExpression(),
                                                            variable.isConstant());
-        executor.placeLocalVar(variableMember);
-        if (variable.getExpression() != null) {
+        if (variable.hasSlot()) {
+          visitor.getFrame().set(variable.getSlot(), evaluateDeclaration(visitor, variable));
+        }
+        else {
+          executor.placeLocalVar(variableMember);
+        }
+        if (variable.getExpression() != null && !variable.hasSlot()) {
           //System.out.println("---INITIALIZATION"+variable.getExpression().tokens()[0]);
           
           try {
@@ -531,11 +572,11 @@ public class FunctionMember extends Callable{
         
     
     while(peeked) {
-      RuntimeTable loopExecutor = executor.clone(true);
-      GenVisitor loopVisitor = new GenVisitor(loopExecutor, currentFile, runtime);
+      RuntimeTable loopExecutor = executor.newBlockScope();
+      GenVisitor loopVisitor = visitor.child(loopExecutor);
       
       try {
-        BlockExecResult result = executeBlock(loopVisitor, loopExecutor, forLoop.getStatements(), false);
+        BlockExecResult result = executeBlock(context, loopVisitor, loopExecutor, forLoop.getStatements(), false);
         if (result.gotBreak()) {
           break;
         }
@@ -546,7 +587,7 @@ public class FunctionMember extends Callable{
           return result;
         }
       } catch (InvocationException e) {
-        lastThrow = e;
+        context.lastThrow = e;
       }
             
       //execute change statement
@@ -588,7 +629,7 @@ public class FunctionMember extends Callable{
     return new BlockExecResult(BlockExecResult.NORMAL_END, null);
   }
   
-  private BlockExecResult executeBlock(GenVisitor visitor, RuntimeTable executor, List<Statement> statements, boolean forCatch) throws InvocationException {
+  private BlockExecResult executeBlock(ExecutionContext context, GenVisitor visitor, RuntimeTable executor, List<Statement> statements, boolean forCatch) throws InvocationException {
     for(Statement loopStatement: statements) {
       visitor.resetStack();
       if (loopStatement.getDescription() == StatementDescription.BREAK) {
@@ -627,7 +668,10 @@ public class FunctionMember extends Callable{
         VariableMember variableMember = new VariableMember(variable.getName().content(), 
                                                            variable.getExpression(), 
                                                            variable.isConstant());
-        if(executor.placeLocalVar(variableMember)) {
+        if (variable.hasSlot()) {
+          visitor.getFrame().set(variable.getSlot(), evaluateDeclaration(visitor, variable));
+        }
+        else if(executor.placeLocalVar(variableMember)) {
           throw new RuntimeException("Duplicate variable '"+variableMember.getName()+"' at line "+
               variableMember.getExpr().tokens()[0].lineNumber());
         }
@@ -655,8 +699,8 @@ public class FunctionMember extends Callable{
       }
       else if (loopStatement.getDescription() == StatementDescription.BLOCK) {
         StatementBlock block = (StatementBlock) loopStatement;
-        executor = executor.clone(true);
-        BlockExecResult result = executeStatementBlock(new GenVisitor(executor, currentFile, runtime), executor, block);
+        executor = executor.newBlockScope();
+        BlockExecResult result = executeStatementBlock(context, visitor.child(executor), executor, block);
         if (result.wasNormalEnd() == false) {
           return result;
         }
@@ -667,9 +711,9 @@ public class FunctionMember extends Callable{
           loopStatement.getExpression().accept(visitor);
         } catch (CarrierInvocationException e) {
           InvocationException invocationException = e.getException();
-          if (forCatch && lastThrow != null) {
-            invocationException.registerCause(lastThrow);
-            lastThrow = null;
+          if (forCatch && context.lastThrow != null) {
+            invocationException.registerCause(context.lastThrow);
+            context.lastThrow = null;
           }
           invocationException.registerTrace(currentFile.getName(), loopStatement.getExpression().locationToken().lineNumber());
           
@@ -681,9 +725,9 @@ public class FunctionMember extends Callable{
           Instance actualInstance = (Instance) checkPeeked;
           if (actualInstance.getDefinition().isChildOf(JavaClassDefinition.defineClass(Exception.class))) {
             InvocationException exception = new InvocationException(actualInstance, runtime, executor, currentFile);
-            if (forCatch && lastThrow != null) {
-              exception.registerCause(lastThrow);
-              lastThrow = null;
+            if (forCatch && context.lastThrow != null) {
+              exception.registerCause(context.lastThrow);
+              context.lastThrow = null;
             }
             exception.registerTrace(currentFile.getName(), 
                                     loopStatement.getExpression().locationToken().lineNumber());
@@ -698,9 +742,9 @@ public class FunctionMember extends Callable{
           Instance actualInstance = peekedVar.getValue();
           if (actualInstance.getDefinition().isChildOf(JavaClassDefinition.defineClass(Exception.class))) {
             InvocationException exception = new InvocationException(actualInstance, runtime, executor, currentFile);
-            if (forCatch && lastThrow != null) {
-              exception.registerCause(lastThrow);
-              lastThrow = null;
+            if (forCatch && context.lastThrow != null) {
+              exception.registerCause(context.lastThrow);
+              context.lastThrow = null;
             }
             exception.registerTrace(currentFile.getName(), 
                                     loopStatement.getExpression().locationToken().lineNumber());
@@ -716,9 +760,9 @@ public class FunctionMember extends Callable{
           loopStatement.getExpression().accept(visitor);
         } catch (CarrierInvocationException e) {
           InvocationException invocationException = e.getException();
-          if (forCatch && lastThrow != null) {
-            invocationException.registerCause(lastThrow);
-            lastThrow = null;
+          if (forCatch && context.lastThrow != null) {
+            invocationException.registerCause(context.lastThrow);
+            context.lastThrow = null;
           }
           invocationException.registerTrace(currentFile.getName(), loopStatement.getExpression().locationToken().lineNumber());
           
@@ -730,6 +774,34 @@ public class FunctionMember extends Callable{
     return new BlockExecResult(BlockExecResult.NORMAL_END, null);   
   }
   
+  /**
+   * Evaluates the initial value of a declared variable
+   * @param visitor - the GenVisitor to evaluate the variable's expression with
+   * @param variable - the declared Variable
+   * @return the initial value of the variable, or the null representation if the
+   *         variable has no initial value
+   */
+  private Instance evaluateDeclaration(GenVisitor visitor, Variable variable) throws InvocationException {
+    if (variable.getExpression() == null) {
+      return JavaInstance.getNullRep();
+    }
+    
+    try {
+      variable.getExpression().accept(visitor);
+    } catch (CarrierInvocationException e) {
+      InvocationException invocationException = e.getException();
+      invocationException.registerTrace(currentFile.getName(), 
+                                        variable.getExpression().locationToken().lineNumber());
+      throw invocationException;
+    }
+    
+    StackComponent value = visitor.peekStack();
+    if (value.isAnInstance()) {
+      return (Instance) value;
+    }
+    return ((VariableMember) value).getValue();
+  }
+  
   /**
    * Checks if this FunctionMember is a class constructor
    * @return false if this FunctionMember isn't a constructor,
@@ -747,6 +819,24 @@ public class FunctionMember extends Callable{
     return statements;
   }
   
+  /**
+   * The state of a single invocation of a FunctionMember
+   * @author Jose Guaro
+   *
+   */
+  private static class ExecutionContext{
+    
+    /**
+     * The exception thrown by the last statement, and not yet caught
+     */
+    private InvocationException lastThrow;
+    
+    /**
+     * The outcome of the last if (or else if) condition evaluated
+     */
+    private boolean lastIf;
+  }
+  
   private static class BlockExecResult{
     
     static final int NORMAL_END = 3;
@@ -1,10 +1,9 @@
 package wordy.logic.runtime.execution;
 
+import java.util.EmptyStackException;
 import java.util.List;
-import java.util.Stack;
 
 import wordy.logic.common.NodeVisitor;
-import wordy.logic.compile.ReservedSymbols;
 import wordy.logic.compile.Token;
 import wordy.logic.compile.nodes.ASTNode;
 import wordy.logic.compile.nodes.BinaryOpNode;
@@ -13,8 +12,10 @@ import wordy.logic.compile.nodes.IdentifierNode;
 import wordy.logic.compile.nodes.LiteralNode;
 import wordy.logic.compile.nodes.MemberAccessNode;
 import wordy.logic.compile.nodes.MethodCallNode;
+import wordy.logic.compile.nodes.OpCode;
 import wordy.logic.compile.nodes.UnaryNode;
 import wordy.logic.compile.nodes.ASTNode.NodeType;
+import wordy.logic.runtime.Frame;
 import wordy.logic.runtime.RuntimeTable;
 import wordy.logic.runtime.VariableMember;
 import wordy.logic.runtime.WordyRuntime;
@@ -25,30 +26,95 @@ import wordy.logic.runtime.components.StackComponent;
 import wordy.logic.runtime.components.TypeInstance;
 import wordy.logic.runtime.errors.FatalInternalException;
 import wordy.logic.runtime.errors.InvocationException;
+import wordy.logic.runtime.types.TypeDefinition;
 
 public class GenVisitor implements NodeVisitor{
  
-  private Stack<StackComponent> stack;
+  private final OperandStack stack;
+  private int base; //the size of the stack when this visitor was bound. Everything below belongs to callers
   
   private WordyRuntime runtime;
   private RuntimeTable table;
+  private Frame frame;
   private FileInstance currentFile;
   
+  private GenVisitor child; //reused for nested scopes and calls (see child())
+  
   //if the next content is a variable, then push the actual variable,
   //not the value it holds
   private boolean pushVariable;
   
-  public GenVisitor(RuntimeTable executor, FileInstance currentFile, WordyRuntime runtime) {
-    this.stack = new Stack<>();
+  public GenVisitor(RuntimeTable executor, Frame frame, FileInstance currentFile, WordyRuntime runtime) {
+    this.stack = OperandStack.current();
+    this.base = stack.size();
     this.table = executor;
+    this.frame = frame;
     this.currentFile = currentFile;
     this.runtime = runtime;
     //System.out.println(" GEN VIS: "+table.getLocalVarMap().keySet()+" | "+hashCode());
   }
   
+  /**
+   * Retrieves a GenVisitor for a scope nested in this visitor's - such as a block
+   * or a loop iteration - that shares this visitor's Frame
+   * @param executor - the RuntimeTable of the nested scope
+   * @return the child GenVisitor of this visitor, bound to the given RuntimeTable
+   */
+  public GenVisitor child(RuntimeTable executor) {
+    return child(executor, frame, currentFile);
+  }
+  
+  /**
+   * Retrieves a GenVisitor for a scope nested in this visitor's, such as the body
+   * of a called function.
+   * 
+   * The same GenVisitor is returned on every call, and is rebound to the given scope.
+   * So, the previously returned child must no longer be in use - which holds, as scopes 
+   * are entered and exited in a last-in, first-out order.
+   * 
+   * @param executor - the RuntimeTable of the nested scope
+   * @param frame - the Frame of the nested scope
+   * @param currentFile - the FileInstance the nested scope's code is in
+   * @return the child GenVisitor of this visitor, bound to the given scope
+   */
+  public GenVisitor child(RuntimeTable executor, Frame frame, FileInstance currentFile) {
+    if (child == null) {
+      child = new GenVisitor(executor, frame, currentFile, runtime);
+    }
+    else {
+      child.table = executor;
+      child.frame = frame;
+      child.currentFile = currentFile;
+      child.pushVariable = false;
+      child.base = stack.size();
+    }
+    return child;
+  }
+  
   public void visit(BinaryOpNode binaryOpNode) {
     //System.out.println("----OPERATOR: "+binaryOpNode.getOperator()+" | LINE: "+binaryOpNode.getRightOperand()+ " | " + binaryOpNode.locationToken().lineNumber());
-    if (binaryOpNode.getOperator().equals(ReservedSymbols.EQUALS)) {
+    if (binaryOpNode.opCode() == OpCode.ASSIGN && 
+        binaryOpNode.getLeftOperand().nodeType() == NodeType.IDENTIFIER &&
+        ((IdentifierNode) binaryOpNode.getLeftOperand()).isSlotResolved()) {
+      //assigning to a variable whose slot is known
+      IdentifierNode target = (IdentifierNode) binaryOpNode.getLeftOperand();
+      
+      binaryOpNode.getRightOperand().accept(this);
+      StackComponent value = stack.pop();
+      
+      if (target.isConstantSlot()) {
+        throw new IllegalStateException("Can't change the value of a constant variable");
+      }
+      
+      if (value instanceof Instance) {
+        frame.set(target.slotDepth(), target.slotIndex(), (Instance) value);
+      }
+      else {
+        VariableMember leftVal = (VariableMember) value;
+        frame.set(target.slotDepth(), target.slotIndex(), leftVal.getValue());
+      }
+    }
+    else if (binaryOpNode.opCode() == OpCode.ASSIGN) {
       pushVariable = true;
       binaryOpNode.getLeftOperand().accept(this);
       VariableMember settable = (VariableMember) stack.pop();
@@ -66,132 +132,107 @@ public class GenVisitor implements NodeVisitor{
       
       //System.out.println("--> EQUAL AFTER: "+settable.getValue().getClass());
     }
-    else {    
-      Instance nullRep = JavaInstance.getNullRep();
+    else {
+      binaryOpNode.getLeftOperand().accept(this);
+      Instance leftInstance = popValue();
       
-      if (binaryOpNode.getOperator().equals(ReservedSymbols.EQUAL_EQ) || 
-          binaryOpNode.getOperator().equals(ReservedSymbols.BANG_EQUALS)) {       
-        binaryOpNode.getLeftOperand().accept(this);
-        Instance leftInstance , rightInstance = null;
-        if (stack.peek() instanceof Instance) {
-          leftInstance = (Instance) stack.pop();
-        }
-        else {
-          VariableMember left = (VariableMember) stack.pop();
-          //System.out.println("---LEFT VAR NAME: "+left.getName()+" | "+left.getType().getName());
-          leftInstance = (Instance) left.getValue();
+      binaryOpNode.getRightOperand().accept(this);
+      Instance rightInstance = popValue();
+      
+      stack.push(binaryOperation(binaryOpNode, leftInstance, rightInstance));
+    }
+  }
+  
+  /**
+   * Applies the operator of a BinaryOpNode (other than assignment) to already evaluated operands
+   * @param binaryOpNode - the BinaryOpNode whose operator to apply
+   * @param leftInstance - the value of the left operand
+   * @param rightInstance - the value of the right operand
+   * @return the result of the operation
+   */
+  public Instance binaryOperation(BinaryOpNode binaryOpNode, Instance leftInstance, Instance rightInstance) {
+    Instance nullRep = JavaInstance.getNullRep();
+    OpCode opCode = binaryOpNode.opCode();
+
+    if (opCode == OpCode.EQUAL || opCode == OpCode.NOT_EQUAL) {       
+      if (opCode == OpCode.EQUAL) {
+        if ( (leftInstance == nullRep && rightInstance != nullRep) || 
+            (leftInstance != nullRep && rightInstance == nullRep)) {
+          return JavaInstance.wrapInstance(false);
         }
-            
-        binaryOpNode.getRightOperand().accept(this);
-        if (stack.peek() instanceof Instance) {
-          rightInstance = (Instance) stack.pop();
+        else if (leftInstance == nullRep && rightInstance == nullRep) {
+          return JavaInstance.wrapInstance(true);
         }
         else {
-          VariableMember right = (VariableMember) stack.pop();
-          rightInstance = (Instance) right.getValue();
-        }
-        
-        if (binaryOpNode.getOperator().equals(ReservedSymbols.EQUAL_EQ)) {
-          if ( (leftInstance == nullRep && rightInstance != nullRep) || 
-               (leftInstance != nullRep && rightInstance == nullRep)) {
-            stack.push(JavaInstance.wrapInstance(false));
-          }
-          else if (leftInstance == nullRep && rightInstance == nullRep) {
-            stack.push(JavaInstance.wrapInstance(true));
+          if (leftInstance.isAJavaPrimitive() && rightInstance.isAJavaPrimitive()) {
+            JavaInstance leftJVInstance = (JavaInstance) leftInstance;
+            JavaInstance rightJVInstance = (JavaInstance) rightInstance;
+            //System.out.println("---JAVA EQUALS EQUALS: "+leftJVInstance.getInstance()+" | "+rightJVInstance.getInstance());
+            return JavaInstance.wrapInstance(leftJVInstance.deepEquality(rightJVInstance));
           }
           else {
-            if (leftInstance.isAJavaPrimitive() && rightInstance.isAJavaPrimitive()) {
-              JavaInstance leftJVInstance = (JavaInstance) leftInstance;
-              JavaInstance rightJVInstance = (JavaInstance) rightInstance;
-              //System.out.println("---JAVA EQUALS EQUALS: "+leftJVInstance.getInstance()+" | "+rightJVInstance.getInstance());
-              stack.push(JavaInstance.wrapInstance(leftJVInstance.deepEquality(rightJVInstance)));
-            }
-            else {
-              //System.out.println("---RAW EQUALS EQUALS: "+leftInstance.getClass()+" | "+rightInstance.getClass());
-              stack.push(JavaInstance.wrapInstance(leftInstance == rightInstance));
-            }
+            //System.out.println("---RAW EQUALS EQUALS: "+leftInstance.getClass()+" | "+rightInstance.getClass());
+            return JavaInstance.wrapInstance(leftInstance == rightInstance);
           }
         }
-        else {
-          if ( (leftInstance == nullRep && rightInstance != nullRep) || 
-               (leftInstance != nullRep && rightInstance == nullRep)) {
-            stack.push(JavaInstance.wrapInstance(true));
-          }
-          else if (leftInstance == nullRep && rightInstance == nullRep) {
-            stack.push(JavaInstance.wrapInstance(false));
-          }
-          else {
-            stack.push(JavaInstance.wrapInstance(leftInstance != rightInstance));
-          }
-        }        
       }
       else {
-        binaryOpNode.getLeftOperand().accept(this);
-        JavaInstance leftConstant = null;
-        if (stack.peek() instanceof JavaInstance) {
-          leftConstant = (JavaInstance) stack.pop();
+        if ( (leftInstance == nullRep && rightInstance != nullRep) || 
+            (leftInstance != nullRep && rightInstance == nullRep)) {
+          return JavaInstance.wrapInstance(true);
         }
-        else {
-          VariableMember left = (VariableMember) stack.pop();
-          //System.out.println("---LEFT VAR NAME: "+left.getName()+" | "+left.getType().getName());
-          leftConstant = (JavaInstance) left.getValue();
+        else if (leftInstance == nullRep && rightInstance == nullRep) {
+          return JavaInstance.wrapInstance(false);
         }
-              
-        binaryOpNode.getRightOperand().accept(this);
-        JavaInstance rightConstant = null;
-        if (stack.peek() instanceof JavaInstance) {
-          rightConstant = (JavaInstance) stack.pop();
+        else if (leftInstance.isAJavaPrimitive() && rightInstance.isAJavaPrimitive()) {
+          /*
+           * Primitive values may or may not be canonical instances (see PrimitiveInstance),
+           * so they're compared by value - like ==
+           */
+          JavaInstance leftJVInstance = (JavaInstance) leftInstance;
+          JavaInstance rightJVInstance = (JavaInstance) rightInstance;
+          return JavaInstance.wrapInstance(!leftJVInstance.deepEquality(rightJVInstance));
         }
         else {
-          VariableMember right = (VariableMember) stack.pop();
-          rightConstant = (JavaInstance) right.getValue();
-        }
-        
-        //throw error if either operand is null
-        if (rightConstant == nullRep || leftConstant == nullRep) {
-          throw new RuntimeException("Null reference referred to at arithmethic operator. ("+
-                                     currentFile.getName()+".w , ln:"+binaryOpNode.locationToken().lineNumber()+")");
-        }
-        
-        if (ReservedSymbols.isAComparisonOp(binaryOpNode.getOperator())) {
-          stack.push(Operator.arithemticComparison(leftConstant, rightConstant, binaryOpNode.tokens()[0]));
-        }
-        else if (ReservedSymbols.isABooleanOperator(binaryOpNode.getOperator())) {
-          stack.push(Operator.booleanOperations(leftConstant, rightConstant, binaryOpNode.tokens()[0]));
-        }
-        else {
-          stack.push(Operator.simpleArithmetic(leftConstant, rightConstant, binaryOpNode.tokens()[0]));
+          return JavaInstance.wrapInstance(leftInstance != rightInstance);
         }
+      }        
+    }
+    else {
+      JavaInstance leftConstant = (JavaInstance) leftInstance;
+      JavaInstance rightConstant = (JavaInstance) rightInstance;
+
+      //throw error if either operand is null
+      if (rightConstant == nullRep || leftConstant == nullRep) {
+        throw new RuntimeException("Null reference referred to at arithmethic operator. ("+
+            currentFile.getName()+".w , ln:"+binaryOpNode.locationToken().lineNumber()+")");
+      }
+
+      if (opCode.isComparison()) {
+        return Operator.arithemticComparison(leftConstant, rightConstant, opCode, binaryOpNode.tokens()[0]);
+      }
+      else if (opCode.isBooleanOperator()) {
+        return Operator.booleanOperations(leftConstant, rightConstant, opCode, binaryOpNode.tokens()[0]);
+      }
+      else {
+        return Operator.simpleArithmetic(leftConstant, rightConstant, opCode, binaryOpNode.tokens()[0]);
       }
     }
   }
 
   public void visit(ConstantNode constNode) {
     //System.out.println("***VISITED CONSTANT*****");
-    String value = constNode.getValue();
-    
-    if (constNode.getValue().equals(ReservedSymbols.NULL)) {
-      stack.push(JavaInstance.getNullRep());
-    }
-    else if (ReservedSymbols.isABooleanVal(constNode.getValue())) {
-      stack.push(JavaInstance.wrapInstance(new Boolean(value)));
-    }
-    else {
-      try {
-        stack.push(JavaInstance.wrapInstance(new Integer(value)));
-      } catch (NumberFormatException e) {
-        try {
-          stack.push(JavaInstance.wrapInstance(new Long(value)));
-        } catch (NumberFormatException e2) {
-          stack.push(JavaInstance.wrapInstance(new Double(value)));
-        }
-      }
-    }
+    stack.push(constNode.getConstant());
   }
-
+  
   public void visit(IdentifierNode identifierNode) {
     //System.out.println("----IDENT: "+identifierNode.name()+" | "+identifierNode.locationToken().lineNumber());
     //System.out.println("  ------"+table.getLocalVarMap().keySet()+" | "+hashCode());
+    if (identifierNode.isSlotResolved()) {
+      stack.push(frame.get(identifierNode.slotDepth(), identifierNode.slotIndex()));
+      return;
+    }
+    
     VariableMember member = table.findVariable(identifierNode.name());
     if (member == null) {
       FileInstance instance = runtime.findFile(identifierNode.name());
@@ -227,7 +268,7 @@ public class GenVisitor implements NodeVisitor{
 
   public void visit(LiteralNode literalNode) {
    // System.out.println("***PUSHING LITERAL: "+literalNode.getLiteralContent());
-    stack.push(JavaInstance.wrapInstance(literalNode.getLiteralContent()));
+    stack.push(literalNode.getLiteral());
   }
 
   public void visit(MemberAccessNode memberAccessNode) {
@@ -243,27 +284,13 @@ public class GenVisitor implements NodeVisitor{
     else {
       StackComponent member = stack.pop();      
       if (member instanceof Instance) {
-        Instance instance = (Instance) member;
-        
-        if (member == JavaInstance.getNullRep()) {
-          throw new NullPointerException("A null instance was referred to, at line: "
-                                                                            +memberAccessNode.tokens()[0].lineNumber());
-        }
-        
-        VariableMember instanceMem = instance.retrieveVariable(memberAccessNode.getMemberName().content());
-        if (instanceMem == null) {
-          throw new RuntimeException("Cannot find property '"+memberAccessNode.getMemberName().content()+"' "+
-                                     "for instance of '"+instance.getDefinition().getName()+"' at line "+
-                                      memberAccessNode.tokens()[0].lineNumber());
+        VariableMember instanceMem = retrieveMember(memberAccessNode, (Instance) member);
+        //System.out.println("---PUSHED: "+instanceMem);
+        if (pushVariable) {
+          stack.push(instanceMem);
         }
         else {
-          //System.out.println("---PUSHED: "+instanceMem);
-          if (pushVariable) {
-            stack.push(instanceMem);
-          }
-          else {
-            stack.push(instanceMem.getValue());
-          }
+          stack.push(instanceMem.getValue());
         }
       }
       else {
@@ -293,8 +320,28 @@ public class GenVisitor implements NodeVisitor{
     }
   }
 
+  /**
+   * Retrieves the property a MemberAccessNode refers to, from an already evaluated instance
+   * @param memberAccessNode - the MemberAccessNode
+   * @param instance - the instance whose property to retrieve
+   * @return the VariableMember of the property
+   */
+  public VariableMember retrieveMember(MemberAccessNode memberAccessNode, Instance instance) {
+    if (instance == JavaInstance.getNullRep()) {
+      throw new NullPointerException("A null instance was referred to, at line: "
+                                     +memberAccessNode.tokens()[0].lineNumber());
+    }
+    
+    VariableMember instanceMem = instance.retrieveVariable(memberAccessNode.getMemberName().content());
+    if (instanceMem == null) {
+      throw new RuntimeException("Cannot find property '"+memberAccessNode.getMemberName().content()+"' "+
+                                 "for instance of '"+instance.getDefinition().getName()+"' at line "+
+                                  memberAccessNode.tokens()[0].lineNumber());
+    }
+    return instanceMem;
+  }
+
   public void visit(MethodCallNode callNode) {
-    Token funcName = callNode.getName();
     //visit all arguments
     for(ASTNode nodeArg: callNode.arguments()) {
       //System.out.println("****ARGS "+stack.size()+" | "+nodeArg.getClass());
@@ -306,28 +353,39 @@ public class GenVisitor implements NodeVisitor{
     Instance [] args = new Instance[callNode.arguments().length];
     int index = args.length - 1;
     while (index >= 0) {
-      StackComponent popped = stack.pop();
-      //System.out.println(" -- call: "+(popped == null)+" | "+currentFile.getName());
-      if (popped instanceof Instance) {
-        args[index] = (Instance) popped;
-      }
-      else {
-        VariableMember poppedVar = (VariableMember) popped;
-        //System.out.println("---poppedVar "+ (poppedVar == null));
-        args[index] = poppedVar.getValue();
-      }
+      args[index] = popValue();
       index--;
     }
 
     if (callNode.getCallee().nodeType() == NodeType.IDENTIFIER) {
       //normal function call. Like : println()
+      stack.push(invokeFunction(callNode, args));
+    }
+    else {
+      callNode.getCallee().accept(this);
+      Instance instance = popValue();
+      stack.push(invokeMethod(callNode, instance, args));
+    }
+  }
+  
+  /**
+   * Invokes the function a MethodCallNode refers to, when it isn't called on an instance
+   * (Like: println() )
+   * @param callNode - the MethodCallNode
+   * @param args - the already evaluated arguments of the call
+   * @return the result of the call
+   */
+  public Instance invokeFunction(MethodCallNode callNode, Instance [] args) {
+    Token funcName = callNode.getName();
+    
+    //System.out.println("---CALLING: "+funcName.content());
+    RuntimeTable frameExec = table.newFunctionScope();
+    //System.out.println("---ABOUT TO CALL");
 
-      //System.out.println("---CALLING: "+funcName.content());
-      RuntimeTable frameExec = table.clone(false);
-      frameExec.clearLocalVars();
-      //System.out.println("---ABOUT TO CALL");
-      GenVisitor frameVisitor = new GenVisitor(frameExec, currentFile, runtime);
-
+    CallSiteCache cache = callNode.getCallSiteCache();
+    int resolvedIn = CallSiteCache.currentGeneration();
+    Callable target = cache.findFunction(table.functionMaps(), args);
+    if (target == null) {
       List<Callable> callables = table.findCallable(funcName.content(), args.length);
       if (callables == null) {
         throw new RuntimeException("Can't find function '"+funcName.content()+"' at line "+
@@ -337,97 +395,102 @@ public class GenVisitor implements NodeVisitor{
       for(Callable callable : callables) {
         //System.out.println("===CHCK: "+callable.getName()+" | "+callables.size());
         if (callable.argumentsCompatible(args)) {
-          //System.out.println("---FUNC ARGS: "+args.length+" | "+callable.getName()+" | "+callNode.getName().lineNumber());
-          try {
-            Instance result = callable.call(frameVisitor,frameExec, args);
-            stack.push(result);
-          } catch (InvocationException e) {
-            throw new CarrierInvocationException(e);
-          }   
-          //System.out.println("-----BACK FROM CAL TO: "+funcName.content()+" | ");
-
-          return;
+          target = callable;
+          break;
         }
       }
-
-      throw new RuntimeException("Can't find function '"+funcName.content()+"' at line "+funcName.lineNumber());
-    }
-    else {
-      if (!pushVariable) {
-        pushVariable = false;
-      }
-      callNode.getCallee().accept(this);
-
-      Instance instance = null;
-      if (stack.peek() instanceof VariableMember) {
-        VariableMember member = (VariableMember) stack.pop();
-        instance = member.getValue();
-      }
-      else {
-        instance = (Instance) stack.pop();
-      }
       
-      if (instance == JavaInstance.getNullRep()) {
-        throw new NullPointerException("A null instance was referred to, at line: "+funcName.lineNumber());
+      if (target == null) {
+        throw new RuntimeException("Can't find function '"+funcName.content()+"' at line "+funcName.lineNumber());
       }
+      cache.record(resolvedIn, table.functionMaps(), args, callables, target);
+    }
+    
+    //System.out.println("---FUNC ARGS: "+args.length+" | "+target.getName()+" | "+callNode.getName().lineNumber());
+    int mark = stack.size();
+    try {
+      return target.call(this, frameExec, args);
+    } catch (InvocationException e) {
+      throw new CarrierInvocationException(e);
+    } finally {
+      //discard whatever the callee left on the stack
+      stack.truncate(mark);
+    }
+  }
+  
+  /**
+   * Invokes the function a MethodCallNode refers to on an instance
+   * (Like: list.add() )
+   * @param callNode - the MethodCallNode
+   * @param instance - the already evaluated instance the function is called on
+   * @param args - the already evaluated arguments of the call
+   * @return the result of the call
+   */
+  public Instance invokeMethod(MethodCallNode callNode, Instance instance, Instance [] args) {
+    Token funcName = callNode.getName();
+    
+    if (instance == JavaInstance.getNullRep()) {
+      throw new NullPointerException("A null instance was referred to, at line: "+funcName.lineNumber());
+    }
 
-      //System.out.println("----INSTANCE FUNC CALL "+instance.getClass()+" | "+args.length);
+    //System.out.println("----INSTANCE FUNC CALL "+instance.getClass()+" | "+args.length);
 
-      RuntimeTable frameExec = table.clone(false);
-      frameExec.clearLocalVars();
-      
-      if (instance instanceof TypeInstance) {
-        TypeInstance typeInstance = (TypeInstance) instance;
-        frameExec.addVariableMap(typeInstance.declaredVars());
-      }
-      GenVisitor frameVisitor = new GenVisitor(frameExec, currentFile, runtime);
+    RuntimeTable frameExec = null;
+    if (instance instanceof TypeInstance) {
+      TypeInstance typeInstance = (TypeInstance) instance;
+      frameExec = table.newMethodScope(typeInstance.declaredVars());
+    }
+    else {
+      frameExec = table.newFunctionScope();
+    }
 
-      List<Callable> potentialCallables = instance.getDefinition().findFunction(funcName.content(), args.length);
+    TypeDefinition definition = instance.getDefinition();
+    CallSiteCache cache = callNode.getCallSiteCache();
+    int resolvedIn = CallSiteCache.currentGeneration();
+    Callable target = cache.findMethod(definition, args);
+    if (target == null) {
+      List<Callable> potentialCallables = definition.findFunction(funcName.content(), args.length);
       //System.out.println("----LOOKING: "+(args.length)+" | "+instance.getDefinition().getFunctions().keySet());
       if (potentialCallables == null) {
         throw new FatalInternalException(currentFile.getName(), 
-                                         funcName.lineNumber(), 
-                                         "Can't find the function '"+funcName.content()+"'");
+            funcName.lineNumber(), 
+            "Can't find the function '"+funcName.content()+"'");
       }
-      
+
       //System.out.println("----potentials: "+potentialCallables.size()+" | "+potentialCallables.get(0).getName()+" "+
       //                                                                     potentialCallables.get(0).argAmnt);
-      
+
       for(Callable callable : potentialCallables) {
         //System.out.println("----TESTING: "+callable.getName());
-        if (callable instanceof JavaCallable) {
-          JavaCallable javaCallable = (JavaCallable) callable;
-          javaCallable.setTarget((JavaInstance) instance);
-          
-          //System.out.println("----CALLING: "+javaCallable.getName()+" | "+((JavaInstance) instance).getInstance());
-          //System.out.println("**** first? "+(instance == null)+"   arg: |"+args[0].toString()+"|" + "|"+instance+"|");
-          if (javaCallable.argumentsCompatible(args)) {
-            Instance result = javaCallable.call(frameVisitor, frameExec, args);
-            //System.out.println("---AFTER CALL: "+((JavaInstance) result).getInstance().getClass());
-            //System.out.println("       ACTUAL: "+((JavaInstance) result).getInstance());
-            stack.push(result);
-            return;
-          }
-
-        }
-        else {     
-          if (callable.argumentsCompatible(args)) {
-            //System.out.println("------CALLING: "+callable.getName());
-            try {
-              Instance result = callable.call(frameVisitor, frameExec, args);
-              stack.push(result);      
-            } catch (InvocationException e) {
-              throw new CarrierInvocationException(e);
-            }
-            //System.out.println("---AFTER CALL - W: "+((JavaInstance) result).getInstance().getClass());
-            //System.out.println("           ACTUAL: "+((JavaInstance) result).getInstance());
-            return;
-          }     
+        if (callable.argumentsCompatible(args)) {
+          target = callable;
+          break;
         }
-      } 
+      }
       
-      throw new RuntimeException("Can't find function '"+funcName.content()+"' at line "+
-          funcName.lineNumber());
+      if (target == null) {
+        throw new RuntimeException("Can't find function '"+funcName.content()+"' at line "+
+            funcName.lineNumber());
+      }
+      cache.record(resolvedIn, definition, args, potentialCallables, target);
+    }
+
+    if (target instanceof JavaCallable) {
+      JavaCallable javaCallable = (JavaCallable) target;
+      
+      //System.out.println("----CALLING: "+javaCallable.getName()+" | "+((JavaInstance) instance).getInstance());
+      return javaCallable.callOn((JavaInstance) instance, args);
+    }
+    
+    //System.out.println("------CALLING: "+target.getName());
+    int mark = stack.size();
+    try {
+      return target.call(this, frameExec, args);
+    } catch (InvocationException e) {
+      throw new CarrierInvocationException(e);
+    } finally {
+      //discard whatever the callee left on the stack
+      stack.truncate(mark);
     }
   }
 
@@ -437,22 +500,64 @@ public class GenVisitor implements NodeVisitor{
     if (!value.isAnInstance()) {
       VariableMember variableMember = (VariableMember) value;
       stack.push(Operator.performUnaryOperation((JavaInstance) variableMember.getValue(), 
-                                                 unaryNode.tokens()[0]));
+                                                 unaryNode.opCode()));
     }
     else {
       stack.push(Operator.performUnaryOperation((JavaInstance) value, 
-                                                unaryNode.tokens()[0]));
+                                                unaryNode.opCode()));
+    }
+  }
+
+  /**
+   * Pops the top of the stack, and retrieves the Instance it represents
+   * @return the popped Instance, or the value of the popped VariableMember
+   */
+  private Instance popValue() {
+    StackComponent popped = stack.pop();
+    if (popped.isAnInstance()) {
+      return (Instance) popped;
+    }
+    return ((VariableMember) popped).getValue();
+  }
+
+  /**
+   * Evaluates an expression on a fresh stack
+   * @param node - the expression to evaluate
+   * @return the value of the expression, or the null representation
+   *         if the expression leaves no value (as in assignments)
+   */
+  public Instance evaluate(ASTNode node) {
+    stack.truncate(base);
+    node.accept(this);
+    if (stack.size() <= base) {
+      return JavaInstance.getNullRep();
     }
+    return popValue();
   }
 
   public void resetStack() {
-    stack.clear();
+    stack.truncate(base);
   }
   
   public StackComponent peekStack() {
+    if (stack.size() <= base) {
+      throw new EmptyStackException();
+    }
     return stack.peek();
   }
   
+  public Frame getFrame() {
+    return frame;
+  }
+  
+  public FileInstance getCurrentFile() {
+    return currentFile;
+  }
+  
+  public WordyRuntime getRuntime() {
+    return runtime;
+  }
+  
   /**
    * A helper class to carry around an InvocationException within GenVisitor
    * @author Jose Guaro
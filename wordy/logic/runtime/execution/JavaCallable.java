@@ -1,5 +1,8 @@
 package wordy.logic.runtime.execution;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -15,16 +18,74 @@ public class JavaCallable extends FunctionMember{
 
   private Method method;
   private Constructor<?> constructor;
-  private JavaInstance target;
+  
+  private final Class<?> [] parameterTypes;
+  private final boolean [] passesInstance; //true for parameters that are given the Instance itself
+  private final boolean hasReceiver; //true for instance (non-static) methods
+  
+  /*
+   * The method or constructor bound to a MethodHandle of type (Object[])Object. 
+   * For instance methods, the first element of the array is the receiver.
+   * 
+   * Bound on the first call. If the method can't be bound (it's not publicly accessible),
+   * reflection is used instead. Threads racing on the first call each bind an equivalent handle.
+   */
+  private volatile MethodHandle invoker;
+  private volatile boolean unbindable;
   
   public JavaCallable(Method method) {
-    super(method.getName(), method.getParameters().length, null, null, null);
+    super(method.getName(), method.getParameters().length, null, null, 0, null);
     this.method = method;
+    this.parameterTypes = method.getParameterTypes();
+    this.passesInstance = passesInstance(parameterTypes);
+    this.hasReceiver = !Modifier.isStatic(method.getModifiers());
   }
   
   public JavaCallable(Constructor<?> constructor) {
-    super(constructor.getDeclaringClass().getSimpleName(), constructor.getParameterCount(), null,  null, null, null);
+    super(constructor.getDeclaringClass().getSimpleName(), constructor.getParameterCount(), null,  null, 0, null, null);
     this.constructor = constructor;
+    this.parameterTypes = constructor.getParameterTypes();
+    this.passesInstance = passesInstance(parameterTypes);
+    this.hasReceiver = false;
+  }
+  
+  /**
+   * Determines which parameters want the Instance itself, rather than the Java object it holds
+   * 
+   * But what if the desired argument type is a java.lang.Object (any Java object really).
+   * 
+   * In that case, we should still choose to send the actual instance, instead of the Instance instance.
+   * This is helpful also when Object.equals() is called. 
+   */
+  private static boolean [] passesInstance(Class<?> [] types) {
+    boolean [] passes = new boolean[types.length];
+    for(int i = 0; i < types.length; i++) {
+      passes[i] = types[i].isAssignableFrom(Instance.class) && types[i] != Object.class;
+    }
+    return passes;
+  }
+  
+  /**
+   * Binds this method or constructor to a MethodHandle, if it hasn't been already
+   * @return the bound MethodHandle, or null if it can't be bound
+   */
+  private MethodHandle invoker() {
+    MethodHandle current = invoker;
+    if (current == null && !unbindable) {
+      try {
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        MethodHandle handle = constructor != null ? lookup.unreflectConstructor(constructor) : lookup.unreflect(method);
+        
+        //varargs methods are given their array as is, like with Method.invoke()
+        handle = handle.asFixedArity();
+        int arity = handle.type().parameterCount();
+        current = handle.asType(MethodType.genericMethodType(arity)).asSpreader(Object[].class, arity);
+        invoker = current;
+      } catch (IllegalAccessException e) {
+        unbindable = true;
+      }
+    }
+    return current;
   }
 
   /**
@@ -33,7 +94,8 @@ public class JavaCallable extends FunctionMember{
    *             (this parameter is ignored when calling a Java Method)
    * @param table - the Runtime table to use when identifying function and variable names
    *             (this parameter is ignored when calling a Java Method)
-   * @param args - the arguments to pass to this method. All arguments must be JavaInstances
+   * @param args - the arguments to pass to this method. All arguments must be JavaInstances, and
+   *           must have been checked with argumentsCompatible()
    *           (NOTE: if the java method is an instance or static method, the first Instance is interpreted
    *                  to be a JavaInstance that this method is being invoked on.
    *                  If it's a static method, the static rep. of the Java class is seen as that instance)
@@ -46,65 +108,141 @@ public class JavaCallable extends FunctionMember{
    */
   @Override
   public Instance call(GenVisitor visitor, RuntimeTable table, Instance ... args) {
+    return callOn(null, args);
+  }
+  
+  /**
+   * Invokes this Java method on the given instance
+   * 
+   * The receiver is passed in, rather than kept by this JavaCallable, as the same 
+   * JavaCallable is shared by every call site (and thread) that calls the method.
+   * 
+   * @param target - the JavaInstance to invoke this method on, 
+   *                 or null if this is a static method or a constructor
+   * @param args - the arguments to pass to this method (see call())
+   * @return the result of this call (see call())
+   */
+  public Instance callOn(JavaInstance target, Instance [] args) {
     //System.out.println("     !!----CALLING: "+name+"----!! ");
     Object result = null;
 
-    Object [] realArgs = new Object[args.length];
-
-    Class<?> [] types = null;
-    if (method != null) {
-      types = method.getParameterTypes();
-    }
-    else {
-      types = constructor.getParameterTypes();
+    int offset = hasReceiver ? 1 : 0;
+    Object [] realArgs = new Object[args.length + offset];
+    if (hasReceiver) {
+      realArgs[0] = target.getInstance();
     }
 
-    for(int i = 0; i < types.length; i++) {
+    for(int i = 0; i < parameterTypes.length; i++) {
       Instance current = args[i];
-      //System.out.println("---CURRENT INSTANCE!!! "+types[i]);
-      if (types[i].isAssignableFrom(Instance.class) && types[i] != Object.class) {
-        /*
-         * java method actually wants an Instance instance
-         * 
-         * But what if the desired argument type is a java.lang.Object (any Java object really).
-         * 
-         * In that case, we should still choose to send the actual instance, instead of the Instance instance.
-         * This is helpful also when Object.equals() is called. 
-         */
-        
+      //System.out.println("---CURRENT INSTANCE!!! "+parameterTypes[i]);
+      if (passesInstance[i]) {
+        //java method actually wants an Instance instance
         //System.out.println("---actual Instance instance");
-        realArgs[i] = current;
+        realArgs[i + offset] = current;
+      }
+      else if (current instanceof JavaInstance) {
+        //java method wants a Java Object. 
+        //Compatibility of its type was already checked by argumentsCompatible()
+        realArgs[i + offset] = ((JavaInstance) current).getInstance();
       }
       else {
-        //java method wants a Java Object
-        if (current instanceof JavaInstance) {
-          Object actualInstance = ((JavaInstance) current).getInstance();
-          if (actualInstance != null && !TypeChecks.isCompatible(types[i], actualInstance.getClass())) {
-            //System.out.println("---cur type: "+types[i].getName()+" | "+actualInstance.getClass().getName()+
-            //    " | "+types[i].isInstance(actualInstance)+" | "+(actualInstance != null));
-            throw new IllegalArgumentException("Method '"+method.getName()+"' was given the wrong argument types");
-          }
-          //System.out.println("----UNPEELED TYPE: "+actualInstance.getClass());
-          realArgs[i] = actualInstance;
+        throw new IllegalArgumentException("Method '"+name+"' was given the wrong argument types");
+      }
+      //System.out.println("---CURRENT INSTANCE ** FINAL !!! "+realArgs[i + offset]+" | "+i);
+    }
+
+    MethodHandle bound = invoker();
+    if (bound == null) {
+      result = reflectiveCall(realArgs, offset);
+    }
+    else {
+      //checked as reflection would, so that whatever the handle throws was thrown inside the callable
+      IllegalArgumentException mismatch = checkArguments(realArgs, offset);
+      if (constructor != null) {
+        if (mismatch != null) {
+          throw new RuntimeException("An exception was thrown when calling the constructor for "+constructor.getDeclaringClass().getName()+": "
+              +System.lineSeparator()+mismatch);
         }
-        else {
-          throw new IllegalArgumentException("Method '"+method.getName()+"' was given the wrong argument types");
+        
+        try {
+          result = (Object) bound.invokeExact(realArgs);
+        } catch (Throwable e) {
+          // Exception thrown inside callable
+        }
+      }
+      else if (mismatch != null) {
+        mismatch.printStackTrace();
+      }
+      else {
+        try {
+          result = (Object) bound.invokeExact(realArgs);
+        } catch (Throwable e) {
+          //System.out.println(" first arg type: | "+name+" | "+(realArgs[0] == null)+" | "+Arrays.copyOfRange(realArgs, 1, args.length).length);
+          System.err.println("An exception was thrown when calling "+name+": "+System.lineSeparator());
+          e.printStackTrace();
         }
       }
-      //System.out.println("---CURRENT INSTANCE ** FINAL !!! "+realArgs[i]+" | "+i);
-
     }
+    //System.out.println("---CALLED: "+name);
 
-    //System.out.println("**** FIRST: "+realArgs[0]);
-
+    if (result instanceof Instance) {
+      return (Instance) result;
+    }
+    
+    /*
+    if (result != null) {
+      System.out.println("    *WRAP: "+result.getClass());  
+    }
+    else {
+      System.out.println("    *WRAP: VOID");  
+    }
+    */
+    return JavaInstance.wrapInstance(result);
+  }
+  
+  /**
+   * Checks the unwrapped arguments against the parameter types of this method or constructor, 
+   * where Method.invoke() and Constructor.newInstance() would throw an IllegalArgumentException 
+   * (Like: null given to a primitive parameter). A MethodHandle would instead throw while adapting 
+   * the arguments, which can't be told apart from what the callable itself throws
+   * @param realArgs - the unwrapped arguments, preceded by the receiver for instance methods
+   * @param offset - the index of the first argument in realArgs
+   * @return the IllegalArgumentException reflection would throw, or null if the arguments can be passed
+   */
+  private IllegalArgumentException checkArguments(Object [] realArgs, int offset) {
+    if (realArgs.length - offset != parameterTypes.length) {
+      return new IllegalArgumentException("wrong number of arguments");
+    }
+    
+    for(int i = 0; i < parameterTypes.length; i++) {
+      Object arg = realArgs[i + offset];
+      if (arg == null) {
+        if (parameterTypes[i].isPrimitive()) {
+          return new IllegalArgumentException();
+        }
+      }
+      else if (!TypeChecks.isCompatible(parameterTypes[i], arg.getClass())) {
+        return new IllegalArgumentException("argument type mismatch");
+      }
+    }
+    return null;
+  }
+  
+  /**
+   * Invokes this method or constructor through reflection, for those that couldn't be bound
+   * @param realArgs - the unwrapped arguments, preceded by the receiver for instance methods
+   * @param offset - the index of the first argument in realArgs
+   * @return the result of the invocation
+   */
+  private Object reflectiveCall(Object [] realArgs, int offset) {
+    Object [] methodArgs = Arrays.copyOfRange(realArgs, offset, realArgs.length);
     if (constructor != null) {
       try {
-        result = constructor.newInstance(realArgs);
+        return constructor.newInstance(methodArgs);
       } catch (InvocationTargetException e) {
         // Exception thrown inside callable
         
       } catch (Exception e) {
-        //System.out.println(" first arg type: "+realArgs[0].getClass());
         //System.out.println("---ARG TYPES: "+Arrays.toString(constructor.getParameterTypes())+" | "+realArgs.length);
         throw new RuntimeException("An exception was thrown when calling the constructor for "+constructor.getDeclaringClass().getName()+": "
             +System.lineSeparator()+e);
@@ -112,18 +250,8 @@ public class JavaCallable extends FunctionMember{
     }
     else {
       try {
-        if (Modifier.isStatic(method.getModifiers())) {
-          result = method.invoke(null, realArgs);
-        }
-        else {
-          result = method.invoke(target.getInstance(), realArgs);
-          //System.out.println("---ARGS TO "+name+" "+Arrays.toString(realArgs)+" | instnace it self |"+target.getInstance()+"| result = " + (realArgs[0].equals(target.getInstance())));
-          //System.out.println("--types: "+realArgs[0].getClass()+" | "+target.getInstance().getClass());
-        }
+        return method.invoke(hasReceiver ? realArgs[0] : null, methodArgs);
       } catch (InvocationTargetException e) {         
-        //System.out.println(" first arg type: | "+name+" | "+(realArgs[0] == null)+" | "+Arrays.copyOfRange(realArgs, 1, args.length).length);
-        //System.out.println("---ARG TYPES: "+Arrays.toString(method.getParameterTypes())+" | "+realArgs.length);
-
         System.err.println("An exception was thrown when calling "+name+": "+System.lineSeparator());
         e.printStackTrace();
       } catch (Exception e) {
@@ -131,28 +259,13 @@ public class JavaCallable extends FunctionMember{
         e.printStackTrace();
       }
     }
-    //System.out.println("---CALLED: "+name);
-
-    target = null; //reset target
-    if (result instanceof Instance) {
-      return (Instance) result;
-    }
-    
-    /*
-    if (result != null) {
-      System.out.println("    *WRAP: "+result.getClass());  
-    }
-    else {
-      System.out.println("    *WRAP: VOID");  
-    }
-    */
-    return JavaInstance.wrapInstance(result);
+    return null;
   }
   
   public boolean argumentsCompatible(Instance ... args) {
     if (super.argumentsCompatible(args)) {
       if (method != null) {
-        Class<?> [] paramTypes = method.getParameterTypes();
+        Class<?> [] paramTypes = parameterTypes;
         
         //System.out.println("---CHECK: "+name+" | "+args.length);
         for(int i = 0; i < paramTypes.length; i++) {
@@ -165,10 +278,10 @@ public class JavaCallable extends FunctionMember{
           else {
             if (args[i] instanceof JavaInstance) {
               JavaInstance currentIns = (JavaInstance) args[i];
-              Object instance = currentIns.getInstance();
-              if (instance != null && !TypeChecks.isCompatible(paramTypes[i], instance.getClass())) {
-                //System.out.println("---NO INSTANCE "+paramTypes[i]+" | "+instance.getClass()+" | "+
-                //                          paramTypes[i].isAssignableFrom(instance.getClass()));
+              Class<?> instanceClass = currentIns.instanceClass();
+              if (instanceClass != null && !TypeChecks.isCompatible(paramTypes[i], instanceClass)) {
+                //System.out.println("---NO INSTANCE "+paramTypes[i]+" | "+instanceClass+" | "+
+                //                          paramTypes[i].isAssignableFrom(instanceClass));
                 return false;
               }
             }
@@ -182,7 +295,7 @@ public class JavaCallable extends FunctionMember{
       }
       else {
         //this is a constructor
-        Class<?> [] paramTypes = constructor.getParameterTypes();
+        Class<?> [] paramTypes = parameterTypes;
         for(int i = 0; i < paramTypes.length; i++) {
           if (Instance.class.isAssignableFrom(paramTypes[i])) {
             if (args[i] != null && !paramTypes[i].isInstance(args[i])) {
@@ -193,9 +306,9 @@ public class JavaCallable extends FunctionMember{
           else {
             if (args[i] instanceof JavaInstance) {
               JavaInstance currentIns = (JavaInstance) args[i];
-              Object instance = currentIns.getInstance();
-              if (instance != null && !TypeChecks.isCompatible(paramTypes[i], instance.getClass())) {
-                //System.out.println("---BAD INSTANCE CC "+paramTypes[i].getName()+" | "+instance.getClass());
+              Class<?> instanceClass = currentIns.instanceClass();
+              if (instanceClass != null && !TypeChecks.isCompatible(paramTypes[i], instanceClass)) {
+                //System.out.println("---BAD INSTANCE CC "+paramTypes[i].getName()+" | "+instanceClass);
                 return false;
               }
             }
@@ -211,10 +324,6 @@ public class JavaCallable extends FunctionMember{
     return false;
   }
   
-  public void setTarget(JavaInstance instance) {
-    this.target = instance;
-  }
-  
   public boolean isStatic() {
     return Modifier.isStatic(method.getModifiers());
   }
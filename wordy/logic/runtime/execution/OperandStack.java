@@ -0,0 +1,84 @@
+package wordy.logic.runtime.execution;
+
+import java.util.Arrays;
+import java.util.EmptyStackException;
+
+import wordy.logic.runtime.components.StackComponent;
+
+/**
+ * The evaluation stack GenVisitors push operands and results to.
+ *
+ * Each thread owns a single OperandStack (see current()), which all GenVisitors
+ * on that thread share. A GenVisitor only ever uses the part of the stack above
+ * the size it had when the GenVisitor was bound (its base), so callers' operands
+ * are left untouched while a callee executes.
+ *
+ * Unlike java.util.Stack, this isn't synchronized, and never allocates once it has
+ * grown to the deepest expression a thread evaluates.
+ *
+ * @author Jose Guaro
+ *
+ */
+public class OperandStack {
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  private static final ThreadLocal<OperandStack> STACKS = new ThreadLocal<OperandStack>() {
+    protected OperandStack initialValue() {
+      return new OperandStack();
+    }
+  };
+
+  private StackComponent [] components;
+  private int size;
+
+  private OperandStack() {
+    components = new StackComponent[INITIAL_CAPACITY];
+  }
+
+  /**
+   * Retrieves the OperandStack of the current thread
+   * @return the OperandStack of the current thread
+   */
+  public static OperandStack current() {
+    return STACKS.get();
+  }
+
+  public void push(StackComponent component) {
+    if (size == components.length) {
+      components = Arrays.copyOf(components, size * 2);
+    }
+    components[size++] = component;
+  }
+
+  public StackComponent pop() {
+    if (size == 0) {
+      throw new EmptyStackException();
+    }
+    StackComponent component = components[--size];
+    components[size] = null;
+    return component;
+  }
+
+  public StackComponent peek() {
+    if (size == 0) {
+      throw new EmptyStackException();
+    }
+    return components[size - 1];
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Removes every component above the given size
+   * @param newSize - the size to shrink this stack to. If this stack is already
+   *                  at or below this size, nothing is removed
+   */
+  public void truncate(int newSize) {
+    while (size > newSize) {
+      components[--size] = null;
+    }
+  }
+}
@@ -0,0 +1,225 @@
+package wordy.logic.runtime.execution;
+
+import wordy.logic.compile.nodes.OpCode;
+import wordy.logic.runtime.components.JavaInstance;
+import wordy.logic.runtime.components.PrimitiveInstance;
+import wordy.logic.runtime.components.PrimitiveInstance.Kind;
+
+/**
+ * The binary operations Operator performs on PrimitiveInstances, and the table
+ * they're looked up from by (left kind, right kind, OpCode).
+ *
+ * The table holds the same promotions as Operator's boxed paths:
+ *
+ * - int op int results in an int, or a long of the overflown int value on overflow
+ * - long op long results in a long, and throws an ArithmeticException on overflow
+ * - double op double results in a double
+ * - Any other mix of number types is always added (see Operator.mixedOperandNumberTypes()),
+ *   resulting in a double if either is a double, or a long if else
+ * - Numbers are compared as doubles
+ *
+ * @author Jose Guaro
+ *
+ */
+enum PrimitiveOperation {
+
+  INT_ADD {
+    JavaInstance apply(PrimitiveInstance left, PrimitiveInstance right) {
+      int leftOp = left.intValue();
+      int rightOp = right.intValue();
+      int result = leftOp + rightOp;
+      if (((leftOp ^ result) & (rightOp ^ result)) < 0) {
+        return PrimitiveInstance.ofLong(result);
+      }
+      return PrimitiveInstance.ofInt(result);
+    }
+  },
+  INT_SUBTRACT {
+    JavaInstance apply(PrimitiveInstance left, PrimitiveInstance right) {
+      int leftOp = left.intValue();
+      int rightOp = right.intValue();
+      int result = leftOp - rightOp;
+      if (((leftOp ^ rightOp) & (leftOp ^ result)) < 0) {
+        return PrimitiveInstance.ofLong(result);
+      }
+      return PrimitiveInstance.ofInt(result);
+    }
+  },
+  INT_MULTIPLY {
+    JavaInstance apply(PrimitiveInstance left, PrimitiveInstance right) {
+      long result = (long) left.intValue() * (long) right.intValue();
+      if ((int) result != result) {
+        return PrimitiveInstance.ofLong((int) result);
+      }
+      return PrimitiveInstance.ofInt((int) result);
+    }
+  },
+  INT_DIVIDE {
+    JavaInstance apply(PrimitiveInstance left, PrimitiveInstance right) {
+      return PrimitiveInstance.ofInt(left.intValue() / right.intValue());
+    }
+  },
+  INT_MOD {
+    JavaInstance apply(PrimitiveInstance left, PrimitiveInstance right) {
+      return PrimitiveInstance.ofInt(left.intValue() % right.intValue());
+    }
+  },
+
+  LONG_ADD {
+    JavaInstance apply(PrimitiveInstance left, PrimitiveInstance right) {
+      return PrimitiveInstance.ofLong(Math.addExact(left.longValue(), right.longValue()));
+    }
+  },
+  LONG_SUBTRACT {
+    JavaInstance apply(PrimitiveInstance left, PrimitiveInstance right) {
+      return PrimitiveInstance.ofLong(Math.subtractExact(left.longValue(), right.longValue()));
+    }
+  },
+  LONG_MULTIPLY {
+    JavaInstance apply(PrimitiveInstance left, PrimitiveInstance right) {
+      return PrimitiveInstance.ofLong(Math.multiplyExact(left.longValue(), right.longValue()));
+    }
+  },
+  LONG_DIVIDE {
+    JavaInstance apply(PrimitiveInstance left, PrimitiveInstance right) {
+      return PrimitiveInstance.ofLong(left.longValue() / right.longValue());
+    }
+  },
+  LONG_MOD {
+    JavaInstance apply(PrimitiveInstance left, PrimitiveInstance right) {
+      return PrimitiveInstance.ofLong(left.longValue() % right.longValue());
+    }
+  },
+
+  DOUBLE_ADD {
+    JavaInstance apply(PrimitiveInstance left, PrimitiveInstance right) {
+      return PrimitiveInstance.ofDouble(left.doubleValue() + right.doubleValue());
+    }
+  },
+  DOUBLE_SUBTRACT {
+    JavaInstance apply(PrimitiveInstance left, PrimitiveInstance right) {
+      return PrimitiveInstance.ofDouble(left.doubleValue() - right.doubleValue());
+    }
+  },
+  DOUBLE_MULTIPLY {
+    JavaInstance apply(PrimitiveInstance left, PrimitiveInstance right) {
+      return PrimitiveInstance.ofDouble(left.doubleValue() * right.doubleValue());
+    }
+  },
+  DOUBLE_DIVIDE {
+    JavaInstance apply(PrimitiveInstance left, PrimitiveInstance right) {
+      return PrimitiveInstance.ofDouble(left.doubleValue() / right.doubleValue());
+    }
+  },
+  DOUBLE_MOD {
+    JavaInstance apply(PrimitiveInstance left, PrimitiveInstance right) {
+      return PrimitiveInstance.ofDouble(left.doubleValue() % right.doubleValue());
+    }
+  },
+
+  MIXED_LONG_ADD {
+    JavaInstance apply(PrimitiveInstance left, PrimitiveInstance right) {
+      return PrimitiveInstance.ofLong(left.longValue() + right.longValue());
+    }
+  },
+
+  LESS {
+    JavaInstance apply(PrimitiveInstance left, PrimitiveInstance right) {
+      return JavaInstance.wrapInstance(left.doubleValue() < right.doubleValue());
+    }
+  },
+  LESS_EQUAL {
+    JavaInstance apply(PrimitiveInstance left, PrimitiveInstance right) {
+      return JavaInstance.wrapInstance(left.doubleValue() <= right.doubleValue());
+    }
+  },
+  GREATER {
+    JavaInstance apply(PrimitiveInstance left, PrimitiveInstance right) {
+      return JavaInstance.wrapInstance(left.doubleValue() > right.doubleValue());
+    }
+  },
+  GREATER_EQUAL {
+    JavaInstance apply(PrimitiveInstance left, PrimitiveInstance right) {
+      return JavaInstance.wrapInstance(left.doubleValue() >= right.doubleValue());
+    }
+  },
+
+  AND {
+    JavaInstance apply(PrimitiveInstance left, PrimitiveInstance right) {
+      return JavaInstance.wrapInstance(left.booleanValue() && right.booleanValue());
+    }
+  },
+  OR {
+    JavaInstance apply(PrimitiveInstance left, PrimitiveInstance right) {
+      return JavaInstance.wrapInstance(left.booleanValue() || right.booleanValue());
+    }
+  };
+
+  private static final int KINDS = Kind.values().length;
+
+  /*
+   * Indexed by [left kind][right kind][OpCode]. A null entry means the combination
+   * isn't handled here, and must go through Operator's boxed paths
+   */
+  private static final PrimitiveOperation [][][] TABLE = new PrimitiveOperation[KINDS][KINDS][OpCode.values().length];
+
+  static {
+    Kind [] numbers = {Kind.INT, Kind.LONG, Kind.DOUBLE};
+
+    put(Kind.INT, Kind.INT, INT_ADD, INT_SUBTRACT, INT_MULTIPLY, INT_DIVIDE, INT_MOD);
+    put(Kind.LONG, Kind.LONG, LONG_ADD, LONG_SUBTRACT, LONG_MULTIPLY, LONG_DIVIDE, LONG_MOD);
+    put(Kind.DOUBLE, Kind.DOUBLE, DOUBLE_ADD, DOUBLE_SUBTRACT, DOUBLE_MULTIPLY, DOUBLE_DIVIDE, DOUBLE_MOD);
+
+    for(Kind left : numbers) {
+      for(Kind right : numbers) {
+        if (left != right) {
+          PrimitiveOperation add = left == Kind.DOUBLE || right == Kind.DOUBLE ? DOUBLE_ADD : MIXED_LONG_ADD;
+          put(left, right, add, add, add, add, add);
+        }
+
+        PrimitiveOperation [] row = TABLE[left.ordinal()][right.ordinal()];
+        row[OpCode.LESS.ordinal()] = LESS;
+        row[OpCode.LESS_EQUAL.ordinal()] = LESS_EQUAL;
+        row[OpCode.GREATER.ordinal()] = GREATER;
+        row[OpCode.GREATER_EQUAL.ordinal()] = GREATER_EQUAL;
+      }
+    }
+
+    PrimitiveOperation [] booleans = TABLE[Kind.BOOLEAN.ordinal()][Kind.BOOLEAN.ordinal()];
+    booleans[OpCode.AND.ordinal()] = AND;
+    booleans[OpCode.OR.ordinal()] = OR;
+  }
+
+  private static void put(Kind left, Kind right, PrimitiveOperation add, PrimitiveOperation subtract,
+                          PrimitiveOperation multiply, PrimitiveOperation divide, PrimitiveOperation mod) {
+    PrimitiveOperation [] row = TABLE[left.ordinal()][right.ordinal()];
+    row[OpCode.ADD.ordinal()] = add;
+    row[OpCode.SUBTRACT.ordinal()] = subtract;
+    row[OpCode.MULTIPLY.ordinal()] = multiply;
+    row[OpCode.DIVIDE.ordinal()] = divide;
+    row[OpCode.MOD.ordinal()] = mod;
+  }
+
+  /**
+   * Applies this operation
+   * @param left - the left operand
+   * @param right - the right operand
+   * @return the result of the operation
+   */
+  abstract JavaInstance apply(PrimitiveInstance left, PrimitiveInstance right);
+
+  /**
+   * Looks up the operation for the given operands and OpCode
+   * @param left - the left operand
+   * @param right - the right operand
+   * @param opCode - the OpCode of the operator
+   * @return the PrimitiveOperation to apply, or null if both operands aren't
+   *         PrimitiveInstances, or the table has no entry for them
+   */
+  static PrimitiveOperation find(JavaInstance left, JavaInstance right, OpCode opCode) {
+    if (left instanceof PrimitiveInstance && right instanceof PrimitiveInstance) {
+      return TABLE[((PrimitiveInstance) left).kind().ordinal()][((PrimitiveInstance) right).kind().ordinal()][opCode.ordinal()];
+    }
+    return null;
+  }
+}
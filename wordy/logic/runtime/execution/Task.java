@@ -0,0 +1,75 @@
+package wordy.logic.runtime.execution;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import wordy.logic.runtime.components.Instance;
+import wordy.logic.runtime.components.JavaInstance;
+import wordy.logic.runtime.errors.InvocationException;
+
+/**
+ * A handle to a function invocation started by spawn(), as seen by Wordy code.
+ *
+ * The invocation's result is retrieved with the join() builtin (Like: join(task) ), which
+ * also rethrows any exception thrown by the invoked function.
+ *
+ * @author Jose Guaro
+ *
+ */
+public class Task {
+
+  private final String functionName;
+  private final CompletableFuture<Instance> result;
+
+  Task(String functionName) {
+    this.functionName = functionName;
+    this.result = new CompletableFuture<>();
+  }
+
+  void complete(Instance value) {
+    result.complete(value == null ? JavaInstance.getNullRep() : value);
+  }
+
+  void fail(Throwable exception) {
+    result.completeExceptionally(exception);
+  }
+
+  /**
+   * Checks if the invoked function has returned (or thrown an exception)
+   * @return true if the invoked function is done, false if else
+   */
+  public boolean isDone() {
+    return result.isDone();
+  }
+
+  /**
+   * Waits for the invoked function to finish
+   * @return the value returned by the invoked function, or the null representation
+   *         if the function returned nothing
+   * @throws InvocationException - if the invoked function threw an exception
+   */
+  public Instance join() throws InvocationException {
+    try {
+      return result.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while joining "+this);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof InvocationException) {
+        throw (InvocationException) cause;
+      }
+      else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new RuntimeException(cause);
+    }
+  }
+
+  public String toString() {
+    return "TASK: "+functionName+(isDone() ? " (done)" : "");
+  }
+}
@@ -0,0 +1,161 @@
+package wordy.logic.runtime.execution;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import wordy.logic.runtime.Frame;
+import wordy.logic.runtime.RuntimeTable;
+import wordy.logic.runtime.WordyRuntime;
+import wordy.logic.runtime.components.FileInstance;
+import wordy.logic.runtime.components.Instance;
+import wordy.logic.runtime.errors.InvocationException;
+
+/**
+ * Runs the functions invoked through spawn().
+ *
+ * On a JVM with virtual threads (Java 21 and later), every spawned function gets its own
+ * virtual thread, and the carrier count is given to the JVM's virtual thread scheduler 
+ * (by default, the amount of available processors).
+ *
+ * On older JVMs, there's no cheap way to run a function that blocks (in join(), or on I/O) 
+ * without holding up a platform thread. So there, the carrier count means something else: 
+ * it's the most platform threads spawned functions run on at once (by default, DEFAULT_MAX_THREADS). 
+ * Each spawned function gets a thread of its own - a new one, or one left idle by an earlier 
+ * function - and idle threads end after a while. Once that many threads are busy, the function 
+ * is run by the thread that spawned it instead, before spawn() returns. Spawned functions then 
+ * never wait for a thread, so functions joining each other can't starve the pool.
+ *
+ * Each spawned function is given its own GenVisitor on the thread it runs on - and so
+ * its own operand stack and Frames - while the functions, types and file-level variables
+ * of the program are shared.
+ *
+ * @author Jose Guaro
+ *
+ */
+public class TaskScheduler {
+
+  /**
+   * The system property the JVM's virtual thread scheduler takes its carrier count from
+   */
+  private static final String CARRIER_PROPERTY = "jdk.virtualThreadScheduler.parallelism";
+
+  /**
+   * The most platform threads spawned functions run on without virtual threads,
+   * when the carrier count isn't set
+   */
+  public static final int DEFAULT_MAX_THREADS = 256;
+
+  /**
+   * How long a platform thread is kept once it's idle, without virtual threads
+   */
+  private static final long IDLE_SECONDS = 60;
+
+  private final Executor executor;
+  private final boolean virtualThreads;
+
+  /**
+   * Constructs a TaskScheduler
+   * @param carriers - with virtual threads, the amount of carrier threads. Without, the most 
+   *                   platform threads to run spawned functions on at once. 0 for the default
+   */
+  public TaskScheduler(int carriers) {
+    Executor virtualExecutor = virtualThreadExecutor(carriers > 0 ? carriers : Runtime.getRuntime().availableProcessors());
+    if (virtualExecutor != null) {
+      executor = virtualExecutor;
+      virtualThreads = true;
+    }
+    else {
+      executor = platformThreadExecutor(carriers > 0 ? carriers : DEFAULT_MAX_THREADS);
+      virtualThreads = false;
+    }
+  }
+
+  /**
+   * Creates an Executor that runs every task on a new virtual thread
+   * @param carriers - the amount of carrier threads for virtual threads.
+   *                   This is ignored if a virtual thread has already been started in this JVM,
+   *                   or if the carrier count was set on the command line
+   * @return the Executor, or null if this JVM doesn't support virtual threads
+   */
+  private static Executor virtualThreadExecutor(int carriers) {
+    try {
+      Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      if (System.getProperty(CARRIER_PROPERTY) == null) {
+        System.setProperty(CARRIER_PROPERTY, String.valueOf(carriers));
+      }
+      return (Executor) factory.invoke(null);
+    } catch (Exception e) {
+      //no virtual threads in this JVM
+      return null;
+    }
+  }
+
+  /**
+   * Creates an Executor that runs every task on a platform thread of its own, up to a maximum
+   * amount of threads. Past that, tasks are run by the thread submitting them
+   * @param maxThreads - the most threads to run tasks on at once
+   * @return the Executor
+   */
+  private static Executor platformThreadExecutor(int maxThreads) {
+    final AtomicInteger threadCount = new AtomicInteger();
+    ThreadFactory factory = new ThreadFactory() {
+      public Thread newThread(Runnable task) {
+        Thread thread = new Thread(task, "wordy-spawn-"+threadCount.getAndIncrement());
+        thread.setDaemon(true);
+        return thread;
+      }
+    };
+    return new ThreadPoolExecutor(0, maxThreads, IDLE_SECONDS, TimeUnit.SECONDS, 
+                                  new SynchronousQueue<Runnable>(), factory, 
+                                  new ThreadPoolExecutor.CallerRunsPolicy());
+  }
+
+  /**
+   * Invokes a function on another thread
+   * @param function - the Callable to invoke
+   * @param table - the RuntimeTable of the caller, whose functions and variables are visible to the function
+   * @param currentFile - the FileInstance of the caller
+   * @param runtime - the WordyRuntime executing the caller
+   * @param args - the arguments to pass to the function
+   * @return the Task representing the invocation
+   */
+  public Task spawn(final Callable function,
+                    final RuntimeTable table,
+                    final FileInstance currentFile,
+                    final WordyRuntime runtime,
+                    final Instance [] args) {
+    final Task task = new Task(function.getName());
+    executor.execute(new Runnable() {
+      public void run() {
+        try {
+          //created here, so the visitor uses the operand stack of this thread
+          Frame frame = currentFile.getDefinition().getFileFrame();
+          GenVisitor visitor = new GenVisitor(table, frame, currentFile, runtime);
+          task.complete(function.call(visitor, table.newFunctionScope(), args));
+        } catch (InvocationException e) {
+          task.fail(e);
+        } catch (GenVisitor.CarrierInvocationException e) {
+          task.fail(e.getException());
+        } catch (RuntimeException | Error e) {
+          task.fail(e);
+        }
+      }
+    });
+    return task;
+  }
+
+  /**
+   * Checks if spawned functions run on virtual threads
+   * @return true if spawned functions run on virtual threads,
+   *         false if they run on platform threads
+   */
+  public boolean usesVirtualThreads() {
+    return virtualThreads;
+  }
+}
@@ -0,0 +1,25 @@
+package wordy.logic.runtime.tree;
+
+import wordy.logic.runtime.Frame;
+import wordy.logic.runtime.components.Instance;
+
+/**
+ * An expression of a Wordy function, converted once into an object that 
+ * directly evaluates to its value.
+ * 
+ * Unlike the GenVisitor, evaluating an ExecNode doesn't push to or pop from
+ * an operand stack - each node simply returns its value to its parent.
+ * 
+ * @author Jose Guaro
+ *
+ */
+public abstract class ExecNode {
+  
+  /**
+   * Evaluates this expression
+   * @param frame - the Frame of the current invocation
+   * @param context - the TreeContext of the current invocation
+   * @return the value of this expression
+   */
+  public abstract Instance execute(Frame frame, TreeContext context);
+}
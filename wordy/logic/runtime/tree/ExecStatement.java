@@ -0,0 +1,31 @@
+package wordy.logic.runtime.tree;
+
+import wordy.logic.runtime.Frame;
+import wordy.logic.runtime.errors.InvocationException;
+
+/**
+ * A statement of a Wordy function, converted once into an executable object.
+ * 
+ * Executing a statement results in one of the codes below, which tells 
+ * the enclosing statement how execution ended.
+ * 
+ * @author Jose Guaro
+ *
+ */
+public abstract class ExecStatement {
+  
+  public static final int NORMAL_END = 3;
+  public static final int RETURN_ENCOUNTERED = 0;
+  public static final int BREAK_ENCOUNTERED = 1;
+  public static final int CONTINUE_ENCOUNTERED = 2;
+  
+  /**
+   * Executes this statement
+   * @param frame - the Frame of the current invocation
+   * @param context - the TreeContext of the current invocation. If a return statement 
+   *                  is executed, the returned value is placed here
+   * @return how execution of this statement ended (NORMAL_END, RETURN_ENCOUNTERED, etc.)
+   * @throws InvocationException - if an exception is thrown within this statement
+   */
+  public abstract int execute(Frame frame, TreeContext context) throws InvocationException;
+}
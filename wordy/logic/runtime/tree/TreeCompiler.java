@@ -0,0 +1,692 @@
+package wordy.logic.runtime.tree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import wordy.logic.compile.nodes.ASTNode;
+import wordy.logic.compile.nodes.ASTNode.NodeType;
+import wordy.logic.compile.nodes.BinaryOpNode;
+import wordy.logic.compile.nodes.ConstantNode;
+import wordy.logic.compile.nodes.IdentifierNode;
+import wordy.logic.compile.nodes.LiteralNode;
+import wordy.logic.compile.nodes.MemberAccessNode;
+import wordy.logic.compile.nodes.MethodCallNode;
+import wordy.logic.compile.nodes.OpCode;
+import wordy.logic.compile.nodes.UnaryNode;
+import wordy.logic.compile.structure.ForLoopBlock;
+import wordy.logic.compile.structure.Function;
+import wordy.logic.compile.structure.IfBlock;
+import wordy.logic.compile.structure.Statement;
+import wordy.logic.compile.structure.StatementBlock;
+import wordy.logic.compile.structure.Variable;
+import wordy.logic.compile.structure.WhileLoopBlock;
+import wordy.logic.compile.structure.StatementBlock.BlockType;
+import wordy.logic.runtime.Frame;
+import wordy.logic.runtime.TypeChecks;
+import wordy.logic.runtime.components.Instance;
+import wordy.logic.runtime.components.JavaInstance;
+import wordy.logic.runtime.components.PrimitiveInstance;
+import wordy.logic.runtime.errors.InvocationException;
+import wordy.logic.runtime.execution.GenVisitor;
+import wordy.logic.runtime.execution.GenVisitor.CarrierInvocationException;
+import wordy.logic.runtime.execution.Operator;
+
+/**
+ * Converts the statements of a Wordy function into a tree of ExecStatements and ExecNodes.
+ *
+ * Each kind of statement and expression gets its own specialized node - for example,
+ * reading a variable resolved to the current Frame is a node that does nothing but
+ * read that slot. Operators, calls and property access are delegated to the GenVisitor
+ * helpers the interpreter uses, and expressions that aren't converted are evaluated
+ * by the interpreter.
+ *
+ * Functions with try/catch blocks or throw statements aren't converted at all,
+ * and are left to the interpreter.
+ *
+ * @author Jose Guaro
+ *
+ */
+public class TreeCompiler {
+
+  private int loopDepth;
+
+  private TreeCompiler() {}
+
+  /**
+   * Converts a function into an executable tree
+   * @param function - the Function to convert
+   * @return the ExecStatement of the function's body, or null if the function
+   *         has constructs that can't be converted
+   */
+  public static ExecStatement compile(Function function) {
+    Statement [] statements = function.getStatements();
+    try {
+      /*
+       * The first statements are the function's parameters, which
+       * are placed in the Frame prior to the body being executed
+       */
+      List<Statement> body = Arrays.asList(statements).subList(function.argAmount(), statements.length);
+      return new TreeCompiler().convertStatements(body);
+    } catch (UnsupportedConstruct e) {
+      return null;
+    }
+  }
+
+  /*
+   * Statements
+   */
+
+  private ExecStatement convertStatements(List<Statement> statements) {
+    ArrayList<ExecStatement> converted = new ArrayList<>();
+    int index = 0;
+    while (index < statements.size()) {
+      Statement statement = statements.get(index);
+      if (statement instanceof IfBlock) {
+        /*
+         * Collect the if block along with the else-if/else blocks that follow it
+         */
+        if (((IfBlock) statement).isElseIf()) {
+          throw new UnsupportedConstruct();
+        }
+
+        List<IfBlock> chain = new ArrayList<>();
+        chain.add((IfBlock) statement);
+        index++;
+        while (index < statements.size() &&
+               statements.get(index) instanceof IfBlock &&
+               ((IfBlock) statements.get(index)).isElseIf()) {
+          chain.add((IfBlock) statements.get(index));
+          index++;
+        }
+        converted.add(convertIfChain(chain));
+      }
+      else {
+        converted.add(convertStatement(statement));
+        index++;
+      }
+    }
+
+    if (converted.size() == 1) {
+      return converted.get(0);
+    }
+    return new BlockStatement(converted.toArray(new ExecStatement[converted.size()]));
+  }
+
+  private ExecStatement convertStatement(Statement statement) {
+    switch (statement.getDescription()) {
+    case VAR_DEC:
+      Variable variable = (Variable) statement;
+      if (!variable.hasSlot()) {
+        throw new UnsupportedConstruct();
+      }
+      if (variable.getExpression() == null) {
+        return new DeclareStatement(variable.getSlot(),
+                                    new ConstantExec(JavaInstance.getNullRep()),
+                                    variable.getName().lineNumber());
+      }
+      return new DeclareStatement(variable.getSlot(),
+                                  convertExpression(variable.getExpression()),
+                                  lineOf(variable.getExpression()));
+    case REGULAR:
+      return new ExpressionStatement(convertExpression(statement.getExpression()),
+                                     lineOf(statement.getExpression()));
+    case RETURN:
+      if (statement.getExpression() == null) {
+        return new ReturnStatement(null, 0);
+      }
+      return new ReturnStatement(convertExpression(statement.getExpression()),
+                                 lineOf(statement.getExpression()));
+    case BREAK:
+      if (loopDepth == 0) {
+        throw new UnsupportedConstruct();
+      }
+      return new JumpStatement(ExecStatement.BREAK_ENCOUNTERED);
+    case CONTINUE:
+      if (loopDepth == 0) {
+        throw new UnsupportedConstruct();
+      }
+      return new JumpStatement(ExecStatement.CONTINUE_ENCOUNTERED);
+    case BLOCK:
+      return convertBlock((StatementBlock) statement);
+    default:
+      //throw statements
+      throw new UnsupportedConstruct();
+    }
+  }
+
+  private ExecStatement convertBlock(StatementBlock block) {
+    if (block.blockType() == BlockType.WHILE) {
+      WhileLoopBlock whileLoop = (WhileLoopBlock) block;
+      ExecNode condition = convertExpression(whileLoop.getExpression());
+
+      loopDepth++;
+      ExecStatement body = convertStatements(block.getStatements());
+      loopDepth--;
+
+      return new WhileStatement(condition, lineOf(whileLoop.getExpression()), body);
+    }
+    else if (block.blockType() == BlockType.FOR) {
+      ForLoopBlock forLoop = (ForLoopBlock) block;
+      ExecStatement init = null;
+      ExecNode check = null;
+      int checkLine = 0;
+      ExecStatement change = null;
+
+      if (forLoop.getInitialization() != null) {
+        init = convertStatement(forLoop.getInitialization());
+      }
+      if (forLoop.getCheckStatement() != null) {
+        check = convertExpression(forLoop.getCheckStatement().getExpression());
+        checkLine = lineOf(forLoop.getCheckStatement().getExpression());
+      }
+      if (forLoop.getChangeStatement() != null) {
+        change = new ExpressionStatement(convertExpression(forLoop.getChangeStatement().getExpression()),
+                                         lineOf(forLoop.getChangeStatement().getExpression()));
+      }
+
+      loopDepth++;
+      ExecStatement body = convertStatements(block.getStatements());
+      loopDepth--;
+
+      return new ForStatement(init, check, checkLine, change, body);
+    }
+    else if (block.blockType() == BlockType.GENERAL) {
+      return convertStatements(block.getStatements());
+    }
+
+    //try and catch blocks
+    throw new UnsupportedConstruct();
+  }
+
+  private ExecStatement convertIfChain(List<IfBlock> chain) {
+    ExecNode [] conditions = new ExecNode[chain.size()];
+    int [] lines = new int[chain.size()];
+    ExecStatement [] bodies = new ExecStatement[chain.size()];
+
+    for(int i = 0; i < chain.size(); i++) {
+      IfBlock ifBlock = chain.get(i);
+      //a pure else block has no condition
+      if (ifBlock.getCondition() != null) {
+        conditions[i] = convertExpression(ifBlock.getExpression());
+        lines[i] = lineOf(ifBlock.getExpression());
+      }
+      bodies[i] = convertStatements(ifBlock.getStatements());
+    }
+
+    return new IfStatement(conditions, lines, bodies);
+  }
+
+  /*
+   * Expressions
+   */
+
+  private ExecNode convertExpression(ASTNode node) {
+    switch (node.nodeType()) {
+    case CONSTANT:
+      return new ConstantExec(((ConstantNode) node).getConstant());
+    case LITERAL:
+      return new ConstantExec(((LiteralNode) node).getLiteral());
+    case IDENTIFIER:
+      IdentifierNode identifier = (IdentifierNode) node;
+      if (identifier.isSlotResolved()) {
+        if (identifier.slotDepth() == 0) {
+          return new LocalReadExec(identifier.slotIndex());
+        }
+        return new SlotReadExec(identifier.slotDepth(), identifier.slotIndex());
+      }
+      return new InterpretedExec(node);
+    case OPERATOR:
+      return convertBinary((BinaryOpNode) node);
+    case UNARY:
+      UnaryNode unaryNode = (UnaryNode) node;
+      return new UnaryExec(unaryNode.opCode(), convertExpression(unaryNode.getExpr()));
+    case MEM_ACCESS:
+      MemberAccessNode memberAccess = (MemberAccessNode) node;
+      if (memberAccess.isForFunction()) {
+        return convertExpression(memberAccess.getCalle());
+      }
+      return new MemberExec(memberAccess, convertExpression(memberAccess.getCalle()));
+    case FUNC_CALL:
+      MethodCallNode methodCall = (MethodCallNode) node;
+      ASTNode [] arguments = methodCall.arguments();
+      ExecNode [] convertedArgs = new ExecNode[arguments.length];
+      for(int i = 0; i < arguments.length; i++) {
+        convertedArgs[i] = convertExpression(arguments[i]);
+      }
+
+      if (methodCall.getCallee().nodeType() == NodeType.IDENTIFIER) {
+        return new CallExec(methodCall, convertedArgs);
+      }
+      return new CallOnExec(methodCall, convertExpression(methodCall.getCallee()), convertedArgs);
+    default:
+      return new InterpretedExec(node);
+    }
+  }
+
+  private ExecNode convertBinary(BinaryOpNode node) {
+    if (node.opCode() == OpCode.ASSIGN) {
+      ASTNode left = node.getLeftOperand();
+      if (left.nodeType() == NodeType.IDENTIFIER &&
+          ((IdentifierNode) left).isSlotResolved() &&
+          !((IdentifierNode) left).isConstantSlot()) {
+        IdentifierNode target = (IdentifierNode) left;
+        ExecNode value = convertExpression(node.getRightOperand());
+        if (target.slotDepth() == 0) {
+          return new LocalWriteExec(target.slotIndex(), value);
+        }
+        return new SlotWriteExec(target.slotDepth(), target.slotIndex(), value);
+      }
+      return new InterpretedExec(node);
+    }
+
+    return new BinaryExec(node, convertExpression(node.getLeftOperand()), convertExpression(node.getRightOperand()));
+  }
+
+  private static int lineOf(ASTNode node) {
+    return node.locationToken().lineNumber();
+  }
+
+  private static boolean truth(Instance value) {
+    if (value instanceof PrimitiveInstance) {
+      return ((PrimitiveInstance) value).truth();
+    }
+    return TypeChecks.getBooleanEquivalent(((JavaInstance) value).getInstance());
+  }
+
+  /*
+   * Expression nodes
+   */
+
+  private static final class ConstantExec extends ExecNode{
+    private final Instance value;
+
+    ConstantExec(Instance value) {
+      this.value = value;
+    }
+
+    public Instance execute(Frame frame, TreeContext context) {
+      return value;
+    }
+  }
+
+  private static final class LocalReadExec extends ExecNode{
+    private final int index;
+
+    LocalReadExec(int index) {
+      this.index = index;
+    }
+
+    public Instance execute(Frame frame, TreeContext context) {
+      return frame.get(index);
+    }
+  }
+
+  private static final class SlotReadExec extends ExecNode{
+    private final int depth;
+    private final int index;
+
+    SlotReadExec(int depth, int index) {
+      this.depth = depth;
+      this.index = index;
+    }
+
+    public Instance execute(Frame frame, TreeContext context) {
+      return frame.get(depth, index);
+    }
+  }
+
+  private static final class LocalWriteExec extends ExecNode{
+    private final int index;
+    private final ExecNode value;
+
+    LocalWriteExec(int index, ExecNode value) {
+      this.index = index;
+      this.value = value;
+    }
+
+    public Instance execute(Frame frame, TreeContext context) {
+      Instance result = value.execute(frame, context);
+      frame.set(index, result);
+      return result;
+    }
+  }
+
+  private static final class SlotWriteExec extends ExecNode{
+    private final int depth;
+    private final int index;
+    private final ExecNode value;
+
+    SlotWriteExec(int depth, int index, ExecNode value) {
+      this.depth = depth;
+      this.index = index;
+      this.value = value;
+    }
+
+    public Instance execute(Frame frame, TreeContext context) {
+      Instance result = value.execute(frame, context);
+      frame.set(depth, index, result);
+      return result;
+    }
+  }
+
+  private static final class BinaryExec extends ExecNode{
+    private final BinaryOpNode node;
+    private final ExecNode left;
+    private final ExecNode right;
+
+    BinaryExec(BinaryOpNode node, ExecNode left, ExecNode right) {
+      this.node = node;
+      this.left = left;
+      this.right = right;
+    }
+
+    public Instance execute(Frame frame, TreeContext context) {
+      Instance leftValue = left.execute(frame, context);
+      Instance rightValue = right.execute(frame, context);
+      return context.getVisitor().binaryOperation(node, leftValue, rightValue);
+    }
+  }
+
+  private static final class UnaryExec extends ExecNode{
+    private final OpCode operator;
+    private final ExecNode operand;
+
+    UnaryExec(OpCode operator, ExecNode operand) {
+      this.operator = operator;
+      this.operand = operand;
+    }
+
+    public Instance execute(Frame frame, TreeContext context) {
+      return Operator.performUnaryOperation((JavaInstance) operand.execute(frame, context), operator);
+    }
+  }
+
+  private static final class MemberExec extends ExecNode{
+    private final MemberAccessNode node;
+    private final ExecNode target;
+
+    MemberExec(MemberAccessNode node, ExecNode target) {
+      this.node = node;
+      this.target = target;
+    }
+
+    public Instance execute(Frame frame, TreeContext context) {
+      return context.getVisitor().retrieveMember(node, target.execute(frame, context)).getValue();
+    }
+  }
+
+  private static final class CallExec extends ExecNode{
+    private final MethodCallNode node;
+    private final ExecNode [] arguments;
+
+    CallExec(MethodCallNode node, ExecNode [] arguments) {
+      this.node = node;
+      this.arguments = arguments;
+    }
+
+    public Instance execute(Frame frame, TreeContext context) {
+      Instance [] args = new Instance[arguments.length];
+      for(int i = 0; i < args.length; i++) {
+        args[i] = arguments[i].execute(frame, context);
+      }
+      return context.getVisitor().invokeFunction(node, args);
+    }
+  }
+
+  private static final class CallOnExec extends ExecNode{
+    private final MethodCallNode node;
+    private final ExecNode target;
+    private final ExecNode [] arguments;
+
+    CallOnExec(MethodCallNode node, ExecNode target, ExecNode [] arguments) {
+      this.node = node;
+      this.target = target;
+      this.arguments = arguments;
+    }
+
+    public Instance execute(Frame frame, TreeContext context) {
+      //arguments are evaluated prior to the instance the function is called on
+      Instance [] args = new Instance[arguments.length];
+      for(int i = 0; i < args.length; i++) {
+        args[i] = arguments[i].execute(frame, context);
+      }
+      return context.getVisitor().invokeMethod(node, target.execute(frame, context), args);
+    }
+  }
+
+  private static final class InterpretedExec extends ExecNode{
+    private final ASTNode node;
+
+    InterpretedExec(ASTNode node) {
+      this.node = node;
+    }
+
+    public Instance execute(Frame frame, TreeContext context) {
+      return context.getVisitor().evaluate(node);
+    }
+  }
+
+  /*
+   * Statement nodes
+   */
+
+  private static final class BlockStatement extends ExecStatement{
+    private final ExecStatement [] statements;
+
+    BlockStatement(ExecStatement [] statements) {
+      this.statements = statements;
+    }
+
+    public int execute(Frame frame, TreeContext context) throws InvocationException {
+      for(ExecStatement statement : statements) {
+        int result = statement.execute(frame, context);
+        if (result != NORMAL_END) {
+          return result;
+        }
+      }
+      return NORMAL_END;
+    }
+  }
+
+  private static final class ExpressionStatement extends ExecStatement{
+    private final ExecNode expression;
+    private final int line;
+
+    ExpressionStatement(ExecNode expression, int line) {
+      this.expression = expression;
+      this.line = line;
+    }
+
+    public int execute(Frame frame, TreeContext context) throws InvocationException {
+      try {
+        expression.execute(frame, context);
+      } catch (CarrierInvocationException e) {
+        throw context.trace(e, line);
+      }
+      return NORMAL_END;
+    }
+  }
+
+  private static final class DeclareStatement extends ExecStatement{
+    private final int slot;
+    private final ExecNode value;
+    private final int line;
+
+    DeclareStatement(int slot, ExecNode value, int line) {
+      this.slot = slot;
+      this.value = value;
+      this.line = line;
+    }
+
+    public int execute(Frame frame, TreeContext context) throws InvocationException {
+      try {
+        frame.set(slot, value.execute(frame, context));
+      } catch (CarrierInvocationException e) {
+        throw context.trace(e, line);
+      }
+      return NORMAL_END;
+    }
+  }
+
+  private static final class ReturnStatement extends ExecStatement{
+    private final ExecNode value;
+    private final int line;
+
+    ReturnStatement(ExecNode value, int line) {
+      this.value = value;
+      this.line = line;
+    }
+
+    public int execute(Frame frame, TreeContext context) throws InvocationException {
+      if (value == null) {
+        context.setReturned(null);
+      }
+      else {
+        try {
+          context.setReturned(value.execute(frame, context));
+        } catch (CarrierInvocationException e) {
+          throw context.trace(e, line);
+        }
+      }
+      return RETURN_ENCOUNTERED;
+    }
+  }
+
+  private static final class JumpStatement extends ExecStatement{
+    private final int jump;
+
+    JumpStatement(int jump) {
+      this.jump = jump;
+    }
+
+    public int execute(Frame frame, TreeContext context) {
+      return jump;
+    }
+  }
+
+  private static final class IfStatement extends ExecStatement{
+    private final ExecNode [] conditions;
+    private final int [] lines;
+    private final ExecStatement [] bodies;
+
+    IfStatement(ExecNode [] conditions, int [] lines, ExecStatement [] bodies) {
+      this.conditions = conditions;
+      this.lines = lines;
+      this.bodies = bodies;
+    }
+
+    public int execute(Frame frame, TreeContext context) throws InvocationException {
+      for(int i = 0; i < conditions.length; i++) {
+        if (conditions[i] == null) {
+          return bodies[i].execute(frame, context);
+        }
+
+        boolean passed;
+        try {
+          passed = truth(conditions[i].execute(frame, context));
+        } catch (CarrierInvocationException e) {
+          throw context.trace(e, lines[i]);
+        }
+        if (passed) {
+          return bodies[i].execute(frame, context);
+        }
+      }
+      return NORMAL_END;
+    }
+  }
+
+  private static final class WhileStatement extends ExecStatement{
+    private final ExecNode condition;
+    private final int line;
+    private final ExecStatement body;
+
+    WhileStatement(ExecNode condition, int line, ExecStatement body) {
+      this.condition = condition;
+      this.line = line;
+      this.body = body;
+    }
+
+    public int execute(Frame frame, TreeContext context) throws InvocationException {
+      while (true) {
+        boolean passed;
+        try {
+          passed = truth(condition.execute(frame, context));
+        } catch (CarrierInvocationException e) {
+          throw context.trace(e, line);
+        }
+        if (!passed) {
+          return NORMAL_END;
+        }
+
+        int result = body.execute(frame, context);
+        if (result == RETURN_ENCOUNTERED) {
+          return result;
+        }
+        else if (result == BREAK_ENCOUNTERED) {
+          return NORMAL_END;
+        }
+      }
+    }
+  }
+
+  private static final class ForStatement extends ExecStatement{
+    private final ExecStatement init;
+    private final ExecNode check;
+    private final int checkLine;
+    private final ExecStatement change;
+    private final ExecStatement body;
+
+    ForStatement(ExecStatement init, ExecNode check, int checkLine, ExecStatement change, ExecStatement body) {
+      this.init = init;
+      this.check = check;
+      this.checkLine = checkLine;
+      this.change = change;
+      this.body = body;
+    }
+
+    public int execute(Frame frame, TreeContext context) throws InvocationException {
+      if (init != null) {
+        init.execute(frame, context);
+      }
+
+      while (true) {
+        if (check != null) {
+          boolean passed;
+          try {
+            passed = truth(check.execute(frame, context));
+          } catch (CarrierInvocationException e) {
+            throw context.trace(e, checkLine);
+          }
+          if (!passed) {
+            return NORMAL_END;
+          }
+        }
+
+        int result = body.execute(frame, context);
+        if (result == RETURN_ENCOUNTERED) {
+          return result;
+        }
+        else if (result == BREAK_ENCOUNTERED) {
+          return NORMAL_END;
+        }
+
+        if (change != null) {
+          change.execute(frame, context);
+        }
+      }
+    }
+  }
+
+  /**
+   * Thrown when a construct that can't be converted is found
+   */
+  private static class UnsupportedConstruct extends RuntimeException{
+
+    private static final long serialVersionUID = 1L;
+
+    public UnsupportedConstruct() {
+      super(null, null, false, false);
+    }
+  }
+}
@@ -0,0 +1,55 @@
+package wordy.logic.runtime.tree;
+
+import wordy.logic.runtime.components.FileInstance;
+import wordy.logic.runtime.components.Instance;
+import wordy.logic.runtime.errors.InvocationException;
+import wordy.logic.runtime.execution.GenVisitor;
+import wordy.logic.runtime.execution.GenVisitor.CarrierInvocationException;
+
+/**
+ * The state of a single invocation of a function executed by the tree engine
+ * @author Jose Guaro
+ *
+ */
+public class TreeContext {
+
+  private final GenVisitor visitor;
+  private final FileInstance currentFile;
+  private Instance returned;
+  
+  /**
+   * Constructs a TreeContext
+   * @param visitor - the GenVisitor to delegate operators, calls and property 
+   *                  access to, as well as expressions the TreeCompiler didn't convert
+   * @param currentFile - the FileInstance of the file the function is in
+   */
+  public TreeContext(GenVisitor visitor, FileInstance currentFile) {
+    this.visitor = visitor;
+    this.currentFile = currentFile;
+  }
+  
+  public void setReturned(Instance returned) {
+    this.returned = returned;
+  }
+  
+  public Instance getReturned() {
+    return returned;
+  }
+  
+  public GenVisitor getVisitor() {
+    return visitor;
+  }
+  
+  /**
+   * Registers the current file and line to the trace of an exception that
+   * passed through a statement
+   * @param carrier - the CarrierInvocationException holding the exception
+   * @param line - the line number of the statement
+   * @return the carried InvocationException, to be thrown
+   */
+  public InvocationException trace(CarrierInvocationException carrier, int line) {
+    InvocationException invocationException = carrier.getException();
+    invocationException.registerTrace(currentFile.getName(), line);
+    return invocationException;
+  }
+}
@@ -0,0 +1,54 @@
+package wordy.logic.runtime.tree;
+
+import wordy.logic.compile.structure.Statement;
+import wordy.logic.compile.structure.Variable;
+import wordy.logic.runtime.Frame;
+import wordy.logic.runtime.RuntimeTable;
+import wordy.logic.runtime.WordyRuntime;
+import wordy.logic.runtime.components.FileInstance;
+import wordy.logic.runtime.components.Instance;
+import wordy.logic.runtime.errors.InvocationException;
+import wordy.logic.runtime.execution.FunctionMember;
+import wordy.logic.runtime.execution.GenVisitor;
+
+/**
+ * Represents a function whose body was converted by the TreeCompiler
+ * @author Jose Guaro
+ *
+ */
+public class TreeFunctionMember extends FunctionMember{
+
+  private final ExecStatement body;
+  private final int [] parameterSlots;
+  
+  public TreeFunctionMember(String name, 
+                            int argumentAmnt, 
+                            WordyRuntime runtime, 
+                            FileInstance currentFile, 
+                            int frameSize,
+                            ExecStatement body,
+                            Statement ... statements) {
+    super(name, argumentAmnt, runtime, currentFile, frameSize, statements);
+    this.body = body;
+    this.parameterSlots = new int[argumentAmnt];
+    for(int i = 0; i < argumentAmnt; i++) {
+      parameterSlots[i] = ((Variable) statements[i]).getSlot();
+    }
+  }
+  
+  public Instance call(GenVisitor visitor, RuntimeTable table, Instance ... args) throws InvocationException{
+    table.addFuncMap(currentFile.getDefinition().getFunctions());
+    
+    Frame frame = new Frame(frameSize, currentFile.getDefinition().getFileFrame());
+    for(int i = 0; i < parameterSlots.length; i++) {
+      frame.set(parameterSlots[i], args[i]);
+    }
+    
+    visitor = visitor.child(table, frame, currentFile);
+    TreeContext context = new TreeContext(visitor, currentFile);
+    if (body.execute(frame, context) == ExecStatement.RETURN_ENCOUNTERED) {
+      return context.getReturned();
+    }
+    return null;
+  }
+}
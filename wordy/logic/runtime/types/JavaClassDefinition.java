@@ -4,12 +4,19 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import wordy.logic.common.FunctionKey;
+import wordy.logic.runtime.VariableMember;
 import wordy.logic.runtime.components.JavaInstance;
 import wordy.logic.runtime.components.JavaVariableMember;
 import wordy.logic.runtime.execution.Callable;
@@ -28,7 +35,10 @@ public class JavaClassDefinition extends TypeDefinition{
   public final static JavaClassDefinition OBJECT;
 */
   
-  private static HashMap<Class<?>, JavaClassDefinition> mappedClasses = new HashMap<>();
+  /*
+   * Classes are defined on demand while executing, possibly by multiple threads at once.
+   */
+  private static ConcurrentHashMap<Class<?>, JavaClassDefinition> mappedClasses = new ConcurrentHashMap<>();
   
   /*
   static {
@@ -51,18 +61,33 @@ public class JavaClassDefinition extends TypeDefinition{
   }
   */
   
-  private JavaInstance staticRep;
+  private volatile JavaInstance staticRep;
   private Class<?> respClass;
-  private List<JavaClassDefinition> interfaces;
+  private volatile List<JavaClassDefinition> interfaces;
+  
+  /*
+   * Members are only reflected on when first looked up. Names that were looked up,
+   * but that this class doesn't have, are kept so they're not reflected on again.
+   */
+  private Set<FunctionKey> missingFunctions;
+  private Set<String> missingFields;
+  private volatile boolean functionsBound;
+  private volatile boolean constructorsBound;
+  
+  private Map<String, VariableMember> fieldTable; //read-only view of fields, shared by all JavaInstances of this class
+  private Map<String, VariableMember> staticFieldTable; //read-only view of static fields, for the static rep. of this class
   
   protected JavaClassDefinition(Class<?> respClass) {
-    super(respClass.getName());
+    super(respClass.getName(), 
+          null, 
+          new ConcurrentHashMap<String, VariableMember>(), 
+          new ConcurrentHashMap<FunctionKey, List<Callable>>(), 
+          new HashMap<Integer, FunctionMember>());
     this.respClass = respClass;
-    interfaces = new ArrayList<>();
-    
-    if (respClass.equals(Object.class)) {
-      parent = null;
-    }
+    missingFunctions = Collections.newSetFromMap(new ConcurrentHashMap<FunctionKey, Boolean>());
+    missingFields = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    fieldTable = new FieldTable(false);
+    staticFieldTable = new FieldTable(true);
   }
   
   public boolean isChildOf(TypeDefinition definition) {
@@ -81,7 +106,7 @@ public class JavaClassDefinition extends TypeDefinition{
       }
     }
     
-    for(JavaClassDefinition interDef : interfaces) {
+    for(JavaClassDefinition interDef : getInterfaces()) {
       if (interDef.isChildOf(definition)) {
         return true;
       }
@@ -89,6 +114,65 @@ public class JavaClassDefinition extends TypeDefinition{
     return false;
   }
   
+  public List<Callable> findFunction(FunctionKey key) {
+    List<Callable> found = functions.get(key);
+    if (found == null && !missingFunctions.contains(key)) {
+      found = bindFunction(key);
+    }
+    
+    if (found != null) {
+      return found;
+    }
+    else if (parent == null) {
+      return null;
+    }
+    return parent.findFunction(key);
+  }
+  
+  public VariableMember findVariable(String name) {
+    VariableMember found = bindField(name);
+    if (found != null) {
+      return found;
+    }
+    else if (parent == null) {
+      return null;
+    }
+    return parent.findVariable(name);
+  }
+  
+  /**
+   * Retrieves the functions of this Java class, binding all of them first
+   * @return a read-only view of this class's function map. 
+   *         The same view is returned on every call.
+   */
+  public Map<FunctionKey, List<Callable>> getFunctions() {
+    if (!functionsBound) {
+      for(Constructor<?> constructor : respClass.getConstructors()) {
+        findFunction(new FunctionKey(respClass.getSimpleName(), constructor.getParameterCount()));
+      }
+      for(Method method : respClass.getMethods()) {
+        findFunction(new FunctionKey(method.getName(), method.getParameterCount()));
+      }
+      functionsBound = true;
+    }
+    return super.getFunctions();
+  }
+  
+  public Map<String, VariableMember> getVariables(){
+    return new LinkedHashMap<>(fieldTable);
+  }
+  
+  public FunctionMember findConstructor(int argc) {
+    return getConstructors().get(argc);
+  }
+  
+  public Map<Integer, FunctionMember> getConstructors(){
+    if (!constructorsBound) {
+      bindConstructors();
+    }
+    return constructors;
+  }
+  
   public boolean equals(Object object) {
     if (object instanceof JavaClassDefinition) {
       JavaClassDefinition toCheck = (JavaClassDefinition) object;
@@ -117,6 +201,24 @@ public class JavaClassDefinition extends TypeDefinition{
     return respClass.getSimpleName();
   }
   
+  /**
+   * Retrieves the fields of this Java class
+   * @return a read-only view of this class's field map. 
+   *         The same view is returned on every call.
+   */
+  public Map<String, VariableMember> getFieldTable() {
+    return fieldTable;
+  }
+  
+  /**
+   * Retrieves the static fields of this Java class
+   * @return a read-only view of this class's static fields. 
+   *         The same view is returned on every call.
+   */
+  public Map<String, VariableMember> getStaticFieldTable() {
+    return staticFieldTable;
+  }
+  
   public JavaInstance getStaticRep() {
     return staticRep;
   }
@@ -126,56 +228,140 @@ public class JavaClassDefinition extends TypeDefinition{
   }
   
   public static JavaClassDefinition defineClass(Class<?> respClass) {
-    if (mappedClasses.containsKey(respClass)) {
-      return mappedClasses.get(respClass);
+    JavaClassDefinition existing = mappedClasses.get(respClass);
+    if (existing != null) {
+      return existing;
     }
     else {
       JavaClassDefinition definition = new JavaClassDefinition(respClass);
-
-      for(Constructor<?> constructor: respClass.getConstructors()) {
-        JavaCallable callable = new JavaCallable(constructor);
-        FunctionKey functionKey = new FunctionKey(callable.getName(), callable.requiredArgs()); 
-        if (definition.functions.containsKey(functionKey)) {
-          List<Callable> sameFuncKeys = definition.functions.get(functionKey);
-          sameFuncKeys.add(callable);
-        }
-        else {
-          definition.functions.put(functionKey, new ArrayList<Callable>(Arrays.asList(callable)));
-        }
-        
-        //adds constructor callable to separate list
-        definition.constructors.put(callable.requiredArgs(), callable);
+      if (respClass.getSuperclass() != null) {
+        definition.parent = defineClass(respClass.getSuperclass());
       }
 
-      for(Method method : respClass.getMethods()) {
-        JavaCallable callable = new JavaCallable(method);
-        FunctionKey functionKey = new FunctionKey(callable.getName(), callable.requiredArgs()); 
-        if (definition.functions.containsKey(functionKey)) {
-          List<Callable> sameFuncKeys = definition.functions.get(functionKey);
-          sameFuncKeys.add(callable);
-        }
-        else {
-          definition.functions.put(functionKey, new ArrayList<Callable>(Arrays.asList(callable)));
+      //if another thread defined the class in the meantime, use its definition
+      existing = mappedClasses.putIfAbsent(respClass, definition);
+      return existing == null ? definition : existing;
+    }
+  }
+
+  /**
+   * Binds the public methods (and constructors) of this class with the given name and argument count
+   * @param key - the FunctionKey of the methods
+   * @return the bound methods, or null if this class has none
+   */
+  private List<Callable> bindFunction(FunctionKey key) {
+    ArrayList<Callable> found = new ArrayList<>(1);
+    if (key.name.equals(respClass.getSimpleName())) {
+      for(Constructor<?> constructor : respClass.getConstructors()) {
+        if (constructor.getParameterCount() == key.argAmnt) {
+          found.add(new JavaCallable(constructor));
         }
-        //System.out.println("  ***PLACING METHOD: "+callable.getName()+" | "+callable.requiredArgs());
       }
-
-      for(Field field : respClass.getFields()) {
-        JavaVariableMember varMem = new JavaVariableMember(field, definition);
-        definition.variables.put(field.getName(), varMem);
+    }
+    
+    for(Method method : respClass.getMethods()) {
+      if (method.getParameterCount() == key.argAmnt && method.getName().equals(key.name)) {
+        found.add(new JavaCallable(method));
+        //System.out.println("  ***PLACING METHOD: "+method.getName()+" | "+key.argAmnt);
       }
-
-
-      if (respClass.getSuperclass() != null) {
-        definition.parent = defineClass(respClass.getSuperclass());
+    }
+    
+    if (found.isEmpty()) {
+      missingFunctions.add(key);
+      return null;
+    }
+    
+    //if another thread bound the methods in the meantime, use its methods
+    List<Callable> existing = functions.putIfAbsent(key, found);
+    return existing == null ? found : existing;
+  }
+  
+  /**
+   * Binds the public field of this class with the given name
+   * @param name - the name of the field
+   * @return the bound field, or null if this class has none
+   */
+  private VariableMember bindField(String name) {
+    VariableMember found = variables.get(name);
+    if (found != null || missingFields.contains(name)) {
+      return found;
+    }
+    
+    try {
+      found = new JavaVariableMember(respClass.getField(name), this);
+    } catch (NoSuchFieldException e) {
+      missingFields.add(name);
+      return null;
+    }
+    
+    VariableMember existing = variables.putIfAbsent(name, found);
+    return existing == null ? found : existing;
+  }
+  
+  private synchronized void bindConstructors() {
+    if (constructorsBound) {
+      return;
+    }
+    
+    for(Constructor<?> constructor: respClass.getConstructors()) {
+      JavaCallable callable = new JavaCallable(constructor);
+      constructors.put(callable.requiredArgs(), callable);
+    }
+    constructorsBound = true;
+  }
+  
+  private List<JavaClassDefinition> getInterfaces() {
+    List<JavaClassDefinition> defined = interfaces;
+    if (defined == null) {
+      Class<?> [] inters = respClass.getInterfaces();
+      JavaClassDefinition [] interDefs = new JavaClassDefinition[inters.length];
+      for(int i = 0; i < inters.length; i++) {
+        interDefs[i] = defineClass(inters[i]);
       }
-
-      for(Class<?> inter : respClass.getInterfaces()) {
-        definition.interfaces.add(defineClass(inter));
+      defined = Arrays.asList(interDefs);
+      interfaces = defined;
+    }
+    return defined;
+  }
+  
+  /**
+   * The fields of a Java class, bound as they're looked up. 
+   * 
+   * Iterating over the table binds all fields first.
+   */
+  private class FieldTable extends AbstractMap<String, VariableMember>{
+    
+    private final boolean staticOnly;
+    
+    private FieldTable(boolean staticOnly) {
+      this.staticOnly = staticOnly;
+    }
+    
+    public VariableMember get(Object key) {
+      if (key instanceof String == false) {
+        return null;
       }
+      
+      VariableMember found = bindField((String) key);
+      if (found == null || (staticOnly && !((JavaVariableMember) found).isStatic())) {
+        return null;
+      }
+      return found;
+    }
+    
+    public boolean containsKey(Object key) {
+      return get(key) != null;
+    }
 
-      mappedClasses.put(respClass, definition);
-      return definition;
+    public Set<Entry<String, VariableMember>> entrySet() {
+      LinkedHashMap<String, VariableMember> fields = new LinkedHashMap<>();
+      for(Field field : respClass.getFields()) {
+        VariableMember member = get(field.getName());
+        if (member != null) {
+          fields.put(field.getName(), member);
+        }
+      }
+      return Collections.unmodifiableMap(fields).entrySet();
     }
   }
 }
@@ -3,6 +3,7 @@ package wordy.logic.runtime.types;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -38,12 +39,14 @@ public class TypeDefinition{
     
   protected Map<String, VariableMember> variables;
   protected Map<FunctionKey, List<Callable>> functions;
+  private Map<FunctionKey, List<Callable>> functionsView; //read-only view of functions, shared with RuntimeTables
   protected Map<Integer, FunctionMember> constructors; //constructors mapped by the amount of arguments they accept
   protected TypeDefinition parent;
     
   protected String name;
   
   private ClassStruct struct;
+  private WordyRuntime runtime; //the runtime a Wordy class is linked in. Null for Java classes
   
   protected TypeDefinition(String name,
                            TypeDefinition parent,
@@ -53,6 +56,7 @@ public class TypeDefinition{
     this.name = name;
     this.variables = variables;
     this.functions = functions;
+    this.functionsView = Collections.unmodifiableMap(functions);
     this.parent = parent;
     this.constructors = constructors;
   }
@@ -96,6 +100,7 @@ public class TypeDefinition{
     }
     
     //System.out.println("IS NULL? "+(parent == null)+" "+(getAttachedStruct() == null)+" | "+getClass().getName()+" | "+key+" | "+name);
+    TypeDefinition parent = getParent();
     if (parent == null) {
       /**
        * In case function searches reach all the way to java.lang.Object. 
@@ -110,6 +115,7 @@ public class TypeDefinition{
       return variables.get(name);
     }
     
+    TypeDefinition parent = getParent();
     if (parent == null) {
       /**
        * In case function searches reach all the way to java.lang.Object. 
@@ -119,8 +125,13 @@ public class TypeDefinition{
     return parent.findVariable(name);
   }
   
+  /**
+   * Retrieves the functions of this TypeDefinition
+   * @return a read-only view of this TypeDefinition's function map. 
+   *         The same view is returned on every call.
+   */
   public Map<FunctionKey, List<Callable>> getFunctions() {
-    return new HashMap<>(functions);
+    return functionsView;
   }
   
   public Map<String, VariableMember> getVariables(){
@@ -131,10 +142,36 @@ public class TypeDefinition{
     return constructors;
   }
   
+  /**
+   * Retrieves the class this TypeDefinition extends.
+   * 
+   * A Wordy class is linked to its parent by the program published in its WordyRuntime 
+   * (see WordyRuntime.parentOf()), so a swap relinks it along with every other class, all at once. 
+   * Once its file is replaced, it keeps the parent it was last linked to.
+   * @return the parent of this TypeDefinition, or null if it isn't linked yet
+   */
   public TypeDefinition getParent() {
+    if (runtime != null) {
+      TypeDefinition linked = runtime.parentOf(this);
+      if (linked != null) {
+        return linked;
+      }
+    }
     return parent;
   }
   
+  /**
+   * Keeps the parent this TypeDefinition was last linked to, once its file is replaced 
+   * and it's no longer part of the program published in its runtime. 
+   * 
+   * This doesn't change what getParent() returns: it must be invoked before the program 
+   * without this TypeDefinition is published
+   * @param parent - the parent this TypeDefinition is linked to in the published program
+   */
+  public void retire(TypeDefinition parent) {
+    this.parent = parent;
+  }
+  
   public boolean isAnInterface() {
     return false;
   }
@@ -153,6 +190,7 @@ public class TypeDefinition{
    * @return 
    */
   public boolean isChildOf(TypeDefinition definition) {
+    TypeDefinition parent = getParent();
     return (equals(definition) || parent.equals(definition) || parent.isChildOf(definition));
   }
   
@@ -167,6 +205,7 @@ public class TypeDefinition{
                                                    FileInstance currentFile) {
     TypeDefinition definition = new TypeDefinition(struct.getFullName());
     definition.attchClassStruct(struct);
+    definition.runtime = runtime;
     
     for(Variable member: struct.getVariables()) {
       VariableMember mem = new VariableMember(member.getName().content(), 
@@ -188,16 +227,13 @@ public class TypeDefinition{
                                                  function.getStatements(), 
                                                  definition, 
                                                  currentFile, 
-                                                 runtime);
+                                                 runtime,
+                                                 function.frameSize());
         definition.constructors.put(functionMember.requiredArgs(), functionMember);
         constructorFound = true;
       }
       else {
-        functionMember = new FunctionMember(function.getName().content(), 
-                                            argc, 
-                                            runtime,
-                                            currentFile,
-                                            function.getStatements());
+        functionMember = runtime.createFunction(function, currentFile);
       }
       definition.functions.put(new FunctionKey(funcName, argc), Arrays.asList(functionMember));
     }
@@ -211,7 +247,8 @@ public class TypeDefinition{
                                                                 new Statement[0], 
                                                                 definition, 
                                                                 currentFile, 
-                                                                runtime);
+                                                                runtime,
+                                                                0);
       FunctionKey functionKey = new FunctionKey(defaultCons.getName(), defaultCons.requiredArgs());
       definition.functions.put(functionKey, Arrays.asList(defaultCons));
       definition.constructors.put(defaultCons.requiredArgs(), defaultCons);
@@ -221,7 +258,14 @@ public class TypeDefinition{
     return definition;
   }
   
-  public static void includeInhertianceInfo(WordyRuntime runtime, TypeDefinition definition, FileInstance current) {
+  /**
+   * Finds the TypeDefinition a class extends, without linking the two
+   * @param runtime - the WordyRuntime the class is in
+   * @param definition - the TypeDefinition of the class
+   * @param current - the FileInstance of the file the class is in
+   * @return the parent of the class (java.lang.Object, if it doesn't extend anything)
+   */
+  public static TypeDefinition findParent(WordyRuntime runtime, TypeDefinition definition, FileInstance current) {
     //System.out.println("------!FOR CLASS: "+definition.getName()+"!--------");
     ClassStruct originalStruct = definition.getAttachedStruct();
     
@@ -288,9 +332,8 @@ public class TypeDefinition{
       }
     }
     
-    //set found parent to definition's parent
     //System.out.println("----PARENT FOUND? "+parent+" | "+Arrays.toString(originalStruct.getParentClass()));
-    definition.parent = parent;
+    return parent;
   }
   
 }
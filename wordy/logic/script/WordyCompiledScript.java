@@ -0,0 +1,101 @@
+package wordy.logic.script;
+
+import java.util.List;
+
+import javax.script.Bindings;
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
+import javax.script.ScriptEngine;
+import javax.script.ScriptException;
+
+import wordy.logic.runtime.WordyRuntime;
+import wordy.logic.runtime.components.JavaInstance;
+import wordy.logic.runtime.errors.FatalInternalException;
+import wordy.logic.runtime.errors.InvocationException;
+import wordy.logic.runtime.execution.Callable;
+
+/**
+ * A Wordy script compiled by a WordyScriptEngine, ready to be evaluated.
+ *
+ * It holds the initialized WordyRuntime of the script, so each evaluation only invokes
+ * the script's main function (in a frame of its own, like any other invocation).
+ *
+ * @author Jose Guaro
+ *
+ */
+public class WordyCompiledScript extends CompiledScript{
+
+  private final WordyScriptEngine scriptEngine;
+  private final WordyRuntime runtime;
+  private final String fileName;
+  private final int mainArgc; //1 if main takes the bindings, 0 if it takes nothing
+
+  /**
+   * Constructs a WordyCompiledScript
+   * @param scriptEngine - the WordyScriptEngine that compiled the script
+   * @param runtime - the WordyRuntime initialized with the script
+   * @param fileName - the file name the script was compiled as
+   * @throws ScriptException - if the script has no main function taking one or no arguments
+   */
+  WordyCompiledScript(WordyScriptEngine scriptEngine, WordyRuntime runtime, String fileName) throws ScriptException {
+    this.scriptEngine = scriptEngine;
+    this.runtime = runtime;
+    this.fileName = fileName;
+
+    if (hasMain(1)) {
+      mainArgc = 1;
+    }
+    else if (hasMain(0)) {
+      mainArgc = 0;
+    }
+    else {
+      throw new ScriptException("The script doesn't contain a main function that takes in one or no arguments", fileName, -1);
+    }
+  }
+
+  /**
+   * Invokes the main function of the script
+   * @param context - the ScriptContext whose ENGINE_SCOPE Bindings are passed to main
+   * @return the return value of main (unwrapped, if it's a Java object), or null if no return
+   * @throws ScriptException - if main threw an exception, or the script had an unrecoverable error
+   */
+  public Object eval(ScriptContext context) throws ScriptException {
+    try {
+      if (mainArgc == 1) {
+        Bindings bindings = context.getBindings(ScriptContext.ENGINE_SCOPE);
+        return runtime.invoke(fileName, 1, JavaInstance.wrapInstance(bindings));
+      }
+      return runtime.invoke(fileName, 0);
+    } catch (InvocationException e) {
+      ScriptException exception = new ScriptException(e.getMessage(), fileName, -1);
+      exception.initCause(e);
+      throw exception;
+    } catch (FatalInternalException e) {
+      ScriptException exception = new ScriptException(e.getMessage(), fileName, e.getLineNumber());
+      exception.initCause(e);
+      throw exception;
+    } catch (RuntimeException e) {
+      //Like: calling a function that doesn't exist
+      ScriptException exception = new ScriptException(e.getMessage(), fileName, -1);
+      exception.initCause(e);
+      throw exception;
+    }
+  }
+
+  public ScriptEngine getEngine() {
+    return scriptEngine;
+  }
+
+  /**
+   * Retrieves the WordyRuntime the script runs in (Like: to swap in a new version of the script)
+   * @return the WordyRuntime of the script
+   */
+  public WordyRuntime getRuntime() {
+    return runtime;
+  }
+
+  private boolean hasMain(int argc) {
+    List<Callable> main = runtime.findFile(fileName).getDefinition().findFunction("main", argc);
+    return main != null && main.isEmpty() == false;
+  }
+}
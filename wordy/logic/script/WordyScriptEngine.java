@@ -0,0 +1,138 @@
+package wordy.logic.script;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Collections;
+
+import javax.script.AbstractScriptEngine;
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
+import javax.script.ScriptEngineFactory;
+import javax.script.ScriptException;
+import javax.script.SimpleBindings;
+
+import wordy.logic.compile.WordyCompiler;
+import wordy.logic.compile.structure.FileStructure;
+import wordy.logic.runtime.ExecutionEngine;
+import wordy.logic.runtime.WordyRuntime;
+
+/**
+ * A JSR-223 ScriptEngine for Wordy.
+ *
+ * A script is the source code of a single Wordy file, run by invoking its main function.
+ * If main takes an argument, it's given the ENGINE_SCOPE Bindings of the ScriptContext
+ * the script is evaluated in (Like: args.get("name") ), and its return value is the result of the evaluation.
+ *
+ * compile() forms, verifies and initializes a script once, in a WordyRuntime of its own. The
+ * returned CompiledScript can then be evaluated any amount of times, from any thread, without
+ * compiling it again - each evaluation only invokes main. File-level variables are initialized
+ * once, on compile(), and shared by all evaluations of the script.
+ *
+ * The script is compiled as a file named after the ScriptEngine.FILENAME attribute (without its extension),
+ * or "Script" if there's none. It can only use Java classes, not other Wordy files.
+ *
+ * @author Jose Guaro
+ *
+ */
+public class WordyScriptEngine extends AbstractScriptEngine implements Compilable{
+
+  /**
+   * The file name scripts are compiled as, if not set through ScriptEngine.FILENAME
+   */
+  public static final String DEFAULT_FILE_NAME = "Script";
+
+  private final WordyScriptEngineFactory factory;
+  private final ExecutionEngine engine;
+
+  /**
+   * Constructs a WordyScriptEngine
+   * @param factory - the factory that created this engine
+   * @param engine - the ExecutionEngine to execute scripts with
+   */
+  public WordyScriptEngine(WordyScriptEngineFactory factory, ExecutionEngine engine) {
+    this.factory = factory;
+    this.engine = engine;
+  }
+
+  public CompiledScript compile(String script) throws ScriptException {
+    return compile(script, fileName(context));
+  }
+
+  public CompiledScript compile(Reader script) throws ScriptException {
+    return compile(read(script));
+  }
+
+  public Object eval(String script, ScriptContext context) throws ScriptException {
+    //the file name is taken from the given context, as this engine's own context may be shared by other threads
+    return compile(script, fileName(context)).eval(context);
+  }
+
+  public Object eval(Reader reader, ScriptContext context) throws ScriptException {
+    return eval(read(reader), context);
+  }
+
+  public Bindings createBindings() {
+    return new SimpleBindings();
+  }
+
+  public ScriptEngineFactory getFactory() {
+    return factory;
+  }
+
+  /**
+   * Forms, verifies and initializes a script in a WordyRuntime of its own
+   * @param script - the source code of the script
+   * @param fileName - the file name to compile the script as
+   * @return the compiled script
+   * @throws ScriptException - if the script can't be compiled or initialized
+   */
+  private CompiledScript compile(String script, String fileName) throws ScriptException {
+    try {
+      FileStructure structure = WordyCompiler.compileSource(fileName, script);
+
+      WordyRuntime runtime = new WordyRuntime(engine);
+      runtime.initialize(Collections.singletonMap(fileName, structure));
+      return new WordyCompiledScript(this, runtime, fileName);
+    } catch (RuntimeException e) {
+      //Like: a parse error, an unknown import, or a class whose parent can't be found
+      ScriptException exception = new ScriptException(e.getMessage(), fileName, -1);
+      exception.initCause(e);
+      throw exception;
+    }
+  }
+
+  /**
+   * Retrieves the file name a script is compiled as in the given context
+   * @param context - the ScriptContext the script is compiled in
+   * @return the file name
+   */
+  private static String fileName(ScriptContext context) {
+    Object attribute = context.getAttribute(FILENAME);
+    if (attribute == null) {
+      return DEFAULT_FILE_NAME;
+    }
+
+    String name = attribute.toString();
+    name = name.substring(Math.max(name.lastIndexOf('/'), name.lastIndexOf('\\')) + 1);
+    if (name.indexOf('.') >= 0) {
+      name = name.substring(0, name.indexOf('.'));
+    }
+    return name.isEmpty() ? DEFAULT_FILE_NAME : name;
+  }
+
+  private static String read(Reader reader) throws ScriptException {
+    StringBuilder builder = new StringBuilder();
+    char [] buffer = new char[4096];
+    try {
+      int read = 0;
+      while ((read = reader.read(buffer)) != -1) {
+        builder.append(buffer, 0, read);
+      }
+    } catch (IOException e) {
+      throw new ScriptException(e);
+    }
+    return builder.toString();
+  }
+}
@@ -0,0 +1,125 @@
+package wordy.logic.script;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineFactory;
+
+import wordy.logic.compile.WordyCompiler;
+import wordy.logic.runtime.ExecutionEngine;
+
+/**
+ * The JSR-223 factory of WordyScriptEngines.
+ *
+ * It's registered in META-INF/services, so a ScriptEngineManager finds Wordy by the
+ * name "wordy", the extension "w" or the MIME type "text/x-wordy".
+ *
+ * @author Jose Guaro
+ *
+ */
+public class WordyScriptEngineFactory implements ScriptEngineFactory{
+
+  private static final List<String> NAMES = Collections.unmodifiableList(Arrays.asList("wordy", "Wordy"));
+  private static final List<String> EXTENSIONS = Collections.singletonList("w");
+  private static final List<String> MIME_TYPES = Collections.singletonList("text/x-wordy");
+
+  private final ExecutionEngine engine;
+
+  public WordyScriptEngineFactory() {
+    this(ExecutionEngine.INTERPRETER);
+  }
+
+  /**
+   * Constructs a WordyScriptEngineFactory
+   * @param engine - the ExecutionEngine the scripts of its ScriptEngines execute with
+   */
+  public WordyScriptEngineFactory(ExecutionEngine engine) {
+    this.engine = engine;
+  }
+
+  public String getEngineName() {
+    return "Wordy";
+  }
+
+  public String getEngineVersion() {
+    return String.valueOf(WordyCompiler.WORDY_VERSION);
+  }
+
+  public List<String> getExtensions() {
+    return EXTENSIONS;
+  }
+
+  public List<String> getMimeTypes() {
+    return MIME_TYPES;
+  }
+
+  public List<String> getNames() {
+    return NAMES;
+  }
+
+  public String getLanguageName() {
+    return "Wordy";
+  }
+
+  public String getLanguageVersion() {
+    return String.valueOf(WordyCompiler.WORDY_VERSION);
+  }
+
+  public Object getParameter(String key) {
+    if (key.equals(ScriptEngine.ENGINE)) {
+      return getEngineName();
+    }
+    else if (key.equals(ScriptEngine.ENGINE_VERSION)) {
+      return getEngineVersion();
+    }
+    else if (key.equals(ScriptEngine.NAME)) {
+      return NAMES.get(0);
+    }
+    else if (key.equals(ScriptEngine.LANGUAGE)) {
+      return getLanguageName();
+    }
+    else if (key.equals(ScriptEngine.LANGUAGE_VERSION)) {
+      return getLanguageVersion();
+    }
+    else if (key.equals("THREADING")) {
+      //scripts may be evaluated from multiple threads at once, but share their file-level variables
+      return "MULTITHREADED";
+    }
+    return null;
+  }
+
+  public String getMethodCallSyntax(String obj, String m, String... args) {
+    StringBuilder builder = new StringBuilder(obj).append('.').append(m).append('(');
+    for(int i = 0; i < args.length; i++) {
+      if (i > 0) {
+        builder.append(", ");
+      }
+      builder.append(args[i]);
+    }
+    return builder.append(')').toString();
+  }
+
+  /**
+   * String literals have no escape sequences, so toDisplay can't hold a double quote
+   */
+  public String getOutputStatement(String toDisplay) {
+    return "println(\""+toDisplay+"\")";
+  }
+
+  /**
+   * Statements can only be in functions, so the program is a main function holding them
+   */
+  public String getProgram(String... statements) {
+    StringBuilder builder = new StringBuilder("function main(args){\n");
+    for(String statement : statements) {
+      builder.append("  ").append(statement).append(";\n");
+    }
+    return builder.append("}\n").toString();
+  }
+
+  public ScriptEngine getScriptEngine() {
+    return new WordyScriptEngine(this, engine);
+  }
+}